@@ -9,4 +9,320 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
  * See {@link tech.jhipster.config.JHipsterProperties} for a good example.
  */
 @ConfigurationProperties(prefix = "application", ignoreUnknownFields = false)
-public class ApplicationProperties {}
+public class ApplicationProperties {
+
+    private final Assignment assignment = new Assignment();
+
+    private final Cache cache = new Cache();
+
+    private final CsvImport csvImport = new CsvImport();
+
+    private final SearchOutbox searchOutbox = new SearchOutbox();
+
+    private final Reindex reindex = new Reindex();
+
+    private final SearchIndex searchIndex = new SearchIndex();
+
+    private final Search search = new Search();
+
+    public Assignment getAssignment() {
+        return assignment;
+    }
+
+    public Cache getCache() {
+        return cache;
+    }
+
+    public CsvImport getCsvImport() {
+        return csvImport;
+    }
+
+    public SearchOutbox getSearchOutbox() {
+        return searchOutbox;
+    }
+
+    public Reindex getReindex() {
+        return reindex;
+    }
+
+    public SearchIndex getSearchIndex() {
+        return searchIndex;
+    }
+
+    public Search getSearch() {
+        return search;
+    }
+
+    public static class Assignment {
+
+        /**
+         * Number of residents written (and indexed) per flush when committing a batch assignment.
+         */
+        private int batchSize = 500;
+
+        /**
+         * Number of residents solved together by the matching algorithm; larger windows give better
+         * global assignments at a cubic cost.
+         */
+        private int solveWindow = 256;
+
+        /**
+         * Number of in-process locks serializing assignments, striped by room id.
+         */
+        private int lockStripes = 64;
+
+        /**
+         * Number of times an assignment failing on an optimistic lock is attempted before giving up.
+         */
+        private int maxAttempts = 3;
+
+        /**
+         * Number of assignment events of a room between two snapshots, bounding the events replayed by history queries.
+         */
+        private int snapshotInterval = 100;
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public int getSolveWindow() {
+            return solveWindow;
+        }
+
+        public void setSolveWindow(int solveWindow) {
+            this.solveWindow = solveWindow;
+        }
+
+        public int getLockStripes() {
+            return lockStripes;
+        }
+
+        public void setLockStripes(int lockStripes) {
+            this.lockStripes = lockStripes;
+        }
+
+        public int getMaxAttempts() {
+            return maxAttempts;
+        }
+
+        public void setMaxAttempts(int maxAttempts) {
+            this.maxAttempts = maxAttempts;
+        }
+
+        public int getSnapshotInterval() {
+            return snapshotInterval;
+        }
+
+        public void setSnapshotInterval(int snapshotInterval) {
+            this.snapshotInterval = snapshotInterval;
+        }
+    }
+
+    public static class CsvImport {
+
+        /**
+         * Number of CSV rows validated together and written in one transaction.
+         */
+        private int chunkSize = 500;
+
+        public int getChunkSize() {
+            return chunkSize;
+        }
+
+        public void setChunkSize(int chunkSize) {
+            this.chunkSize = chunkSize;
+        }
+    }
+
+    public static class SearchOutbox {
+
+        /**
+         * Number of outbox entries indexed together, in one bulk request per entity type.
+         */
+        private int batchSize = 500;
+
+        /**
+         * When the search indexer drains the outbox; {@code -} disables the schedule.
+         */
+        private String cron = "* * * * * *";
+
+        /**
+         * Number of seconds before an entry whose indexing failed is attempted again, doubled on every new failure.
+         */
+        private long initialBackoffSeconds = 1;
+
+        /**
+         * Maximum number of seconds between two attempts at indexing an entry.
+         */
+        private long maxBackoffSeconds = 300;
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public String getCron() {
+            return cron;
+        }
+
+        public void setCron(String cron) {
+            this.cron = cron;
+        }
+
+        public long getInitialBackoffSeconds() {
+            return initialBackoffSeconds;
+        }
+
+        public void setInitialBackoffSeconds(long initialBackoffSeconds) {
+            this.initialBackoffSeconds = initialBackoffSeconds;
+        }
+
+        public long getMaxBackoffSeconds() {
+            return maxBackoffSeconds;
+        }
+
+        public void setMaxBackoffSeconds(long maxBackoffSeconds) {
+            this.maxBackoffSeconds = maxBackoffSeconds;
+        }
+    }
+
+    public static class Reindex {
+
+        /**
+         * Number of id ranges of a table read and written to the new index in parallel.
+         */
+        private int threads = 4;
+
+        /**
+         * Number of ids per range, each range being read through one cursor and committed as done once written.
+         */
+        private long partitionSize = 10000;
+
+        /**
+         * Number of bytes of documents sent per bulk request.
+         */
+        private long bulkBytes = 5 * 1024 * 1024;
+
+        public int getThreads() {
+            return threads;
+        }
+
+        public void setThreads(int threads) {
+            this.threads = threads;
+        }
+
+        public long getPartitionSize() {
+            return partitionSize;
+        }
+
+        public void setPartitionSize(long partitionSize) {
+            this.partitionSize = partitionSize;
+        }
+
+        public long getBulkBytes() {
+            return bulkBytes;
+        }
+
+        public void setBulkBytes(long bulkBytes) {
+            this.bulkBytes = bulkBytes;
+        }
+    }
+
+    public static class SearchIndex {
+
+        /**
+         * Whether the indices are created, or reindexed into indices of the current mapping version, when the application
+         * starts.
+         */
+        private boolean migrateAtStartup = true;
+
+        public boolean isMigrateAtStartup() {
+            return migrateAtStartup;
+        }
+
+        public void setMigrateAtStartup(boolean migrateAtStartup) {
+            this.migrateAtStartup = migrateAtStartup;
+        }
+    }
+
+    public static class Search {
+
+        /**
+         * Number of hits of a search counted exactly; beyond it, the total given is a lower bound.
+         */
+        private int trackTotalHitsUpTo = 10000;
+
+        public int getTrackTotalHitsUpTo() {
+            return trackTotalHitsUpTo;
+        }
+
+        public void setTrackTotalHitsUpTo(int trackTotalHitsUpTo) {
+            this.trackTotalHitsUpTo = trackTotalHitsUpTo;
+        }
+    }
+
+    /**
+     * Sizing of the Hibernate second-level cache regions; the other caches use {@code jhipster.cache.ehcache}.
+     */
+    public static class Cache {
+
+        private final Region facility = new Region(1000, 3600);
+
+        private final Region room = new Region(10000, 3600);
+
+        private final Region roomsByFacility = new Region(1000, 600);
+
+        public Region getFacility() {
+            return facility;
+        }
+
+        public Region getRoom() {
+            return room;
+        }
+
+        public Region getRoomsByFacility() {
+            return roomsByFacility;
+        }
+    }
+
+    public static class Region {
+
+        /**
+         * Number of entries the region holds on heap before evicting the least recently used ones.
+         */
+        private long maxEntries;
+
+        /**
+         * Number of seconds an entry stays in the region.
+         */
+        private long timeToLiveSeconds;
+
+        Region(long maxEntries, long timeToLiveSeconds) {
+            this.maxEntries = maxEntries;
+            this.timeToLiveSeconds = timeToLiveSeconds;
+        }
+
+        public long getMaxEntries() {
+            return maxEntries;
+        }
+
+        public void setMaxEntries(long maxEntries) {
+            this.maxEntries = maxEntries;
+        }
+
+        public long getTimeToLiveSeconds() {
+            return timeToLiveSeconds;
+        }
+
+        public void setTimeToLiveSeconds(long timeToLiveSeconds) {
+            this.timeToLiveSeconds = timeToLiveSeconds;
+        }
+    }
+}
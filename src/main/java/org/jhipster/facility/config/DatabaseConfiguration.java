@@ -1,16 +1,25 @@
 package org.jhipster.facility.config;
 
+import com.zaxxer.hikari.HikariDataSource;
 import java.sql.SQLException;
+import javax.sql.DataSource;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
 import org.springframework.context.annotation.Profile;
 import org.springframework.core.env.Environment;
 import org.springframework.data.elasticsearch.repository.config.EnableElasticsearchRepositories;
 import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
 import org.springframework.transaction.annotation.EnableTransactionManagement;
+import org.springframework.util.StringUtils;
 import tech.jhipster.config.JHipsterConstants;
 import tech.jhipster.config.h2.H2ConfigurationHelper;
 
@@ -21,6 +30,12 @@ import tech.jhipster.config.h2.H2ConfigurationHelper;
 @EnableElasticsearchRepositories("org.jhipster.facility.repository.search")
 public class DatabaseConfiguration {
 
+    /**
+     * Prefix of the Hikari properties of the replica pool, which serves the read-only transactions when its
+     * {@code jdbc-url} is set.
+     */
+    public static final String REPLICA_PROPERTIES = "spring.datasource.replica";
+
     private final Logger log = LoggerFactory.getLogger(DatabaseConfiguration.class);
 
     private final Environment env;
@@ -29,6 +44,54 @@ public class DatabaseConfiguration {
         this.env = env;
     }
 
+    /**
+     * The pool of the primary database, configured as Spring Boot does when there is no replica.
+     *
+     * @param properties the {@code spring.datasource} properties.
+     * @return the primary pool.
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = REPLICA_PROPERTIES, name = "jdbc-url")
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        if (StringUtils.hasText(properties.getName())) {
+            dataSource.setPoolName(properties.getName());
+        }
+        return dataSource;
+    }
+
+    /**
+     * The pool of the read replica, configured by the {@value #REPLICA_PROPERTIES} Hikari properties.
+     *
+     * @return the replica pool.
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = REPLICA_PROPERTIES, name = "jdbc-url")
+    @ConfigurationProperties(REPLICA_PROPERTIES)
+    public HikariDataSource replicaDataSource() {
+        return new HikariDataSource();
+    }
+
+    /**
+     * The data source of the application when a replica is configured: read-only transactions go to the replica, all
+     * other work to the primary.
+     *
+     * @param primaryDataSource the primary pool.
+     * @param replicaDataSource the replica pool.
+     * @return the routing data source.
+     */
+    @Bean
+    @Primary
+    @ConditionalOnProperty(prefix = REPLICA_PROPERTIES, name = "jdbc-url")
+    public DataSource dataSource(
+        @Qualifier("primaryDataSource") DataSource primaryDataSource,
+        @Qualifier("replicaDataSource") DataSource replicaDataSource
+    ) {
+        log.debug("Routing read-only transactions to the replica database");
+        return new LazyConnectionDataSourceProxy(new ReadWriteRoutingDataSource(primaryDataSource, replicaDataSource));
+    }
+
     /**
      * Open the TCP port for the H2 database, so it is available remotely.
      *
@@ -5,6 +5,9 @@ import java.time.LocalDate;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.util.Arrays;
+import org.jhipster.facility.service.search.SearchReindexService;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.convert.converter.Converter;
@@ -13,9 +16,28 @@ import org.springframework.data.convert.WritingConverter;
 import org.springframework.data.elasticsearch.config.ElasticsearchConfigurationSupport;
 import org.springframework.data.elasticsearch.core.convert.ElasticsearchCustomConversions;
 
+/**
+ * Configuration of the Elasticsearch conversions and indices.
+ * <p>
+ * The entities are searched and written through aliases, the index names of their {@code @Document} annotations, which
+ * point to versioned indices: when the application is ready, the indices missing are created and those of an outdated
+ * mapping reindexed in the background, see {@link SearchReindexService#migrate}.
+ */
 @Configuration
 public class ElasticsearchConfiguration extends ElasticsearchConfigurationSupport {
 
+    @Bean
+    public ApplicationListener<ApplicationReadyEvent> searchIndexMigration(
+        SearchReindexService searchReindexService,
+        ApplicationProperties applicationProperties
+    ) {
+        return event -> {
+            if (applicationProperties.getSearchIndex().isMigrateAtStartup()) {
+                searchReindexService.migrateAll();
+            }
+        };
+    }
+
     @Bean
     @Override
     public ElasticsearchCustomConversions elasticsearchCustomConversions() {
@@ -0,0 +1,153 @@
+package org.jhipster.facility.domain;
+
+import java.io.Serializable;
+import java.time.Instant;
+import javax.persistence.*;
+import javax.validation.constraints.*;
+import org.jhipster.facility.domain.enumeration.AssignmentEventType;
+
+/**
+ * A resident entering or leaving a room, as recorded in the append-only assignment log.
+ */
+@Entity
+@Table(name = "assignment_event")
+public class AssignmentEvent implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id")
+    private Long id;
+
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    @Column(name = "type", nullable = false, updatable = false)
+    private AssignmentEventType type;
+
+    @NotNull
+    @Column(name = "resident_id", nullable = false, updatable = false)
+    private Long resident_id;
+
+    @Column(name = "from_room_id", updatable = false)
+    private Long from_room_id;
+
+    @Column(name = "to_room_id", updatable = false)
+    private Long to_room_id;
+
+    @NotNull
+    @Column(name = "occurred_at", nullable = false, updatable = false)
+    private Instant occurred_at;
+
+    // jhipster-needle-entity-add-field - JHipster will add fields here
+
+    public Long getId() {
+        return this.id;
+    }
+
+    public AssignmentEvent id(Long id) {
+        this.setId(id);
+        return this;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public AssignmentEventType getType() {
+        return this.type;
+    }
+
+    public AssignmentEvent type(AssignmentEventType type) {
+        this.setType(type);
+        return this;
+    }
+
+    public void setType(AssignmentEventType type) {
+        this.type = type;
+    }
+
+    public Long getResident_id() {
+        return this.resident_id;
+    }
+
+    public AssignmentEvent resident_id(Long resident_id) {
+        this.setResident_id(resident_id);
+        return this;
+    }
+
+    public void setResident_id(Long resident_id) {
+        this.resident_id = resident_id;
+    }
+
+    public Long getFrom_room_id() {
+        return this.from_room_id;
+    }
+
+    public AssignmentEvent from_room_id(Long from_room_id) {
+        this.setFrom_room_id(from_room_id);
+        return this;
+    }
+
+    public void setFrom_room_id(Long from_room_id) {
+        this.from_room_id = from_room_id;
+    }
+
+    public Long getTo_room_id() {
+        return this.to_room_id;
+    }
+
+    public AssignmentEvent to_room_id(Long to_room_id) {
+        this.setTo_room_id(to_room_id);
+        return this;
+    }
+
+    public void setTo_room_id(Long to_room_id) {
+        this.to_room_id = to_room_id;
+    }
+
+    public Instant getOccurred_at() {
+        return this.occurred_at;
+    }
+
+    public AssignmentEvent occurred_at(Instant occurred_at) {
+        this.setOccurred_at(occurred_at);
+        return this;
+    }
+
+    public void setOccurred_at(Instant occurred_at) {
+        this.occurred_at = occurred_at;
+    }
+
+    // jhipster-needle-entity-add-getters-setters - JHipster will add getters and setters here
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof AssignmentEvent)) {
+            return false;
+        }
+        return id != null && id.equals(((AssignmentEvent) o).id);
+    }
+
+    @Override
+    public int hashCode() {
+        // see https://vladmihalcea.com/how-to-implement-equals-and-hashcode-using-the-jpa-entity-identifier/
+        return getClass().hashCode();
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "AssignmentEvent{" +
+            "id=" + getId() +
+            ", type='" + getType() + "'" +
+            ", resident_id=" + getResident_id() +
+            ", from_room_id=" + getFrom_room_id() +
+            ", to_room_id=" + getTo_room_id() +
+            ", occurred_at='" + getOccurred_at() + "'" +
+            "}";
+    }
+}
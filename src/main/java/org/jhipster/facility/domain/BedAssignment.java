@@ -0,0 +1,119 @@
+package org.jhipster.facility.domain;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import java.io.Serializable;
+import javax.persistence.*;
+import javax.validation.constraints.*;
+
+/**
+ * The bed a Resident sleeps in: beds of a Room are numbered from 1 to its capacity, and a bed without assignment is free.
+ */
+@Entity
+@Table(name = "bed_assignment")
+public class BedAssignment implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id")
+    private Long id;
+
+    @NotNull
+    @Min(value = 1)
+    @Column(name = "bed_number", nullable = false)
+    private Integer bed_number;
+
+    @ManyToOne(optional = false)
+    @NotNull
+    @JsonIgnoreProperties(value = { "facility" }, allowSetters = true)
+    private Room room;
+
+    @OneToOne(optional = false)
+    @NotNull
+    @JoinColumn(unique = true)
+    @JsonIgnoreProperties(value = { "room" }, allowSetters = true)
+    private Resident resident;
+
+    // jhipster-needle-entity-add-field - JHipster will add fields here
+
+    public Long getId() {
+        return this.id;
+    }
+
+    public BedAssignment id(Long id) {
+        this.setId(id);
+        return this;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Integer getBed_number() {
+        return this.bed_number;
+    }
+
+    public BedAssignment bed_number(Integer bed_number) {
+        this.setBed_number(bed_number);
+        return this;
+    }
+
+    public void setBed_number(Integer bed_number) {
+        this.bed_number = bed_number;
+    }
+
+    public Room getRoom() {
+        return this.room;
+    }
+
+    public void setRoom(Room room) {
+        this.room = room;
+    }
+
+    public BedAssignment room(Room room) {
+        this.setRoom(room);
+        return this;
+    }
+
+    public Resident getResident() {
+        return this.resident;
+    }
+
+    public void setResident(Resident resident) {
+        this.resident = resident;
+    }
+
+    public BedAssignment resident(Resident resident) {
+        this.setResident(resident);
+        return this;
+    }
+
+    // jhipster-needle-entity-add-getters-setters - JHipster will add getters and setters here
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof BedAssignment)) {
+            return false;
+        }
+        return id != null && id.equals(((BedAssignment) o).id);
+    }
+
+    @Override
+    public int hashCode() {
+        // see https://vladmihalcea.com/how-to-implement-equals-and-hashcode-using-the-jpa-entity-identifier/
+        return getClass().hashCode();
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "BedAssignment{" +
+            "id=" + getId() +
+            ", bed_number=" + getBed_number() +
+            "}";
+    }
+}
@@ -0,0 +1,139 @@
+package org.jhipster.facility.domain;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import java.io.Serializable;
+import java.time.LocalDate;
+import javax.persistence.*;
+import javax.validation.constraints.*;
+
+/**
+ * A Resident holding a Room from its move-in date until the day before its move-out date.
+ */
+@Entity
+@Table(name = "booking")
+public class Booking implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id")
+    private Long id;
+
+    @NotNull
+    @Column(name = "start_date", nullable = false)
+    private LocalDate start_date;
+
+    /**
+     * The move-out date, exclusive: another booking of the room may start on that day.
+     */
+    @NotNull
+    @Column(name = "end_date", nullable = false)
+    private LocalDate end_date;
+
+    @ManyToOne(optional = false)
+    @NotNull
+    @JsonIgnoreProperties(value = { "facility" }, allowSetters = true)
+    private Room room;
+
+    @ManyToOne(optional = false)
+    @NotNull
+    @JsonIgnoreProperties(value = { "room" }, allowSetters = true)
+    private Resident resident;
+
+    // jhipster-needle-entity-add-field - JHipster will add fields here
+
+    public Long getId() {
+        return this.id;
+    }
+
+    public Booking id(Long id) {
+        this.setId(id);
+        return this;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public LocalDate getStart_date() {
+        return this.start_date;
+    }
+
+    public Booking start_date(LocalDate start_date) {
+        this.setStart_date(start_date);
+        return this;
+    }
+
+    public void setStart_date(LocalDate start_date) {
+        this.start_date = start_date;
+    }
+
+    public LocalDate getEnd_date() {
+        return this.end_date;
+    }
+
+    public Booking end_date(LocalDate end_date) {
+        this.setEnd_date(end_date);
+        return this;
+    }
+
+    public void setEnd_date(LocalDate end_date) {
+        this.end_date = end_date;
+    }
+
+    public Room getRoom() {
+        return this.room;
+    }
+
+    public void setRoom(Room room) {
+        this.room = room;
+    }
+
+    public Booking room(Room room) {
+        this.setRoom(room);
+        return this;
+    }
+
+    public Resident getResident() {
+        return this.resident;
+    }
+
+    public void setResident(Resident resident) {
+        this.resident = resident;
+    }
+
+    public Booking resident(Resident resident) {
+        this.setResident(resident);
+        return this;
+    }
+
+    // jhipster-needle-entity-add-getters-setters - JHipster will add getters and setters here
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Booking)) {
+            return false;
+        }
+        return id != null && id.equals(((Booking) o).id);
+    }
+
+    @Override
+    public int hashCode() {
+        // see https://vladmihalcea.com/how-to-implement-equals-and-hashcode-using-the-jpa-entity-identifier/
+        return getClass().hashCode();
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "Booking{" +
+            "id=" + getId() +
+            ", start_date='" + getStart_date() + "'" +
+            ", end_date='" + getEnd_date() + "'" +
+            "}";
+    }
+}
@@ -3,19 +3,30 @@ package org.jhipster.facility.domain;
 import java.io.Serializable;
 import javax.persistence.*;
 import javax.validation.constraints.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
 
 /**
  * A Facility.
  */
 @Entity
 @Table(name = "facility")
-@org.springframework.data.elasticsearch.annotations.Document(indexName = "facility")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@org.springframework.data.elasticsearch.annotations.Document(indexName = "facility", createIndex = false)
 public class Facility implements Serializable {
 
     private static final long serialVersionUID = 1L;
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(generator = "facilityIdGenerator")
+    @GenericGenerator(
+        name = "facilityIdGenerator",
+        strategy = "org.jhipster.facility.domain.util.PooledLoIdGenerator",
+        parameters = @Parameter(name = SequenceStyleGenerator.SEQUENCE_PARAM, value = "facility_sequence")
+    )
     @Column(name = "id")
     private Long id;
 
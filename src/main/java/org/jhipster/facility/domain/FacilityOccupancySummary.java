@@ -0,0 +1,149 @@
+package org.jhipster.facility.domain;
+
+import java.io.Serializable;
+import javax.persistence.*;
+
+/**
+ * The rooms, residents and free beds of a Facility, kept current by the room and resident write paths.
+ */
+@Entity
+@Table(name = "facility_occupancy_summary")
+public class FacilityOccupancySummary implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @Column(name = "facility_id")
+    private Long id;
+
+    @Column(name = "room_count", nullable = false)
+    private Integer room_count = 0;
+
+    /**
+     * Rooms with at least one resident.
+     */
+    @Column(name = "occupied_room_count", nullable = false)
+    private Integer occupied_room_count = 0;
+
+    @Column(name = "free_bed_count", nullable = false)
+    private Integer free_bed_count = 0;
+
+    @Column(name = "resident_count", nullable = false)
+    private Integer resident_count = 0;
+
+    @MapsId
+    @OneToOne(optional = false)
+    @JoinColumn(name = "facility_id")
+    private Facility facility;
+
+    // jhipster-needle-entity-add-field - JHipster will add fields here
+
+    public Long getId() {
+        return this.id;
+    }
+
+    public FacilityOccupancySummary id(Long id) {
+        this.setId(id);
+        return this;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Integer getRoom_count() {
+        return this.room_count;
+    }
+
+    public FacilityOccupancySummary room_count(Integer room_count) {
+        this.setRoom_count(room_count);
+        return this;
+    }
+
+    public void setRoom_count(Integer room_count) {
+        this.room_count = room_count;
+    }
+
+    public Integer getOccupied_room_count() {
+        return this.occupied_room_count;
+    }
+
+    public FacilityOccupancySummary occupied_room_count(Integer occupied_room_count) {
+        this.setOccupied_room_count(occupied_room_count);
+        return this;
+    }
+
+    public void setOccupied_room_count(Integer occupied_room_count) {
+        this.occupied_room_count = occupied_room_count;
+    }
+
+    public Integer getFree_bed_count() {
+        return this.free_bed_count;
+    }
+
+    public FacilityOccupancySummary free_bed_count(Integer free_bed_count) {
+        this.setFree_bed_count(free_bed_count);
+        return this;
+    }
+
+    public void setFree_bed_count(Integer free_bed_count) {
+        this.free_bed_count = free_bed_count;
+    }
+
+    public Integer getResident_count() {
+        return this.resident_count;
+    }
+
+    public FacilityOccupancySummary resident_count(Integer resident_count) {
+        this.setResident_count(resident_count);
+        return this;
+    }
+
+    public void setResident_count(Integer resident_count) {
+        this.resident_count = resident_count;
+    }
+
+    public Facility getFacility() {
+        return this.facility;
+    }
+
+    public void setFacility(Facility facility) {
+        this.facility = facility;
+    }
+
+    public FacilityOccupancySummary facility(Facility facility) {
+        this.setFacility(facility);
+        return this;
+    }
+
+    // jhipster-needle-entity-add-getters-setters - JHipster will add getters and setters here
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof FacilityOccupancySummary)) {
+            return false;
+        }
+        return id != null && id.equals(((FacilityOccupancySummary) o).id);
+    }
+
+    @Override
+    public int hashCode() {
+        // see https://vladmihalcea.com/how-to-implement-equals-and-hashcode-using-the-jpa-entity-identifier/
+        return getClass().hashCode();
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "FacilityOccupancySummary{" +
+            "id=" + getId() +
+            ", room_count=" + getRoom_count() +
+            ", occupied_room_count=" + getOccupied_room_count() +
+            ", free_bed_count=" + getFree_bed_count() +
+            ", resident_count=" + getResident_count() +
+            "}";
+    }
+}
@@ -0,0 +1,172 @@
+package org.jhipster.facility.domain;
+
+import java.io.Serializable;
+import java.time.Instant;
+import javax.persistence.*;
+import javax.validation.constraints.*;
+import org.jhipster.facility.domain.enumeration.SearchDocumentType;
+
+/**
+ * A full reindex of the entities of a type into a new Elasticsearch index, which replaces the index searched once
+ * every {@link ReindexPartition partition} of the entities is written to it.
+ */
+@Entity
+@Table(name = "reindex_job")
+public class ReindexJob implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id")
+    private Long id;
+
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    @Column(name = "entity_type", nullable = false, updatable = false)
+    private SearchDocumentType entity_type;
+
+    @NotNull
+    @Column(name = "index_name", nullable = false, updatable = false)
+    private String index_name;
+
+    @NotNull
+    @Column(name = "started_at", nullable = false, updatable = false)
+    private Instant started_at;
+
+    @Column(name = "finished_at")
+    private Instant finished_at;
+
+    @NotNull
+    @Column(name = "document_count", nullable = false)
+    private Long document_count;
+
+    @Column(name = "last_error")
+    private String last_error;
+
+    // jhipster-needle-entity-add-field - JHipster will add fields here
+
+    public Long getId() {
+        return this.id;
+    }
+
+    public ReindexJob id(Long id) {
+        this.setId(id);
+        return this;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public SearchDocumentType getEntity_type() {
+        return this.entity_type;
+    }
+
+    public ReindexJob entity_type(SearchDocumentType entity_type) {
+        this.setEntity_type(entity_type);
+        return this;
+    }
+
+    public void setEntity_type(SearchDocumentType entity_type) {
+        this.entity_type = entity_type;
+    }
+
+    public String getIndex_name() {
+        return this.index_name;
+    }
+
+    public ReindexJob index_name(String index_name) {
+        this.setIndex_name(index_name);
+        return this;
+    }
+
+    public void setIndex_name(String index_name) {
+        this.index_name = index_name;
+    }
+
+    public Instant getStarted_at() {
+        return this.started_at;
+    }
+
+    public ReindexJob started_at(Instant started_at) {
+        this.setStarted_at(started_at);
+        return this;
+    }
+
+    public void setStarted_at(Instant started_at) {
+        this.started_at = started_at;
+    }
+
+    public Instant getFinished_at() {
+        return this.finished_at;
+    }
+
+    public ReindexJob finished_at(Instant finished_at) {
+        this.setFinished_at(finished_at);
+        return this;
+    }
+
+    public void setFinished_at(Instant finished_at) {
+        this.finished_at = finished_at;
+    }
+
+    public Long getDocument_count() {
+        return this.document_count;
+    }
+
+    public ReindexJob document_count(Long document_count) {
+        this.setDocument_count(document_count);
+        return this;
+    }
+
+    public void setDocument_count(Long document_count) {
+        this.document_count = document_count;
+    }
+
+    public String getLast_error() {
+        return this.last_error;
+    }
+
+    public ReindexJob last_error(String last_error) {
+        this.setLast_error(last_error);
+        return this;
+    }
+
+    public void setLast_error(String last_error) {
+        this.last_error = last_error;
+    }
+
+    // jhipster-needle-entity-add-getters-setters - JHipster will add getters and setters here
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ReindexJob)) {
+            return false;
+        }
+        return id != null && id.equals(((ReindexJob) o).id);
+    }
+
+    @Override
+    public int hashCode() {
+        // see https://vladmihalcea.com/how-to-implement-equals-and-hashcode-using-the-jpa-entity-identifier/
+        return getClass().hashCode();
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "ReindexJob{" +
+            "id=" + getId() +
+            ", entity_type='" + getEntity_type() + "'" +
+            ", index_name='" + getIndex_name() + "'" +
+            ", started_at='" + getStarted_at() + "'" +
+            ", finished_at='" + getFinished_at() + "'" +
+            ", document_count=" + getDocument_count() +
+            ", last_error='" + getLast_error() + "'" +
+            "}";
+    }
+}
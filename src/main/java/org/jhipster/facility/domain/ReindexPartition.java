@@ -0,0 +1,158 @@
+package org.jhipster.facility.domain;
+
+import java.io.Serializable;
+import java.time.Instant;
+import javax.persistence.*;
+import javax.validation.constraints.*;
+
+/**
+ * A range of entity ids written to the new index of a {@link ReindexJob}, in one transaction: a job resumed after a
+ * crash writes the partitions not completed yet.
+ */
+@Entity
+@Table(name = "reindex_partition")
+public class ReindexPartition implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id")
+    private Long id;
+
+    @NotNull
+    @Column(name = "job_id", nullable = false, updatable = false)
+    private Long job_id;
+
+    /**
+     * First id of the range, inclusive.
+     */
+    @NotNull
+    @Column(name = "from_id", nullable = false, updatable = false)
+    private Long from_id;
+
+    /**
+     * Last id of the range, exclusive.
+     */
+    @NotNull
+    @Column(name = "to_id", nullable = false, updatable = false)
+    private Long to_id;
+
+    @Column(name = "completed_at")
+    private Instant completed_at;
+
+    @Column(name = "document_count")
+    private Long document_count;
+
+    // jhipster-needle-entity-add-field - JHipster will add fields here
+
+    public Long getId() {
+        return this.id;
+    }
+
+    public ReindexPartition id(Long id) {
+        this.setId(id);
+        return this;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getJob_id() {
+        return this.job_id;
+    }
+
+    public ReindexPartition job_id(Long job_id) {
+        this.setJob_id(job_id);
+        return this;
+    }
+
+    public void setJob_id(Long job_id) {
+        this.job_id = job_id;
+    }
+
+    public Long getFrom_id() {
+        return this.from_id;
+    }
+
+    public ReindexPartition from_id(Long from_id) {
+        this.setFrom_id(from_id);
+        return this;
+    }
+
+    public void setFrom_id(Long from_id) {
+        this.from_id = from_id;
+    }
+
+    public Long getTo_id() {
+        return this.to_id;
+    }
+
+    public ReindexPartition to_id(Long to_id) {
+        this.setTo_id(to_id);
+        return this;
+    }
+
+    public void setTo_id(Long to_id) {
+        this.to_id = to_id;
+    }
+
+    public Instant getCompleted_at() {
+        return this.completed_at;
+    }
+
+    public ReindexPartition completed_at(Instant completed_at) {
+        this.setCompleted_at(completed_at);
+        return this;
+    }
+
+    public void setCompleted_at(Instant completed_at) {
+        this.completed_at = completed_at;
+    }
+
+    public Long getDocument_count() {
+        return this.document_count;
+    }
+
+    public ReindexPartition document_count(Long document_count) {
+        this.setDocument_count(document_count);
+        return this;
+    }
+
+    public void setDocument_count(Long document_count) {
+        this.document_count = document_count;
+    }
+
+    // jhipster-needle-entity-add-getters-setters - JHipster will add getters and setters here
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ReindexPartition)) {
+            return false;
+        }
+        return id != null && id.equals(((ReindexPartition) o).id);
+    }
+
+    @Override
+    public int hashCode() {
+        // see https://vladmihalcea.com/how-to-implement-equals-and-hashcode-using-the-jpa-entity-identifier/
+        return getClass().hashCode();
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "ReindexPartition{" +
+            "id=" + getId() +
+            ", job_id=" + getJob_id() +
+            ", from_id=" + getFrom_id() +
+            ", to_id=" + getTo_id() +
+            ", completed_at='" + getCompleted_at() + "'" +
+            ", document_count=" + getDocument_count() +
+            "}";
+    }
+}
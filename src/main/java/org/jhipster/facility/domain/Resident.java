@@ -4,19 +4,43 @@ import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import java.io.Serializable;
 import javax.persistence.*;
 import javax.validation.constraints.*;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
 
 /**
  * A Resident.
  */
 @Entity
 @Table(name = "resident")
-@org.springframework.data.elasticsearch.annotations.Document(indexName = "resident")
+@NamedEntityGraph(name = Resident.WITH_ROOM_GRAPH, attributeNodes = @NamedAttributeNode("room"))
+@NamedEntityGraph(
+    name = Resident.WITH_ROOM_AND_FACILITY_GRAPH,
+    attributeNodes = @NamedAttributeNode(value = "room", subgraph = "room"),
+    subgraphs = @NamedSubgraph(name = "room", attributeNodes = @NamedAttributeNode("facility"))
+)
 public class Resident implements Serializable {
 
     private static final long serialVersionUID = 1L;
 
+    /**
+     * Fetch plan reading the room of the resident along with it.
+     */
+    public static final String WITH_ROOM_GRAPH = "Resident.withRoom";
+
+    /**
+     * Fetch plan reading the room of the resident and the facility of the room along with it, as copied into its
+     * {@link org.jhipster.facility.domain.search.ResidentDocument search document}.
+     */
+    public static final String WITH_ROOM_AND_FACILITY_GRAPH = "Resident.withRoomAndFacility";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(generator = "residentIdGenerator")
+    @GenericGenerator(
+        name = "residentIdGenerator",
+        strategy = "org.jhipster.facility.domain.util.PooledLoIdGenerator",
+        parameters = @Parameter(name = SequenceStyleGenerator.SEQUENCE_PARAM, value = "resident_sequence")
+    )
     @Column(name = "id")
     private Long id;
 
@@ -32,11 +56,15 @@ public class Resident implements Serializable {
     @Column(name = "email")
     private String email;
 
-    @ManyToOne(optional = false)
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
     @NotNull
     @JsonIgnoreProperties(value = { "facility" }, allowSetters = true)
     private Room room;
 
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     // jhipster-needle-entity-add-field - JHipster will add fields here
 
     public Long getId() {
@@ -104,6 +132,19 @@ public class Resident implements Serializable {
         return this;
     }
 
+    public Long getVersion() {
+        return this.version;
+    }
+
+    public Resident version(Long version) {
+        this.setVersion(version);
+        return this;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     // jhipster-needle-entity-add-getters-setters - JHipster will add getters and setters here
 
     @Override
@@ -1,21 +1,39 @@
 package org.jhipster.facility.domain;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
 import java.io.Serializable;
 import javax.persistence.*;
 import javax.validation.constraints.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
 
 /**
  * A Room.
  */
 @Entity
 @Table(name = "room")
-@org.springframework.data.elasticsearch.annotations.Document(indexName = "room")
+@NamedEntityGraph(name = Room.WITH_FACILITY_GRAPH, attributeNodes = @NamedAttributeNode("facility"))
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@org.springframework.data.elasticsearch.annotations.Document(indexName = "room", createIndex = false)
 public class Room implements Serializable {
 
     private static final long serialVersionUID = 1L;
 
+    /**
+     * Fetch plan reading the facility of the room along with it.
+     */
+    public static final String WITH_FACILITY_GRAPH = "Room.withFacility";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(generator = "roomIdGenerator")
+    @GenericGenerator(
+        name = "roomIdGenerator",
+        strategy = "org.jhipster.facility.domain.util.PooledLoIdGenerator",
+        parameters = @Parameter(name = SequenceStyleGenerator.SEQUENCE_PARAM, value = "room_sequence")
+    )
     @Column(name = "id")
     private Long id;
 
@@ -24,10 +42,26 @@ public class Room implements Serializable {
     @Column(name = "room_number", nullable = false)
     private Integer room_number;
 
-    @ManyToOne(optional = false)
+    @Min(value = 1)
+    @Column(name = "capacity", nullable = false)
+    private Integer capacity;
+
+    /**
+     * Residents currently in the room, only ever changed on the locked room, see
+     * {@link org.jhipster.facility.repository.RoomRepository#incrementOccupantCount(Long, int)}.
+     */
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @Column(name = "occupant_count", nullable = false, insertable = false)
+    private Integer occupant_count = 0;
+
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
     @NotNull
     private Facility facility;
 
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     // jhipster-needle-entity-add-field - JHipster will add fields here
 
     public Long getId() {
@@ -56,6 +90,32 @@ public class Room implements Serializable {
         this.room_number = room_number;
     }
 
+    public Integer getCapacity() {
+        return this.capacity;
+    }
+
+    public Room capacity(Integer capacity) {
+        this.setCapacity(capacity);
+        return this;
+    }
+
+    public void setCapacity(Integer capacity) {
+        this.capacity = capacity;
+    }
+
+    public Integer getOccupant_count() {
+        return this.occupant_count;
+    }
+
+    public Room occupant_count(Integer occupant_count) {
+        this.setOccupant_count(occupant_count);
+        return this;
+    }
+
+    public void setOccupant_count(Integer occupant_count) {
+        this.occupant_count = occupant_count;
+    }
+
     public Facility getFacility() {
         return this.facility;
     }
@@ -69,8 +129,28 @@ public class Room implements Serializable {
         return this;
     }
 
+    public Long getVersion() {
+        return this.version;
+    }
+
+    public Room version(Long version) {
+        this.setVersion(version);
+        return this;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     // jhipster-needle-entity-add-getters-setters - JHipster will add getters and setters here
 
+    @PrePersist
+    public void prePersist() {
+        if (capacity == null) {
+            capacity = 1;
+        }
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) {
@@ -94,6 +174,8 @@ public class Room implements Serializable {
         return "Room{" +
             "id=" + getId() +
             ", room_number=" + getRoom_number() +
+            ", capacity=" + getCapacity() +
+            ", occupant_count=" + getOccupant_count() +
             "}";
     }
 }
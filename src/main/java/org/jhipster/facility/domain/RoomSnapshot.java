@@ -0,0 +1,138 @@
+package org.jhipster.facility.domain;
+
+import java.io.Serializable;
+import java.time.Instant;
+import javax.persistence.*;
+import javax.validation.constraints.*;
+
+/**
+ * The occupants of a room right after an event of the assignment log, so that replays can start from it.
+ */
+@Entity
+@Table(name = "room_snapshot")
+public class RoomSnapshot implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id")
+    private Long id;
+
+    @NotNull
+    @Column(name = "room_id", nullable = false, updatable = false)
+    private Long room_id;
+
+    @NotNull
+    @Column(name = "last_event_id", nullable = false, updatable = false)
+    private Long last_event_id;
+
+    @NotNull
+    @Column(name = "event_at", nullable = false, updatable = false)
+    private Instant event_at;
+
+    /**
+     * Comma separated ids of the residents in the room, in ascending order.
+     */
+    @Lob
+    @NotNull
+    @Column(name = "resident_ids", nullable = false, updatable = false)
+    private String resident_ids;
+
+    // jhipster-needle-entity-add-field - JHipster will add fields here
+
+    public Long getId() {
+        return this.id;
+    }
+
+    public RoomSnapshot id(Long id) {
+        this.setId(id);
+        return this;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getRoom_id() {
+        return this.room_id;
+    }
+
+    public RoomSnapshot room_id(Long room_id) {
+        this.setRoom_id(room_id);
+        return this;
+    }
+
+    public void setRoom_id(Long room_id) {
+        this.room_id = room_id;
+    }
+
+    public Long getLast_event_id() {
+        return this.last_event_id;
+    }
+
+    public RoomSnapshot last_event_id(Long last_event_id) {
+        this.setLast_event_id(last_event_id);
+        return this;
+    }
+
+    public void setLast_event_id(Long last_event_id) {
+        this.last_event_id = last_event_id;
+    }
+
+    public Instant getEvent_at() {
+        return this.event_at;
+    }
+
+    public RoomSnapshot event_at(Instant event_at) {
+        this.setEvent_at(event_at);
+        return this;
+    }
+
+    public void setEvent_at(Instant event_at) {
+        this.event_at = event_at;
+    }
+
+    public String getResident_ids() {
+        return this.resident_ids;
+    }
+
+    public RoomSnapshot resident_ids(String resident_ids) {
+        this.setResident_ids(resident_ids);
+        return this;
+    }
+
+    public void setResident_ids(String resident_ids) {
+        this.resident_ids = resident_ids;
+    }
+
+    // jhipster-needle-entity-add-getters-setters - JHipster will add getters and setters here
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof RoomSnapshot)) {
+            return false;
+        }
+        return id != null && id.equals(((RoomSnapshot) o).id);
+    }
+
+    @Override
+    public int hashCode() {
+        // see https://vladmihalcea.com/how-to-implement-equals-and-hashcode-using-the-jpa-entity-identifier/
+        return getClass().hashCode();
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "RoomSnapshot{" +
+            "id=" + getId() +
+            ", room_id=" + getRoom_id() +
+            ", last_event_id=" + getLast_event_id() +
+            ", event_at='" + getEvent_at() + "'" +
+            "}";
+    }
+}
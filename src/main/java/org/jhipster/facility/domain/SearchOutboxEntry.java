@@ -0,0 +1,164 @@
+package org.jhipster.facility.domain;
+
+import java.io.Serializable;
+import java.time.Instant;
+import javax.persistence.*;
+import javax.validation.constraints.*;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.jhipster.facility.domain.enumeration.SearchDocumentType;
+
+/**
+ * An entity whose search document must be written again, or deleted if the entity no longer exists: written in the
+ * transaction changing the entity and removed once the index is up to date.
+ */
+@Entity
+@Table(name = "search_outbox")
+public class SearchOutboxEntry implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(generator = "searchOutboxIdGenerator")
+    @GenericGenerator(
+        name = "searchOutboxIdGenerator",
+        strategy = "org.jhipster.facility.domain.util.PooledLoIdGenerator",
+        parameters = @Parameter(name = SequenceStyleGenerator.SEQUENCE_PARAM, value = "search_outbox_sequence")
+    )
+    @Column(name = "id")
+    private Long id;
+
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    @Column(name = "entity_type", nullable = false, updatable = false)
+    private SearchDocumentType entity_type;
+
+    @NotNull
+    @Column(name = "entity_id", nullable = false, updatable = false)
+    private Long entity_id;
+
+    @NotNull
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private Instant created_at;
+
+    @NotNull
+    @Column(name = "attempts", nullable = false)
+    private Integer attempts;
+
+    @NotNull
+    @Column(name = "next_attempt_at", nullable = false)
+    private Instant next_attempt_at;
+
+    // jhipster-needle-entity-add-field - JHipster will add fields here
+
+    public Long getId() {
+        return this.id;
+    }
+
+    public SearchOutboxEntry id(Long id) {
+        this.setId(id);
+        return this;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public SearchDocumentType getEntity_type() {
+        return this.entity_type;
+    }
+
+    public SearchOutboxEntry entity_type(SearchDocumentType entity_type) {
+        this.setEntity_type(entity_type);
+        return this;
+    }
+
+    public void setEntity_type(SearchDocumentType entity_type) {
+        this.entity_type = entity_type;
+    }
+
+    public Long getEntity_id() {
+        return this.entity_id;
+    }
+
+    public SearchOutboxEntry entity_id(Long entity_id) {
+        this.setEntity_id(entity_id);
+        return this;
+    }
+
+    public void setEntity_id(Long entity_id) {
+        this.entity_id = entity_id;
+    }
+
+    public Instant getCreated_at() {
+        return this.created_at;
+    }
+
+    public SearchOutboxEntry created_at(Instant created_at) {
+        this.setCreated_at(created_at);
+        return this;
+    }
+
+    public void setCreated_at(Instant created_at) {
+        this.created_at = created_at;
+    }
+
+    public Integer getAttempts() {
+        return this.attempts;
+    }
+
+    public SearchOutboxEntry attempts(Integer attempts) {
+        this.setAttempts(attempts);
+        return this;
+    }
+
+    public void setAttempts(Integer attempts) {
+        this.attempts = attempts;
+    }
+
+    public Instant getNext_attempt_at() {
+        return this.next_attempt_at;
+    }
+
+    public SearchOutboxEntry next_attempt_at(Instant next_attempt_at) {
+        this.setNext_attempt_at(next_attempt_at);
+        return this;
+    }
+
+    public void setNext_attempt_at(Instant next_attempt_at) {
+        this.next_attempt_at = next_attempt_at;
+    }
+
+    // jhipster-needle-entity-add-getters-setters - JHipster will add getters and setters here
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof SearchOutboxEntry)) {
+            return false;
+        }
+        return id != null && id.equals(((SearchOutboxEntry) o).id);
+    }
+
+    @Override
+    public int hashCode() {
+        // see https://vladmihalcea.com/how-to-implement-equals-and-hashcode-using-the-jpa-entity-identifier/
+        return getClass().hashCode();
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "SearchOutboxEntry{" +
+            "id=" + getId() +
+            ", entity_type='" + getEntity_type() + "'" +
+            ", entity_id=" + getEntity_id() +
+            ", created_at='" + getCreated_at() + "'" +
+            ", attempts=" + getAttempts() +
+            ", next_attempt_at='" + getNext_attempt_at() + "'" +
+            "}";
+    }
+}
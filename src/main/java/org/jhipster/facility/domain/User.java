@@ -21,7 +21,7 @@ import org.springframework.data.elasticsearch.annotations.FieldType;
  */
 @Entity
 @Table(name = "jhi_user")
-@org.springframework.data.elasticsearch.annotations.Document(indexName = "user")
+@org.springframework.data.elasticsearch.annotations.Document(indexName = "user", createIndex = false)
 public class User extends AbstractAuditingEntity implements Serializable {
 
     private static final long serialVersionUID = 1L;
@@ -0,0 +1,176 @@
+package org.jhipster.facility.domain;
+
+import java.io.Serializable;
+import java.time.Instant;
+import javax.persistence.*;
+import javax.validation.constraints.*;
+
+/**
+ * A resident waiting for a room of a full Facility; higher priorities are served first, then earlier requests.
+ */
+@Entity
+@Table(name = "waitlist_entry")
+public class WaitlistEntry implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id")
+    private Long id;
+
+    @NotNull
+    @Column(name = "name", nullable = false)
+    private String name;
+
+    @NotNull
+    @Max(value = 9999999999999L)
+    @Column(name = "phone_number", nullable = false)
+    private Integer phone_number;
+
+    @Column(name = "email")
+    private String email;
+
+    @NotNull
+    @Column(name = "priority", nullable = false)
+    private Integer priority = 0;
+
+    @Column(name = "requested_at", nullable = false, updatable = false)
+    private Instant requested_at;
+
+    // Set from the request path rather than the body.
+    @ManyToOne(optional = false)
+    private Facility facility;
+
+    // jhipster-needle-entity-add-field - JHipster will add fields here
+
+    public Long getId() {
+        return this.id;
+    }
+
+    public WaitlistEntry id(Long id) {
+        this.setId(id);
+        return this;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return this.name;
+    }
+
+    public WaitlistEntry name(String name) {
+        this.setName(name);
+        return this;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public Integer getPhone_number() {
+        return this.phone_number;
+    }
+
+    public WaitlistEntry phone_number(Integer phone_number) {
+        this.setPhone_number(phone_number);
+        return this;
+    }
+
+    public void setPhone_number(Integer phone_number) {
+        this.phone_number = phone_number;
+    }
+
+    public String getEmail() {
+        return this.email;
+    }
+
+    public WaitlistEntry email(String email) {
+        this.setEmail(email);
+        return this;
+    }
+
+    public void setEmail(String email) {
+        this.email = email;
+    }
+
+    public Integer getPriority() {
+        return this.priority;
+    }
+
+    public WaitlistEntry priority(Integer priority) {
+        this.setPriority(priority);
+        return this;
+    }
+
+    public void setPriority(Integer priority) {
+        this.priority = priority;
+    }
+
+    public Instant getRequested_at() {
+        return this.requested_at;
+    }
+
+    public WaitlistEntry requested_at(Instant requested_at) {
+        this.setRequested_at(requested_at);
+        return this;
+    }
+
+    public void setRequested_at(Instant requested_at) {
+        this.requested_at = requested_at;
+    }
+
+    public Facility getFacility() {
+        return this.facility;
+    }
+
+    public void setFacility(Facility facility) {
+        this.facility = facility;
+    }
+
+    public WaitlistEntry facility(Facility facility) {
+        this.setFacility(facility);
+        return this;
+    }
+
+    // jhipster-needle-entity-add-getters-setters - JHipster will add getters and setters here
+
+    @PrePersist
+    public void prePersist() {
+        if (requested_at == null) {
+            requested_at = Instant.now();
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof WaitlistEntry)) {
+            return false;
+        }
+        return id != null && id.equals(((WaitlistEntry) o).id);
+    }
+
+    @Override
+    public int hashCode() {
+        // see https://vladmihalcea.com/how-to-implement-equals-and-hashcode-using-the-jpa-entity-identifier/
+        return getClass().hashCode();
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "WaitlistEntry{" +
+            "id=" + getId() +
+            ", name='" + getName() + "'" +
+            ", phone_number=" + getPhone_number() +
+            ", email='" + getEmail() + "'" +
+            ", priority=" + getPriority() +
+            ", requested_at='" + getRequested_at() + "'" +
+            "}";
+    }
+}
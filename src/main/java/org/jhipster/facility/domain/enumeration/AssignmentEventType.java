@@ -0,0 +1,19 @@
+package org.jhipster.facility.domain.enumeration;
+
+/**
+ * The AssignmentEventType enumeration.
+ */
+public enum AssignmentEventType {
+    /**
+     * A resident entered a room without leaving another one.
+     */
+    ASSIGNED,
+    /**
+     * A resident left a room for another one.
+     */
+    TRANSFERRED,
+    /**
+     * A resident left a room without entering another one.
+     */
+    VACATED,
+}
@@ -0,0 +1,11 @@
+package org.jhipster.facility.domain.enumeration;
+
+/**
+ * The SearchDocumentType enumeration: the entities kept in an Elasticsearch index.
+ */
+public enum SearchDocumentType {
+    FACILITY,
+    ROOM,
+    RESIDENT,
+    USER,
+}
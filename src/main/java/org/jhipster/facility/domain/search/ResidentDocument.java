@@ -0,0 +1,221 @@
+package org.jhipster.facility.domain.search;
+
+import java.io.Serializable;
+import org.jhipster.facility.domain.Facility;
+import org.jhipster.facility.domain.Resident;
+import org.jhipster.facility.domain.Room;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.elasticsearch.annotations.Document;
+import org.springframework.data.elasticsearch.annotations.Field;
+import org.springframework.data.elasticsearch.annotations.FieldType;
+import org.springframework.data.elasticsearch.annotations.InnerField;
+import org.springframework.data.elasticsearch.annotations.MultiField;
+
+/**
+ * The search document of a {@link Resident}, with the fields of its room and of the facility of the room it is searched
+ * and filtered by copied into it, so that a search within a facility is a single query.
+ * <p>
+ * The copied fields are written again when the room or the facility changes, see the
+ * {@link org.jhipster.facility.service.search.SearchIndexer SearchIndexer}.
+ */
+@Document(indexName = "resident", createIndex = false)
+public class ResidentDocument implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    private Long id;
+
+    @Field(type = FieldType.Text)
+    private String name;
+
+    @Field(type = FieldType.Integer)
+    private Integer phone_number;
+
+    @Field(type = FieldType.Text)
+    private String email;
+
+    @Field(type = FieldType.Long)
+    private Long room_id;
+
+    @Field(type = FieldType.Integer)
+    private Integer room_number;
+
+    @Field(type = FieldType.Long)
+    private Long facility_id;
+
+    @MultiField(mainField = @Field(type = FieldType.Text), otherFields = @InnerField(suffix = "keyword", type = FieldType.Keyword))
+    private String facility_name;
+
+    /**
+     * Build the document of a resident, reading its room and the facility of the room, which must be fetched along with
+     * it or still attached to the current session.
+     */
+    public static ResidentDocument of(Resident resident) {
+        ResidentDocument document = new ResidentDocument()
+            .id(resident.getId())
+            .name(resident.getName())
+            .phone_number(resident.getPhone_number())
+            .email(resident.getEmail());
+        Room room = resident.getRoom();
+        if (room != null) {
+            document.room_id(room.getId()).room_number(room.getRoom_number());
+            Facility facility = room.getFacility();
+            if (facility != null) {
+                document.facility_id(facility.getId()).facility_name(facility.getFacility_name());
+            }
+        }
+        return document;
+    }
+
+    /**
+     * @return a resident holding the fields of the document, with a room holding only its id and number, and a facility
+     * holding only its id and name: detached entities to render the search results as residents.
+     */
+    public Resident toResident() {
+        Resident resident = new Resident().id(id).name(name).phone_number(phone_number).email(email);
+        if (room_id != null) {
+            Room room = new Room().id(room_id).room_number(room_number);
+            if (facility_id != null) {
+                room.facility(new Facility().id(facility_id).facility_name(facility_name));
+            }
+            resident.room(room);
+        }
+        return resident;
+    }
+
+    public Long getId() {
+        return this.id;
+    }
+
+    public ResidentDocument id(Long id) {
+        this.setId(id);
+        return this;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return this.name;
+    }
+
+    public ResidentDocument name(String name) {
+        this.setName(name);
+        return this;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public Integer getPhone_number() {
+        return this.phone_number;
+    }
+
+    public ResidentDocument phone_number(Integer phone_number) {
+        this.setPhone_number(phone_number);
+        return this;
+    }
+
+    public void setPhone_number(Integer phone_number) {
+        this.phone_number = phone_number;
+    }
+
+    public String getEmail() {
+        return this.email;
+    }
+
+    public ResidentDocument email(String email) {
+        this.setEmail(email);
+        return this;
+    }
+
+    public void setEmail(String email) {
+        this.email = email;
+    }
+
+    public Long getRoom_id() {
+        return this.room_id;
+    }
+
+    public ResidentDocument room_id(Long room_id) {
+        this.setRoom_id(room_id);
+        return this;
+    }
+
+    public void setRoom_id(Long room_id) {
+        this.room_id = room_id;
+    }
+
+    public Integer getRoom_number() {
+        return this.room_number;
+    }
+
+    public ResidentDocument room_number(Integer room_number) {
+        this.setRoom_number(room_number);
+        return this;
+    }
+
+    public void setRoom_number(Integer room_number) {
+        this.room_number = room_number;
+    }
+
+    public Long getFacility_id() {
+        return this.facility_id;
+    }
+
+    public ResidentDocument facility_id(Long facility_id) {
+        this.setFacility_id(facility_id);
+        return this;
+    }
+
+    public void setFacility_id(Long facility_id) {
+        this.facility_id = facility_id;
+    }
+
+    public String getFacility_name() {
+        return this.facility_name;
+    }
+
+    public ResidentDocument facility_name(String facility_name) {
+        this.setFacility_name(facility_name);
+        return this;
+    }
+
+    public void setFacility_name(String facility_name) {
+        this.facility_name = facility_name;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ResidentDocument)) {
+            return false;
+        }
+        return id != null && id.equals(((ResidentDocument) o).id);
+    }
+
+    @Override
+    public int hashCode() {
+        return getClass().hashCode();
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "ResidentDocument{" +
+            "id=" + getId() +
+            ", name='" + getName() + "'" +
+            ", phone_number=" + getPhone_number() +
+            ", email='" + getEmail() + "'" +
+            ", room_id=" + getRoom_id() +
+            ", room_number=" + getRoom_number() +
+            ", facility_id=" + getFacility_id() +
+            ", facility_name='" + getFacility_name() + "'" +
+            "}";
+    }
+}
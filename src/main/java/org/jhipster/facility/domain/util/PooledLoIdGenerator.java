@@ -0,0 +1,41 @@
+package org.jhipster.facility.domain.util;
+
+import java.util.Properties;
+import org.hibernate.MappingException;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.config.spi.StandardConverters;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.id.enhanced.StandardOptimizerDescriptor;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+/**
+ * Identifier generator handing out ids from blocks reserved in a one-row table, so that inserts need no generated key
+ * and can be sent in JDBC batches.
+ * <p>
+ * The table named by the {@code sequence_name} parameter holds the first id of the next block in its {@code next_val}
+ * column; MySQL has no sequence, and a table behaves the same on every database. The blocks are read with the
+ * {@code pooled-lo} optimizer and their size is the {@value #ALLOCATION_SIZE} JPA property, which may change at any
+ * time: the table is always advanced by the size of the block just reserved.
+ */
+public class PooledLoIdGenerator extends SequenceStyleGenerator {
+
+    public static final String ALLOCATION_SIZE = "application.id.allocation_size";
+
+    public static final int DEFAULT_ALLOCATION_SIZE = 50;
+
+    @Override
+    public void configure(Type type, Properties params, ServiceRegistry serviceRegistry) throws MappingException {
+        Properties pooledParams = new Properties();
+        pooledParams.putAll(params);
+        pooledParams.put(FORCE_TBL_PARAM, "true");
+        pooledParams.put(OPT_PARAM, StandardOptimizerDescriptor.POOLED_LO.getExternalName());
+        if (!params.containsKey(INCREMENT_PARAM)) {
+            String allocationSize = serviceRegistry
+                .getService(ConfigurationService.class)
+                .getSetting(ALLOCATION_SIZE, StandardConverters.STRING, Integer.toString(DEFAULT_ALLOCATION_SIZE));
+            pooledParams.put(INCREMENT_PARAM, allocationSize);
+        }
+        super.configure(type, pooledParams, serviceRegistry);
+    }
+}
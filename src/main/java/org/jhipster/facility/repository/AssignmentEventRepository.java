@@ -0,0 +1,34 @@
+package org.jhipster.facility.repository;
+
+import java.time.Instant;
+import java.util.List;
+import org.jhipster.facility.domain.AssignmentEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data SQL repository for the AssignmentEvent entity.
+ */
+@Repository
+public interface AssignmentEventRepository extends JpaRepository<AssignmentEvent, Long> {
+    /**
+     * Get the events of a room after a position of the log, in log order.
+     *
+     * @param room_id the id of the room entered or left.
+     * @param after the id of the last event already applied, 0 to start from the beginning.
+     * @param until the latest time of the events to return, inclusive.
+     * @param pageable the number of events to return.
+     */
+    @Query(
+        "select e from AssignmentEvent e where (e.from_room_id =:room_id or e.to_room_id =:room_id)" +
+        " and e.id > :after and e.occurred_at <= :until order by e.id"
+    )
+    List<AssignmentEvent> findRoomEvents(
+        @Param("room_id") Long room_id,
+        @Param("after") long after,
+        @Param("until") Instant until,
+        Pageable pageable
+    );
+}
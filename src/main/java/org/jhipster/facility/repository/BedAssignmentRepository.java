@@ -0,0 +1,36 @@
+package org.jhipster.facility.repository;
+
+import java.util.List;
+import org.jhipster.facility.domain.BedAssignment;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data SQL repository for the BedAssignment entity.
+ */
+@Repository
+public interface BedAssignmentRepository extends JpaRepository<BedAssignment, Long> {
+    @Query("select b.room.id, b.bed_number from BedAssignment b")
+    List<Object[]> findAllBeds();
+
+    /**
+     * @return the id and bed number of every assignment of the room.
+     */
+    @Query("select b.id, b.bed_number from BedAssignment b where b.room.id =:room_id")
+    List<Object[]> findBedsByRoomId(@Param("room_id") Long room_id);
+
+    /**
+     * @return the room and bed number of the resident, if it has a bed.
+     */
+    @Query("select b.room.id, b.bed_number from BedAssignment b where b.resident.id =:resident_id")
+    List<Object[]> findBedByResidentId(@Param("resident_id") Long resident_id);
+
+    @Modifying
+    @Query("update BedAssignment b set b.bed_number =:bed_number where b.id =:id")
+    int updateBedNumber(@Param("id") Long id, @Param("bed_number") Integer bed_number);
+
+    @Modifying
+    @Query("delete from BedAssignment b where b.resident.id =:resident_id")
+    int deleteByResidentId(@Param("resident_id") Long resident_id);
+}
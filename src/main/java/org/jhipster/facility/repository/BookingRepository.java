@@ -0,0 +1,48 @@
+package org.jhipster.facility.repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import org.jhipster.facility.domain.Booking;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data SQL repository for the Booking entity.
+ */
+@Repository
+public interface BookingRepository extends JpaRepository<Booking, Long> {
+    @Query(
+        value = "select b from Booking b where b.room.id =:room_id order by b.start_date",
+        countQuery = "select count(b) from Booking b where b.room.id=:room_id"
+    )
+    Page<Booking> findWithRoomId(Pageable pageable, @Param("room_id") Long room_id);
+
+    @Query("select b from Booking b left join fetch b.room left join fetch b.resident where b.id =:id")
+    Optional<Booking> findOneWithToOneRelationships(@Param("id") Long id);
+
+    @Query("select b.id, b.room.id, b.start_date, b.end_date from Booking b")
+    List<Object[]> findAllIntervals();
+
+    @Query("select b.id, b.room.id, b.start_date from Booking b where b.resident.id =:resident_id")
+    List<Object[]> findIntervalsByResidentId(@Param("resident_id") Long resident_id);
+
+    /**
+     * Get the bookings of a room overlapping a date range, using the (room_id, start_date, end_date) index.
+     *
+     * @return the start and end dates of the bookings.
+     */
+    @Query("select b.start_date, b.end_date from Booking b where b.room.id =:room_id and b.start_date < :end and b.end_date > :start")
+    List<Object[]> findOverlapping(@Param("room_id") Long room_id, @Param("start") LocalDate start, @Param("end") LocalDate end);
+
+    @Modifying
+    @Query("delete from Booking b where b.resident.id =:resident_id")
+    int deleteByResidentId(@Param("resident_id") Long resident_id);
+
+    @Modifying
+    @Query("delete from Booking b where b.room.id =:room_id")
+    int deleteByRoomId(@Param("room_id") Long room_id);
+}
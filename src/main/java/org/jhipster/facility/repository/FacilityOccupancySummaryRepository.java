@@ -0,0 +1,59 @@
+package org.jhipster.facility.repository;
+
+import java.util.List;
+import java.util.Optional;
+import javax.persistence.LockModeType;
+import org.jhipster.facility.domain.FacilityOccupancySummary;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data SQL repository for the FacilityOccupancySummary entity.
+ */
+@Repository
+public interface FacilityOccupancySummaryRepository extends JpaRepository<FacilityOccupancySummary, Long> {
+    @Query(
+        value = "select s from FacilityOccupancySummary s join fetch s.facility",
+        countQuery = "select count(s) from FacilityOccupancySummary s"
+    )
+    Page<FacilityOccupancySummary> findAllWithFacility(Pageable pageable);
+
+    /**
+     * @return the number of facilities, of rooms and of residents, as a single row.
+     */
+    @Query("select count(s), coalesce(sum(s.room_count), 0), coalesce(sum(s.resident_count), 0) from FacilityOccupancySummary s")
+    List<Object[]> sumCounts();
+
+    /**
+     * Read a summary and lock its row until the end of the transaction, holding back the deltas of other transactions.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select s from FacilityOccupancySummary s where s.id =:facility_id")
+    Optional<FacilityOccupancySummary> findByIdForUpdate(@Param("facility_id") Long facility_id);
+
+    /**
+     * Add deltas to the counts of a facility in place, so that concurrent writers never overwrite each other.
+     *
+     * @return 1 if the facility has a summary, 0 otherwise.
+     */
+    @Modifying
+    @Query(
+        "update FacilityOccupancySummary s set s.room_count = s.room_count + :rooms," +
+        " s.occupied_room_count = s.occupied_room_count + :occupied_rooms, s.free_bed_count = s.free_bed_count + :free_beds," +
+        " s.resident_count = s.resident_count + :residents where s.id =:facility_id"
+    )
+    int addCounts(
+        @Param("facility_id") Long facility_id,
+        @Param("rooms") int rooms,
+        @Param("occupied_rooms") int occupied_rooms,
+        @Param("free_beds") int free_beds,
+        @Param("residents") int residents
+    );
+
+    @Modifying
+    @Query("delete from FacilityOccupancySummary s where s.id =:facility_id")
+    int deleteByFacilityId(@Param("facility_id") Long facility_id);
+}
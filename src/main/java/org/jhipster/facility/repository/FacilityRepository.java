@@ -1,7 +1,16 @@
 package org.jhipster.facility.repository;
 
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+import javax.persistence.EntityManager;
+import javax.persistence.QueryHint;
+import javax.validation.Validator;
 import org.jhipster.facility.domain.Facility;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -9,4 +18,71 @@ import org.springframework.stereotype.Repository;
  */
 @SuppressWarnings("unused")
 @Repository
-public interface FacilityRepository extends JpaRepository<Facility, Long> {}
+public interface FacilityRepository extends JpaRepository<Facility, Long>, FacilityRepositoryInternal {
+    /**
+     * Rows fetched per round trip by {@link #streamByIdRange(Long, Long)}.
+     */
+    String REINDEX_FETCH_SIZE = "1000";
+
+    @Query("select f.id from Facility f order by f.id")
+    List<Long> findAllIds();
+
+    @Query("select f from Facility f")
+    Slice<Facility> findSlice(Pageable pageable);
+
+    /**
+     * @return the lowest and highest ids of the facilities, {@code null} if there are none, as a single row.
+     */
+    @Query("select min(f.id), max(f.id) from Facility f")
+    List<Object[]> findIdRange();
+
+    /**
+     * Stream the facilities of an id range in id order, through a forward-only cursor reading
+     * {@value #REINDEX_FETCH_SIZE} rows per round trip, to be written to a new search index. The stream must be consumed
+     * and closed within a transaction.
+     *
+     * @param from_id the first id of the range, inclusive.
+     * @param to_id the last id of the range, exclusive.
+     */
+    @Query("select f from Facility f where f.id >=:from_id and f.id <:to_id order by f.id")
+    @QueryHints(
+        {
+            @QueryHint(name = org.hibernate.annotations.QueryHints.FETCH_SIZE, value = REINDEX_FETCH_SIZE),
+            @QueryHint(name = org.hibernate.annotations.QueryHints.READ_ONLY, value = "true"),
+            @QueryHint(name = org.hibernate.annotations.QueryHints.CACHEABLE, value = "false"),
+        }
+    )
+    Stream<Facility> streamByIdRange(@Param("from_id") Long from_id, @Param("to_id") Long to_id);
+
+    /**
+     * @return the ids of the facilities of an id range, in no particular order.
+     */
+    @Query("select f.id from Facility f where f.id >=:from_id and f.id <:to_id")
+    List<Long> findIdsByIdRange(@Param("from_id") Long from_id, @Param("to_id") Long to_id);
+}
+
+interface FacilityRepositoryInternal {
+    /**
+     * Update attributes of a facility with a single {@code UPDATE}, without reading it.
+     *
+     * @param id the id of the facility.
+     * @param attributes the new values of the attributes to update, by attribute name.
+     * @return {@code true} if the facility was updated, {@code false} if it does not exist.
+     * @throws javax.validation.ConstraintViolationException if a value breaks a constraint of its attribute.
+     */
+    boolean partialUpdate(Long id, Map<String, Object> attributes);
+}
+
+class FacilityRepositoryInternalImpl implements FacilityRepositoryInternal {
+
+    private final PartialUpdate partialUpdate;
+
+    FacilityRepositoryInternalImpl(EntityManager entityManager, Validator validator) {
+        this.partialUpdate = new PartialUpdate(entityManager, validator);
+    }
+
+    @Override
+    public boolean partialUpdate(Long id, Map<String, Object> attributes) {
+        return partialUpdate.execute(Facility.class, id, null, attributes);
+    }
+}
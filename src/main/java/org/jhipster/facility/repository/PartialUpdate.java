@@ -0,0 +1,133 @@
+package org.jhipster.facility.repository;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import javax.persistence.EntityManager;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.CriteriaUpdate;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import javax.persistence.metamodel.EntityType;
+import javax.validation.ConstraintViolation;
+import javax.validation.ConstraintViolationException;
+import javax.validation.Validator;
+import org.hibernate.Hibernate;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.beans.ConfigurablePropertyAccessor;
+import org.springframework.beans.PropertyAccessorFactory;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+/**
+ * Partial update of an entity in a single SQL statement, {@code UPDATE ... WHERE id = ?}, for the PATCH endpoints.
+ * <p>
+ * The entity is not merged: the attributes given are validated against the constraints of the entity, as Hibernate
+ * would on flush, then set by a criteria update bumping the version of versioned entities, guarded by the version when
+ * one is given. Whether the entity exists is told by the update count; only a failed update reads more.
+ * <p>
+ * A bulk update evicts every entity of its type from the second-level cache, so the attributes of a cached entity are
+ * set on the managed entity instead, read from that cache, and written by Hibernate through it.
+ */
+final class PartialUpdate {
+
+    private final EntityManager entityManager;
+
+    private final Validator validator;
+
+    PartialUpdate(EntityManager entityManager, Validator validator) {
+        this.entityManager = entityManager;
+        this.validator = validator;
+    }
+
+    /**
+     * Update attributes of an entity, so that later reads see the update.
+     *
+     * @param type the class of the entity.
+     * @param id the id of the entity.
+     * @param version the version the entity must have, {@code null} to update any version.
+     * @param attributes the new values of the attributes to update, by attribute name; none only checks the entity exists.
+     * @return {@code true} if the entity was updated, {@code false} if it does not exist.
+     * @throws ConstraintViolationException if a value breaks a constraint of its attribute.
+     * @throws ObjectOptimisticLockingFailureException if the entity exists but has another version.
+     */
+    <T> boolean execute(Class<T> type, Long id, Long version, Map<String, Object> attributes) {
+        Set<ConstraintViolation<T>> violations = new HashSet<>();
+        attributes.forEach((name, value) -> violations.addAll(validator.validateValue(type, name, value)));
+        if (!violations.isEmpty()) {
+            throw new ConstraintViolationException(violations);
+        }
+        EntityType<T> entityType = entityManager.getMetamodel().entity(type);
+        String versionName = entityType.hasVersionAttribute() ? entityType.getVersion(Long.class).getName() : null;
+        Long expectedVersion = versionName == null ? null : version;
+        if (persister(type).canWriteToCache()) {
+            return updateManaged(type, id, versionName, expectedVersion, attributes);
+        }
+        int updated;
+        if (attributes.isEmpty()) {
+            updated = count(type, id, versionName, expectedVersion);
+        } else {
+            // Write the pending changes first, the update bypasses the persistence context
+            entityManager.flush();
+            CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+            CriteriaUpdate<T> update = cb.createCriteriaUpdate(type);
+            Root<T> root = update.from(type);
+            attributes.forEach(update::set);
+            if (versionName != null) {
+                update.set(root.<Long>get(versionName), cb.sum(root.<Long>get(versionName), 1L));
+            }
+            update.where(matches(cb, root, id, versionName, expectedVersion));
+            updated = entityManager.createQuery(update).executeUpdate();
+            if (updated > 0) {
+                detach(type, id);
+            }
+        }
+        if (updated == 0 && expectedVersion != null && count(type, id, null, null) > 0) {
+            throw new ObjectOptimisticLockingFailureException(type, id);
+        }
+        return updated > 0;
+    }
+
+    private <T> boolean updateManaged(Class<T> type, Long id, String versionName, Long version, Map<String, Object> attributes) {
+        T entity = entityManager.find(type, id);
+        if (entity == null) {
+            return false;
+        }
+        ConfigurablePropertyAccessor accessor = PropertyAccessorFactory.forDirectFieldAccess(Hibernate.unproxy(entity));
+        if (version != null && !version.equals(accessor.getPropertyValue(versionName))) {
+            throw new ObjectOptimisticLockingFailureException(type, id);
+        }
+        if (!attributes.isEmpty()) {
+            attributes.forEach(accessor::setPropertyValue);
+            // Updated now, as by the bulk update, and guarded by the version read
+            entityManager.flush();
+        }
+        return true;
+    }
+
+    private <T> int count(Class<T> type, Long id, String versionName, Long version) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<T> root = query.from(type);
+        query.select(cb.count(root)).where(matches(cb, root, id, versionName, version));
+        return entityManager.createQuery(query).getSingleResult().intValue();
+    }
+
+    private static Predicate matches(CriteriaBuilder cb, Root<?> root, Long id, String versionName, Long version) {
+        Predicate idMatches = cb.equal(root.get("id"), id);
+        return version == null ? idMatches : cb.and(idMatches, cb.equal(root.get(versionName), version));
+    }
+
+    private EntityPersister persister(Class<?> type) {
+        return entityManager.unwrap(SharedSessionContractImplementor.class).getFactory().getMetamodel().entityPersister(type);
+    }
+
+    private void detach(Class<?> type, Long id) {
+        SharedSessionContractImplementor session = entityManager.unwrap(SharedSessionContractImplementor.class);
+        Object managed = session.getPersistenceContextInternal().getEntity(session.generateEntityKey(id, persister(type)));
+        if (managed != null) {
+            entityManager.detach(managed);
+        }
+    }
+}
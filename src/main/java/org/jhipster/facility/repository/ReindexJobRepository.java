@@ -0,0 +1,43 @@
+package org.jhipster.facility.repository;
+
+import java.time.Instant;
+import java.util.List;
+import org.jhipster.facility.domain.ReindexJob;
+import org.jhipster.facility.domain.enumeration.SearchDocumentType;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data SQL repository for the ReindexJob entity.
+ */
+@Repository
+public interface ReindexJobRepository extends JpaRepository<ReindexJob, Long> {
+    @Query("select j from ReindexJob j where j.entity_type =:entity_type and j.finished_at is null order by j.id desc")
+    List<ReindexJob> findUnfinished(@Param("entity_type") SearchDocumentType entity_type);
+
+    /**
+     * @return the indices written by the unfinished jobs of a type, which must receive the changes indexed meanwhile.
+     */
+    @Query("select j.index_name from ReindexJob j where j.entity_type =:entity_type and j.finished_at is null")
+    List<String> findUnfinishedIndexNames(@Param("entity_type") SearchDocumentType entity_type);
+
+    @Modifying
+    @Query("update ReindexJob j set j.document_count = j.document_count + :count where j.id =:id")
+    int addDocuments(@Param("id") Long id, @Param("count") long count);
+
+    @Modifying
+    @Query("update ReindexJob j set j.last_error =:last_error where j.id =:id")
+    int fail(@Param("id") Long id, @Param("last_error") String last_error);
+
+    @Modifying
+    @Query("update ReindexJob j set j.finished_at =:finished_at, j.last_error = null where j.id =:id")
+    int finish(@Param("id") Long id, @Param("finished_at") Instant finished_at);
+
+    /**
+     * Finish a job without switching the alias to its index, which is no longer wanted.
+     */
+    @Modifying
+    @Query("update ReindexJob j set j.finished_at =:finished_at, j.last_error =:last_error where j.id =:id")
+    int abandon(@Param("id") Long id, @Param("finished_at") Instant finished_at, @Param("last_error") String last_error);
+}
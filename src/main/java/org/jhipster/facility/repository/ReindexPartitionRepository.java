@@ -0,0 +1,35 @@
+package org.jhipster.facility.repository;
+
+import java.time.Instant;
+import java.util.List;
+import org.jhipster.facility.domain.ReindexPartition;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data SQL repository for the ReindexPartition entity.
+ */
+@Repository
+public interface ReindexPartitionRepository extends JpaRepository<ReindexPartition, Long> {
+    @Query("select p from ReindexPartition p where p.job_id =:job_id and p.completed_at is null order by p.from_id")
+    List<ReindexPartition> findPending(@Param("job_id") Long job_id);
+
+    /**
+     * @return the number of partitions of the job and of those completed, as a single row.
+     */
+    @Query("select count(p), count(p.completed_at) from ReindexPartition p where p.job_id =:job_id")
+    List<Object[]> countPartitions(@Param("job_id") Long job_id);
+
+    /**
+     * Mark a partition completed, unless a previous run of its job already did.
+     *
+     * @return 1 if the partition was completed, 0 otherwise.
+     */
+    @Modifying
+    @Query(
+        "update ReindexPartition p set p.completed_at =:completed_at, p.document_count =:document_count" +
+        " where p.id =:id and p.completed_at is null"
+    )
+    int complete(@Param("id") Long id, @Param("completed_at") Instant completed_at, @Param("document_count") long document_count);
+}
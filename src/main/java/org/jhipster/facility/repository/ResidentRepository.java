@@ -1,10 +1,20 @@
 package org.jhipster.facility.repository;
 
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Stream;
+import javax.persistence.EntityManager;
+import javax.persistence.QueryHint;
+import javax.validation.Validator;
+import org.hibernate.Session;
 import org.jhipster.facility.domain.Resident;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.*;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -13,7 +23,17 @@ import org.springframework.stereotype.Repository;
  * Spring Data SQL repository for the Resident entity.
  */
 @Repository
-public interface ResidentRepository extends JpaRepository<Resident, Long> {
+public interface ResidentRepository extends JpaRepository<Resident, Long>, ResidentRepositoryInternal {
+    /**
+     * Rows fetched per round trip by {@link #streamWithFacilityId(Long)}.
+     */
+    String EXPORT_FETCH_SIZE = "1000";
+
+    /**
+     * Rows fetched per round trip by {@link #streamByIdRange(Long, Long)}.
+     */
+    String REINDEX_FETCH_SIZE = "1000";
+
     default Optional<Resident> findOneWithEagerRelationships(Long id) {
         return this.findOneWithToOneRelationships(id);
     }
@@ -35,6 +55,24 @@ public interface ResidentRepository extends JpaRepository<Resident, Long> {
     @Query("select distinct resident from Resident resident left join fetch resident.room")
     List<Resident> findAllWithToOneRelationships();
 
+    /**
+     * Read a page without counting the residents: one row more than the page tells whether a next page exists.
+     */
+    @Query("select resident from Resident resident left join fetch resident.room")
+    Slice<Resident> findSliceWithToOneRelationships(Pageable pageable);
+
+    @Query("select resident from Resident resident")
+    Slice<Resident> findSlice(Pageable pageable);
+
+    /**
+     * Seek the residents following an id, in id order: the page starts with an index lookup whatever its depth.
+     */
+    @Query("select resident from Resident resident left join fetch resident.room where resident.id >:after order by resident.id")
+    List<Resident> findAllWithToOneRelationshipsAfter(@Param("after") Long after, Pageable pageable);
+
+    @Query("select resident from Resident resident where resident.id >:after order by resident.id")
+    List<Resident> findAllAfter(@Param("after") Long after, Pageable pageable);
+
     @Query("select resident from Resident resident left join fetch resident.room where resident.id =:id")
     Optional<Resident> findOneWithToOneRelationships(@Param("id") Long id);
 
@@ -42,5 +80,166 @@ public interface ResidentRepository extends JpaRepository<Resident, Long> {
         value = "select r from Resident r where r.room.id =:room_id",
         countQuery = "select count(r) from Resident r where r.room.id=:room_id"
     )
+    @EntityGraph(Resident.WITH_ROOM_GRAPH)
     Page<Resident> findWithRoomId(Pageable pageable, @Param("room_id") Long room_id);
+
+    @Query("select r from Resident r where r.room.id =:room_id")
+    @EntityGraph(Resident.WITH_ROOM_GRAPH)
+    Slice<Resident> findSliceWithRoomId(Pageable pageable, @Param("room_id") Long room_id);
+
+    @Query("select r from Resident r where r.room.id =:room_id and r.id >:after order by r.id")
+    @EntityGraph(Resident.WITH_ROOM_GRAPH)
+    List<Resident> findWithRoomIdAfter(@Param("room_id") Long room_id, @Param("after") Long after, Pageable pageable);
+
+    @Query("select r.room.id from Resident r where r.id =:id")
+    Optional<Long> findRoomIdById(@Param("id") Long id);
+
+    @Query("select r.id, r.room.id from Resident r where r.id in :ids")
+    List<Object[]> findRoomIdsByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Read residents with their room and its facility, as indexed for search.
+     */
+    @Query("select resident from Resident resident where resident.id in :ids")
+    @EntityGraph(Resident.WITH_ROOM_AND_FACILITY_GRAPH)
+    List<Resident> findAllWithRoomAndFacilityByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * @return the ids of the residents of rooms, whose search documents hold fields of their room.
+     */
+    @Query("select r.id from Resident r where r.room.id in :room_ids")
+    List<Long> findIdsByRoomIdIn(@Param("room_ids") Collection<Long> room_ids);
+
+    /**
+     * @return the ids of the residents of facilities, whose search documents hold fields of the facility of their room.
+     */
+    @Query("select r.id from Resident r where r.room.facility.id in :facility_ids")
+    List<Long> findIdsByFacilityIdIn(@Param("facility_ids") Collection<Long> facility_ids);
+
+    @Query("select r.phone_number from Resident r where r.phone_number in :phone_numbers")
+    List<Integer> findPhoneNumbersIn(@Param("phone_numbers") Collection<Integer> phone_numbers);
+
+    /**
+     * Stream the residents of a facility in id order, with their room, through a forward-only cursor reading
+     * {@value #EXPORT_FETCH_SIZE} rows per round trip (a server-side cursor on MySQL, opened with {@code useCursorFetch}).
+     * The stream must be consumed and closed within a transaction, and the residents read detached as they go to keep
+     * the persistence context small.
+     */
+    @Query("select r from Resident r join fetch r.room room join fetch room.facility where room.facility.id =:facility_id order by r.id")
+    @QueryHints(
+        {
+            @QueryHint(name = org.hibernate.annotations.QueryHints.FETCH_SIZE, value = EXPORT_FETCH_SIZE),
+            @QueryHint(name = org.hibernate.annotations.QueryHints.READ_ONLY, value = "true"),
+            @QueryHint(name = org.hibernate.annotations.QueryHints.CACHEABLE, value = "false"),
+        }
+    )
+    Stream<Resident> streamWithFacilityId(@Param("facility_id") Long facility_id);
+
+    /**
+     * @return the number of residents of the facility and of the rooms they occupy, as a single row.
+     */
+    @Query("select count(r), count(distinct r.room.id) from Resident r where r.room.facility.id =:facility_id")
+    List<Object[]> countResidentsAndRooms(@Param("facility_id") Long facility_id);
+
+    /**
+     * @return the lowest and highest ids of the residents, {@code null} if there are none, as a single row.
+     */
+    @Query("select min(r.id), max(r.id) from Resident r")
+    List<Object[]> findIdRange();
+
+    /**
+     * Stream the residents of an id range in id order, with their room and its facility, through a forward-only cursor reading
+     * {@value #REINDEX_FETCH_SIZE} rows per round trip, to be written to a new search index. The stream must be consumed
+     * and closed within a transaction.
+     *
+     * @param from_id the first id of the range, inclusive.
+     * @param to_id the last id of the range, exclusive.
+     */
+    @Query(
+        "select r from Resident r left join fetch r.room room left join fetch room.facility" +
+        " where r.id >=:from_id and r.id <:to_id order by r.id"
+    )
+    @QueryHints(
+        {
+            @QueryHint(name = org.hibernate.annotations.QueryHints.FETCH_SIZE, value = REINDEX_FETCH_SIZE),
+            @QueryHint(name = org.hibernate.annotations.QueryHints.READ_ONLY, value = "true"),
+            @QueryHint(name = org.hibernate.annotations.QueryHints.CACHEABLE, value = "false"),
+        }
+    )
+    Stream<Resident> streamByIdRange(@Param("from_id") Long from_id, @Param("to_id") Long to_id);
+
+    /**
+     * @return the ids of the residents of an id range, in no particular order.
+     */
+    @Query("select r.id from Resident r where r.id >=:from_id and r.id <:to_id")
+    List<Long> findIdsByIdRange(@Param("from_id") Long from_id, @Param("to_id") Long to_id);
+}
+
+interface ResidentRepositoryInternal {
+    /**
+     * Move residents to other rooms with one JDBC batch of updates, skipping the residents no longer in their expected room.
+     *
+     * @param residentIds the ids of the residents to move.
+     * @param fromRoomIds the room each resident is expected to be in.
+     * @param toRoomIds the room each resident moves to.
+     * @param batchSize the number of updates sent per batch.
+     * @return the number of residents moved.
+     */
+    int moveAll(long[] residentIds, long[] fromRoomIds, long[] toRoomIds, int batchSize);
+
+    /**
+     * Update attributes of a resident with a single {@code UPDATE}, without reading it.
+     *
+     * @param id the id of the resident.
+     * @param version the version the resident must have, {@code null} to update any version.
+     * @param attributes the new values of the attributes to update, by attribute name.
+     * @return {@code true} if the resident was updated, {@code false} if it does not exist.
+     * @throws javax.validation.ConstraintViolationException if a value breaks a constraint of its attribute.
+     * @throws org.springframework.orm.ObjectOptimisticLockingFailureException if the resident has another version.
+     */
+    boolean partialUpdate(Long id, Long version, Map<String, Object> attributes);
+}
+
+class ResidentRepositoryInternalImpl implements ResidentRepositoryInternal {
+
+    private static final String MOVE_SQL = "update resident set room_id = ?, version = version + 1 where id = ? and room_id = ?";
+
+    private final EntityManager entityManager;
+
+    private final PartialUpdate partialUpdate;
+
+    ResidentRepositoryInternalImpl(EntityManager entityManager, Validator validator) {
+        this.entityManager = entityManager;
+        this.partialUpdate = new PartialUpdate(entityManager, validator);
+    }
+
+    @Override
+    public int moveAll(long[] residentIds, long[] fromRoomIds, long[] toRoomIds, int batchSize) {
+        entityManager.flush();
+        int[] moved = new int[1];
+        entityManager
+            .unwrap(Session.class)
+            .doWork(connection -> {
+                try (PreparedStatement statement = connection.prepareStatement(MOVE_SQL)) {
+                    for (int i = 0; i < residentIds.length; i++) {
+                        statement.setLong(1, toRoomIds[i]);
+                        statement.setLong(2, residentIds[i]);
+                        statement.setLong(3, fromRoomIds[i]);
+                        statement.addBatch();
+                        if ((i + 1) % batchSize == 0 || i == residentIds.length - 1) {
+                            for (int count : statement.executeBatch()) {
+                                // Drivers rewriting the batch may only report success.
+                                moved[0] += count == Statement.SUCCESS_NO_INFO ? 1 : count;
+                            }
+                        }
+                    }
+                }
+            });
+        return moved[0];
+    }
+
+    @Override
+    public boolean partialUpdate(Long id, Long version, Map<String, Object> attributes) {
+        return partialUpdate.execute(Resident.class, id, version, attributes);
+    }
 }
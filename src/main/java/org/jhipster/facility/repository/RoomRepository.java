@@ -1,10 +1,18 @@
 package org.jhipster.facility.repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Stream;
+import javax.persistence.EntityManager;
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
+import javax.validation.Validator;
 import org.jhipster.facility.domain.Room;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.*;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -13,7 +21,14 @@ import org.springframework.stereotype.Repository;
  * Spring Data SQL repository for the Room entity.
  */
 @Repository
-public interface RoomRepository extends JpaRepository<Room, Long> {
+public interface RoomRepository extends JpaRepository<Room, Long>, RoomRepositoryInternal {
+    String ROOMS_BY_FACILITY_CACHE = "roomsByFacility";
+
+    /**
+     * Rows fetched per round trip by {@link #streamByIdRange(Long, Long)}.
+     */
+    String REINDEX_FETCH_SIZE = "1000";
+
     default Optional<Room> findOneWithEagerRelationships(Long id) {
         return this.findOneWithToOneRelationships(id);
     }
@@ -35,6 +50,24 @@ public interface RoomRepository extends JpaRepository<Room, Long> {
     @Query("select distinct room from Room room left join fetch room.facility")
     List<Room> findAllWithToOneRelationships();
 
+    /**
+     * Read a page without counting the rooms: one row more than the page tells whether a next page exists.
+     */
+    @Query("select room from Room room left join fetch room.facility")
+    Slice<Room> findSliceWithToOneRelationships(Pageable pageable);
+
+    @Query("select room from Room room")
+    Slice<Room> findSlice(Pageable pageable);
+
+    /**
+     * Seek the rooms following an id, in id order: the page starts with an index lookup whatever its depth.
+     */
+    @Query("select room from Room room left join fetch room.facility where room.id >:after order by room.id")
+    List<Room> findAllWithToOneRelationshipsAfter(@Param("after") Long after, Pageable pageable);
+
+    @Query("select room from Room room where room.id >:after order by room.id")
+    List<Room> findAllAfter(@Param("after") Long after, Pageable pageable);
+
     @Query("select room from Room room left join fetch room.facility where room.id =:id")
     Optional<Room> findOneWithToOneRelationships(@Param("id") Long id);
 
@@ -42,5 +75,166 @@ public interface RoomRepository extends JpaRepository<Room, Long> {
         value = "select r from Room r where r.facility.id =:facility_id",
         countQuery = "select count(r) from Room r where r.facility.id=:facility_id"
     )
+    @EntityGraph(Room.WITH_FACILITY_GRAPH)
+    @QueryHints(
+        {
+            @QueryHint(name = org.hibernate.annotations.QueryHints.CACHEABLE, value = "true"),
+            @QueryHint(name = org.hibernate.annotations.QueryHints.CACHE_REGION, value = ROOMS_BY_FACILITY_CACHE),
+        }
+    )
     Page<Room> findWithFacilityId(Pageable pageable, @Param("facility_id") Long facility_id);
+
+    @Query("select r from Room r where r.facility.id =:facility_id")
+    @EntityGraph(Room.WITH_FACILITY_GRAPH)
+    Slice<Room> findSliceWithFacilityId(Pageable pageable, @Param("facility_id") Long facility_id);
+
+    @Query("select r from Room r where r.facility.id =:facility_id and r.id >:after order by r.id")
+    @EntityGraph(Room.WITH_FACILITY_GRAPH)
+    List<Room> findWithFacilityIdAfter(@Param("facility_id") Long facility_id, @Param("after") Long after, Pageable pageable);
+
+    @Query("select r from Room r join fetch r.facility where r.facility.id =:facility_id order by r.id")
+    List<Room> findAllWithFacilityId(@Param("facility_id") Long facility_id);
+
+    /**
+     * Read rooms with their facility, as indexed for search.
+     */
+    @Query("select r from Room r where r.id in :ids")
+    @EntityGraph(Room.WITH_FACILITY_GRAPH)
+    List<Room> findAllWithFacilityByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("select r.facility.id, r.room_number from Room r where r.facility.id in :facility_ids and r.room_number in :room_numbers")
+    List<Object[]> findRoomNumbersIn(
+        @Param("facility_ids") Collection<Long> facility_ids,
+        @Param("room_numbers") Collection<Integer> room_numbers
+    );
+
+    /**
+     * Read a room and lock its row until the end of the transaction, serializing the writes that depend on it.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select r from Room r where r.id =:id")
+    Optional<Room> findByIdForUpdate(@Param("id") Long id);
+
+    @Query("select r.facility.id from Room r where r.id =:id")
+    Optional<Long> findFacilityIdById(@Param("id") Long id);
+
+    @Query("select r.id from Room r order by r.id")
+    List<Long> findAllIds();
+
+    @Query("select r.id, r.facility.id, r.capacity, r.occupant_count from Room r")
+    List<Object[]> findAllOccupancies();
+
+    /**
+     * @return the lowest and highest ids of the rooms, {@code null} if there are none, as a single row.
+     */
+    @Query("select min(r.id), max(r.id) from Room r")
+    List<Object[]> findIdRange();
+
+    /**
+     * Stream the rooms of an id range in id order, with their facility, through a forward-only cursor reading
+     * {@value #REINDEX_FETCH_SIZE} rows per round trip, to be written to a new search index. The stream must be consumed
+     * and closed within a transaction.
+     *
+     * @param from_id the first id of the range, inclusive.
+     * @param to_id the last id of the range, exclusive.
+     */
+    @Query("select r from Room r left join fetch r.facility where r.id >=:from_id and r.id <:to_id order by r.id")
+    @QueryHints(
+        {
+            @QueryHint(name = org.hibernate.annotations.QueryHints.FETCH_SIZE, value = REINDEX_FETCH_SIZE),
+            @QueryHint(name = org.hibernate.annotations.QueryHints.READ_ONLY, value = "true"),
+            @QueryHint(name = org.hibernate.annotations.QueryHints.CACHEABLE, value = "false"),
+        }
+    )
+    Stream<Room> streamByIdRange(@Param("from_id") Long from_id, @Param("to_id") Long to_id);
+
+    /**
+     * @return the ids of the rooms of an id range, in no particular order.
+     */
+    @Query("select r.id from Room r where r.id >=:from_id and r.id <:to_id")
+    List<Long> findIdsByIdRange(@Param("from_id") Long from_id, @Param("to_id") Long to_id);
+
+    @Query("select r.facility.id, r.occupant_count from Room r where r.id =:id")
+    List<Object[]> findFacilityIdAndOccupantCountById(@Param("id") Long id);
+
+    /**
+     * @return the number of rooms of the facility and their total capacity, as a single row.
+     */
+    @Query("select count(r), coalesce(sum(r.capacity), 0) from Room r where r.facility.id =:facility_id")
+    List<Object[]> countRoomsAndBeds(@Param("facility_id") Long facility_id);
+}
+
+interface RoomRepositoryInternal {
+    /**
+     * Update attributes of a room with a single {@code UPDATE}, without reading it.
+     *
+     * @param id the id of the room.
+     * @param version the version the room must have, {@code null} to update any version.
+     * @param attributes the new values of the attributes to update, by attribute name.
+     * @return {@code true} if the room was updated, {@code false} if it does not exist.
+     * @throws javax.validation.ConstraintViolationException if a value breaks a constraint of its attribute.
+     * @throws org.springframework.orm.ObjectOptimisticLockingFailureException if the room has another version.
+     */
+    boolean partialUpdate(Long id, Long version, Map<String, Object> attributes);
+
+    /**
+     * Add occupants to a room, unless that would exceed its capacity. The room is locked until the end of the transaction.
+     *
+     * @return 1 if the occupants were added, 0 if the room is full or does not exist.
+     * @throws org.springframework.orm.ObjectOptimisticLockingFailureException if the room was read at an older version.
+     */
+    int incrementOccupantCount(Long id, int count);
+
+    /**
+     * Remove occupants from a room, never going below zero. The room is locked until the end of the transaction.
+     *
+     * @return 1 if the occupants were removed, 0 otherwise.
+     * @throws org.springframework.orm.ObjectOptimisticLockingFailureException if the room was read at an older version.
+     */
+    int decrementOccupantCount(Long id, int count);
+}
+
+class RoomRepositoryInternalImpl implements RoomRepositoryInternal {
+
+    private final EntityManager entityManager;
+
+    private final PartialUpdate partialUpdate;
+
+    RoomRepositoryInternalImpl(EntityManager entityManager, Validator validator) {
+        this.entityManager = entityManager;
+        this.partialUpdate = new PartialUpdate(entityManager, validator);
+    }
+
+    @Override
+    public boolean partialUpdate(Long id, Long version, Map<String, Object> attributes) {
+        return partialUpdate.execute(Room.class, id, version, attributes);
+    }
+
+    @Override
+    public int incrementOccupantCount(Long id, int count) {
+        Room room = entityManager.find(Room.class, id, LockModeType.PESSIMISTIC_WRITE);
+        if (room == null || room.getOccupant_count() + count > room.getCapacity()) {
+            return 0;
+        }
+        return setOccupantCount(room, room.getOccupant_count() + count);
+    }
+
+    @Override
+    public int decrementOccupantCount(Long id, int count) {
+        Room room = entityManager.find(Room.class, id, LockModeType.PESSIMISTIC_WRITE);
+        if (room == null || room.getOccupant_count() < count) {
+            return 0;
+        }
+        return setOccupantCount(room, room.getOccupant_count() - count);
+    }
+
+    /**
+     * Change the count on the managed room rather than with a bulk update, which would evict every room from the
+     * second-level cache: Hibernate writes this room alone through it.
+     */
+    private int setOccupantCount(Room room, int occupantCount) {
+        room.setOccupant_count(occupantCount);
+        entityManager.flush();
+        return 1;
+    }
 }
@@ -0,0 +1,18 @@
+package org.jhipster.facility.repository;
+
+import java.time.Instant;
+import java.util.List;
+import org.jhipster.facility.domain.RoomSnapshot;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data SQL repository for the RoomSnapshot entity.
+ */
+@Repository
+public interface RoomSnapshotRepository extends JpaRepository<RoomSnapshot, Long> {
+    @Query("select s from RoomSnapshot s where s.room_id =:room_id and s.event_at <= :until order by s.last_event_id desc")
+    List<RoomSnapshot> findLatest(@Param("room_id") Long room_id, @Param("until") Instant until, Pageable pageable);
+}
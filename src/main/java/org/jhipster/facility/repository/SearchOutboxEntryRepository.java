@@ -0,0 +1,70 @@
+package org.jhipster.facility.repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
+import org.jhipster.facility.domain.SearchOutboxEntry;
+import org.jhipster.facility.domain.enumeration.SearchDocumentType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data SQL repository for the SearchOutboxEntry entity.
+ */
+@Repository
+public interface SearchOutboxEntryRepository extends JpaRepository<SearchOutboxEntry, Long> {
+    /**
+     * Lock time-out of JPA skipping the rows locked by other transactions instead of waiting for them.
+     */
+    String SKIP_LOCKED = "-2";
+
+    /**
+     * Read the entries due at a time and lock them until the end of the transaction; the entries already locked by
+     * another indexer are skipped, so that several instances drain the outbox side by side.
+     *
+     * @param now the time the entries must be due at.
+     * @param pageable the number of entries to return.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "javax.persistence.lock.timeout", value = SKIP_LOCKED))
+    @Query("select e from SearchOutboxEntry e where e.next_attempt_at <= :now order by e.next_attempt_at, e.id")
+    List<SearchOutboxEntry> findDueForUpdate(@Param("now") Instant now, Pageable pageable);
+
+    /**
+     * Read the entries of entities, due or not, and lock them until the end of the transaction; the entries already locked
+     * by another indexer are skipped.
+     *
+     * @param entity_type the type of the entities.
+     * @param entity_ids the ids of the entities.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "javax.persistence.lock.timeout", value = SKIP_LOCKED))
+    @Query("select e from SearchOutboxEntry e where e.entity_type = :entity_type and e.entity_id in :entity_ids")
+    List<SearchOutboxEntry> findByEntitiesForUpdate(
+        @Param("entity_type") SearchDocumentType entity_type,
+        @Param("entity_ids") Collection<Long> entity_ids
+    );
+
+    /**
+     * @return the id and the entity id of each entry of entities, whether locked by another indexer or not.
+     */
+    @Query("select e.id, e.entity_id from SearchOutboxEntry e where e.entity_type = :entity_type and e.entity_id in :entity_ids")
+    List<Object[]> findIdsByEntities(
+        @Param("entity_type") SearchDocumentType entity_type,
+        @Param("entity_ids") Collection<Long> entity_ids
+    );
+
+    /**
+     * @return the creation time of the oldest entry, {@code null} if the outbox is empty, and the number of entries, as a
+     * single row.
+     */
+    @Query("select min(e.created_at), count(e) from SearchOutboxEntry e")
+    List<Object[]> measureBacklog();
+
+    @Query("select count(e) from SearchOutboxEntry e where e.entity_type =:entity_type and e.entity_id =:entity_id")
+    long countByEntity(@Param("entity_type") SearchDocumentType entity_type, @Param("entity_id") Long entity_id);
+}
@@ -1,13 +1,19 @@
 package org.jhipster.facility.repository;
 
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+import javax.persistence.QueryHint;
 import org.jhipster.facility.domain.User;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.*;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -18,6 +24,12 @@ public interface UserRepository extends JpaRepository<User, Long> {
     String USERS_BY_LOGIN_CACHE = "usersByLogin";
 
     String USERS_BY_EMAIL_CACHE = "usersByEmail";
+
+    /**
+     * Rows fetched per round trip by {@link #streamByIdRange(Long, Long)}.
+     */
+    String REINDEX_FETCH_SIZE = "1000";
+
     Optional<User> findOneByActivationKey(String activationKey);
     List<User> findAllByActivatedIsFalseAndActivationKeyIsNotNullAndCreatedDateBefore(Instant dateTime);
     Optional<User> findOneByResetKey(String resetKey);
@@ -33,4 +45,37 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findOneWithAuthoritiesByEmailIgnoreCase(String email);
 
     Page<User> findAllByIdNotNullAndActivatedIsTrue(Pageable pageable);
+
+    @EntityGraph(attributePaths = "authorities")
+    List<User> findAllWithAuthoritiesByIdIn(Collection<Long> ids);
+
+    /**
+     * @return the lowest and highest ids of the users, {@code null} if there are none, as a single row.
+     */
+    @Query("select min(u.id), max(u.id) from User u")
+    List<Object[]> findIdRange();
+
+    /**
+     * Stream the users of an id range in id order, through a forward-only cursor reading {@value #REINDEX_FETCH_SIZE} rows
+     * per round trip, to be written to a new search index; their authorities are read in batches as they are converted.
+     * The stream must be consumed and closed within a transaction.
+     *
+     * @param from_id the first id of the range, inclusive.
+     * @param to_id the last id of the range, exclusive.
+     */
+    @Query("select u from User u where u.id >=:from_id and u.id <:to_id order by u.id")
+    @QueryHints(
+        {
+            @QueryHint(name = org.hibernate.annotations.QueryHints.FETCH_SIZE, value = REINDEX_FETCH_SIZE),
+            @QueryHint(name = org.hibernate.annotations.QueryHints.READ_ONLY, value = "true"),
+            @QueryHint(name = org.hibernate.annotations.QueryHints.CACHEABLE, value = "false"),
+        }
+    )
+    Stream<User> streamByIdRange(@Param("from_id") Long from_id, @Param("to_id") Long to_id);
+
+    /**
+     * @return the ids of the users of an id range, in no particular order.
+     */
+    @Query("select u.id from User u where u.id >=:from_id and u.id <:to_id")
+    List<Long> findIdsByIdRange(@Param("from_id") Long from_id, @Param("to_id") Long to_id);
 }
@@ -0,0 +1,37 @@
+package org.jhipster.facility.repository;
+
+import java.util.List;
+import java.util.Optional;
+import org.jhipster.facility.domain.WaitlistEntry;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data SQL repository for the WaitlistEntry entity.
+ */
+@Repository
+public interface WaitlistEntryRepository extends JpaRepository<WaitlistEntry, Long> {
+    @Query(
+        value = "select w from WaitlistEntry w where w.facility.id =:facility_id order by w.priority desc, w.id",
+        countQuery = "select count(w) from WaitlistEntry w where w.facility.id=:facility_id"
+    )
+    Page<WaitlistEntry> findWithFacilityId(Pageable pageable, @Param("facility_id") Long facility_id);
+
+    @Query("select w.facility.id from WaitlistEntry w where w.id =:id")
+    Optional<Long> findFacilityIdById(@Param("id") Long id);
+
+    @Query("select w.id, w.facility.id, w.priority from WaitlistEntry w")
+    List<Object[]> findAllQueued();
+
+    /**
+     * Take an entry off the waitlist, so that only one transaction can serve it.
+     *
+     * @return 1 if the entry was removed, 0 if another transaction already did.
+     */
+    @Modifying
+    @Query("delete from WaitlistEntry w where w.id =:id")
+    int deleteQueuedById(@Param("id") Long id);
+}
@@ -3,15 +3,11 @@ package org.jhipster.facility.repository.search;
 import static org.elasticsearch.index.query.QueryBuilders.queryStringQuery;
 
 import java.util.List;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
+import org.jhipster.facility.config.ApplicationProperties;
 import org.jhipster.facility.domain.Facility;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.elasticsearch.core.ElasticsearchRestTemplate;
-import org.springframework.data.elasticsearch.core.SearchHit;
-import org.springframework.data.elasticsearch.core.query.NativeSearchQuery;
 import org.springframework.data.elasticsearch.repository.ElasticsearchRepository;
 
 /**
@@ -21,26 +17,47 @@ public interface FacilitySearchRepository extends ElasticsearchRepository<Facili
 
 interface FacilitySearchRepositoryInternal {
     Page<Facility> search(String query, Pageable pageable);
+
+    /**
+     * Search the page of facilities following a hit, see {@link SearchPaging}.
+     *
+     * @param searchAfter the sort values of the last hit of the previous page, {@code null} for the first page.
+     * @throws IllegalArgumentException if the number of sort values is not that of the fields sorted by.
+     */
+    SearchAfterPage<Facility> searchAfter(String query, List<Object> searchAfter, Pageable pageable);
 }
 
 class FacilitySearchRepositoryInternalImpl implements FacilitySearchRepositoryInternal {
 
     private final ElasticsearchRestTemplate elasticsearchTemplate;
 
-    FacilitySearchRepositoryInternalImpl(ElasticsearchRestTemplate elasticsearchTemplate) {
+    private final ApplicationProperties applicationProperties;
+
+    FacilitySearchRepositoryInternalImpl(ElasticsearchRestTemplate elasticsearchTemplate, ApplicationProperties applicationProperties) {
         this.elasticsearchTemplate = elasticsearchTemplate;
+        this.applicationProperties = applicationProperties;
     }
 
     @Override
     public Page<Facility> search(String query, Pageable pageable) {
-        NativeSearchQuery nativeSearchQuery = new NativeSearchQuery(queryStringQuery(query));
-        nativeSearchQuery.setPageable(pageable);
-        List<Facility> hits = elasticsearchTemplate
-            .search(nativeSearchQuery, Facility.class)
-            .map(SearchHit::getContent)
-            .stream()
-            .collect(Collectors.toList());
-
-        return new PageImpl<>(hits, pageable, hits.size());
+        return SearchPaging.search(
+            elasticsearchTemplate,
+            queryStringQuery(query),
+            pageable,
+            applicationProperties.getSearch().getTrackTotalHitsUpTo(),
+            Facility.class
+        );
+    }
+
+    @Override
+    public SearchAfterPage<Facility> searchAfter(String query, List<Object> searchAfter, Pageable pageable) {
+        return SearchPaging.searchAfter(
+            elasticsearchTemplate,
+            queryStringQuery(query),
+            searchAfter,
+            pageable,
+            applicationProperties.getSearch().getTrackTotalHitsUpTo(),
+            Facility.class
+        );
     }
 }
@@ -0,0 +1,30 @@
+package org.jhipster.facility.repository.search;
+
+import org.hibernate.Hibernate;
+import org.jhipster.facility.domain.Facility;
+import org.jhipster.facility.domain.Room;
+import org.springframework.data.elasticsearch.core.event.BeforeConvertCallback;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.stereotype.Component;
+
+/**
+ * Replaces the lazy proxies of the associations of the indexed entities by the entities themselves before they are
+ * converted to documents: the converter reads the fields of the objects, which are all empty in a proxy.
+ * <p>
+ * A proxy left uninitialized by the fetch plan of the caller is loaded here, from the second-level cache when possible,
+ * so it must still be attached to the current session.
+ */
+@Component
+public class LazyAssociationBeforeConvertCallback implements BeforeConvertCallback<Object> {
+
+    @Override
+    public Object onBeforeConvert(Object entity, IndexCoordinates index) {
+        if (entity instanceof Room) {
+            Room room = (Room) entity;
+            if (room.getFacility() != null) {
+                room.setFacility((Facility) Hibernate.unproxy(room.getFacility()));
+            }
+        }
+        return entity;
+    }
+}
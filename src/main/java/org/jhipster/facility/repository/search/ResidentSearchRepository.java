@@ -1,46 +1,119 @@
 package org.jhipster.facility.repository.search;
 
+import static org.elasticsearch.index.query.QueryBuilders.boolQuery;
 import static org.elasticsearch.index.query.QueryBuilders.queryStringQuery;
+import static org.elasticsearch.index.query.QueryBuilders.termQuery;
 
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
+import org.elasticsearch.index.query.BoolQueryBuilder;
+import org.jhipster.facility.config.ApplicationProperties;
 import org.jhipster.facility.domain.Resident;
+import org.jhipster.facility.domain.search.ResidentDocument;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.elasticsearch.core.ElasticsearchRestTemplate;
-import org.springframework.data.elasticsearch.core.SearchHit;
-import org.springframework.data.elasticsearch.core.query.NativeSearchQuery;
 import org.springframework.data.elasticsearch.repository.ElasticsearchRepository;
 
 /**
- * Spring Data Elasticsearch repository for the {@link Resident} entity.
+ * Spring Data Elasticsearch repository for the {@link ResidentDocument} of the {@link Resident} entity.
  */
-public interface ResidentSearchRepository extends ElasticsearchRepository<Resident, Long>, ResidentSearchRepositoryInternal {}
+public interface ResidentSearchRepository extends ElasticsearchRepository<ResidentDocument, Long>, ResidentSearchRepositoryInternal {}
 
 interface ResidentSearchRepositoryInternal {
-    Page<Resident> search(String query, Pageable pageable);
+    /**
+     * Search the residents, within a facility if one is given, in a single query.
+     *
+     * @param query the query string matched against the documents.
+     * @param facility_id the id of the facility the residents must be in, {@code null} for all the facilities.
+     * @param pageable the pagination information, sorted by properties of {@link Resident} or of its room.
+     * @return the residents found, read from their documents, see {@link ResidentDocument#toResident()}.
+     */
+    Page<Resident> search(String query, Long facility_id, Pageable pageable);
+
+    /**
+     * Search the page of residents following a hit, within a facility if one is given, see {@link SearchPaging}.
+     *
+     * @param searchAfter the sort values of the last hit of the previous page, {@code null} for the first page.
+     * @throws IllegalArgumentException if the number of sort values is not that of the fields sorted by.
+     */
+    SearchAfterPage<Resident> searchAfter(String query, Long facility_id, List<Object> searchAfter, Pageable pageable);
 }
 
 class ResidentSearchRepositoryInternalImpl implements ResidentSearchRepositoryInternal {
 
+    /**
+     * Fields of the documents by the properties of the residents they are copied from.
+     */
+    private static final Map<String, String> FIELDS_BY_PROPERTY = Map.of(
+        "room.id",
+        "room_id",
+        "room.room_number",
+        "room_number",
+        "room.facility.id",
+        "facility_id",
+        "room.facility.facility_name",
+        "facility_name.keyword"
+    );
+
     private final ElasticsearchRestTemplate elasticsearchTemplate;
 
-    ResidentSearchRepositoryInternalImpl(ElasticsearchRestTemplate elasticsearchTemplate) {
+    private final ApplicationProperties applicationProperties;
+
+    ResidentSearchRepositoryInternalImpl(ElasticsearchRestTemplate elasticsearchTemplate, ApplicationProperties applicationProperties) {
         this.elasticsearchTemplate = elasticsearchTemplate;
+        this.applicationProperties = applicationProperties;
+    }
+
+    @Override
+    public Page<Resident> search(String query, Long facility_id, Pageable pageable) {
+        return SearchPaging
+            .search(
+                elasticsearchTemplate,
+                residentQuery(query, facility_id),
+                toDocumentFields(pageable),
+                applicationProperties.getSearch().getTrackTotalHitsUpTo(),
+                ResidentDocument.class
+            )
+            .map(ResidentDocument::toResident);
     }
 
     @Override
-    public Page<Resident> search(String query, Pageable pageable) {
-        NativeSearchQuery nativeSearchQuery = new NativeSearchQuery(queryStringQuery(query));
-        nativeSearchQuery.setPageable(pageable);
-        List<Resident> hits = elasticsearchTemplate
-            .search(nativeSearchQuery, Resident.class)
-            .map(SearchHit::getContent)
-            .stream()
-            .collect(Collectors.toList());
-
-        return new PageImpl<>(hits, pageable, hits.size());
+    public SearchAfterPage<Resident> searchAfter(String query, Long facility_id, List<Object> searchAfter, Pageable pageable) {
+        return SearchPaging
+            .searchAfter(
+                elasticsearchTemplate,
+                residentQuery(query, facility_id),
+                searchAfter,
+                toDocumentFields(pageable),
+                applicationProperties.getSearch().getTrackTotalHitsUpTo(),
+                ResidentDocument.class
+            )
+            .map(ResidentDocument::toResident);
+    }
+
+    private static BoolQueryBuilder residentQuery(String query, Long facility_id) {
+        BoolQueryBuilder boolQuery = boolQuery().must(queryStringQuery(query));
+        if (facility_id != null) {
+            boolQuery.filter(termQuery("facility_id", facility_id));
+        }
+        return boolQuery;
+    }
+
+    private static Pageable toDocumentFields(Pageable pageable) {
+        if (pageable.isUnpaged() || pageable.getSort().isUnsorted()) {
+            return pageable;
+        }
+        Sort sort = Sort.by(
+            pageable
+                .getSort()
+                .stream()
+                .map(order -> order.withProperty(FIELDS_BY_PROPERTY.getOrDefault(order.getProperty(), order.getProperty())))
+                .collect(Collectors.toList())
+        );
+        return PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), sort);
     }
 }
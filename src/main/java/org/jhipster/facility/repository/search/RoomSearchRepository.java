@@ -3,15 +3,11 @@ package org.jhipster.facility.repository.search;
 import static org.elasticsearch.index.query.QueryBuilders.queryStringQuery;
 
 import java.util.List;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
+import org.jhipster.facility.config.ApplicationProperties;
 import org.jhipster.facility.domain.Room;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.elasticsearch.core.ElasticsearchRestTemplate;
-import org.springframework.data.elasticsearch.core.SearchHit;
-import org.springframework.data.elasticsearch.core.query.NativeSearchQuery;
 import org.springframework.data.elasticsearch.repository.ElasticsearchRepository;
 
 /**
@@ -21,26 +17,47 @@ public interface RoomSearchRepository extends ElasticsearchRepository<Room, Long
 
 interface RoomSearchRepositoryInternal {
     Page<Room> search(String query, Pageable pageable);
+
+    /**
+     * Search the page of rooms following a hit, see {@link SearchPaging}.
+     *
+     * @param searchAfter the sort values of the last hit of the previous page, {@code null} for the first page.
+     * @throws IllegalArgumentException if the number of sort values is not that of the fields sorted by.
+     */
+    SearchAfterPage<Room> searchAfter(String query, List<Object> searchAfter, Pageable pageable);
 }
 
 class RoomSearchRepositoryInternalImpl implements RoomSearchRepositoryInternal {
 
     private final ElasticsearchRestTemplate elasticsearchTemplate;
 
-    RoomSearchRepositoryInternalImpl(ElasticsearchRestTemplate elasticsearchTemplate) {
+    private final ApplicationProperties applicationProperties;
+
+    RoomSearchRepositoryInternalImpl(ElasticsearchRestTemplate elasticsearchTemplate, ApplicationProperties applicationProperties) {
         this.elasticsearchTemplate = elasticsearchTemplate;
+        this.applicationProperties = applicationProperties;
     }
 
     @Override
     public Page<Room> search(String query, Pageable pageable) {
-        NativeSearchQuery nativeSearchQuery = new NativeSearchQuery(queryStringQuery(query));
-        nativeSearchQuery.setPageable(pageable);
-        List<Room> hits = elasticsearchTemplate
-            .search(nativeSearchQuery, Room.class)
-            .map(SearchHit::getContent)
-            .stream()
-            .collect(Collectors.toList());
-
-        return new PageImpl<>(hits, pageable, hits.size());
+        return SearchPaging.search(
+            elasticsearchTemplate,
+            queryStringQuery(query),
+            pageable,
+            applicationProperties.getSearch().getTrackTotalHitsUpTo(),
+            Room.class
+        );
+    }
+
+    @Override
+    public SearchAfterPage<Room> searchAfter(String query, List<Object> searchAfter, Pageable pageable) {
+        return SearchPaging.searchAfter(
+            elasticsearchTemplate,
+            queryStringQuery(query),
+            searchAfter,
+            pageable,
+            applicationProperties.getSearch().getTrackTotalHitsUpTo(),
+            Room.class
+        );
     }
 }
@@ -0,0 +1,75 @@
+package org.jhipster.facility.repository.search;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.elasticsearch.core.TotalHitsRelation;
+
+/**
+ * A page of search hits read right after the sort values of the last hit of the previous page, with
+ * {@code search_after}, rather than at an offset: a deep page costs the same as the first one.
+ *
+ * @param <T> the type of the hits.
+ */
+public class SearchAfterPage<T> {
+
+    private final List<T> content;
+
+    private final List<Object> nextSearchAfter;
+
+    private final long totalHits;
+
+    private final TotalHitsRelation totalHitsRelation;
+
+    public SearchAfterPage(List<T> content, List<Object> nextSearchAfter, long totalHits, TotalHitsRelation totalHitsRelation) {
+        this.content = content;
+        this.nextSearchAfter = nextSearchAfter;
+        this.totalHits = totalHits;
+        this.totalHitsRelation = totalHitsRelation;
+    }
+
+    /**
+     * @param sort the sort requested.
+     * @return the number of sort values of each hit searched with that sort, which the sort values to search after must
+     * have.
+     */
+    public static int sortValueCount(Sort sort) {
+        return SearchPaging.stableSort(sort).toList().size();
+    }
+
+    public List<T> getContent() {
+        return content;
+    }
+
+    /**
+     * @return the sort values of the last hit of the page, to read the next page after, {@code null} on the last page.
+     */
+    public List<Object> getNextSearchAfter() {
+        return nextSearchAfter;
+    }
+
+    public boolean hasNext() {
+        return nextSearchAfter != null;
+    }
+
+    /**
+     * @return the number of hits of all the pages, counted up to {@code application.search.track-total-hits-up-to}.
+     */
+    public long getTotalHits() {
+        return totalHits;
+    }
+
+    /**
+     * @return {@link TotalHitsRelation#GREATER_THAN_OR_EQUAL_TO} if more hits than the threshold matched, so that the
+     * total is a lower bound.
+     */
+    public TotalHitsRelation getTotalHitsRelation() {
+        return totalHitsRelation;
+    }
+
+    public <R> SearchAfterPage<R> map(Function<? super T, ? extends R> converter) {
+        List<R> converted = content.stream().map(converter).collect(Collectors.toList());
+        return new SearchAfterPage<>(converted, nextSearchAfter, totalHits, totalHitsRelation);
+    }
+}
@@ -0,0 +1,153 @@
+package org.jhipster.facility.repository.search;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import org.elasticsearch.action.DocWriteRequest;
+import org.elasticsearch.action.bulk.BulkItemResponse;
+import org.elasticsearch.action.bulk.BulkRequest;
+import org.elasticsearch.action.bulk.BulkResponse;
+import org.elasticsearch.action.delete.DeleteRequest;
+import org.elasticsearch.action.index.IndexRequest;
+import org.elasticsearch.client.RequestOptions;
+import org.elasticsearch.common.xcontent.XContentType;
+import org.elasticsearch.rest.RestStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.elasticsearch.BulkFailureException;
+import org.springframework.data.elasticsearch.core.ElasticsearchRestTemplate;
+import org.springframework.data.elasticsearch.core.IndexOperations;
+import org.springframework.data.elasticsearch.core.index.AliasAction;
+import org.springframework.data.elasticsearch.core.index.AliasActionParameters;
+import org.springframework.data.elasticsearch.core.index.AliasActions;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.stereotype.Component;
+
+/**
+ * Operations on Elasticsearch indices given by name rather than by entity class, used to build a new index beside the
+ * one searched and to point the name the entities are searched and written by, an alias, at it.
+ */
+@Component
+public class SearchIndexOperations {
+
+    private final Logger log = LoggerFactory.getLogger(SearchIndexOperations.class);
+
+    private final ElasticsearchRestTemplate elasticsearchTemplate;
+
+    public SearchIndexOperations(ElasticsearchRestTemplate elasticsearchTemplate) {
+        this.elasticsearchTemplate = elasticsearchTemplate;
+    }
+
+    /**
+     * Create an index with the settings and mapping of an entity class.
+     */
+    public void createIndex(String index, Class<?> entityClass) {
+        IndexOperations entityOperations = elasticsearchTemplate.indexOps(entityClass);
+        elasticsearchTemplate
+            .indexOps(IndexCoordinates.of(index))
+            .create(entityOperations.createSettings(entityClass), entityOperations.createMapping(entityClass));
+    }
+
+    /**
+     * Write documents given as JSON sources in one bulk request, unless a document with the same id already is in the
+     * index: a document written meanwhile by the search indexer is newer than the source read for it.
+     *
+     * @param sources the JSON sources of the documents, by id.
+     * @throws BulkFailureException if documents could not be written for another reason.
+     */
+    public void bulkCreate(String index, Map<String, byte[]> sources) {
+        BulkRequest request = new BulkRequest(index);
+        sources.forEach((id, source) ->
+            request.add(new IndexRequest().id(id).source(source, XContentType.JSON).opType(DocWriteRequest.OpType.CREATE))
+        );
+        checkFailures(bulk(request), RestStatus.CONFLICT);
+    }
+
+    /**
+     * Write entities to an index in one bulk request, replacing their documents.
+     *
+     * @throws BulkFailureException if documents could not be written.
+     */
+    public void bulkIndex(String index, Iterable<?> entities) {
+        elasticsearchTemplate.save(entities, IndexCoordinates.of(index));
+    }
+
+    /**
+     * Delete documents from an index in one bulk request; the documents not in the index are ignored.
+     *
+     * @throws BulkFailureException if documents could not be deleted.
+     */
+    public void bulkDelete(String index, Collection<Long> ids) {
+        BulkRequest request = new BulkRequest(index);
+        ids.forEach(id -> request.add(new DeleteRequest().id(id.toString())));
+        checkFailures(bulk(request), RestStatus.NOT_FOUND);
+    }
+
+    public void refresh(String index) {
+        elasticsearchTemplate.indexOps(IndexCoordinates.of(index)).refresh();
+    }
+
+    public boolean exists(String index) {
+        return elasticsearchTemplate.indexOps(IndexCoordinates.of(index)).exists();
+    }
+
+    public void deleteIndex(String index) {
+        elasticsearchTemplate.indexOps(IndexCoordinates.of(index)).delete();
+    }
+
+    /**
+     * @return the indices an alias points to, none if there is no such alias.
+     */
+    public Set<String> getAliasedIndices(String alias) {
+        return new HashSet<>(elasticsearchTemplate.indexOps(IndexCoordinates.of(alias)).getAliases(alias).keySet());
+    }
+
+    /**
+     * Point an alias at an index, and only at it, in one atomic request: searches through the alias see either the
+     * previous index or the new one, and writes through it go to the index, its write index. The indices the alias
+     * pointed at are deleted afterwards, as is an index named like the alias, created before indices were versioned.
+     */
+    public void switchAlias(String alias, String index) {
+        Set<String> previousIndices = getAliasedIndices(alias);
+        if (previousIndices.equals(Set.of(index))) {
+            return;
+        }
+        previousIndices.remove(index);
+        AliasActions actions = new AliasActions();
+        if (previousIndices.isEmpty() && exists(alias)) {
+            actions.add(new AliasAction.RemoveIndex(AliasActionParameters.builder().withIndices(alias).build()));
+        }
+        for (String previousIndex : previousIndices) {
+            actions.add(new AliasAction.Remove(AliasActionParameters.builder().withIndices(previousIndex).withAliases(alias).build()));
+        }
+        actions.add(
+            new AliasAction.Add(AliasActionParameters.builder().withIndices(index).withAliases(alias).withIsWriteIndex(true).build())
+        );
+        elasticsearchTemplate.indexOps(IndexCoordinates.of(alias)).alias(actions);
+        for (String previousIndex : previousIndices) {
+            log.debug("Deleting index {}, replaced by {}", previousIndex, index);
+            deleteIndex(previousIndex);
+        }
+    }
+
+    private BulkResponse bulk(BulkRequest request) {
+        return elasticsearchTemplate.execute(client -> client.bulk(request, RequestOptions.DEFAULT));
+    }
+
+    private static void checkFailures(BulkResponse response, RestStatus ignored) {
+        if (!response.hasFailures()) {
+            return;
+        }
+        Map<String, String> failedDocuments = new LinkedHashMap<>();
+        for (BulkItemResponse item : response.getItems()) {
+            if (item.isFailed() && item.getFailure().getStatus() != ignored) {
+                failedDocuments.put(item.getId(), item.getFailureMessage());
+            }
+        }
+        if (!failedDocuments.isEmpty()) {
+            throw new BulkFailureException("Bulk operation has failures: " + failedDocuments, failedDocuments);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package org.jhipster.facility.repository.search;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import org.elasticsearch.index.query.QueryBuilder;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.elasticsearch.core.ElasticsearchRestTemplate;
+import org.springframework.data.elasticsearch.core.SearchHit;
+import org.springframework.data.elasticsearch.core.SearchHits;
+import org.springframework.data.elasticsearch.core.query.NativeSearchQuery;
+
+/**
+ * Paging of the searches of the search repositories, either at the offset of a page number or after the sort values of
+ * the last hit of the previous page.
+ * <p>
+ * The hits are sorted as requested, by relevance if no sort is requested, then by id so that hits of equal sort values
+ * keep the same order from one page to the next. The hits of all the pages are counted up to a threshold rather than
+ * exactly, which would visit every hit.
+ */
+final class SearchPaging {
+
+    /**
+     * The field breaking the ties between hits of equal sort values: unique, and mapped as a number in every index.
+     */
+    static final String TIEBREAKER = "id";
+
+    private static final String SCORE = "_score";
+
+    private SearchPaging() {}
+
+    /**
+     * Read the page of hits at the offset of the page number, with the number of hits of all the pages.
+     */
+    static <T> Page<T> search(
+        ElasticsearchRestTemplate elasticsearchTemplate,
+        QueryBuilder query,
+        Pageable pageable,
+        int trackTotalHitsUpTo,
+        Class<T> clazz
+    ) {
+        NativeSearchQuery nativeSearchQuery = new NativeSearchQuery(query);
+        if (pageable.isPaged()) {
+            nativeSearchQuery.setPageable(PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), stableSort(pageable.getSort())));
+        }
+        nativeSearchQuery.setTrackTotalHitsUpTo(trackTotalHitsUpTo);
+        SearchHits<T> searchHits = elasticsearchTemplate.search(nativeSearchQuery, clazz);
+        List<T> hits = searchHits.stream().map(SearchHit::getContent).collect(Collectors.toList());
+        return new PageImpl<>(hits, pageable, searchHits.getTotalHits());
+    }
+
+    /**
+     * Read the page of hits following a hit, given by its sort values, with the number of hits of all the pages.
+     *
+     * @param searchAfter the sort values of the last hit of the previous page, {@code null} for the first page.
+     * @param pageable the pagination information, of which the page number is ignored.
+     * @throws IllegalArgumentException if the number of sort values is not that of the fields sorted by.
+     */
+    static <T> SearchAfterPage<T> searchAfter(
+        ElasticsearchRestTemplate elasticsearchTemplate,
+        QueryBuilder query,
+        List<Object> searchAfter,
+        Pageable pageable,
+        int trackTotalHitsUpTo,
+        Class<T> clazz
+    ) {
+        Sort sort = stableSort(pageable.getSort());
+        if (searchAfter != null && searchAfter.size() != sort.toList().size()) {
+            throw new IllegalArgumentException("Expected " + sort.toList().size() + " sort values but got " + searchAfter.size());
+        }
+        NativeSearchQuery nativeSearchQuery = new NativeSearchQuery(query);
+        // One hit more than the page tells whether a next page exists
+        nativeSearchQuery.setPageable(PageRequest.of(0, pageable.getPageSize() + 1, sort));
+        nativeSearchQuery.setSearchAfter(searchAfter);
+        nativeSearchQuery.setTrackTotalHitsUpTo(trackTotalHitsUpTo);
+        SearchHits<T> searchHits = elasticsearchTemplate.search(nativeSearchQuery, clazz);
+        List<SearchHit<T>> hits = searchHits.getSearchHits();
+        List<Object> nextSearchAfter = null;
+        if (hits.size() > pageable.getPageSize()) {
+            hits = hits.subList(0, pageable.getPageSize());
+            nextSearchAfter = hits.get(hits.size() - 1).getSortValues();
+        }
+        return new SearchAfterPage<>(
+            hits.stream().map(SearchHit::getContent).collect(Collectors.toList()),
+            nextSearchAfter,
+            searchHits.getTotalHits(),
+            searchHits.getTotalHitsRelation()
+        );
+    }
+
+    /**
+     * @return the sort requested, or by relevance if none is, then by {@value #TIEBREAKER} unless already sorted by it.
+     */
+    static Sort stableSort(Sort sort) {
+        Sort stable = sort.isSorted() ? sort : Sort.by(Sort.Direction.DESC, SCORE);
+        return stable.getOrderFor(TIEBREAKER) != null ? stable : stable.and(Sort.by(TIEBREAKER));
+    }
+}
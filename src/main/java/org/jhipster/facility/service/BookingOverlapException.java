@@ -0,0 +1,10 @@
+package org.jhipster.facility.service;
+
+public class BookingOverlapException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public BookingOverlapException(Long roomId) {
+        super("Room " + roomId + " is fully booked for these dates!");
+    }
+}
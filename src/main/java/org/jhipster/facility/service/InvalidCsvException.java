@@ -0,0 +1,10 @@
+package org.jhipster.facility.service;
+
+public class InvalidCsvException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public InvalidCsvException(String message) {
+        super(message);
+    }
+}
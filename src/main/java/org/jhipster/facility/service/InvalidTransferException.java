@@ -0,0 +1,10 @@
+package org.jhipster.facility.service;
+
+public class InvalidTransferException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public InvalidTransferException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,10 @@
+package org.jhipster.facility.service;
+
+public class RoomFullException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public RoomFullException(Long roomId) {
+        super("Room " + roomId + " is full!");
+    }
+}
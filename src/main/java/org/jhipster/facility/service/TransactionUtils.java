@@ -0,0 +1,33 @@
+package org.jhipster.facility.service;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Utility class for the in-memory indexes kept in step with the database.
+ */
+public final class TransactionUtils {
+
+    private TransactionUtils() {}
+
+    /**
+     * Run a change once the surrounding transaction commits, so that a rolled back change is never seen, or right away
+     * outside of a transaction.
+     *
+     * @param change the change to run.
+     */
+    public static void afterCommit(Runnable change) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        change.run();
+                    }
+                }
+            );
+        } else {
+            change.run();
+        }
+    }
+}
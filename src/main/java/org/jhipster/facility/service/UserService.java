@@ -7,13 +7,14 @@ import java.util.stream.Collectors;
 import org.jhipster.facility.config.Constants;
 import org.jhipster.facility.domain.Authority;
 import org.jhipster.facility.domain.User;
+import org.jhipster.facility.domain.enumeration.SearchDocumentType;
 import org.jhipster.facility.repository.AuthorityRepository;
 import org.jhipster.facility.repository.UserRepository;
-import org.jhipster.facility.repository.search.UserSearchRepository;
 import org.jhipster.facility.security.AuthoritiesConstants;
 import org.jhipster.facility.security.SecurityUtils;
 import org.jhipster.facility.service.dto.AdminUserDTO;
 import org.jhipster.facility.service.dto.UserDTO;
+import org.jhipster.facility.service.search.SearchIndexOutbox;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.cache.CacheManager;
@@ -38,7 +39,7 @@ public class UserService {
 
     private final PasswordEncoder passwordEncoder;
 
-    private final UserSearchRepository userSearchRepository;
+    private final SearchIndexOutbox searchIndexOutbox;
 
     private final AuthorityRepository authorityRepository;
 
@@ -47,13 +48,13 @@ public class UserService {
     public UserService(
         UserRepository userRepository,
         PasswordEncoder passwordEncoder,
-        UserSearchRepository userSearchRepository,
+        SearchIndexOutbox searchIndexOutbox,
         AuthorityRepository authorityRepository,
         CacheManager cacheManager
     ) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
-        this.userSearchRepository = userSearchRepository;
+        this.searchIndexOutbox = searchIndexOutbox;
         this.authorityRepository = authorityRepository;
         this.cacheManager = cacheManager;
     }
@@ -66,7 +67,7 @@ public class UserService {
                 // activate given user for the registration key.
                 user.setActivated(true);
                 user.setActivationKey(null);
-                userSearchRepository.save(user);
+                searchIndexOutbox.enqueue(SearchDocumentType.USER, user.getId());
                 this.clearUserCaches(user);
                 log.debug("Activated user: {}", user);
                 return user;
@@ -136,7 +137,7 @@ public class UserService {
         authorityRepository.findById(AuthoritiesConstants.USER).ifPresent(authorities::add);
         newUser.setAuthorities(authorities);
         userRepository.save(newUser);
-        userSearchRepository.save(newUser);
+        searchIndexOutbox.enqueue(SearchDocumentType.USER, newUser.getId());
         this.clearUserCaches(newUser);
         log.debug("Created Information for User: {}", newUser);
         return newUser;
@@ -182,7 +183,7 @@ public class UserService {
             user.setAuthorities(authorities);
         }
         userRepository.save(user);
-        userSearchRepository.save(user);
+        searchIndexOutbox.enqueue(SearchDocumentType.USER, user.getId());
         this.clearUserCaches(user);
         log.debug("Created Information for User: {}", user);
         return user;
@@ -219,7 +220,7 @@ public class UserService {
                     .filter(Optional::isPresent)
                     .map(Optional::get)
                     .forEach(managedAuthorities::add);
-                userSearchRepository.save(user);
+                searchIndexOutbox.enqueue(SearchDocumentType.USER, user.getId());
                 this.clearUserCaches(user);
                 log.debug("Changed Information for User: {}", user);
                 return user;
@@ -232,7 +233,7 @@ public class UserService {
             .findOneByLogin(login)
             .ifPresent(user -> {
                 userRepository.delete(user);
-                userSearchRepository.delete(user);
+                searchIndexOutbox.enqueue(SearchDocumentType.USER, user.getId());
                 this.clearUserCaches(user);
                 log.debug("Deleted User: {}", user);
             });
@@ -259,7 +260,7 @@ public class UserService {
                 }
                 user.setLangKey(langKey);
                 user.setImageUrl(imageUrl);
-                userSearchRepository.save(user);
+                searchIndexOutbox.enqueue(SearchDocumentType.USER, user.getId());
                 this.clearUserCaches(user);
                 log.debug("Changed Information for User: {}", user);
             });
@@ -314,7 +315,7 @@ public class UserService {
             .forEach(user -> {
                 log.debug("Deleting not activated user {}", user.getLogin());
                 userRepository.delete(user);
-                userSearchRepository.delete(user);
+                searchIndexOutbox.enqueue(SearchDocumentType.USER, user.getId());
                 this.clearUserCaches(user);
             });
     }
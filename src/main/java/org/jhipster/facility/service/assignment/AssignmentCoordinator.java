@@ -0,0 +1,98 @@
+package org.jhipster.facility.service.assignment;
+
+import java.util.Collection;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+import javax.persistence.OptimisticLockException;
+import org.jhipster.facility.config.ApplicationProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service serializing the writes that move residents in and out of rooms.
+ * <p>
+ * Within this node, an assignment holds the striped locks of the rooms it touches until its transaction commits, so
+ * clerks filling the same room queue up instead of failing, while assignments to different rooms run in parallel.
+ * Across nodes, the {@code @Version} columns of rooms and residents catch concurrent changes; an assignment failing
+ * on an optimistic lock is run again in a new transaction, at most {@code application.assignment.max-attempts} times.
+ */
+@Service
+public class AssignmentCoordinator {
+
+    private final Logger log = LoggerFactory.getLogger(AssignmentCoordinator.class);
+
+    private final ReentrantLock[] stripes;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final int maxAttempts;
+
+    public AssignmentCoordinator(PlatformTransactionManager transactionManager, ApplicationProperties applicationProperties) {
+        ApplicationProperties.Assignment assignment = applicationProperties.getAssignment();
+        int count = Integer.highestOneBit(Math.max(1, assignment.getLockStripes() * 2 - 1));
+        this.stripes = new ReentrantLock[count];
+        for (int i = 0; i < count; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxAttempts = Math.max(1, assignment.getMaxAttempts());
+    }
+
+    /**
+     * Run an assignment in a transaction, holding the locks of the given rooms.
+     * <p>
+     * When called within a transaction, the assignment joins it and is not retried: only the caller can start over.
+     *
+     * @param roomIds the rooms the assignment reads or changes, {@code null} ids are ignored.
+     * @param assignment the work to run; it must re-read what it depends on, as it may run more than once.
+     * @param <T> the type of the assignment result.
+     * @return the result of the assignment.
+     * @throws OptimisticLockingFailureException if the assignment still conflicts after the last attempt.
+     */
+    public <T> T assign(Collection<Long> roomIds, Supplier<T> assignment) {
+        int[] locked = stripesOf(roomIds);
+        for (int stripe : locked) {
+            stripes[stripe].lock();
+        }
+        try {
+            if (TransactionSynchronizationManager.isActualTransactionActive()) {
+                return assignment.get();
+            }
+            for (int attempt = 1;; attempt++) {
+                try {
+                    return transactionTemplate.execute(status -> assignment.get());
+                } catch (OptimisticLockingFailureException | OptimisticLockException e) {
+                    if (attempt >= maxAttempts) {
+                        throw e;
+                    }
+                    log.debug("Assignment to rooms {} conflicted, attempt {} of {}", roomIds, attempt, maxAttempts);
+                }
+            }
+        } finally {
+            for (int i = locked.length - 1; i >= 0; i--) {
+                stripes[locked[i]].unlock();
+            }
+        }
+    }
+
+    /**
+     * @return the distinct stripes of the rooms, in ascending order so that concurrent assignments never deadlock.
+     */
+    int[] stripesOf(Collection<Long> roomIds) {
+        return roomIds.stream().filter(roomId -> roomId != null).mapToInt(this::stripeOf).distinct().sorted().toArray();
+    }
+
+    int stripeOf(long roomId) {
+        long h = roomId * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & (stripes.length - 1);
+    }
+
+    int stripeCount() {
+        return stripes.length;
+    }
+}
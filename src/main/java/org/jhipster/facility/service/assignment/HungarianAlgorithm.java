@@ -0,0 +1,94 @@
+package org.jhipster.facility.service.assignment;
+
+import java.util.Arrays;
+
+/**
+ * Min-cost bipartite matching (Hungarian method with shortest augmenting paths and potentials).
+ * <p>
+ * Runs in {@code O(rows^2 * columns)} time and {@code O(columns)} extra memory, which is what keeps the
+ * solve affordable for move-in batches: the cost matrix is never copied or padded to a square.
+ */
+public final class HungarianAlgorithm {
+
+    private HungarianAlgorithm() {}
+
+    /**
+     * Solve the assignment problem for the given cost matrix.
+     *
+     * @param cost a {@code rows x columns} matrix with {@code rows <= columns}; {@code cost[i][j]} is the cost of matching row i to column j.
+     * @return for every row, the index of the column it is matched to; every row gets a distinct column.
+     * @throws IllegalArgumentException if the matrix is ragged or has more rows than columns.
+     */
+    public static int[] solve(long[][] cost) {
+        int rows = cost.length;
+        if (rows == 0) {
+            return new int[0];
+        }
+        int columns = cost[0].length;
+        for (long[] row : cost) {
+            if (row.length != columns) {
+                throw new IllegalArgumentException("Cost matrix must be rectangular");
+            }
+        }
+        if (rows > columns) {
+            throw new IllegalArgumentException("Cost matrix must not have more rows than columns");
+        }
+
+        // Arrays are 1-based; index 0 is the virtual source of each augmenting path.
+        long[] rowPotential = new long[rows + 1];
+        long[] columnPotential = new long[columns + 1];
+        int[] columnMatch = new int[columns + 1];
+        int[] way = new int[columns + 1];
+        long[] minSlack = new long[columns + 1];
+        boolean[] used = new boolean[columns + 1];
+
+        for (int row = 1; row <= rows; row++) {
+            columnMatch[0] = row;
+            int column = 0;
+            Arrays.fill(minSlack, Long.MAX_VALUE);
+            Arrays.fill(used, false);
+            do {
+                used[column] = true;
+                int matchedRow = columnMatch[column];
+                long delta = Long.MAX_VALUE;
+                int nextColumn = 0;
+                long[] costRow = cost[matchedRow - 1];
+                for (int j = 1; j <= columns; j++) {
+                    if (!used[j]) {
+                        long slack = costRow[j - 1] - rowPotential[matchedRow] - columnPotential[j];
+                        if (slack < minSlack[j]) {
+                            minSlack[j] = slack;
+                            way[j] = column;
+                        }
+                        if (minSlack[j] < delta) {
+                            delta = minSlack[j];
+                            nextColumn = j;
+                        }
+                    }
+                }
+                for (int j = 0; j <= columns; j++) {
+                    if (used[j]) {
+                        rowPotential[columnMatch[j]] += delta;
+                        columnPotential[j] -= delta;
+                    } else {
+                        minSlack[j] -= delta;
+                    }
+                }
+                column = nextColumn;
+            } while (columnMatch[column] != 0);
+            do {
+                int previousColumn = way[column];
+                columnMatch[column] = columnMatch[previousColumn];
+                column = previousColumn;
+            } while (column != 0);
+        }
+
+        int[] assignment = new int[rows];
+        for (int j = 1; j <= columns; j++) {
+            if (columnMatch[j] != 0) {
+                assignment[columnMatch[j] - 1] = j - 1;
+            }
+        }
+        return assignment;
+    }
+}
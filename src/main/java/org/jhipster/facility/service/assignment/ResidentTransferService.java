@@ -0,0 +1,240 @@
+package org.jhipster.facility.service.assignment;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import javax.persistence.EntityManager;
+import org.jhipster.facility.config.ApplicationProperties;
+import org.jhipster.facility.domain.Resident;
+import org.jhipster.facility.domain.Room;
+import org.jhipster.facility.domain.enumeration.SearchDocumentType;
+import org.jhipster.facility.repository.ResidentRepository;
+import org.jhipster.facility.repository.RoomRepository;
+import org.jhipster.facility.service.InvalidTransferException;
+import org.jhipster.facility.service.RoomFullException;
+import org.jhipster.facility.service.dto.ResidentMoveDTO;
+import org.jhipster.facility.service.dto.ResidentTransferResultDTO;
+import org.jhipster.facility.service.history.AssignmentHistoryService;
+import org.jhipster.facility.service.occupancy.BedService;
+import org.jhipster.facility.service.occupancy.FacilitySummaryService;
+import org.jhipster.facility.service.occupancy.OccupancyIndex;
+import org.jhipster.facility.service.search.SearchIndexOutbox;
+import org.jhipster.facility.service.waitlist.WaitlistService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+
+/**
+ * Service moving many residents between rooms in one transaction.
+ * <p>
+ * Moves are checked against room capacity in memory, using the net change of every room, so swaps and cycles between
+ * full rooms are accepted. Occupant counters then get one guarded update per room whose count changes, residents one
+ * JDBC batch of updates, and the search outbox one batch of inserts. Rooms left with free places are then offered to the
+ * waitlist of their facility.
+ */
+@Service
+public class ResidentTransferService {
+
+    private final Logger log = LoggerFactory.getLogger(ResidentTransferService.class);
+
+    private final ResidentRepository residentRepository;
+
+    private final RoomRepository roomRepository;
+
+    private final SearchIndexOutbox searchIndexOutbox;
+
+    private final EntityManager entityManager;
+
+    private final ApplicationProperties applicationProperties;
+
+    private final OccupancyIndex occupancyIndex;
+
+    private final AssignmentCoordinator assignmentCoordinator;
+
+    private final WaitlistService waitlistService;
+
+    private final AssignmentHistoryService assignmentHistoryService;
+
+    private final BedService bedService;
+
+    private final FacilitySummaryService facilitySummaryService;
+
+    public ResidentTransferService(
+        ResidentRepository residentRepository,
+        RoomRepository roomRepository,
+        SearchIndexOutbox searchIndexOutbox,
+        EntityManager entityManager,
+        ApplicationProperties applicationProperties,
+        OccupancyIndex occupancyIndex,
+        AssignmentCoordinator assignmentCoordinator,
+        WaitlistService waitlistService,
+        AssignmentHistoryService assignmentHistoryService,
+        BedService bedService,
+        FacilitySummaryService facilitySummaryService
+    ) {
+        this.residentRepository = residentRepository;
+        this.roomRepository = roomRepository;
+        this.searchIndexOutbox = searchIndexOutbox;
+        this.entityManager = entityManager;
+        this.applicationProperties = applicationProperties;
+        this.occupancyIndex = occupancyIndex;
+        this.assignmentCoordinator = assignmentCoordinator;
+        this.waitlistService = waitlistService;
+        this.assignmentHistoryService = assignmentHistoryService;
+        this.bedService = bedService;
+        this.facilitySummaryService = facilitySummaryService;
+    }
+
+    /**
+     * Apply all the moves, or none of them.
+     *
+     * @param moves the residents to move, each at most once, with their target room.
+     * @return the number of residents moved and left in place, and the time taken.
+     * @throws InvalidTransferException if a resident or room does not exist, or a resident is moved twice.
+     * @throws RoomFullException if a room would end up over its capacity.
+     */
+    public ResidentTransferResultDTO transfer(List<ResidentMoveDTO> moves) {
+        log.debug("Request to transfer {} residents", moves.size());
+        long start = System.nanoTime();
+        Map<Long, Long> targetRoomByResident = new LinkedHashMap<>();
+        for (ResidentMoveDTO move : moves) {
+            if (targetRoomByResident.put(move.getResidentId(), move.getTargetRoomId()) != null) {
+                throw new InvalidTransferException("Resident " + move.getResidentId() + " is moved more than once");
+            }
+        }
+
+        // The locks cover the rooms seen now; rooms changed meanwhile are still protected by the guarded updates.
+        Set<Long> lockedRoomIds = new HashSet<>(targetRoomByResident.values());
+        lockedRoomIds.addAll(findCurrentRoomIds(targetRoomByResident.keySet()).values());
+        ResidentTransferResultDTO result = assignmentCoordinator.assign(lockedRoomIds, () -> apply(targetRoomByResident));
+
+        result.setTimeMillis(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        log.info("Transferred {} residents ({} unchanged) in {} ms", result.getMoved(), result.getUnchanged(), result.getTimeMillis());
+        return result;
+    }
+
+    private ResidentTransferResultDTO apply(Map<Long, Long> targetRoomByResident) {
+        Map<Long, Long> currentRoomByResident = findCurrentRoomIds(targetRoomByResident.keySet());
+        if (currentRoomByResident.size() < targetRoomByResident.size()) {
+            Set<Long> missing = new HashSet<>(targetRoomByResident.keySet());
+            missing.removeAll(currentRoomByResident.keySet());
+            throw new InvalidTransferException("Residents not found: " + missing);
+        }
+
+        int count = 0;
+        long[] residentIds = new long[targetRoomByResident.size()];
+        long[] fromRoomIds = new long[residentIds.length];
+        long[] toRoomIds = new long[residentIds.length];
+        Map<Long, Integer> deltaByRoom = new HashMap<>();
+        for (Map.Entry<Long, Long> entry : targetRoomByResident.entrySet()) {
+            Long from = currentRoomByResident.get(entry.getKey());
+            Long to = entry.getValue();
+            if (from.equals(to)) {
+                continue;
+            }
+            residentIds[count] = entry.getKey();
+            fromRoomIds[count] = from;
+            toRoomIds[count] = to;
+            count++;
+            deltaByRoom.merge(from, -1, Integer::sum);
+            deltaByRoom.merge(to, 1, Integer::sum);
+        }
+        ResidentTransferResultDTO result = new ResidentTransferResultDTO();
+        result.setMoved(count);
+        result.setUnchanged(residentIds.length - count);
+        if (count == 0) {
+            return result;
+        }
+
+        checkCapacity(deltaByRoom);
+        deltaByRoom.forEach((roomId, delta) -> {
+            if (delta > 0 && roomRepository.incrementOccupantCount(roomId, delta) == 0) {
+                throw new RoomFullException(roomId);
+            }
+            if (delta < 0) {
+                roomRepository.decrementOccupantCount(roomId, -delta);
+            }
+            facilitySummaryService.occupantsChanged(roomId, delta);
+        });
+
+        int batchSize = Math.max(1, applicationProperties.getAssignment().getBatchSize());
+        int moved = residentRepository.moveAll(
+            Arrays.copyOf(residentIds, count),
+            Arrays.copyOf(fromRoomIds, count),
+            Arrays.copyOf(toRoomIds, count),
+            batchSize
+        );
+        if (moved < count) {
+            // A resident changed room since it was read: start over with fresh data.
+            throw new ObjectOptimisticLockingFailureException(Resident.class, "transfer");
+        }
+
+        // The batch bypassed the persistence context: drop the residents and rooms it holds, which are now stale.
+        entityManager.clear();
+        searchIndexOutbox.enqueueAll(
+            SearchDocumentType.RESIDENT,
+            Arrays.stream(residentIds, 0, count).boxed().collect(Collectors.toList())
+        );
+        // Free every bed before taking any: in a swap between full rooms, each bed is taken by the other resident.
+        for (int i = 0; i < count; i++) {
+            bedService.release(residentIds[i]);
+        }
+        for (int i = 0; i < count; i++) {
+            occupancyIndex.residentMoved(fromRoomIds[i], toRoomIds[i]);
+            bedService.claim(residentIds[i], toRoomIds[i]);
+            assignmentHistoryService.record(residentIds[i], fromRoomIds[i], toRoomIds[i]);
+        }
+        deltaByRoom.forEach((roomId, delta) -> {
+            if (delta < 0) {
+                waitlistService.roomFreed(roomId);
+            }
+        });
+        return result;
+    }
+
+    private void checkCapacity(Map<Long, Integer> deltaByRoom) {
+        List<Room> rooms = roomRepository.findAllById(deltaByRoom.keySet());
+        if (rooms.size() < deltaByRoom.size()) {
+            Set<Long> missing = new HashSet<>(deltaByRoom.keySet());
+            rooms.forEach(room -> missing.remove(room.getId()));
+            throw new InvalidTransferException("Rooms not found: " + missing);
+        }
+        for (Room room : rooms) {
+            if (room.getOccupant_count() + deltaByRoom.get(room.getId()) > room.getCapacity()) {
+                throw new RoomFullException(room.getId());
+            }
+        }
+    }
+
+    private Map<Long, Long> findCurrentRoomIds(Set<Long> residentIds) {
+        int batchSize = Math.max(1, applicationProperties.getAssignment().getBatchSize());
+        Map<Long, Long> currentRoomByResident = new HashMap<>();
+        List<Long> ids = new ArrayList<>(Math.min(batchSize, residentIds.size()));
+        for (Long residentId : residentIds) {
+            ids.add(residentId);
+            if (ids.size() == batchSize) {
+                addCurrentRoomIds(ids, currentRoomByResident);
+            }
+        }
+        addCurrentRoomIds(ids, currentRoomByResident);
+        return currentRoomByResident;
+    }
+
+    private void addCurrentRoomIds(List<Long> ids, Map<Long, Long> currentRoomByResident) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        for (Object[] row : residentRepository.findRoomIdsByIdIn(ids)) {
+            currentRoomByResident.put((Long) row[0], (Long) row[1]);
+        }
+        ids.clear();
+    }
+}
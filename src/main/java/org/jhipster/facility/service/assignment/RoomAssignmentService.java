@@ -0,0 +1,337 @@
+package org.jhipster.facility.service.assignment;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import javax.persistence.EntityManager;
+import org.jhipster.facility.config.ApplicationProperties;
+import org.jhipster.facility.domain.Resident;
+import org.jhipster.facility.domain.Room;
+import org.jhipster.facility.domain.enumeration.SearchDocumentType;
+import org.jhipster.facility.repository.ResidentRepository;
+import org.jhipster.facility.repository.RoomRepository;
+import org.jhipster.facility.service.RoomFullException;
+import org.jhipster.facility.service.dto.AssignmentCandidateDTO;
+import org.jhipster.facility.service.dto.BatchAssignmentResultDTO;
+import org.jhipster.facility.service.history.AssignmentHistoryService;
+import org.jhipster.facility.service.occupancy.BedService;
+import org.jhipster.facility.service.occupancy.FacilitySummaryService;
+import org.jhipster.facility.service.occupancy.OccupancyIndex;
+import org.jhipster.facility.service.search.SearchIndexOutbox;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Service placing whole batches of new residents into the vacant rooms of a facility.
+ * <p>
+ * Residents listing room preferences are matched with {@link HungarianAlgorithm}, one solve window at a time, so that
+ * the total preference rank is minimal; residents without preferences then take the rooms left over. The result is
+ * written in chunks of {@code application.assignment.batch-size} rows, each chunk flushed to the database together with
+ * its entries of the search outbox.
+ * <p>
+ * Vacancies come from the capacity and occupant count of each room. Every chunk takes its places with one guarded
+ * increment per room, so a concurrent intake filling the same room fails the batch instead of overfilling the room.
+ */
+@Service
+@Transactional
+public class RoomAssignmentService {
+
+    /**
+     * Cost of placing a resident in a room it did not ask for; preferred rooms cost their rank (0 for the first choice).
+     */
+    static final long UNPREFERRED_COST = 1_000L;
+
+    /**
+     * Cost of leaving a resident without a room, only paid when the facility runs out of vacancies.
+     */
+    static final long UNASSIGNED_COST = 1_000_000L;
+
+    private final Logger log = LoggerFactory.getLogger(RoomAssignmentService.class);
+
+    private final RoomRepository roomRepository;
+
+    private final ResidentRepository residentRepository;
+
+    private final SearchIndexOutbox searchIndexOutbox;
+
+    private final EntityManager entityManager;
+
+    private final ApplicationProperties applicationProperties;
+
+    private final OccupancyIndex occupancyIndex;
+
+    private final AssignmentHistoryService assignmentHistoryService;
+
+    private final BedService bedService;
+
+    private final FacilitySummaryService facilitySummaryService;
+
+    public RoomAssignmentService(
+        RoomRepository roomRepository,
+        ResidentRepository residentRepository,
+        SearchIndexOutbox searchIndexOutbox,
+        EntityManager entityManager,
+        ApplicationProperties applicationProperties,
+        OccupancyIndex occupancyIndex,
+        AssignmentHistoryService assignmentHistoryService,
+        BedService bedService,
+        FacilitySummaryService facilitySummaryService
+    ) {
+        this.roomRepository = roomRepository;
+        this.residentRepository = residentRepository;
+        this.searchIndexOutbox = searchIndexOutbox;
+        this.entityManager = entityManager;
+        this.applicationProperties = applicationProperties;
+        this.occupancyIndex = occupancyIndex;
+        this.assignmentHistoryService = assignmentHistoryService;
+        this.bedService = bedService;
+        this.facilitySummaryService = facilitySummaryService;
+    }
+
+    /**
+     * Create the given residents, each in a vacant room of the facility.
+     *
+     * @param facilityId the id of the facility to fill.
+     * @param candidates the residents to create, with their room preferences.
+     * @return the rooms given to the residents, the residents left without a room, and the timings of the batch.
+     */
+    public BatchAssignmentResultDTO assignBatch(Long facilityId, List<AssignmentCandidateDTO> candidates) {
+        log.debug("Request to assign {} residents to Facility : {}", candidates.size(), facilityId);
+        Map<Long, Room> rooms = new LinkedHashMap<>();
+        List<Long> slots = new ArrayList<>();
+        for (Room room : roomRepository.findAllWithFacilityId(facilityId)) {
+            rooms.put(room.getId(), room);
+            for (int k = room.getOccupant_count(); k < room.getCapacity(); k++) {
+                slots.add(room.getId());
+            }
+        }
+
+        long solveStart = System.nanoTime();
+        Long[] plan = plan(candidates, slots, applicationProperties.getAssignment().getSolveWindow());
+        long solveNanos = System.nanoTime() - solveStart;
+
+        BatchAssignmentResultDTO result = new BatchAssignmentResultDTO();
+        result.setFacilityId(facilityId);
+        long persistStart = System.nanoTime();
+        persist(candidates, plan, rooms, result);
+        long persistNanos = System.nanoTime() - persistStart;
+
+        result.setSolveTimeMillis(TimeUnit.NANOSECONDS.toMillis(solveNanos));
+        result.setPersistTimeMillis(TimeUnit.NANOSECONDS.toMillis(persistNanos));
+        long totalNanos = Math.max(1L, solveNanos + persistNanos);
+        result.setRowsPerSecond(result.getAssignments().size() * (double) TimeUnit.SECONDS.toNanos(1) / totalNanos);
+        log.info(
+            "Assigned {} of {} residents to Facility {} (solve {} ms, persist {} ms, {} rows/s)",
+            result.getAssignments().size(),
+            candidates.size(),
+            facilityId,
+            result.getSolveTimeMillis(),
+            result.getPersistTimeMillis(),
+            Math.round(result.getRowsPerSecond())
+        );
+        return result;
+    }
+
+    /**
+     * Compute the room of every candidate.
+     * <p>
+     * Candidates with at least one preferred vacancy are solved optimally within windows of {@code window} candidates,
+     * in request order; columns of a window are the vacancies of its preferred rooms, a few interchangeable vacancies
+     * of other rooms and, if vacancies run short, "no room" columns. Remaining candidates take what is left in order.
+     *
+     * @param candidates the residents to place.
+     * @param slots one room id per vacancy.
+     * @param window the maximum number of candidates solved together.
+     * @return the room id of every candidate, or {@code null} for the candidates that could not be placed.
+     */
+    static Long[] plan(List<AssignmentCandidateDTO> candidates, List<Long> slots, int window) {
+        Long[] plan = new Long[candidates.size()];
+        Map<Long, Integer> vacancies = new LinkedHashMap<>();
+        for (Long roomId : slots) {
+            vacancies.merge(roomId, 1, Integer::sum);
+        }
+        int remaining = slots.size();
+
+        List<Integer> pending = new ArrayList<>();
+        List<Integer> withoutPreference = new ArrayList<>();
+        for (int i = 0; i < candidates.size(); i++) {
+            if (hasVacantPreference(candidates.get(i), vacancies)) {
+                pending.add(i);
+            } else {
+                withoutPreference.add(i);
+            }
+        }
+
+        int windowSize = Math.max(1, window);
+        for (int from = 0; from < pending.size() && remaining > 0; from += windowSize) {
+            List<Integer> rows = pending.subList(from, Math.min(pending.size(), from + windowSize));
+            remaining -= solveWindow(candidates, rows, vacancies, remaining, plan);
+        }
+
+        for (int i : withoutPreference) {
+            if (remaining == 0) {
+                break;
+            }
+            plan[i] = takeVacancy(vacancies, Set.of());
+            remaining--;
+        }
+        return plan;
+    }
+
+    private static boolean hasVacantPreference(AssignmentCandidateDTO candidate, Map<Long, Integer> vacancies) {
+        if (candidate.getPreferredRoomIds() == null) {
+            return false;
+        }
+        for (Long roomId : candidate.getPreferredRoomIds()) {
+            if (vacancies.containsKey(roomId)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int solveWindow(
+        List<AssignmentCandidateDTO> candidates,
+        List<Integer> rows,
+        Map<Long, Integer> vacancies,
+        int remaining,
+        Long[] plan
+    ) {
+        // One column per vacancy of each preferred room, never more than the window can use.
+        Map<Long, Integer> firstColumn = new LinkedHashMap<>();
+        List<Long> columnRooms = new ArrayList<>();
+        int preferredVacancies = 0;
+        for (int row : rows) {
+            for (Long roomId : candidates.get(row).getPreferredRoomIds()) {
+                Integer free = vacancies.get(roomId);
+                if (free != null && free > 0 && !firstColumn.containsKey(roomId)) {
+                    firstColumn.put(roomId, columnRooms.size());
+                    for (int k = 0; k < Math.min(free, rows.size()); k++) {
+                        columnRooms.add(roomId);
+                    }
+                    preferredVacancies += free;
+                }
+            }
+        }
+        int preferredColumns = columnRooms.size();
+        int otherColumns = Math.min(rows.size(), remaining - preferredVacancies);
+        int noRoomColumns = Math.max(0, rows.size() - preferredColumns - otherColumns);
+        int columns = preferredColumns + otherColumns + noRoomColumns;
+
+        long[][] cost = new long[rows.size()][columns];
+        for (int r = 0; r < rows.size(); r++) {
+            long[] costRow = cost[r];
+            Arrays.fill(costRow, 0, preferredColumns + otherColumns, UNPREFERRED_COST);
+            Arrays.fill(costRow, preferredColumns + otherColumns, columns, UNASSIGNED_COST);
+            List<Long> preferences = candidates.get(rows.get(r)).getPreferredRoomIds();
+            for (int rank = preferences.size() - 1; rank >= 0; rank--) {
+                Integer column = firstColumn.get(preferences.get(rank));
+                if (column != null) {
+                    long rankCost = Math.min(rank, UNPREFERRED_COST - 1);
+                    for (int c = column; c < preferredColumns && columnRooms.get(c).equals(preferences.get(rank)); c++) {
+                        costRow[c] = rankCost;
+                    }
+                }
+            }
+        }
+
+        int[] solution = HungarianAlgorithm.solve(cost);
+        int placed = 0;
+        List<Integer> needOtherRoom = new ArrayList<>();
+        for (int r = 0; r < rows.size(); r++) {
+            int column = solution[r];
+            if (column < preferredColumns) {
+                Long roomId = columnRooms.get(column);
+                vacancies.merge(roomId, -1, Integer::sum);
+                plan[rows.get(r)] = roomId;
+                placed++;
+            } else if (column < preferredColumns + otherColumns) {
+                needOtherRoom.add(rows.get(r));
+            }
+        }
+        for (int row : needOtherRoom) {
+            plan[row] = takeVacancy(vacancies, firstColumn.keySet());
+            placed++;
+        }
+        return placed;
+    }
+
+    private static Long takeVacancy(Map<Long, Integer> vacancies, Set<Long> excluded) {
+        Iterator<Map.Entry<Long, Integer>> iterator = vacancies.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Long, Integer> entry = iterator.next();
+            if (entry.getValue() > 0 && !excluded.contains(entry.getKey())) {
+                entry.setValue(entry.getValue() - 1);
+                return entry.getKey();
+            }
+        }
+        throw new IllegalStateException("No vacancy left to assign");
+    }
+
+    private void persist(List<AssignmentCandidateDTO> candidates, Long[] plan, Map<Long, Room> rooms, BatchAssignmentResultDTO result) {
+        int batchSize = Math.max(1, applicationProperties.getAssignment().getBatchSize());
+        List<Resident> chunk = new ArrayList<>(batchSize);
+        List<Integer> chunkIndexes = new ArrayList<>(batchSize);
+        for (int i = 0; i < plan.length; i++) {
+            if (plan[i] == null) {
+                result.getUnassigned().add(i);
+                continue;
+            }
+            AssignmentCandidateDTO candidate = candidates.get(i);
+            chunk.add(
+                new Resident()
+                    .name(candidate.getName())
+                    .phone_number(candidate.getPhone_number())
+                    .email(candidate.getEmail())
+                    .room(rooms.get(plan[i]))
+            );
+            chunkIndexes.add(i);
+            if (chunk.size() == batchSize) {
+                flushChunk(chunk, chunkIndexes, result);
+            }
+        }
+        flushChunk(chunk, chunkIndexes, result);
+    }
+
+    private void flushChunk(List<Resident> chunk, List<Integer> chunkIndexes, BatchAssignmentResultDTO result) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        Map<Long, Integer> placesByRoom = new LinkedHashMap<>();
+        for (Resident resident : chunk) {
+            placesByRoom.merge(resident.getRoom().getId(), 1, Integer::sum);
+        }
+        placesByRoom.forEach((roomId, places) -> {
+            if (roomRepository.incrementOccupantCount(roomId, places) == 0) {
+                throw new RoomFullException(roomId);
+            }
+            facilitySummaryService.occupantsChanged(roomId, places);
+        });
+        residentRepository.saveAll(chunk);
+        residentRepository.flush();
+        searchIndexOutbox.enqueueAll(SearchDocumentType.RESIDENT, chunk.stream().map(Resident::getId).collect(Collectors.toList()));
+        for (int k = 0; k < chunk.size(); k++) {
+            Resident resident = chunk.get(k);
+            occupancyIndex.residentMoved(null, resident.getRoom().getId());
+            bedService.claim(resident.getId(), resident.getRoom().getId());
+            assignmentHistoryService.record(resident.getId(), null, resident.getRoom().getId());
+            result
+                .getAssignments()
+                .add(new BatchAssignmentResultDTO.Assignment(chunkIndexes.get(k), resident.getId(), resident.getRoom().getId()));
+        }
+        // Write the pending outbox entries before they are detached. Rooms stay usable once detached: residents only need
+        // their id for the foreign key.
+        entityManager.flush();
+        entityManager.clear();
+        chunk.clear();
+        chunkIndexes.clear();
+    }
+}
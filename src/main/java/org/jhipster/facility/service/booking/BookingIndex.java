@@ -0,0 +1,141 @@
+package org.jhipster.facility.service.booking;
+
+import static org.jhipster.facility.service.TransactionUtils.afterCommit;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.jhipster.facility.repository.BookingRepository;
+import org.jhipster.facility.service.occupancy.OccupancyIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * In-process index of the bookings of every room, answering overlap checks and availability searches without touching
+ * the database.
+ * <p>
+ * Each room has an {@link IntervalTree} of its booked days, loaded when the application starts and updated once the
+ * transactions writing bookings commit. Rooms, facilities and capacities come from the {@link OccupancyIndex}.
+ */
+@Service
+public class BookingIndex {
+
+    private final Logger log = LoggerFactory.getLogger(BookingIndex.class);
+
+    private final BookingRepository bookingRepository;
+
+    private final OccupancyIndex occupancyIndex;
+
+    private final Map<Long, IntervalTree> trees = new ConcurrentHashMap<>();
+
+    public BookingIndex(BookingRepository bookingRepository, OccupancyIndex occupancyIndex) {
+        this.bookingRepository = bookingRepository;
+        this.occupancyIndex = occupancyIndex;
+    }
+
+    /**
+     * Load the whole index from the database.
+     * <p>
+     * Not read-only, so that it reads the primary, whose bookings are all there, rather than a replica.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        List<Object[]> bookings = bookingRepository.findAllIntervals();
+        Map<Long, IntervalTree> rebuiltTrees = new ConcurrentHashMap<>();
+        for (Object[] row : bookings) {
+            rebuiltTrees
+                .computeIfAbsent((Long) row[1], id -> new IntervalTree())
+                .add((Long) row[0], day((LocalDate) row[2]), day((LocalDate) row[3]));
+        }
+        synchronized (trees) {
+            trees.clear();
+            trees.putAll(rebuiltTrees);
+        }
+        log.info("Rebuilt booking index of {} bookings in {} ms", bookings.size(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Check whether a room has a free place on every day of a date range.
+     *
+     * @param roomId the id of the room.
+     * @param capacity the number of residents the room can hold.
+     * @param start the first day.
+     * @param end the day after the last day.
+     * @return {@code true} if one more booking fits.
+     */
+    public boolean isAvailable(Long roomId, int capacity, LocalDate start, LocalDate end) {
+        IntervalTree tree = trees.get(roomId);
+        if (tree == null) {
+            return capacity > 0;
+        }
+        int from = day(start);
+        int to = day(end);
+        synchronized (tree) {
+            return capacity == 1 ? !tree.overlapsAny(from, to) : tree.maxOverlap(from, to) < capacity;
+        }
+    }
+
+    /**
+     * Get the rooms of a facility with a free place on every day of a date range.
+     *
+     * @param facilityId the id of the facility.
+     * @param start the first day.
+     * @param end the day after the last day.
+     * @return the ids of the available rooms.
+     */
+    public long[] findAvailableRoomIds(Long facilityId, LocalDate start, LocalDate end) {
+        long[] roomIds = occupancyIndex.findRoomIds(facilityId);
+        int n = 0;
+        for (long roomId : roomIds) {
+            if (isAvailable(roomId, occupancyIndex.getCapacity(roomId), start, end)) {
+                roomIds[n++] = roomId;
+            }
+        }
+        return Arrays.copyOf(roomIds, n);
+    }
+
+    /**
+     * Record that a booking was created.
+     */
+    public void bookingSaved(Long bookingId, Long roomId, LocalDate start, LocalDate end) {
+        afterCommit(() -> {
+            IntervalTree tree = trees.computeIfAbsent(roomId, id -> new IntervalTree());
+            synchronized (tree) {
+                tree.add(bookingId, day(start), day(end));
+            }
+        });
+    }
+
+    /**
+     * Record that a booking was deleted.
+     */
+    public void bookingDeleted(Long bookingId, Long roomId, LocalDate start) {
+        afterCommit(() -> {
+            IntervalTree tree = trees.get(roomId);
+            if (tree != null) {
+                synchronized (tree) {
+                    tree.remove(bookingId, day(start));
+                }
+            }
+        });
+    }
+
+    /**
+     * Record that a room was deleted, with all its bookings.
+     */
+    public void roomDeleted(Long roomId) {
+        afterCommit(() -> trees.remove(roomId));
+    }
+
+    static int day(LocalDate date) {
+        return Math.toIntExact(date.toEpochDay());
+    }
+}
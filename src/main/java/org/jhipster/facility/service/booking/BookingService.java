@@ -0,0 +1,131 @@
+package org.jhipster.facility.service.booking;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import org.jhipster.facility.domain.Booking;
+import org.jhipster.facility.domain.Room;
+import org.jhipster.facility.repository.BookingRepository;
+import org.jhipster.facility.repository.RoomRepository;
+import org.jhipster.facility.service.BookingOverlapException;
+import org.jhipster.facility.service.assignment.AssignmentCoordinator;
+import org.jhipster.facility.service.occupancy.OccupancyIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+/**
+ * Service creating and deleting the bookings of rooms.
+ * <p>
+ * A room can hold as many bookings on a day as its capacity. A new booking is first checked against the
+ * {@link BookingIndex}, so that most conflicts are rejected without touching the database; an accepted booking is then
+ * confirmed against the booking table while the room row is locked, which also covers bookings made on other nodes.
+ */
+@Service
+public class BookingService {
+
+    private final Logger log = LoggerFactory.getLogger(BookingService.class);
+
+    private final BookingRepository bookingRepository;
+
+    private final RoomRepository roomRepository;
+
+    private final BookingIndex bookingIndex;
+
+    private final OccupancyIndex occupancyIndex;
+
+    private final AssignmentCoordinator assignmentCoordinator;
+
+    public BookingService(
+        BookingRepository bookingRepository,
+        RoomRepository roomRepository,
+        BookingIndex bookingIndex,
+        OccupancyIndex occupancyIndex,
+        AssignmentCoordinator assignmentCoordinator
+    ) {
+        this.bookingRepository = bookingRepository;
+        this.roomRepository = roomRepository;
+        this.bookingIndex = bookingIndex;
+        this.occupancyIndex = occupancyIndex;
+        this.assignmentCoordinator = assignmentCoordinator;
+    }
+
+    /**
+     * Book a room for a date range.
+     *
+     * @param booking the booking to save; its room and resident must exist, and its start must be before its end.
+     * @return the persisted booking.
+     * @throws BookingOverlapException if the room is fully booked on one of the days.
+     */
+    public Booking create(Booking booking) {
+        log.debug("Request to save Booking : {}", booking);
+        Long roomId = booking.getRoom().getId();
+        LocalDate start = booking.getStart_date();
+        LocalDate end = booking.getEnd_date();
+        int indexedCapacity = occupancyIndex.getCapacity(roomId);
+        if (indexedCapacity > 0 && !bookingIndex.isAvailable(roomId, indexedCapacity, start, end)) {
+            throw new BookingOverlapException(roomId);
+        }
+        return assignmentCoordinator.assign(
+            List.of(roomId),
+            () -> {
+                Room room = roomRepository.findByIdForUpdate(roomId).orElseThrow();
+                List<Object[]> overlapping = bookingRepository.findOverlapping(roomId, start, end);
+                int[] starts = new int[overlapping.size()];
+                int[] ends = new int[overlapping.size()];
+                for (int i = 0; i < starts.length; i++) {
+                    starts[i] = BookingIndex.day((LocalDate) overlapping.get(i)[0]);
+                    ends[i] = BookingIndex.day((LocalDate) overlapping.get(i)[1]);
+                }
+                int booked = IntervalTree.maxConcurrent(starts, ends, starts.length, BookingIndex.day(start), BookingIndex.day(end));
+                if (booked >= room.getCapacity()) {
+                    throw new BookingOverlapException(roomId);
+                }
+                Booking result = bookingRepository.save(booking);
+                bookingIndex.bookingSaved(result.getId(), roomId, start, end);
+                return result;
+            }
+        );
+    }
+
+    /**
+     * Delete a booking.
+     *
+     * @param id the id of the booking.
+     */
+    public void delete(Long id) {
+        log.debug("Request to delete Booking : {}", id);
+        Optional<Booking> booking = bookingRepository.findById(id);
+        booking.ifPresent(existing -> {
+            bookingRepository.delete(existing);
+            bookingIndex.bookingDeleted(id, existing.getRoom().getId(), existing.getStart_date());
+        });
+    }
+
+    /**
+     * Delete the bookings of a resident about to be deleted.
+     *
+     * @param residentId the id of the resident.
+     */
+    public void deleteByResident(Long residentId) {
+        List<Object[]> bookings = bookingRepository.findIntervalsByResidentId(residentId);
+        if (bookings.isEmpty()) {
+            return;
+        }
+        bookingRepository.deleteByResidentId(residentId);
+        for (Object[] row : bookings) {
+            bookingIndex.bookingDeleted((Long) row[0], (Long) row[1], (LocalDate) row[2]);
+        }
+    }
+
+    /**
+     * Delete the bookings of a room about to be deleted; the room must be locked, so that no booking is added meanwhile.
+     *
+     * @param roomId the id of the room.
+     */
+    public void deleteByRoom(Long roomId) {
+        if (bookingRepository.deleteByRoomId(roomId) > 0) {
+            bookingIndex.roomDeleted(roomId);
+        }
+    }
+}
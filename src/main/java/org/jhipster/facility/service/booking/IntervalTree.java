@@ -0,0 +1,241 @@
+package org.jhipster.facility.service.booking;
+
+import java.util.Arrays;
+
+/**
+ * Augmented AVL tree of the half-open day intervals {@code [start, end)} booked in one room.
+ * <p>
+ * Nodes are ordered by start day, then booking id, and carry the latest end of their subtree, so that overlap queries
+ * skip every subtree ending before the queried range: O(log n + k) for k overlapping bookings, however long the
+ * history of the room. Callers synchronize on the instance.
+ */
+final class IntervalTree {
+
+    private static final class Node {
+
+        final long id;
+        final int start;
+        final int end;
+        int maxEnd;
+        int height = 1;
+        Node left;
+        Node right;
+
+        Node(long id, int start, int end) {
+            this.id = id;
+            this.start = start;
+            this.end = end;
+            this.maxEnd = end;
+        }
+    }
+
+    private Node root;
+
+    private int size;
+
+    private boolean changed;
+
+    // Scratch buffers of the overlap queries, reused as callers synchronize.
+    private int[] overlapStarts = new int[8];
+
+    private int[] overlapEnds = new int[8];
+
+    void add(long id, int start, int end) {
+        changed = false;
+        root = insert(root, id, start, end);
+        if (changed) {
+            size++;
+        }
+    }
+
+    boolean remove(long id, int start) {
+        changed = false;
+        root = delete(root, id, start);
+        if (changed) {
+            size--;
+        }
+        return changed;
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean overlapsAny(int start, int end) {
+        Node node = root;
+        while (node != null) {
+            if (node.start < end && start < node.end) {
+                return true;
+            }
+            // The left subtree can only overlap if one of its bookings ends after the start.
+            node = node.left != null && node.left.maxEnd > start ? node.left : node.start < end ? node.right : null;
+        }
+        return false;
+    }
+
+    /**
+     * @return the largest number of bookings sharing a day of {@code [start, end)}.
+     */
+    int maxOverlap(int start, int end) {
+        int count = collect(root, start, end, 0);
+        return maxConcurrent(overlapStarts, overlapEnds, count, start, end);
+    }
+
+    /**
+     * Compute the largest number of intervals sharing a day of {@code [from, to)}.
+     *
+     * @param starts the first days of the intervals.
+     * @param ends the days after the last days of the intervals.
+     * @param count the number of intervals, the arrays may be longer.
+     */
+    static int maxConcurrent(int[] starts, int[] ends, int count, int from, int to) {
+        long[] changes = new long[count * 2];
+        int n = 0;
+        for (int i = 0; i < count; i++) {
+            int start = Math.max(starts[i], from);
+            int end = Math.min(ends[i], to);
+            if (start < end) {
+                // Ends sort before starts on the same day: the intervals are half-open.
+                changes[n++] = ((long) start << 1) | 1;
+                changes[n++] = (long) end << 1;
+            }
+        }
+        Arrays.sort(changes, 0, n);
+        int current = 0;
+        int max = 0;
+        for (int i = 0; i < n; i++) {
+            current += (changes[i] & 1) == 1 ? 1 : -1;
+            max = Math.max(max, current);
+        }
+        return max;
+    }
+
+    private int collect(Node node, int start, int end, int count) {
+        if (node == null || node.maxEnd <= start) {
+            return count;
+        }
+        count = collect(node.left, start, end, count);
+        if (node.start >= end) {
+            return count;
+        }
+        if (start < node.end) {
+            if (count == overlapStarts.length) {
+                overlapStarts = Arrays.copyOf(overlapStarts, count * 2);
+                overlapEnds = Arrays.copyOf(overlapEnds, count * 2);
+            }
+            overlapStarts[count] = node.start;
+            overlapEnds[count] = node.end;
+            count++;
+        }
+        return collect(node.right, start, end, count);
+    }
+
+    private static int compare(int startA, long idA, int startB, long idB) {
+        return startA != startB ? Integer.compare(startA, startB) : Long.compare(idA, idB);
+    }
+
+    private Node insert(Node node, long id, int start, int end) {
+        if (node == null) {
+            changed = true;
+            return new Node(id, start, end);
+        }
+        int c = compare(start, id, node.start, node.id);
+        if (c < 0) {
+            node.left = insert(node.left, id, start, end);
+        } else if (c > 0) {
+            node.right = insert(node.right, id, start, end);
+        } else {
+            return node;
+        }
+        return balance(node);
+    }
+
+    private Node delete(Node node, long id, int start) {
+        if (node == null) {
+            return null;
+        }
+        int c = compare(start, id, node.start, node.id);
+        if (c < 0) {
+            node.left = delete(node.left, id, start);
+        } else if (c > 0) {
+            node.right = delete(node.right, id, start);
+        } else {
+            changed = true;
+            if (node.left == null) {
+                return node.right;
+            }
+            if (node.right == null) {
+                return node.left;
+            }
+            Node successor = node.right;
+            while (successor.left != null) {
+                successor = successor.left;
+            }
+            Node replacement = new Node(successor.id, successor.start, successor.end);
+            replacement.left = node.left;
+            replacement.right = deleteMin(node.right);
+            return balance(replacement);
+        }
+        return balance(node);
+    }
+
+    private Node deleteMin(Node node) {
+        if (node.left == null) {
+            return node.right;
+        }
+        node.left = deleteMin(node.left);
+        return balance(node);
+    }
+
+    private static int height(Node node) {
+        return node == null ? 0 : node.height;
+    }
+
+    private static void update(Node node) {
+        node.height = 1 + Math.max(height(node.left), height(node.right));
+        int maxEnd = node.end;
+        if (node.left != null) {
+            maxEnd = Math.max(maxEnd, node.left.maxEnd);
+        }
+        if (node.right != null) {
+            maxEnd = Math.max(maxEnd, node.right.maxEnd);
+        }
+        node.maxEnd = maxEnd;
+    }
+
+    private static Node balance(Node node) {
+        update(node);
+        int factor = height(node.left) - height(node.right);
+        if (factor > 1) {
+            if (height(node.left.left) < height(node.left.right)) {
+                node.left = rotateLeft(node.left);
+            }
+            return rotateRight(node);
+        }
+        if (factor < -1) {
+            if (height(node.right.right) < height(node.right.left)) {
+                node.right = rotateRight(node.right);
+            }
+            return rotateLeft(node);
+        }
+        return node;
+    }
+
+    private static Node rotateRight(Node node) {
+        Node pivot = node.left;
+        node.left = pivot.right;
+        pivot.right = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private static Node rotateLeft(Node node) {
+        Node pivot = node.right;
+        node.right = pivot.left;
+        pivot.left = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+}
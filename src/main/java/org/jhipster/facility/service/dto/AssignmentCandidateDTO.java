@@ -0,0 +1,68 @@
+package org.jhipster.facility.service.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+import javax.validation.constraints.*;
+
+/**
+ * A DTO representing a resident waiting to be placed in a room of a facility, with its room preferences.
+ */
+public class AssignmentCandidateDTO {
+
+    @NotNull
+    private String name;
+
+    @NotNull
+    @Max(value = 9999999999999L)
+    private Integer phone_number;
+
+    private String email;
+
+    /**
+     * Preferred room ids, most preferred first.
+     */
+    private List<Long> preferredRoomIds = new ArrayList<>();
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public Integer getPhone_number() {
+        return phone_number;
+    }
+
+    public void setPhone_number(Integer phone_number) {
+        this.phone_number = phone_number;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public void setEmail(String email) {
+        this.email = email;
+    }
+
+    public List<Long> getPreferredRoomIds() {
+        return preferredRoomIds;
+    }
+
+    public void setPreferredRoomIds(List<Long> preferredRoomIds) {
+        this.preferredRoomIds = preferredRoomIds;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "AssignmentCandidateDTO{" +
+            "name='" + name + '\'' +
+            ", phone_number=" + phone_number +
+            ", email='" + email + '\'' +
+            ", preferredRoomIds=" + preferredRoomIds +
+            "}";
+    }
+}
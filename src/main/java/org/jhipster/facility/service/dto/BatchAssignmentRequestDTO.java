@@ -0,0 +1,33 @@
+package org.jhipster.facility.service.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+import javax.validation.Valid;
+import javax.validation.constraints.*;
+
+/**
+ * A DTO representing a batch of residents to place in the rooms of one facility.
+ */
+public class BatchAssignmentRequestDTO {
+
+    @NotNull
+    @Size(min = 1)
+    @Valid
+    private List<AssignmentCandidateDTO> residents = new ArrayList<>();
+
+    public List<AssignmentCandidateDTO> getResidents() {
+        return residents;
+    }
+
+    public void setResidents(List<AssignmentCandidateDTO> residents) {
+        this.residents = residents;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "BatchAssignmentRequestDTO{" +
+            "residents=" + residents.size() +
+            "}";
+    }
+}
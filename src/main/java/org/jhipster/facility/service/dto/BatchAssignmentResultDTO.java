@@ -0,0 +1,135 @@
+package org.jhipster.facility.service.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A DTO representing the outcome of a batch assignment, with its solve and commit timings.
+ */
+public class BatchAssignmentResultDTO {
+
+    private Long facilityId;
+
+    private List<Assignment> assignments = new ArrayList<>();
+
+    private List<Integer> unassigned = new ArrayList<>();
+
+    private long solveTimeMillis;
+
+    private long persistTimeMillis;
+
+    private double rowsPerSecond;
+
+    public Long getFacilityId() {
+        return facilityId;
+    }
+
+    public void setFacilityId(Long facilityId) {
+        this.facilityId = facilityId;
+    }
+
+    public List<Assignment> getAssignments() {
+        return assignments;
+    }
+
+    public void setAssignments(List<Assignment> assignments) {
+        this.assignments = assignments;
+    }
+
+    /**
+     * @return the positions, in the request, of the residents that could not be given a room.
+     */
+    public List<Integer> getUnassigned() {
+        return unassigned;
+    }
+
+    public void setUnassigned(List<Integer> unassigned) {
+        this.unassigned = unassigned;
+    }
+
+    public long getSolveTimeMillis() {
+        return solveTimeMillis;
+    }
+
+    public void setSolveTimeMillis(long solveTimeMillis) {
+        this.solveTimeMillis = solveTimeMillis;
+    }
+
+    public long getPersistTimeMillis() {
+        return persistTimeMillis;
+    }
+
+    public void setPersistTimeMillis(long persistTimeMillis) {
+        this.persistTimeMillis = persistTimeMillis;
+    }
+
+    public double getRowsPerSecond() {
+        return rowsPerSecond;
+    }
+
+    public void setRowsPerSecond(double rowsPerSecond) {
+        this.rowsPerSecond = rowsPerSecond;
+    }
+
+    /**
+     * A resident created by the batch, and the room it was placed in.
+     */
+    public static class Assignment {
+
+        private int index;
+
+        private Long residentId;
+
+        private Long roomId;
+
+        public Assignment() {
+            // Empty constructor needed for Jackson.
+        }
+
+        public Assignment(int index, Long residentId, Long roomId) {
+            this.index = index;
+            this.residentId = residentId;
+            this.roomId = roomId;
+        }
+
+        /**
+         * @return the position of the resident in the request.
+         */
+        public int getIndex() {
+            return index;
+        }
+
+        public void setIndex(int index) {
+            this.index = index;
+        }
+
+        public Long getResidentId() {
+            return residentId;
+        }
+
+        public void setResidentId(Long residentId) {
+            this.residentId = residentId;
+        }
+
+        public Long getRoomId() {
+            return roomId;
+        }
+
+        public void setRoomId(Long roomId) {
+            this.roomId = roomId;
+        }
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "BatchAssignmentResultDTO{" +
+            "facilityId=" + facilityId +
+            ", assigned=" + assignments.size() +
+            ", unassigned=" + unassigned.size() +
+            ", solveTimeMillis=" + solveTimeMillis +
+            ", persistTimeMillis=" + persistTimeMillis +
+            ", rowsPerSecond=" + rowsPerSecond +
+            "}";
+    }
+}
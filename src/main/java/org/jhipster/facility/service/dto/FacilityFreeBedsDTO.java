@@ -0,0 +1,98 @@
+package org.jhipster.facility.service.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A DTO representing the free beds of a facility.
+ */
+public class FacilityFreeBedsDTO {
+
+    private Long facilityId;
+
+    private int freeBedCount;
+
+    private List<Bed> beds = new ArrayList<>();
+
+    public FacilityFreeBedsDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public FacilityFreeBedsDTO(Long facilityId, int freeBedCount, List<Bed> beds) {
+        this.facilityId = facilityId;
+        this.freeBedCount = freeBedCount;
+        this.beds = beds;
+    }
+
+    public Long getFacilityId() {
+        return facilityId;
+    }
+
+    public void setFacilityId(Long facilityId) {
+        this.facilityId = facilityId;
+    }
+
+    /**
+     * @return the number of free beds of the facility, which may be more than the beds listed.
+     */
+    public int getFreeBedCount() {
+        return freeBedCount;
+    }
+
+    public void setFreeBedCount(int freeBedCount) {
+        this.freeBedCount = freeBedCount;
+    }
+
+    public List<Bed> getBeds() {
+        return beds;
+    }
+
+    public void setBeds(List<Bed> beds) {
+        this.beds = beds;
+    }
+
+    /**
+     * A free bed, by room and number within the room.
+     */
+    public static class Bed {
+
+        private Long roomId;
+
+        private int bedNumber;
+
+        public Bed() {
+            // Empty constructor needed for Jackson.
+        }
+
+        public Bed(Long roomId, int bedNumber) {
+            this.roomId = roomId;
+            this.bedNumber = bedNumber;
+        }
+
+        public Long getRoomId() {
+            return roomId;
+        }
+
+        public void setRoomId(Long roomId) {
+            this.roomId = roomId;
+        }
+
+        public int getBedNumber() {
+            return bedNumber;
+        }
+
+        public void setBedNumber(int bedNumber) {
+            this.bedNumber = bedNumber;
+        }
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "FacilityFreeBedsDTO{" +
+            "facilityId=" + facilityId +
+            ", freeBedCount=" + freeBedCount +
+            ", beds=" + beds.size() +
+            "}";
+    }
+}
@@ -0,0 +1,59 @@
+package org.jhipster.facility.service.dto;
+
+import java.util.Arrays;
+
+/**
+ * A DTO representing the vacant rooms of a facility.
+ */
+public class FacilityVacanciesDTO {
+
+    private Long facilityId;
+
+    private int roomCount;
+
+    private long[] vacantRoomIds = new long[0];
+
+    public FacilityVacanciesDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public FacilityVacanciesDTO(Long facilityId, int roomCount, long[] vacantRoomIds) {
+        this.facilityId = facilityId;
+        this.roomCount = roomCount;
+        this.vacantRoomIds = vacantRoomIds;
+    }
+
+    public Long getFacilityId() {
+        return facilityId;
+    }
+
+    public void setFacilityId(Long facilityId) {
+        this.facilityId = facilityId;
+    }
+
+    public int getRoomCount() {
+        return roomCount;
+    }
+
+    public void setRoomCount(int roomCount) {
+        this.roomCount = roomCount;
+    }
+
+    public long[] getVacantRoomIds() {
+        return vacantRoomIds;
+    }
+
+    public void setVacantRoomIds(long[] vacantRoomIds) {
+        this.vacantRoomIds = vacantRoomIds;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "FacilityVacanciesDTO{" +
+            "facilityId=" + facilityId +
+            ", roomCount=" + roomCount +
+            ", vacantRoomIds=" + Arrays.toString(vacantRoomIds) +
+            "}";
+    }
+}
@@ -0,0 +1,124 @@
+package org.jhipster.facility.service.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A DTO representing the outcome of one chunk of a CSV import, and the totals of the import so far.
+ */
+public class ImportProgressDTO {
+
+    private int chunk;
+
+    private int firstLine;
+
+    private int lastLine;
+
+    private int imported;
+
+    private List<RejectedRow> rejected = new ArrayList<>();
+
+    private long totalImported;
+
+    private long totalRejected;
+
+    public int getChunk() {
+        return chunk;
+    }
+
+    public void setChunk(int chunk) {
+        this.chunk = chunk;
+    }
+
+    /**
+     * @return the line number, in the file, of the first row of the chunk.
+     */
+    public int getFirstLine() {
+        return firstLine;
+    }
+
+    public void setFirstLine(int firstLine) {
+        this.firstLine = firstLine;
+    }
+
+    /**
+     * @return the line number, in the file, of the last row of the chunk.
+     */
+    public int getLastLine() {
+        return lastLine;
+    }
+
+    public void setLastLine(int lastLine) {
+        this.lastLine = lastLine;
+    }
+
+    /**
+     * @return the number of rows of the chunk written to the database.
+     */
+    public int getImported() {
+        return imported;
+    }
+
+    public void setImported(int imported) {
+        this.imported = imported;
+    }
+
+    public List<RejectedRow> getRejected() {
+        return rejected;
+    }
+
+    public void setRejected(List<RejectedRow> rejected) {
+        this.rejected = rejected;
+    }
+
+    public long getTotalImported() {
+        return totalImported;
+    }
+
+    public void setTotalImported(long totalImported) {
+        this.totalImported = totalImported;
+    }
+
+    public long getTotalRejected() {
+        return totalRejected;
+    }
+
+    public void setTotalRejected(long totalRejected) {
+        this.totalRejected = totalRejected;
+    }
+
+    /**
+     * A row left out of the import, and why.
+     */
+    public static class RejectedRow {
+
+        private int line;
+
+        private List<String> errors;
+
+        public RejectedRow() {
+            // Empty constructor needed for Jackson.
+        }
+
+        public RejectedRow(int line, List<String> errors) {
+            this.line = line;
+            this.errors = errors;
+        }
+
+        public int getLine() {
+            return line;
+        }
+
+        public void setLine(int line) {
+            this.line = line;
+        }
+
+        public List<String> getErrors() {
+            return errors;
+        }
+
+        public void setErrors(List<String> errors) {
+            this.errors = errors;
+        }
+    }
+}
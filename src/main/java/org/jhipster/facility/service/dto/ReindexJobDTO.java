@@ -0,0 +1,158 @@
+package org.jhipster.facility.service.dto;
+
+import java.time.Instant;
+import org.jhipster.facility.domain.enumeration.SearchDocumentType;
+
+/**
+ * A DTO representing the progress of a full reindex of the entities of a type.
+ */
+public class ReindexJobDTO {
+
+    private Long id;
+
+    private SearchDocumentType entityType;
+
+    private String index;
+
+    private Instant startedAt;
+
+    private Instant finishedAt;
+
+    private boolean running;
+
+    private long partitions;
+
+    private long completedPartitions;
+
+    private long documents;
+
+    private long timeMillis;
+
+    private double documentsPerSecond;
+
+    private String lastError;
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public SearchDocumentType getEntityType() {
+        return entityType;
+    }
+
+    public void setEntityType(SearchDocumentType entityType) {
+        this.entityType = entityType;
+    }
+
+    /**
+     * @return the name of the index written, which the alias of the type points to once the job is finished.
+     */
+    public String getIndex() {
+        return index;
+    }
+
+    public void setIndex(String index) {
+        this.index = index;
+    }
+
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+
+    public void setStartedAt(Instant startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    public Instant getFinishedAt() {
+        return finishedAt;
+    }
+
+    public void setFinishedAt(Instant finishedAt) {
+        this.finishedAt = finishedAt;
+    }
+
+    /**
+     * @return {@code true} if the job is being run by this instance; an unfinished job which is not running is resumed by
+     * starting a reindex of its type again.
+     */
+    public boolean isRunning() {
+        return running;
+    }
+
+    public void setRunning(boolean running) {
+        this.running = running;
+    }
+
+    public long getPartitions() {
+        return partitions;
+    }
+
+    public void setPartitions(long partitions) {
+        this.partitions = partitions;
+    }
+
+    public long getCompletedPartitions() {
+        return completedPartitions;
+    }
+
+    public void setCompletedPartitions(long completedPartitions) {
+        this.completedPartitions = completedPartitions;
+    }
+
+    /**
+     * @return the number of documents of the completed partitions.
+     */
+    public long getDocuments() {
+        return documents;
+    }
+
+    public void setDocuments(long documents) {
+        this.documents = documents;
+    }
+
+    /**
+     * @return the time since the job started, until it finished if it did.
+     */
+    public long getTimeMillis() {
+        return timeMillis;
+    }
+
+    public void setTimeMillis(long timeMillis) {
+        this.timeMillis = timeMillis;
+    }
+
+    public double getDocumentsPerSecond() {
+        return documentsPerSecond;
+    }
+
+    public void setDocumentsPerSecond(double documentsPerSecond) {
+        this.documentsPerSecond = documentsPerSecond;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    public void setLastError(String lastError) {
+        this.lastError = lastError;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "ReindexJobDTO{" +
+            "id=" + getId() +
+            ", entityType='" + getEntityType() + "'" +
+            ", index='" + getIndex() + "'" +
+            ", running=" + isRunning() +
+            ", partitions=" + getPartitions() +
+            ", completedPartitions=" + getCompletedPartitions() +
+            ", documents=" + getDocuments() +
+            ", documentsPerSecond=" + getDocumentsPerSecond() +
+            "}";
+    }
+}
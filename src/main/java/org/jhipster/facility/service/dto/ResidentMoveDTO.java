@@ -0,0 +1,49 @@
+package org.jhipster.facility.service.dto;
+
+import javax.validation.constraints.*;
+
+/**
+ * A DTO representing the move of one resident to another room.
+ */
+public class ResidentMoveDTO {
+
+    @NotNull
+    private Long residentId;
+
+    @NotNull
+    private Long targetRoomId;
+
+    public ResidentMoveDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public ResidentMoveDTO(Long residentId, Long targetRoomId) {
+        this.residentId = residentId;
+        this.targetRoomId = targetRoomId;
+    }
+
+    public Long getResidentId() {
+        return residentId;
+    }
+
+    public void setResidentId(Long residentId) {
+        this.residentId = residentId;
+    }
+
+    public Long getTargetRoomId() {
+        return targetRoomId;
+    }
+
+    public void setTargetRoomId(Long targetRoomId) {
+        this.targetRoomId = targetRoomId;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "ResidentMoveDTO{" +
+            "residentId=" + residentId +
+            ", targetRoomId=" + targetRoomId +
+            "}";
+    }
+}
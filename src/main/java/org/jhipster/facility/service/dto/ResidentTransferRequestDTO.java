@@ -0,0 +1,33 @@
+package org.jhipster.facility.service.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+import javax.validation.Valid;
+import javax.validation.constraints.*;
+
+/**
+ * A DTO representing moves of residents between rooms, applied all together or not at all.
+ */
+public class ResidentTransferRequestDTO {
+
+    @NotNull
+    @Size(min = 1)
+    @Valid
+    private List<ResidentMoveDTO> moves = new ArrayList<>();
+
+    public List<ResidentMoveDTO> getMoves() {
+        return moves;
+    }
+
+    public void setMoves(List<ResidentMoveDTO> moves) {
+        this.moves = moves;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "ResidentTransferRequestDTO{" +
+            "moves=" + moves.size() +
+            "}";
+    }
+}
@@ -0,0 +1,47 @@
+package org.jhipster.facility.service.dto;
+
+/**
+ * A DTO representing the outcome of a transfer of residents.
+ */
+public class ResidentTransferResultDTO {
+
+    private int moved;
+
+    private int unchanged;
+
+    private long timeMillis;
+
+    public int getMoved() {
+        return moved;
+    }
+
+    public void setMoved(int moved) {
+        this.moved = moved;
+    }
+
+    public int getUnchanged() {
+        return unchanged;
+    }
+
+    public void setUnchanged(int unchanged) {
+        this.unchanged = unchanged;
+    }
+
+    public long getTimeMillis() {
+        return timeMillis;
+    }
+
+    public void setTimeMillis(long timeMillis) {
+        this.timeMillis = timeMillis;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "ResidentTransferResultDTO{" +
+            "moved=" + moved +
+            ", unchanged=" + unchanged +
+            ", timeMillis=" + timeMillis +
+            "}";
+    }
+}
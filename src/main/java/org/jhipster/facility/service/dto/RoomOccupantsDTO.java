@@ -0,0 +1,87 @@
+package org.jhipster.facility.service.dto;
+
+import java.time.Instant;
+import java.util.Arrays;
+
+/**
+ * A DTO representing the residents of a room at a point in time, rebuilt from the assignment log.
+ */
+public class RoomOccupantsDTO {
+
+    private Long roomId;
+
+    private Instant asOf;
+
+    private long[] residentIds = new long[0];
+
+    private Long snapshotEventId;
+
+    private int replayedEvents;
+
+    public RoomOccupantsDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public RoomOccupantsDTO(Long roomId, Instant asOf, long[] residentIds, Long snapshotEventId, int replayedEvents) {
+        this.roomId = roomId;
+        this.asOf = asOf;
+        this.residentIds = residentIds;
+        this.snapshotEventId = snapshotEventId;
+        this.replayedEvents = replayedEvents;
+    }
+
+    public Long getRoomId() {
+        return roomId;
+    }
+
+    public void setRoomId(Long roomId) {
+        this.roomId = roomId;
+    }
+
+    public Instant getAsOf() {
+        return asOf;
+    }
+
+    public void setAsOf(Instant asOf) {
+        this.asOf = asOf;
+    }
+
+    public long[] getResidentIds() {
+        return residentIds;
+    }
+
+    public void setResidentIds(long[] residentIds) {
+        this.residentIds = residentIds;
+    }
+
+    /**
+     * @return the last event of the snapshot the replay started from, {@code null} if it started from an empty room.
+     */
+    public Long getSnapshotEventId() {
+        return snapshotEventId;
+    }
+
+    public void setSnapshotEventId(Long snapshotEventId) {
+        this.snapshotEventId = snapshotEventId;
+    }
+
+    public int getReplayedEvents() {
+        return replayedEvents;
+    }
+
+    public void setReplayedEvents(int replayedEvents) {
+        this.replayedEvents = replayedEvents;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "RoomOccupantsDTO{" +
+            "roomId=" + roomId +
+            ", asOf='" + asOf + "'" +
+            ", residentIds=" + Arrays.toString(residentIds) +
+            ", snapshotEventId=" + snapshotEventId +
+            ", replayedEvents=" + replayedEvents +
+            "}";
+    }
+}
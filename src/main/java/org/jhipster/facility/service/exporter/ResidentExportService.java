@@ -0,0 +1,150 @@
+package org.jhipster.facility.service.exporter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+import javax.persistence.EntityManager;
+import org.jhipster.facility.domain.Resident;
+import org.jhipster.facility.repository.ResidentRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Service exporting the residents of a facility, written to a stream row by row as they are read from the database.
+ * <p>
+ * The residents are read through {@link ResidentRepository#streamWithFacilityId(Long)} in a read-only transaction and
+ * detached once written, so an export uses the same memory whatever the number of residents.
+ */
+@Service
+public class ResidentExportService {
+
+    /**
+     * The formats of an export.
+     */
+    public enum Format {
+        /**
+         * One JSON resident per line, as returned by {@code GET /api/residents/:id}.
+         */
+        NDJSON("application/x-ndjson", "ndjson"),
+        /**
+         * Semicolon separated values with a header line, in the format read by the CSV import.
+         */
+        CSV("text/csv;charset=UTF-8", "csv");
+
+        private final String contentType;
+
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+    }
+
+    private static final String CSV_HEADER = "id;name;phone_number;email;room_id";
+
+    private static final char DELIMITER = ';';
+
+    private static final char QUOTE = '"';
+
+    private final Logger log = LoggerFactory.getLogger(ResidentExportService.class);
+
+    private final ResidentRepository residentRepository;
+
+    private final EntityManager entityManager;
+
+    private final ObjectMapper objectMapper;
+
+    public ResidentExportService(ResidentRepository residentRepository, EntityManager entityManager, ObjectMapper objectMapper) {
+        this.residentRepository = residentRepository;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Write the residents of a facility, in id order.
+     *
+     * @param facilityId the id of the facility.
+     * @param format the format of the export.
+     * @param out the stream to write to, left open.
+     * @return the number of residents written.
+     * @throws IOException if the stream cannot be written.
+     */
+    @Transactional(readOnly = true)
+    public long exportFacility(Long facilityId, Format format, OutputStream out) throws IOException {
+        log.debug("Request to export the residents of Facility : {} as {}", facilityId, format);
+        // Not closed: closing the writer would close the stream of the caller
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        if (format == Format.CSV) {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        }
+        long count = 0;
+        try (Stream<Resident> residents = residentRepository.streamWithFacilityId(facilityId)) {
+            for (Iterator<Resident> iterator = residents.iterator(); iterator.hasNext();) {
+                Resident resident = iterator.next();
+                if (format == Format.CSV) {
+                    writeCsv(writer, resident);
+                } else {
+                    writer.write(objectMapper.writeValueAsString(resident));
+                }
+                writer.write('\n');
+                entityManager.detach(resident);
+                entityManager.detach(resident.getRoom());
+                count++;
+            }
+        }
+        writer.flush();
+        log.debug("Exported {} residents of Facility : {}", count, facilityId);
+        return count;
+    }
+
+    private static void writeCsv(Writer writer, Resident resident) throws IOException {
+        writer.write(resident.getId().toString());
+        writer.write(DELIMITER);
+        writeCsvValue(writer, resident.getName());
+        writer.write(DELIMITER);
+        writer.write(resident.getPhone_number().toString());
+        writer.write(DELIMITER);
+        if (resident.getEmail() != null) {
+            writeCsvValue(writer, resident.getEmail());
+        }
+        writer.write(DELIMITER);
+        writer.write(resident.getRoom().getId().toString());
+    }
+
+    /**
+     * Write a value, quoted with its quotes doubled if it holds a delimiter, a quote or a line break.
+     */
+    private static void writeCsvValue(Writer writer, String value) throws IOException {
+        if (value.indexOf(DELIMITER) < 0 && value.indexOf(QUOTE) < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            writer.write(value);
+            return;
+        }
+        writer.write(QUOTE);
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == QUOTE) {
+                writer.write(QUOTE);
+            }
+            writer.write(c);
+        }
+        writer.write(QUOTE);
+    }
+}
@@ -0,0 +1,191 @@
+package org.jhipster.facility.service.history;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Objects;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import org.jhipster.facility.config.ApplicationProperties;
+import org.jhipster.facility.domain.AssignmentEvent;
+import org.jhipster.facility.domain.RoomSnapshot;
+import org.jhipster.facility.domain.enumeration.AssignmentEventType;
+import org.jhipster.facility.repository.AssignmentEventRepository;
+import org.jhipster.facility.repository.RoomRepository;
+import org.jhipster.facility.repository.RoomSnapshotRepository;
+import org.jhipster.facility.service.dto.RoomOccupantsDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service keeping the history of room assignments.
+ * <p>
+ * Every resident entering or leaving a room appends an {@link AssignmentEvent}, in the transaction of the change.
+ * A scheduled compaction writes a {@link RoomSnapshot} of each room every {@code application.assignment.snapshot-interval}
+ * events, so that the occupants of a room at any time are rebuilt from the nearest earlier snapshot plus a bounded
+ * replay. Events are never deleted.
+ */
+@Service
+public class AssignmentHistoryService {
+
+    /**
+     * Age of the events a compaction may cover: younger events may still have uncommitted predecessors in the log.
+     */
+    static final Duration SETTLE_TIME = Duration.ofMinutes(1);
+
+    private final Logger log = LoggerFactory.getLogger(AssignmentHistoryService.class);
+
+    private final AssignmentEventRepository assignmentEventRepository;
+
+    private final RoomSnapshotRepository roomSnapshotRepository;
+
+    private final RoomRepository roomRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ApplicationProperties applicationProperties;
+
+    public AssignmentHistoryService(
+        AssignmentEventRepository assignmentEventRepository,
+        RoomSnapshotRepository roomSnapshotRepository,
+        RoomRepository roomRepository,
+        PlatformTransactionManager transactionManager,
+        ApplicationProperties applicationProperties
+    ) {
+        this.assignmentEventRepository = assignmentEventRepository;
+        this.roomSnapshotRepository = roomSnapshotRepository;
+        this.roomRepository = roomRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.applicationProperties = applicationProperties;
+    }
+
+    /**
+     * Append a resident's change of room to the log; must run in the transaction making the change.
+     *
+     * @param residentId the id of the resident.
+     * @param fromRoomId the room the resident left, {@code null} for a new resident.
+     * @param toRoomId the room the resident entered, {@code null} for a deleted resident.
+     */
+    public void record(Long residentId, Long fromRoomId, Long toRoomId) {
+        if (Objects.equals(fromRoomId, toRoomId)) {
+            return;
+        }
+        AssignmentEventType type = fromRoomId == null
+            ? AssignmentEventType.ASSIGNED
+            : toRoomId == null ? AssignmentEventType.VACATED : AssignmentEventType.TRANSFERRED;
+        assignmentEventRepository.save(
+            new AssignmentEvent()
+                .type(type)
+                .resident_id(residentId)
+                .from_room_id(fromRoomId)
+                .to_room_id(toRoomId)
+                .occurred_at(Instant.now())
+        );
+    }
+
+    /**
+     * Get the residents of a room at a point in time.
+     *
+     * @param roomId the id of the room.
+     * @param asOf the point in time.
+     * @return the residents, with the snapshot and number of events they were rebuilt from.
+     */
+    @Transactional(readOnly = true)
+    public RoomOccupantsDTO occupantsAsOf(Long roomId, Instant asOf) {
+        log.debug("Request to get the occupants of Room {} as of {}", roomId, asOf);
+        List<RoomSnapshot> snapshots = roomSnapshotRepository.findLatest(roomId, asOf, PageRequest.of(0, 1));
+        RoomSnapshot snapshot = snapshots.isEmpty() ? null : snapshots.get(0);
+        SortedSet<Long> residentIds = snapshot == null ? new TreeSet<>() : parse(snapshot.getResident_ids());
+        long after = snapshot == null ? 0 : snapshot.getLast_event_id();
+        List<AssignmentEvent> events = assignmentEventRepository.findRoomEvents(roomId, after, asOf, Pageable.unpaged());
+        events.forEach(event -> apply(roomId, event, residentIds));
+        return new RoomOccupantsDTO(
+            roomId,
+            asOf,
+            residentIds.stream().mapToLong(Long::longValue).toArray(),
+            snapshot == null ? null : snapshot.getLast_event_id(),
+            events.size()
+        );
+    }
+
+    /**
+     * Snapshot the rooms whose settled events outgrew the snapshot interval.
+     */
+    @Scheduled(cron = "0 */10 * * * ?")
+    public void compact() {
+        compact(Instant.now().minus(SETTLE_TIME));
+    }
+
+    /**
+     * Snapshot every room after each full interval of its events up to a point in time, one transaction per room.
+     *
+     * @param settledBefore the latest time of the events to cover.
+     * @return the number of snapshots written.
+     */
+    public int compact(Instant settledBefore) {
+        long start = System.currentTimeMillis();
+        int written = 0;
+        for (Long roomId : roomRepository.findAllIds()) {
+            written += transactionTemplate.execute(status -> compactRoom(roomId, settledBefore));
+        }
+        log.info("Compacted assignment log with {} snapshots in {} ms", written, System.currentTimeMillis() - start);
+        return written;
+    }
+
+    private int compactRoom(Long roomId, Instant settledBefore) {
+        int interval = Math.max(1, applicationProperties.getAssignment().getSnapshotInterval());
+        List<RoomSnapshot> snapshots = roomSnapshotRepository.findLatest(roomId, settledBefore, PageRequest.of(0, 1));
+        SortedSet<Long> residentIds = snapshots.isEmpty() ? new TreeSet<>() : parse(snapshots.get(0).getResident_ids());
+        long after = snapshots.isEmpty() ? 0 : snapshots.get(0).getLast_event_id();
+        int written = 0;
+        while (true) {
+            List<AssignmentEvent> events = assignmentEventRepository.findRoomEvents(
+                roomId,
+                after,
+                settledBefore,
+                PageRequest.of(0, interval)
+            );
+            if (events.size() < interval) {
+                return written;
+            }
+            events.forEach(event -> apply(roomId, event, residentIds));
+            AssignmentEvent last = events.get(events.size() - 1);
+            after = last.getId();
+            roomSnapshotRepository.save(
+                new RoomSnapshot().room_id(roomId).last_event_id(after).event_at(last.getOccurred_at()).resident_ids(format(residentIds))
+            );
+            written++;
+        }
+    }
+
+    private static void apply(Long roomId, AssignmentEvent event, SortedSet<Long> residentIds) {
+        if (roomId.equals(event.getFrom_room_id())) {
+            residentIds.remove(event.getResident_id());
+        }
+        if (roomId.equals(event.getTo_room_id())) {
+            residentIds.add(event.getResident_id());
+        }
+    }
+
+    private static SortedSet<Long> parse(String residentIds) {
+        SortedSet<Long> result = new TreeSet<>();
+        for (String id : residentIds.split(",")) {
+            if (!id.isEmpty()) {
+                result.add(Long.valueOf(id));
+            }
+        }
+        return result;
+    }
+
+    private static String format(SortedSet<Long> residentIds) {
+        return residentIds.stream().map(String::valueOf).collect(Collectors.joining(","));
+    }
+}
@@ -0,0 +1,518 @@
+package org.jhipster.facility.service.importer;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import javax.persistence.EntityManager;
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import org.jhipster.facility.config.ApplicationProperties;
+import org.jhipster.facility.domain.Facility;
+import org.jhipster.facility.domain.Resident;
+import org.jhipster.facility.domain.Room;
+import org.jhipster.facility.domain.enumeration.SearchDocumentType;
+import org.jhipster.facility.repository.FacilityRepository;
+import org.jhipster.facility.repository.ResidentRepository;
+import org.jhipster.facility.repository.RoomRepository;
+import org.jhipster.facility.service.InvalidCsvException;
+import org.jhipster.facility.service.RoomFullException;
+import org.jhipster.facility.service.assignment.AssignmentCoordinator;
+import org.jhipster.facility.service.dto.ImportProgressDTO;
+import org.jhipster.facility.service.dto.ImportProgressDTO.RejectedRow;
+import org.jhipster.facility.service.history.AssignmentHistoryService;
+import org.jhipster.facility.service.occupancy.BedService;
+import org.jhipster.facility.service.occupancy.FacilitySummaryService;
+import org.jhipster.facility.service.occupancy.OccupancyIndex;
+import org.jhipster.facility.service.search.SearchIndexOutbox;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service importing rooms and residents from CSV files shaped like the Liquibase fake data: semicolon separated, with a
+ * header line naming the columns, an {@code id} column being ignored.
+ * <p>
+ * The file is read one chunk of {@code application.csv-import.chunk-size} rows at a time, never as a whole. The rows of
+ * a chunk are parsed and validated in parallel, then checked against the database and written in one transaction, with
+ * the side effects of the REST endpoints creating them one by one; the persistence context is cleared after every
+ * chunk. A row with an error is rejected with its line number and the import goes on; a chunk failing as a whole, on a
+ * concurrent change for example, only rejects its own rows.
+ */
+@Service
+public class CsvImportService {
+
+    public static final String ROOMS = "rooms";
+
+    public static final String RESIDENTS = "residents";
+
+    private static final char DELIMITER = ';';
+
+    private static final char QUOTE = '"';
+
+    private static final Map<String, List<String>> REQUIRED_COLUMNS = Map.of(
+        ROOMS,
+        List.of("room_number", "facility_id"),
+        RESIDENTS,
+        List.of("name", "phone_number", "room_id")
+    );
+
+    private final Logger log = LoggerFactory.getLogger(CsvImportService.class);
+
+    private final FacilityRepository facilityRepository;
+
+    private final RoomRepository roomRepository;
+
+    private final SearchIndexOutbox searchIndexOutbox;
+
+    private final ResidentRepository residentRepository;
+
+    private final EntityManager entityManager;
+
+    private final Validator validator;
+
+    private final ApplicationProperties applicationProperties;
+
+    private final AssignmentCoordinator assignmentCoordinator;
+
+    private final OccupancyIndex occupancyIndex;
+
+    private final BedService bedService;
+
+    private final AssignmentHistoryService assignmentHistoryService;
+
+    private final FacilitySummaryService facilitySummaryService;
+
+    private final TransactionTemplate transactionTemplate;
+
+    public CsvImportService(
+        FacilityRepository facilityRepository,
+        RoomRepository roomRepository,
+        SearchIndexOutbox searchIndexOutbox,
+        ResidentRepository residentRepository,
+        EntityManager entityManager,
+        Validator validator,
+        ApplicationProperties applicationProperties,
+        AssignmentCoordinator assignmentCoordinator,
+        OccupancyIndex occupancyIndex,
+        BedService bedService,
+        AssignmentHistoryService assignmentHistoryService,
+        FacilitySummaryService facilitySummaryService,
+        PlatformTransactionManager transactionManager
+    ) {
+        this.facilityRepository = facilityRepository;
+        this.roomRepository = roomRepository;
+        this.searchIndexOutbox = searchIndexOutbox;
+        this.residentRepository = residentRepository;
+        this.entityManager = entityManager;
+        this.validator = validator;
+        this.applicationProperties = applicationProperties;
+        this.assignmentCoordinator = assignmentCoordinator;
+        this.occupancyIndex = occupancyIndex;
+        this.bedService = bedService;
+        this.assignmentHistoryService = assignmentHistoryService;
+        this.facilitySummaryService = facilitySummaryService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Read the header line of a CSV file.
+     *
+     * @param entity the entities in the file, {@value #ROOMS} or {@value #RESIDENTS}.
+     * @param reader the file, at its start.
+     * @return the header, to pass to {@link #importRows}.
+     * @throws InvalidCsvException if the entity cannot be imported, or the header lacks one of its required columns.
+     * @throws IOException if the file cannot be read.
+     */
+    public Header readHeader(String entity, BufferedReader reader) throws IOException {
+        List<String> required = REQUIRED_COLUMNS.get(entity);
+        if (required == null) {
+            throw new InvalidCsvException("Cannot import " + entity + ", only " + ROOMS + " and " + RESIDENTS);
+        }
+        String line = reader.readLine();
+        if (line == null) {
+            throw new InvalidCsvException("The file is empty");
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        List<String> names = split(line);
+        for (int i = 0; i < names.size(); i++) {
+            columns.putIfAbsent(names.get(i).trim().toLowerCase(), i);
+        }
+        List<String> missing = required.stream().filter(column -> !columns.containsKey(column)).collect(Collectors.toList());
+        if (!missing.isEmpty()) {
+            throw new InvalidCsvException("Missing columns " + String.join(", ", missing));
+        }
+        return new Header(entity, columns);
+    }
+
+    /**
+     * Import the rows following the header of a CSV file.
+     *
+     * @param header the header of the file.
+     * @param reader the file, right after its header line.
+     * @param progress the consumer of the outcome of each chunk, called once the chunk is committed.
+     * @throws IOException if the file cannot be read.
+     */
+    public void importRows(Header header, BufferedReader reader, Consumer<ImportProgressDTO> progress) throws IOException {
+        log.debug("Request to import {} from CSV", header.entity);
+        int chunkSize = Math.max(1, applicationProperties.getCsvImport().getChunkSize());
+        ImportProgressDTO totals = new ImportProgressDTO();
+        List<Line> lines = new ArrayList<>(chunkSize);
+        int lineNumber = 1;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            lines.add(new Line(lineNumber, line));
+            if (lines.size() == chunkSize) {
+                progress.accept(importChunk(header, lines, totals));
+                lines.clear();
+            }
+        }
+        if (!lines.isEmpty()) {
+            progress.accept(importChunk(header, lines, totals));
+        }
+        log.info("Imported {} {} from CSV, rejected {} rows", totals.getTotalImported(), header.entity, totals.getTotalRejected());
+    }
+
+    private ImportProgressDTO importChunk(Header header, List<Line> lines, ImportProgressDTO totals) {
+        List<RejectedRow> rejected = new ArrayList<>();
+        int imported;
+        if (ROOMS.equals(header.entity)) {
+            List<Row<Room>> rows = parse(lines, line -> parseRoom(header, line), rejected);
+            imported = write(rows, this::writeRooms, rejected);
+        } else {
+            List<Row<Resident>> rows = parse(lines, line -> parseResident(header, line), rejected);
+            imported = write(rows, this::writeResidents, rejected);
+        }
+        rejected.sort((a, b) -> Integer.compare(a.getLine(), b.getLine()));
+
+        ImportProgressDTO chunk = new ImportProgressDTO();
+        chunk.setChunk(totals.getChunk() + 1);
+        chunk.setFirstLine(lines.get(0).number);
+        chunk.setLastLine(lines.get(lines.size() - 1).number);
+        chunk.setImported(imported);
+        chunk.setRejected(rejected);
+        chunk.setTotalImported(totals.getTotalImported() + imported);
+        chunk.setTotalRejected(totals.getTotalRejected() + rejected.size());
+        totals.setChunk(chunk.getChunk());
+        totals.setTotalImported(chunk.getTotalImported());
+        totals.setTotalRejected(chunk.getTotalRejected());
+        return chunk;
+    }
+
+    /**
+     * Parse and validate the lines of a chunk in parallel.
+     *
+     * @return the valid rows, in file order; the others are added to {@code rejected}.
+     */
+    private <T> List<Row<T>> parse(List<Line> lines, Function<Line, Row<T>> parser, List<RejectedRow> rejected) {
+        List<Row<T>> rows = lines.parallelStream().map(parser).collect(Collectors.toList());
+        List<Row<T>> valid = new ArrayList<>(rows.size());
+        for (Row<T> row : rows) {
+            if (row.errors.isEmpty()) {
+                valid.add(row);
+            } else {
+                rejected.add(new RejectedRow(row.line, row.errors));
+            }
+        }
+        return valid;
+    }
+
+    /**
+     * Write the valid rows of a chunk.
+     *
+     * @return the number of rows written; the rows failing their database checks are added to {@code rejected}, and
+     * all of them if the chunk fails as a whole.
+     */
+    private <T> int write(List<Row<T>> rows, BiFunction<List<Row<T>>, List<RejectedRow>, Integer> writer, List<RejectedRow> rejected) {
+        if (rows.isEmpty()) {
+            return 0;
+        }
+        try {
+            return writer.apply(rows, rejected);
+        } catch (DataAccessException | RoomFullException e) {
+            log.warn("Could not import the chunk of lines {} to {}: {}", rows.get(0).line, rows.get(rows.size() - 1).line, e.getMessage());
+            List<String> errors = List.of("The chunk of this row could not be written: " + e.getMessage());
+            for (Row<T> row : rows) {
+                rejected.add(new RejectedRow(row.line, errors));
+            }
+            return 0;
+        }
+    }
+
+    private Row<Room> parseRoom(Header header, Line line) {
+        List<String> errors = new ArrayList<>();
+        List<String> fields = split(line.text);
+        Room room = new Room()
+            .room_number(parseInteger(header, fields, "room_number", errors))
+            .capacity(parseInteger(header, fields, "capacity", errors));
+        Long facilityId = parseLong(header, fields, "facility_id", errors);
+        room.setFacility(new Facility().id(facilityId));
+        validate(room, errors);
+        return new Row<>(line.number, room, facilityId, errors);
+    }
+
+    private Row<Resident> parseResident(Header header, Line line) {
+        List<String> errors = new ArrayList<>();
+        List<String> fields = split(line.text);
+        Resident resident = new Resident()
+            .name(header.value(fields, "name"))
+            .phone_number(parseInteger(header, fields, "phone_number", errors))
+            .email(header.value(fields, "email"));
+        Long roomId = parseLong(header, fields, "room_id", errors);
+        resident.setRoom(new Room().id(roomId));
+        validate(resident, errors);
+        return new Row<>(line.number, resident, roomId, errors);
+    }
+
+    private int writeRooms(List<Row<Room>> rows, List<RejectedRow> rejected) {
+        List<RejectedRow> checked = new ArrayList<>();
+        int imported = transactionTemplate.execute(status -> {
+            Set<Long> facilityIds = rows.stream().map(row -> row.parentId).collect(Collectors.toSet());
+            Map<Long, Facility> facilities = facilityRepository
+                .findAllById(facilityIds)
+                .stream()
+                .collect(Collectors.toMap(Facility::getId, Function.identity()));
+            Set<String> roomNumbers = new HashSet<>();
+            for (Object[] taken : roomRepository.findRoomNumbersIn(
+                facilityIds,
+                rows.stream().map(row -> row.entity.getRoom_number()).collect(Collectors.toSet())
+            )) {
+                roomNumbers.add(taken[0] + "/" + taken[1]);
+            }
+
+            List<Room> rooms = new ArrayList<>(rows.size());
+            for (Row<Room> row : rows) {
+                Facility facility = facilities.get(row.parentId);
+                if (facility == null) {
+                    checked.add(new RejectedRow(row.line, List.of("facility_id: no facility " + row.parentId)));
+                } else if (!roomNumbers.add(row.parentId + "/" + row.entity.getRoom_number())) {
+                    checked.add(new RejectedRow(row.line, List.of("room_number: already used in facility " + row.parentId)));
+                } else {
+                    rooms.add(row.entity.facility(facility));
+                }
+            }
+            roomRepository.saveAll(rooms);
+            roomRepository.flush();
+            searchIndexOutbox.enqueueAll(SearchDocumentType.ROOM, rooms.stream().map(Room::getId).collect(Collectors.toList()));
+            for (Room room : rooms) {
+                occupancyIndex.roomSaved(room.getId(), room.getFacility().getId(), room.getCapacity());
+                bedService.roomSaved(room);
+                facilitySummaryService.roomSaved(null, null, room);
+            }
+            // The outbox entries have pooled ids, so nothing has inserted them yet: clearing would drop them.
+            entityManager.flush();
+            entityManager.clear();
+            return rooms.size();
+        });
+        rejected.addAll(checked);
+        return imported;
+    }
+
+    private int writeResidents(List<Row<Resident>> rows, List<RejectedRow> rejected) {
+        Set<Long> roomIds = rows.stream().map(row -> row.parentId).collect(Collectors.toCollection(HashSet::new));
+        // The assignment may run again on a conflict: it starts over from the parsed rows each time.
+        List<RejectedRow> checked = new ArrayList<>();
+        int imported = assignmentCoordinator.assign(
+            roomIds,
+            () -> {
+                checked.clear();
+                Map<Long, Room> rooms = roomRepository
+                    .findAllWithFacilityByIdIn(roomIds)
+                    .stream()
+                    .collect(Collectors.toMap(Room::getId, Function.identity()));
+                Map<Long, Integer> vacancies = new HashMap<>();
+                rooms.values().forEach(room -> vacancies.put(room.getId(), room.getCapacity() - room.getOccupant_count()));
+                Set<Integer> phoneNumbers = new HashSet<>(
+                    residentRepository.findPhoneNumbersIn(
+                        rows.stream().map(row -> row.entity.getPhone_number()).collect(Collectors.toSet())
+                    )
+                );
+
+                List<Resident> residents = new ArrayList<>(rows.size());
+                Map<Long, Integer> placesByRoom = new LinkedHashMap<>();
+                for (Row<Resident> row : rows) {
+                    Room room = rooms.get(row.parentId);
+                    if (room == null) {
+                        checked.add(new RejectedRow(row.line, List.of("room_id: no room " + row.parentId)));
+                    } else if (!phoneNumbers.add(row.entity.getPhone_number())) {
+                        checked.add(new RejectedRow(row.line, List.of("phone_number: already used")));
+                    } else if (vacancies.merge(room.getId(), -1, Integer::sum) < 0) {
+                        checked.add(new RejectedRow(row.line, List.of("room_id: room " + row.parentId + " is full")));
+                    } else {
+                        Resident parsed = row.entity;
+                        residents.add(
+                            new Resident().name(parsed.getName()).phone_number(parsed.getPhone_number()).email(parsed.getEmail()).room(room)
+                        );
+                        placesByRoom.merge(room.getId(), 1, Integer::sum);
+                    }
+                }
+
+                placesByRoom.forEach((roomId, places) -> {
+                    if (roomRepository.incrementOccupantCount(roomId, places) == 0) {
+                        throw new RoomFullException(roomId);
+                    }
+                    facilitySummaryService.occupantsChanged(roomId, places);
+                });
+                residentRepository.saveAll(residents);
+                residentRepository.flush();
+                searchIndexOutbox.enqueueAll(
+                    SearchDocumentType.RESIDENT,
+                    residents.stream().map(Resident::getId).collect(Collectors.toList())
+                );
+                for (Resident resident : residents) {
+                    Long roomId = resident.getRoom().getId();
+                    occupancyIndex.residentMoved(null, roomId);
+                    bedService.claim(resident.getId(), roomId);
+                    assignmentHistoryService.record(resident.getId(), null, roomId);
+                }
+                entityManager.flush();
+                entityManager.clear();
+                return residents.size();
+            }
+        );
+        rejected.addAll(checked);
+        return imported;
+    }
+
+    private <T> void validate(T entity, List<String> errors) {
+        for (ConstraintViolation<T> violation : validator.validate(entity)) {
+            errors.add(violation.getPropertyPath() + ": " + violation.getMessage());
+        }
+    }
+
+    private static Integer parseInteger(Header header, List<String> fields, String column, List<String> errors) {
+        String value = header.value(fields, column);
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Integer.valueOf(value);
+        } catch (NumberFormatException e) {
+            errors.add(column + ": not an integer: " + value);
+            return null;
+        }
+    }
+
+    private static Long parseLong(Header header, List<String> fields, String column, List<String> errors) {
+        String value = header.value(fields, column);
+        if (value == null) {
+            errors.add(column + ": must not be null");
+            return null;
+        }
+        try {
+            return Long.valueOf(value);
+        } catch (NumberFormatException e) {
+            errors.add(column + ": not an id: " + value);
+            return null;
+        }
+    }
+
+    /**
+     * Split a CSV line into its fields; a field may be quoted, with its quotes doubled, to hold the delimiter.
+     */
+    static List<String> split(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c != QUOTE) {
+                    field.append(c);
+                } else if (i + 1 < line.length() && line.charAt(i + 1) == QUOTE) {
+                    field.append(QUOTE);
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == QUOTE) {
+                quoted = true;
+            } else if (c == DELIMITER) {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    /**
+     * The columns of a CSV file, read from its header line.
+     */
+    public static final class Header {
+
+        private final String entity;
+
+        private final Map<String, Integer> columns;
+
+        private Header(String entity, Map<String, Integer> columns) {
+            this.entity = entity;
+            this.columns = Collections.unmodifiableMap(columns);
+        }
+
+        public String getEntity() {
+            return entity;
+        }
+
+        /**
+         * @return the trimmed value of a column in the fields of a row, {@code null} if the column is absent or empty.
+         */
+        String value(List<String> fields, String column) {
+            Integer index = columns.get(column);
+            if (index == null || index >= fields.size()) {
+                return null;
+            }
+            String value = fields.get(index).trim();
+            return value.isEmpty() ? null : value;
+        }
+    }
+
+    private static final class Line {
+
+        final int number;
+
+        final String text;
+
+        Line(int number, String text) {
+            this.number = number;
+            this.text = text;
+        }
+    }
+
+    private static final class Row<T> {
+
+        final int line;
+
+        final T entity;
+
+        final Long parentId;
+
+        final List<String> errors;
+
+        Row(int line, T entity, Long parentId, List<String> errors) {
+            this.line = line;
+            this.entity = entity;
+            this.parentId = parentId;
+            this.errors = errors;
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package org.jhipster.facility.service.occupancy;
+
+import org.jhipster.facility.repository.FacilityOccupancySummaryRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Service serving approximate entity counts to the list endpoints that skip their count query.
+ * <p>
+ * Totals are summed from the facility occupancy summaries in the background and cached between refreshes, so they may
+ * lag the database by one refresh interval; the rooms of a facility and the residents of a room are read from the
+ * {@link OccupancyIndex}. None of them costs a request any SQL.
+ */
+@Service
+public class ApproximateCountService {
+
+    private static final long REFRESH_INTERVAL = 60_000;
+
+    private final Logger log = LoggerFactory.getLogger(ApproximateCountService.class);
+
+    private final FacilityOccupancySummaryRepository facilityOccupancySummaryRepository;
+
+    private final OccupancyIndex occupancyIndex;
+
+    private volatile Counts counts;
+
+    public ApproximateCountService(FacilityOccupancySummaryRepository facilityOccupancySummaryRepository, OccupancyIndex occupancyIndex) {
+        this.facilityOccupancySummaryRepository = facilityOccupancySummaryRepository;
+        this.occupancyIndex = occupancyIndex;
+    }
+
+    /**
+     * Recompute the cached totals.
+     */
+    @Scheduled(fixedDelay = REFRESH_INTERVAL)
+    public void refresh() {
+        try {
+            Object[] row = facilityOccupancySummaryRepository.sumCounts().get(0);
+            counts = new Counts(((Number) row[0]).longValue(), ((Number) row[1]).longValue(), ((Number) row[2]).longValue());
+        } catch (DataAccessException e) {
+            // Keep serving the previous totals: they are approximate anyway.
+            log.warn("Could not refresh the approximate counts: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * @return the approximate number of facilities, or {@code -1} before the first refresh.
+     */
+    public long countFacilities() {
+        Counts current = counts;
+        return current == null ? -1 : current.facilities;
+    }
+
+    /**
+     * @return the approximate number of rooms, or {@code -1} before the first refresh.
+     */
+    public long countRooms() {
+        Counts current = counts;
+        return current == null ? -1 : current.rooms;
+    }
+
+    /**
+     * @return the approximate number of residents, or {@code -1} before the first refresh.
+     */
+    public long countResidents() {
+        Counts current = counts;
+        return current == null ? -1 : current.residents;
+    }
+
+    /**
+     * @param facilityId the id of the facility.
+     * @return the number of rooms of the facility.
+     */
+    public long countRooms(Long facilityId) {
+        return occupancyIndex.countRooms(facilityId);
+    }
+
+    /**
+     * @param roomId the id of the room.
+     * @return the number of residents of the room, or {@code -1} if the room is unknown.
+     */
+    public long countResidents(Long roomId) {
+        return occupancyIndex.getOccupantCount(roomId);
+    }
+
+    private static final class Counts {
+
+        final long facilities;
+
+        final long rooms;
+
+        final long residents;
+
+        Counts(long facilities, long rooms, long residents) {
+            this.facilities = facilities;
+            this.rooms = rooms;
+            this.residents = residents;
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package org.jhipster.facility.service.occupancy;
+
+import static org.jhipster.facility.service.TransactionUtils.afterCommit;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.jhipster.facility.repository.BedAssignmentRepository;
+import org.jhipster.facility.repository.RoomRepository;
+import org.jhipster.facility.service.dto.FacilityFreeBedsDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * In-process index of the free beds of every facility, one bit per bed, answering free bed lookups without touching the
+ * database.
+ * <p>
+ * The index is rebuilt from the rooms and the bed assignments when the application starts, then kept current by the
+ * {@link BedService}. Changes are applied once the surrounding transaction commits, like those of the
+ * {@link OccupancyIndex}.
+ */
+@Service
+public class BedIndex {
+
+    private final Logger log = LoggerFactory.getLogger(BedIndex.class);
+
+    private final RoomRepository roomRepository;
+
+    private final BedAssignmentRepository bedAssignmentRepository;
+
+    private final Map<Long, FacilityBeds> facilities = new ConcurrentHashMap<>();
+
+    // Guarded by "this", like every structural change of the index.
+    private LongLongHashMap facilityByRoom = new LongLongHashMap(16);
+
+    public BedIndex(RoomRepository roomRepository, BedAssignmentRepository bedAssignmentRepository) {
+        this.roomRepository = roomRepository;
+        this.bedAssignmentRepository = bedAssignmentRepository;
+    }
+
+    /**
+     * Load the whole index from the database.
+     * <p>
+     * Not read-only, so that it reads the primary: beds taken on the primary but not yet on a replica would otherwise be
+     * handed out again.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        List<Object[]> rooms = roomRepository.findAllOccupancies();
+        // Rooms are laid out by id, so the first free beds are those of the oldest rooms.
+        rooms.sort(Comparator.comparing(row -> (Long) row[0]));
+        LongLongHashMap rebuiltFacilityByRoom = new LongLongHashMap(rooms.size());
+        Map<Long, FacilityBeds> rebuiltFacilities = new ConcurrentHashMap<>();
+        for (Object[] row : rooms) {
+            long roomId = (Long) row[0];
+            long facilityId = (Long) row[1];
+            rebuiltFacilityByRoom.put(roomId, facilityId);
+            rebuiltFacilities.computeIfAbsent(facilityId, id -> new FacilityBeds(16)).addRoom(roomId, (Integer) row[2]);
+        }
+        List<Object[]> beds = bedAssignmentRepository.findAllBeds();
+        for (Object[] row : beds) {
+            long roomId = (Long) row[0];
+            long facilityId = rebuiltFacilityByRoom.get(roomId);
+            FacilityBeds facilityBeds = facilityId == LongLongHashMap.MISSING ? null : rebuiltFacilities.get(facilityId);
+            if (facilityBeds == null || !facilityBeds.setTaken(roomId, (Integer) row[1], true)) {
+                log.warn("Bed {} of room {} is outside the capacity of the room", row[1], roomId);
+            }
+        }
+        synchronized (this) {
+            facilityByRoom = rebuiltFacilityByRoom;
+            facilities.clear();
+            facilities.putAll(rebuiltFacilities);
+        }
+        log.info(
+            "Rebuilt bed index of {} rooms and {} taken beds in {} ms",
+            rooms.size(),
+            beds.size(),
+            System.currentTimeMillis() - start
+        );
+    }
+
+    /**
+     * Get the first free beds of a facility, room by room.
+     *
+     * @param facilityId the id of the facility.
+     * @param limit the number of beds to return at most.
+     * @return the number of free beds of the facility, and the first of them.
+     */
+    public FacilityFreeBedsDTO findFreeBeds(Long facilityId, int limit) {
+        FacilityBeds beds = facilities.get(facilityId);
+        if (beds == null) {
+            return new FacilityFreeBedsDTO(facilityId, 0, new ArrayList<>());
+        }
+        int freeBedCount;
+        long[] roomIds = new long[limit];
+        int[] bedNumbers = new int[limit];
+        int n;
+        synchronized (beds) {
+            freeBedCount = beds.freeBedCount();
+            n = beds.freeBeds(limit, roomIds, bedNumbers);
+        }
+        List<FacilityFreeBedsDTO.Bed> freeBeds = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            freeBeds.add(new FacilityFreeBedsDTO.Bed(roomIds[i], bedNumbers[i]));
+        }
+        return new FacilityFreeBedsDTO(facilityId, freeBedCount, freeBeds);
+    }
+
+    /**
+     * Record that a room was created, resized, or moved to another facility.
+     *
+     * @param roomId the id of the room.
+     * @param facilityId the id of its facility.
+     * @param capacity the number of beds of the room.
+     */
+    public void roomSaved(Long roomId, Long facilityId, Integer capacity) {
+        afterCommit(() -> applyRoomSaved(roomId, facilityId, capacity));
+    }
+
+    /**
+     * Record that a room was deleted.
+     *
+     * @param roomId the id of the room.
+     */
+    public void roomDeleted(Long roomId) {
+        afterCommit(() -> applyRoomDeleted(roomId));
+    }
+
+    /**
+     * Record that a bed was given to a resident.
+     */
+    public void bedTaken(Long roomId, int bedNumber) {
+        afterCommit(() -> applyBed(roomId, bedNumber, true));
+    }
+
+    /**
+     * Record that a bed was left by its resident.
+     */
+    public void bedFreed(Long roomId, int bedNumber) {
+        afterCommit(() -> applyBed(roomId, bedNumber, false));
+    }
+
+    private synchronized void applyRoomSaved(long roomId, long facilityId, int capacity) {
+        long previousFacilityId = facilityByRoom.get(roomId);
+        BitSet bedsTaken = null;
+        if (previousFacilityId != LongLongHashMap.MISSING && previousFacilityId != facilityId) {
+            // Bed assignments follow the room to its new facility.
+            FacilityBeds previous = facilities.get(previousFacilityId);
+            synchronized (previous) {
+                bedsTaken = previous.takenBeds(roomId);
+                previous.removeRoom(roomId);
+            }
+        }
+        FacilityBeds beds = facilities.computeIfAbsent(facilityId, id -> new FacilityBeds(16));
+        synchronized (beds) {
+            beds.addRoom(roomId, capacity);
+            if (bedsTaken != null) {
+                for (int bed = bedsTaken.nextSetBit(1); bed >= 0; bed = bedsTaken.nextSetBit(bed + 1)) {
+                    beds.setTaken(roomId, bed, true);
+                }
+            }
+        }
+        facilityByRoom.put(roomId, facilityId);
+    }
+
+    private synchronized void applyRoomDeleted(long roomId) {
+        long facilityId = facilityByRoom.remove(roomId);
+        if (facilityId == LongLongHashMap.MISSING) {
+            return;
+        }
+        FacilityBeds beds = facilities.get(facilityId);
+        synchronized (beds) {
+            beds.removeRoom(roomId);
+        }
+    }
+
+    private synchronized void applyBed(long roomId, int bedNumber, boolean taken) {
+        long facilityId = facilityByRoom.get(roomId);
+        FacilityBeds beds = facilityId == LongLongHashMap.MISSING ? null : facilities.get(facilityId);
+        if (beds == null) {
+            log.warn("Room {} is missing from the bed index", roomId);
+            return;
+        }
+        synchronized (beds) {
+            if (!beds.setTaken(roomId, bedNumber, taken)) {
+                log.warn("Bed {} of room {} is outside the capacity of the room", bedNumber, roomId);
+            }
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package org.jhipster.facility.service.occupancy;
+
+import java.util.BitSet;
+import java.util.List;
+import org.jhipster.facility.domain.BedAssignment;
+import org.jhipster.facility.domain.Room;
+import org.jhipster.facility.repository.BedAssignmentRepository;
+import org.jhipster.facility.repository.ResidentRepository;
+import org.jhipster.facility.repository.RoomRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+/**
+ * Service giving residents a bed in their room, and keeping the {@link BedIndex} current.
+ * <p>
+ * The beds of a room are numbered from 1 to its capacity; a resident entering a room takes its lowest free bed. Callers
+ * run inside the transaction moving the resident, which already holds the assignment lock of the room and has counted
+ * the resident in its occupants, so a free bed always exists.
+ */
+@Service
+public class BedService {
+
+    private final Logger log = LoggerFactory.getLogger(BedService.class);
+
+    private final BedAssignmentRepository bedAssignmentRepository;
+
+    private final RoomRepository roomRepository;
+
+    private final ResidentRepository residentRepository;
+
+    private final BedIndex bedIndex;
+
+    public BedService(
+        BedAssignmentRepository bedAssignmentRepository,
+        RoomRepository roomRepository,
+        ResidentRepository residentRepository,
+        BedIndex bedIndex
+    ) {
+        this.bedAssignmentRepository = bedAssignmentRepository;
+        this.roomRepository = roomRepository;
+        this.residentRepository = residentRepository;
+        this.bedIndex = bedIndex;
+    }
+
+    /**
+     * Move the bed of a resident who left a room, entered one, or both.
+     *
+     * @param residentId the id of the resident.
+     * @param fromRoomId the room the resident left, {@code null} for a new resident.
+     * @param toRoomId the room the resident now occupies, {@code null} for a resident about to be deleted.
+     */
+    public void residentMoved(Long residentId, Long fromRoomId, Long toRoomId) {
+        if (fromRoomId != null && fromRoomId.equals(toRoomId)) {
+            return;
+        }
+        if (fromRoomId != null) {
+            release(residentId);
+        }
+        if (toRoomId != null) {
+            claim(residentId, toRoomId);
+        }
+    }
+
+    /**
+     * Give a resident the lowest free bed of a room.
+     *
+     * @param residentId the id of the resident, who must not have a bed yet.
+     * @param roomId the id of the room.
+     * @return the number of the bed.
+     */
+    public int claim(Long residentId, Long roomId) {
+        BitSet taken = new BitSet();
+        for (Object[] row : bedAssignmentRepository.findBedsByRoomId(roomId)) {
+            taken.set((Integer) row[1]);
+        }
+        int bedNumber = taken.nextClearBit(1);
+        bedAssignmentRepository.save(
+            new BedAssignment().bed_number(bedNumber).room(roomRepository.getById(roomId)).resident(residentRepository.getById(residentId))
+        );
+        bedIndex.bedTaken(roomId, bedNumber);
+        return bedNumber;
+    }
+
+    /**
+     * Free the bed of a resident, if it has one.
+     *
+     * @param residentId the id of the resident.
+     */
+    public void release(Long residentId) {
+        List<Object[]> beds = bedAssignmentRepository.findBedByResidentId(residentId);
+        if (beds.isEmpty()) {
+            return;
+        }
+        bedAssignmentRepository.deleteByResidentId(residentId);
+        bedIndex.bedFreed((Long) beds.get(0)[0], (Integer) beds.get(0)[1]);
+    }
+
+    /**
+     * Record that a room was created or changed, moving the residents of beds above a reduced capacity to free beds.
+     *
+     * @param room the saved room.
+     */
+    public void roomSaved(Room room) {
+        Long roomId = room.getId();
+        int capacity = room.getCapacity();
+        List<Object[]> beds = bedAssignmentRepository.findBedsByRoomId(roomId);
+        BitSet taken = new BitSet();
+        for (Object[] row : beds) {
+            if ((Integer) row[1] <= capacity) {
+                taken.set((Integer) row[1]);
+            }
+        }
+        for (Object[] row : beds) {
+            int bedNumber = (Integer) row[1];
+            if (bedNumber > capacity) {
+                int freeBedNumber = taken.nextClearBit(1);
+                log.debug("Moving the resident of bed {} of Room {} to bed {}", bedNumber, roomId, freeBedNumber);
+                bedAssignmentRepository.updateBedNumber((Long) row[0], freeBedNumber);
+                taken.set(freeBedNumber);
+                bedIndex.bedFreed(roomId, bedNumber);
+                bedIndex.bedTaken(roomId, freeBedNumber);
+            }
+        }
+        bedIndex.roomSaved(roomId, room.getFacility().getId(), capacity);
+    }
+
+    /**
+     * Record that a room was deleted.
+     *
+     * @param roomId the id of the room.
+     */
+    public void roomDeleted(Long roomId) {
+        bedIndex.roomDeleted(roomId);
+    }
+}
@@ -0,0 +1,225 @@
+package org.jhipster.facility.service.occupancy;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Bed-level occupancy of the rooms of one facility, one bit per bed.
+ * <p>
+ * Every room owns a run of consecutive bits, bed {@code n} at offset {@code n - 1}, set while the bed is taken, so the
+ * first free bed of the facility is a single {@link BitSet#nextClearBit} away. The run of a resized or removed room is
+ * left behind with every bit set, which keeps it out of the free beds, and reclaimed once such runs hold half of the
+ * bits. Callers synchronize on the instance.
+ */
+final class FacilityBeds {
+
+    private static final long DEAD = Long.MIN_VALUE;
+
+    private BitSet taken;
+
+    private long[] roomIds;
+
+    private int[] starts;
+
+    private int[] sizes;
+
+    private int runs;
+
+    // Bits at or after the end belong to no run and stay clear.
+    private int end;
+
+    private int deadBits;
+
+    private final LongLongHashMap runByRoom;
+
+    FacilityBeds(int expectedRooms) {
+        int capacity = Math.max(4, expectedRooms);
+        taken = new BitSet(capacity * 2);
+        roomIds = new long[capacity];
+        starts = new int[capacity];
+        sizes = new int[capacity];
+        runByRoom = new LongLongHashMap(capacity);
+    }
+
+    /**
+     * Add a room with all its beds free, or resize it if the facility already has it.
+     */
+    void addRoom(long roomId, int beds) {
+        long run = runByRoom.get(roomId);
+        if (run == LongLongHashMap.MISSING) {
+            append(roomId, beds);
+        } else {
+            resize((int) run, beds);
+        }
+    }
+
+    /**
+     * @return {@code true} if the room was part of the facility.
+     */
+    boolean removeRoom(long roomId) {
+        long run = runByRoom.remove(roomId);
+        if (run == LongLongHashMap.MISSING) {
+            return false;
+        }
+        kill((int) run);
+        compactIfSparse();
+        return true;
+    }
+
+    /**
+     * @return {@code false} if the room is not part of the facility or has no such bed.
+     */
+    boolean setTaken(long roomId, int bedNumber, boolean bedTaken) {
+        long run = runByRoom.get(roomId);
+        if (run == LongLongHashMap.MISSING || bedNumber < 1 || bedNumber > sizes[(int) run]) {
+            return false;
+        }
+        taken.set(starts[(int) run] + bedNumber - 1, bedTaken);
+        return true;
+    }
+
+    /**
+     * @return the taken beds of the room, by bed number, empty if the room is not part of the facility.
+     */
+    BitSet takenBeds(long roomId) {
+        BitSet bedsTaken = new BitSet();
+        long run = runByRoom.get(roomId);
+        if (run != LongLongHashMap.MISSING) {
+            int start = starts[(int) run];
+            int size = sizes[(int) run];
+            for (int bit = taken.nextSetBit(start); bit >= 0 && bit < start + size; bit = taken.nextSetBit(bit + 1)) {
+                bedsTaken.set(bit - start + 1);
+            }
+        }
+        return bedsTaken;
+    }
+
+    int freeBedCount() {
+        // Dead runs are fully set, and nothing is set past the end.
+        return end - taken.cardinality();
+    }
+
+    /**
+     * Collect the first free beds, room by room.
+     *
+     * @param limit the number of beds to collect at most.
+     * @param bedRoomIds receives the room of each free bed.
+     * @param bedNumbers receives the number of each free bed in its room.
+     * @return the number of beds collected.
+     */
+    int freeBeds(int limit, long[] bedRoomIds, int[] bedNumbers) {
+        int n = 0;
+        for (int bit = taken.nextClearBit(0); bit < end && n < limit; bit = taken.nextClearBit(bit + 1)) {
+            int run = runOf(bit);
+            bedRoomIds[n] = roomIds[run];
+            bedNumbers[n] = bit - starts[run] + 1;
+            n++;
+        }
+        return n;
+    }
+
+    int bitCount() {
+        return end;
+    }
+
+    private void append(long roomId, int beds) {
+        if (runs == roomIds.length) {
+            roomIds = Arrays.copyOf(roomIds, runs * 2);
+            starts = Arrays.copyOf(starts, runs * 2);
+            sizes = Arrays.copyOf(sizes, runs * 2);
+        }
+        int run = runs++;
+        roomIds[run] = roomId;
+        starts[run] = end;
+        sizes[run] = beds;
+        end += beds;
+        runByRoom.put(roomId, run);
+    }
+
+    private void resize(int run, int beds) {
+        int size = sizes[run];
+        if (beds == size) {
+            return;
+        }
+        int start = starts[run];
+        if (run == runs - 1 || beds < size) {
+            // The last run grows in place; any run shrinks in place, its dropped tail becomes dead.
+            if (beds < size) {
+                if (run == runs - 1) {
+                    taken.clear(start + beds, start + size);
+                    end = start + beds;
+                } else {
+                    taken.set(start + beds, start + size);
+                    deadBits += size - beds;
+                }
+            } else {
+                end = start + beds;
+            }
+            sizes[run] = beds;
+            compactIfSparse();
+            return;
+        }
+        BitSet bedsTaken = taken.get(start, start + size);
+        long roomId = roomIds[run];
+        kill(run);
+        append(roomId, beds);
+        int newStart = starts[runs - 1];
+        for (int bed = bedsTaken.nextSetBit(0); bed >= 0; bed = bedsTaken.nextSetBit(bed + 1)) {
+            taken.set(newStart + bed);
+        }
+        compactIfSparse();
+    }
+
+    private void kill(int run) {
+        taken.set(starts[run], starts[run] + sizes[run]);
+        deadBits += sizes[run];
+        roomIds[run] = DEAD;
+    }
+
+    /**
+     * Find the run holding a bit: the last run starting at or before it, as runs are laid out in order and empty runs
+     * share their start with the next one.
+     */
+    private int runOf(int bit) {
+        int low = 0;
+        int high = runs - 1;
+        while (low < high) {
+            int middle = (low + high + 1) >>> 1;
+            if (starts[middle] <= bit) {
+                low = middle;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return low;
+    }
+
+    private void compactIfSparse() {
+        if (deadBits < 64 || deadBits * 2 < end) {
+            return;
+        }
+        BitSet compacted = new BitSet(end - deadBits);
+        int live = 0;
+        int position = 0;
+        for (int run = 0; run < runs; run++) {
+            if (roomIds[run] == DEAD) {
+                continue;
+            }
+            int start = starts[run];
+            int size = sizes[run];
+            for (int bit = taken.nextSetBit(start); bit >= 0 && bit < start + size; bit = taken.nextSetBit(bit + 1)) {
+                compacted.set(position + bit - start);
+            }
+            roomIds[live] = roomIds[run];
+            starts[live] = position;
+            sizes[live] = size;
+            runByRoom.put(roomIds[live], live);
+            position += size;
+            live++;
+        }
+        taken = compacted;
+        runs = live;
+        end = position;
+        deadBits = 0;
+    }
+}
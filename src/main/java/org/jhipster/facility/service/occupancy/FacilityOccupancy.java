@@ -0,0 +1,130 @@
+package org.jhipster.facility.service.occupancy;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Occupancy of the rooms of one facility, held in parallel primitive arrays.
+ * <p>
+ * Every room owns a dense slot; {@code vacant} has the bit of a slot set while its room is below capacity, so listing
+ * vacancies walks set bits only. Removing a room moves the last slot into its place to keep slots dense.
+ * Callers synchronize on the instance.
+ */
+final class FacilityOccupancy {
+
+    private long[] roomIds;
+
+    private int[] capacities;
+
+    private int[] occupants;
+
+    private final BitSet vacant;
+
+    private final LongLongHashMap slotByRoom;
+
+    private int size;
+
+    FacilityOccupancy(int expectedRooms) {
+        int capacity = Math.max(4, expectedRooms);
+        roomIds = new long[capacity];
+        capacities = new int[capacity];
+        occupants = new int[capacity];
+        vacant = new BitSet(capacity);
+        slotByRoom = new LongLongHashMap(capacity);
+    }
+
+    boolean addRoom(long roomId, int roomCapacity, int roomOccupants) {
+        if (slotByRoom.get(roomId) != LongLongHashMap.MISSING) {
+            return false;
+        }
+        if (size == roomIds.length) {
+            roomIds = Arrays.copyOf(roomIds, size * 2);
+            capacities = Arrays.copyOf(capacities, size * 2);
+            occupants = Arrays.copyOf(occupants, size * 2);
+        }
+        int slot = size++;
+        roomIds[slot] = roomId;
+        capacities[slot] = roomCapacity;
+        occupants[slot] = roomOccupants;
+        vacant.set(slot, roomOccupants < roomCapacity);
+        slotByRoom.put(roomId, slot);
+        return true;
+    }
+
+    boolean setCapacity(long roomId, int roomCapacity) {
+        long slot = slotByRoom.get(roomId);
+        if (slot == LongLongHashMap.MISSING) {
+            return false;
+        }
+        int index = (int) slot;
+        capacities[index] = roomCapacity;
+        vacant.set(index, occupants[index] < roomCapacity);
+        return true;
+    }
+
+    /**
+     * @return the occupants the room had, or {@code -1} if it was not part of the facility.
+     */
+    int removeRoom(long roomId) {
+        long slot = slotByRoom.remove(roomId);
+        if (slot == LongLongHashMap.MISSING) {
+            return -1;
+        }
+        int removed = (int) slot;
+        int removedOccupants = occupants[removed];
+        int last = --size;
+        if (removed != last) {
+            roomIds[removed] = roomIds[last];
+            capacities[removed] = capacities[last];
+            occupants[removed] = occupants[last];
+            vacant.set(removed, vacant.get(last));
+            slotByRoom.put(roomIds[removed], removed);
+        }
+        vacant.clear(last);
+        return removedOccupants;
+    }
+
+    boolean addOccupants(long roomId, int delta) {
+        long slot = slotByRoom.get(roomId);
+        if (slot == LongLongHashMap.MISSING) {
+            return false;
+        }
+        int index = (int) slot;
+        occupants[index] = Math.max(0, occupants[index] + delta);
+        vacant.set(index, occupants[index] < capacities[index]);
+        return true;
+    }
+
+    long[] vacantRoomIds() {
+        long[] result = new long[vacant.cardinality()];
+        int n = 0;
+        for (int slot = vacant.nextSetBit(0); slot >= 0; slot = vacant.nextSetBit(slot + 1)) {
+            result[n++] = roomIds[slot];
+        }
+        return result;
+    }
+
+    int roomCount() {
+        return size;
+    }
+
+    long[] roomIds() {
+        return Arrays.copyOf(roomIds, size);
+    }
+
+    /**
+     * @return the capacity of the room, or {@code -1} if it is not part of the facility.
+     */
+    int capacity(long roomId) {
+        long slot = slotByRoom.get(roomId);
+        return slot == LongLongHashMap.MISSING ? -1 : capacities[(int) slot];
+    }
+
+    /**
+     * @return the occupants of the room, or {@code -1} if it is not part of the facility.
+     */
+    int occupants(long roomId) {
+        long slot = slotByRoom.get(roomId);
+        return slot == LongLongHashMap.MISSING ? -1 : occupants[(int) slot];
+    }
+}
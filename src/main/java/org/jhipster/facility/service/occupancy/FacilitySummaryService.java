@@ -0,0 +1,240 @@
+package org.jhipster.facility.service.occupancy;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import org.jhipster.facility.domain.FacilityOccupancySummary;
+import org.jhipster.facility.domain.Room;
+import org.jhipster.facility.repository.FacilityOccupancySummaryRepository;
+import org.jhipster.facility.repository.FacilityRepository;
+import org.jhipster.facility.repository.ResidentRepository;
+import org.jhipster.facility.repository.RoomRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service maintaining the {@link FacilityOccupancySummary} of every facility.
+ * <p>
+ * Write paths report their changes as deltas, summed per facility for the whole transaction and added to the summary
+ * rows just before it commits: a summary row is locked by one statement per transaction, for the duration of the
+ * commit only, however many residents the transaction moves. A scheduled job recounts every facility from the rooms
+ * and residents, correcting summaries that drifted, for instance after a crash or a change made outside the
+ * application.
+ */
+@Service
+public class FacilitySummaryService {
+
+    private final Logger log = LoggerFactory.getLogger(FacilitySummaryService.class);
+
+    private final FacilityOccupancySummaryRepository facilityOccupancySummaryRepository;
+
+    private final FacilityRepository facilityRepository;
+
+    private final RoomRepository roomRepository;
+
+    private final ResidentRepository residentRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    public FacilitySummaryService(
+        FacilityOccupancySummaryRepository facilityOccupancySummaryRepository,
+        FacilityRepository facilityRepository,
+        RoomRepository roomRepository,
+        ResidentRepository residentRepository,
+        PlatformTransactionManager transactionManager
+    ) {
+        this.facilityOccupancySummaryRepository = facilityOccupancySummaryRepository;
+        this.facilityRepository = facilityRepository;
+        this.roomRepository = roomRepository;
+        this.residentRepository = residentRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Create the empty summary of a new facility.
+     *
+     * @param facilityId the id of the facility.
+     */
+    public void facilityCreated(Long facilityId) {
+        facilityOccupancySummaryRepository.save(new FacilityOccupancySummary().facility(facilityRepository.getById(facilityId)));
+    }
+
+    /**
+     * Delete the summary of a facility about to be deleted.
+     *
+     * @param facilityId the id of the facility.
+     */
+    public void facilityDeleted(Long facilityId) {
+        facilityOccupancySummaryRepository.deleteByFacilityId(facilityId);
+    }
+
+    /**
+     * Record that a room was created, resized, or moved to another facility.
+     *
+     * @param previousFacilityId the id of the facility of the room before the change, {@code null} for a new room.
+     * @param previousCapacity the capacity of the room before the change, {@code null} for a new room.
+     * @param room the saved room.
+     */
+    public void roomSaved(Long previousFacilityId, Integer previousCapacity, Room room) {
+        Long facilityId = room.getFacility().getId();
+        int capacity = room.getCapacity();
+        int occupants = room.getOccupant_count();
+        if (facilityId.equals(previousFacilityId)) {
+            roomResized(facilityId, capacity - previousCapacity);
+            return;
+        }
+        if (previousFacilityId != null) {
+            add(previousFacilityId, -1, occupants > 0 ? -1 : 0, occupants - previousCapacity, -occupants);
+        }
+        add(facilityId, 1, occupants > 0 ? 1 : 0, capacity - occupants, occupants);
+    }
+
+    /**
+     * Record that the capacity of a room changed.
+     *
+     * @param facilityId the id of the facility of the room.
+     * @param capacityDelta the beds added to the room, negative for beds removed.
+     */
+    public void roomResized(Long facilityId, int capacityDelta) {
+        add(facilityId, 0, 0, capacityDelta, 0);
+    }
+
+    /**
+     * Record that a room was deleted.
+     *
+     * @param room the room, as it was before its deletion.
+     */
+    public void roomDeleted(Room room) {
+        int occupants = room.getOccupant_count();
+        add(room.getFacility().getId(), -1, occupants > 0 ? -1 : 0, occupants - room.getCapacity(), -occupants);
+    }
+
+    /**
+     * Record a change of the occupant count of a room; must run right after the change, in its transaction.
+     *
+     * @param roomId the id of the room.
+     * @param delta the residents who entered the room, negative for residents who left.
+     */
+    public void occupantsChanged(Long roomId, int delta) {
+        if (delta == 0) {
+            return;
+        }
+        List<Object[]> rooms = roomRepository.findFacilityIdAndOccupantCountById(roomId);
+        if (rooms.isEmpty()) {
+            return;
+        }
+        int occupants = (Integer) rooms.get(0)[1];
+        int previousOccupants = occupants - delta;
+        int occupiedRooms = (occupants > 0 ? 1 : 0) - (previousOccupants > 0 ? 1 : 0);
+        add((Long) rooms.get(0)[0], 0, occupiedRooms, -delta, delta);
+    }
+
+    /**
+     * Recount the facilities whose summary drifted.
+     */
+    @Scheduled(cron = "0 */10 * * * ?")
+    public void scheduledReconcile() {
+        reconcile();
+    }
+
+    /**
+     * Recount every facility from its rooms and residents, one transaction per facility.
+     *
+     * @return the number of summaries created or corrected.
+     */
+    public int reconcile() {
+        long start = System.currentTimeMillis();
+        int corrected = 0;
+        for (Long facilityId : facilityRepository.findAllIds()) {
+            if (transactionTemplate.execute(status -> reconcileFacility(facilityId))) {
+                corrected++;
+            }
+        }
+        log.info("Reconciled facility occupancy summaries, {} corrected in {} ms", corrected, System.currentTimeMillis() - start);
+        return corrected;
+    }
+
+    private boolean reconcileFacility(Long facilityId) {
+        // Lock the row first: transactions committing deltas meanwhile either commit before the counts are read,
+        // or wait and add their delta to the recounted values.
+        FacilityOccupancySummary summary = facilityOccupancySummaryRepository
+            .findByIdForUpdate(facilityId)
+            .orElseGet(() -> new FacilityOccupancySummary().facility(facilityRepository.getById(facilityId)));
+        Object[] rooms = roomRepository.countRoomsAndBeds(facilityId).get(0);
+        Object[] residents = residentRepository.countResidentsAndRooms(facilityId).get(0);
+        int roomCount = ((Number) rooms[0]).intValue();
+        int residentCount = ((Number) residents[0]).intValue();
+        int occupiedRoomCount = ((Number) residents[1]).intValue();
+        int freeBedCount = ((Number) rooms[1]).intValue() - residentCount;
+        if (
+            summary.getId() != null &&
+            summary.getRoom_count() == roomCount &&
+            summary.getOccupied_room_count() == occupiedRoomCount &&
+            summary.getFree_bed_count() == freeBedCount &&
+            summary.getResident_count() == residentCount
+        ) {
+            return false;
+        }
+        log.warn("Correcting occupancy summary of Facility {} : {}", facilityId, summary);
+        facilityOccupancySummaryRepository.save(
+            summary
+                .room_count(roomCount)
+                .occupied_room_count(occupiedRoomCount)
+                .free_bed_count(freeBedCount)
+                .resident_count(residentCount)
+        );
+        return true;
+    }
+
+    private void add(Long facilityId, int rooms, int occupiedRooms, int freeBeds, int residents) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            facilityOccupancySummaryRepository.addCounts(facilityId, rooms, occupiedRooms, freeBeds, residents);
+            return;
+        }
+        int[] deltas = pendingDeltas().byFacility.computeIfAbsent(facilityId, id -> new int[4]);
+        deltas[0] += rooms;
+        deltas[1] += occupiedRooms;
+        deltas[2] += freeBeds;
+        deltas[3] += residents;
+    }
+
+    /**
+     * Find the deltas of the current transaction, registering them on first use. Synchronizations are suspended with
+     * their transaction, so an inner transaction gets deltas of its own.
+     */
+    private PendingDeltas pendingDeltas() {
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof PendingDeltas && ((PendingDeltas) synchronization).owner() == this) {
+                return (PendingDeltas) synchronization;
+            }
+        }
+        PendingDeltas pendingDeltas = new PendingDeltas();
+        TransactionSynchronizationManager.registerSynchronization(pendingDeltas);
+        return pendingDeltas;
+    }
+
+    private final class PendingDeltas implements TransactionSynchronization {
+
+        // Sorted, so that concurrent transactions lock the summary rows in the same order.
+        final Map<Long, int[]> byFacility = new TreeMap<>();
+
+        FacilitySummaryService owner() {
+            return FacilitySummaryService.this;
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            byFacility.forEach((facilityId, deltas) -> {
+                if (deltas[0] != 0 || deltas[1] != 0 || deltas[2] != 0 || deltas[3] != 0) {
+                    facilityOccupancySummaryRepository.addCounts(facilityId, deltas[0], deltas[1], deltas[2], deltas[3]);
+                }
+            });
+        }
+    }
+}
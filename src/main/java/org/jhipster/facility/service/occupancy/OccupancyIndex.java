@@ -0,0 +1,241 @@
+package org.jhipster.facility.service.occupancy;
+
+import static org.jhipster.facility.service.TransactionUtils.afterCommit;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.jhipster.facility.repository.RoomRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * In-process index of room occupancy, per facility, answering vacancy lookups without touching the database.
+ * <p>
+ * The index is rebuilt from the capacity and occupant count of every room when the application starts, then kept
+ * current by the room and resident write paths. Changes are applied once the surrounding transaction commits, so a rollback never
+ * leaves the index ahead of the database.
+ */
+@Service
+public class OccupancyIndex {
+
+    private final Logger log = LoggerFactory.getLogger(OccupancyIndex.class);
+
+    private final RoomRepository roomRepository;
+
+    private final Map<Long, FacilityOccupancy> facilities = new ConcurrentHashMap<>();
+
+    // Guarded by "this", like every structural change of the index.
+    private LongLongHashMap facilityByRoom = new LongLongHashMap(16);
+
+    public OccupancyIndex(RoomRepository roomRepository) {
+        this.roomRepository = roomRepository;
+    }
+
+    /**
+     * Load the whole index from the database.
+     * <p>
+     * Read in a read-write transaction, so from the primary rather than from a replica: the index is only kept up to date
+     * by deltas afterwards, so a lagging snapshot would never be corrected.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        List<Object[]> rooms = roomRepository.findAllOccupancies();
+        LongLongHashMap rebuiltFacilityByRoom = new LongLongHashMap(rooms.size());
+        Map<Long, FacilityOccupancy> rebuiltFacilities = new ConcurrentHashMap<>();
+        for (Object[] row : rooms) {
+            long roomId = (Long) row[0];
+            long facilityId = (Long) row[1];
+            rebuiltFacilityByRoom.put(roomId, facilityId);
+            rebuiltFacilities
+                .computeIfAbsent(facilityId, id -> new FacilityOccupancy(16))
+                .addRoom(roomId, (Integer) row[2], (Integer) row[3]);
+        }
+        synchronized (this) {
+            facilityByRoom = rebuiltFacilityByRoom;
+            facilities.clear();
+            facilities.putAll(rebuiltFacilities);
+        }
+        log.info("Rebuilt occupancy index of {} rooms in {} ms", rooms.size(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Get the vacant rooms of a facility.
+     *
+     * @param facilityId the id of the facility.
+     * @return the ids of the rooms below capacity, empty if the facility has no room.
+     */
+    public long[] findVacantRoomIds(Long facilityId) {
+        FacilityOccupancy occupancy = facilities.get(facilityId);
+        if (occupancy == null) {
+            return new long[0];
+        }
+        synchronized (occupancy) {
+            return occupancy.vacantRoomIds();
+        }
+    }
+
+    /**
+     * Get the number of rooms of a facility.
+     *
+     * @param facilityId the id of the facility.
+     * @return the number of rooms known to the index.
+     */
+    public int countRooms(Long facilityId) {
+        FacilityOccupancy occupancy = facilities.get(facilityId);
+        if (occupancy == null) {
+            return 0;
+        }
+        synchronized (occupancy) {
+            return occupancy.roomCount();
+        }
+    }
+
+    /**
+     * Get the rooms of a facility.
+     *
+     * @param facilityId the id of the facility.
+     * @return the ids of all its rooms, vacant or not.
+     */
+    public long[] findRoomIds(Long facilityId) {
+        FacilityOccupancy occupancy = facilities.get(facilityId);
+        if (occupancy == null) {
+            return new long[0];
+        }
+        synchronized (occupancy) {
+            return occupancy.roomIds();
+        }
+    }
+
+    /**
+     * Get the capacity of a room.
+     *
+     * @param roomId the id of the room.
+     * @return the number of residents the room can hold, or {@code -1} if the room is unknown.
+     */
+    public int getCapacity(Long roomId) {
+        long facilityId;
+        synchronized (this) {
+            facilityId = facilityByRoom.get(roomId);
+        }
+        FacilityOccupancy occupancy = facilityId == LongLongHashMap.MISSING ? null : facilities.get(facilityId);
+        if (occupancy == null) {
+            return -1;
+        }
+        synchronized (occupancy) {
+            return occupancy.capacity(roomId);
+        }
+    }
+
+    /**
+     * Get the number of residents of a room.
+     *
+     * @param roomId the id of the room.
+     * @return the number of residents of the room, or {@code -1} if the room is unknown.
+     */
+    public int getOccupantCount(Long roomId) {
+        long facilityId;
+        synchronized (this) {
+            facilityId = facilityByRoom.get(roomId);
+        }
+        FacilityOccupancy occupancy = facilityId == LongLongHashMap.MISSING ? null : facilities.get(facilityId);
+        if (occupancy == null) {
+            return -1;
+        }
+        synchronized (occupancy) {
+            return occupancy.occupants(roomId);
+        }
+    }
+
+    /**
+     * Record that a room was created, resized, or moved to another facility.
+     *
+     * @param roomId the id of the room.
+     * @param facilityId the id of its facility.
+     * @param capacity the number of residents it can hold.
+     */
+    public void roomSaved(Long roomId, Long facilityId, Integer capacity) {
+        afterCommit(() -> applyRoomSaved(roomId, facilityId, capacity));
+    }
+
+    /**
+     * Record that a room was deleted.
+     *
+     * @param roomId the id of the room.
+     */
+    public void roomDeleted(Long roomId) {
+        afterCommit(() -> applyRoomDeleted(roomId));
+    }
+
+    /**
+     * Record that a resident left a room, entered one, or both.
+     *
+     * @param fromRoomId the room the resident left, {@code null} for a new resident.
+     * @param toRoomId the room the resident now occupies, {@code null} for a deleted resident.
+     */
+    public void residentMoved(Long fromRoomId, Long toRoomId) {
+        if (fromRoomId != null && fromRoomId.equals(toRoomId)) {
+            return;
+        }
+        afterCommit(() -> {
+            if (fromRoomId != null) {
+                applyOccupants(fromRoomId, -1);
+            }
+            if (toRoomId != null) {
+                applyOccupants(toRoomId, 1);
+            }
+        });
+    }
+
+    private synchronized void applyRoomSaved(long roomId, long facilityId, int capacity) {
+        long previousFacilityId = facilityByRoom.get(roomId);
+        if (previousFacilityId == facilityId) {
+            FacilityOccupancy occupancy = facilities.get(facilityId);
+            synchronized (occupancy) {
+                occupancy.setCapacity(roomId, capacity);
+            }
+            return;
+        }
+        int occupants = 0;
+        if (previousFacilityId != LongLongHashMap.MISSING) {
+            FacilityOccupancy previous = facilities.get(previousFacilityId);
+            synchronized (previous) {
+                occupants = Math.max(0, previous.removeRoom(roomId));
+            }
+        }
+        FacilityOccupancy occupancy = facilities.computeIfAbsent(facilityId, id -> new FacilityOccupancy(16));
+        synchronized (occupancy) {
+            occupancy.addRoom(roomId, capacity, occupants);
+        }
+        facilityByRoom.put(roomId, facilityId);
+    }
+
+    private synchronized void applyRoomDeleted(long roomId) {
+        long facilityId = facilityByRoom.remove(roomId);
+        if (facilityId == LongLongHashMap.MISSING) {
+            return;
+        }
+        FacilityOccupancy occupancy = facilities.get(facilityId);
+        synchronized (occupancy) {
+            occupancy.removeRoom(roomId);
+        }
+    }
+
+    private synchronized void applyOccupants(long roomId, int delta) {
+        long facilityId = facilityByRoom.get(roomId);
+        if (facilityId == LongLongHashMap.MISSING) {
+            log.warn("Room {} is missing from the occupancy index", roomId);
+            return;
+        }
+        FacilityOccupancy occupancy = facilities.get(facilityId);
+        synchronized (occupancy) {
+            occupancy.addOccupants(roomId, delta);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package org.jhipster.facility.service.search;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.jhipster.facility.domain.SearchOutboxEntry;
+import org.jhipster.facility.domain.enumeration.SearchDocumentType;
+import org.jhipster.facility.repository.SearchOutboxEntryRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Service recording the entities whose search documents must be written again, in the transaction changing them.
+ * <p>
+ * Only the type and id of an entity are recorded: the {@link SearchIndexer} reads the entity when it drains the outbox
+ * and indexes it as it then is, or deletes its document if it no longer exists. An entity changed twice before the
+ * indexer runs is indexed once, and a rolled back change leaves nothing to index.
+ */
+@Service
+@Transactional(propagation = Propagation.MANDATORY)
+public class SearchIndexOutbox {
+
+    private final SearchOutboxEntryRepository searchOutboxEntryRepository;
+
+    public SearchIndexOutbox(SearchOutboxEntryRepository searchOutboxEntryRepository) {
+        this.searchOutboxEntryRepository = searchOutboxEntryRepository;
+    }
+
+    /**
+     * Have the search document of an entity written, or deleted, once the current transaction commits.
+     *
+     * @param type the type of the entity.
+     * @param id the id of the entity.
+     */
+    public void enqueue(SearchDocumentType type, Long id) {
+        searchOutboxEntryRepository.save(newEntry(type, id, Instant.now()));
+    }
+
+    /**
+     * Have the search documents of entities written, or deleted, once the current transaction commits.
+     *
+     * @param type the type of the entities.
+     * @param ids the ids of the entities.
+     */
+    public void enqueueAll(SearchDocumentType type, Collection<Long> ids) {
+        Instant now = Instant.now();
+        List<SearchOutboxEntry> entries = ids.stream().map(id -> newEntry(type, id, now)).collect(Collectors.toList());
+        searchOutboxEntryRepository.saveAll(entries);
+    }
+
+    private static SearchOutboxEntry newEntry(SearchDocumentType type, Long id, Instant now) {
+        return new SearchOutboxEntry().entity_type(type).entity_id(id).created_at(now).attempts(0).next_attempt_at(now);
+    }
+}
@@ -0,0 +1,354 @@
+package org.jhipster.facility.service.search;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.jhipster.facility.config.ApplicationProperties;
+import org.jhipster.facility.domain.Facility;
+import org.jhipster.facility.domain.Room;
+import org.jhipster.facility.domain.SearchOutboxEntry;
+import org.jhipster.facility.domain.User;
+import org.jhipster.facility.domain.enumeration.SearchDocumentType;
+import org.jhipster.facility.domain.search.ResidentDocument;
+import org.jhipster.facility.repository.FacilityRepository;
+import org.jhipster.facility.repository.ReindexJobRepository;
+import org.jhipster.facility.repository.ResidentRepository;
+import org.jhipster.facility.repository.RoomRepository;
+import org.jhipster.facility.repository.SearchOutboxEntryRepository;
+import org.jhipster.facility.repository.UserRepository;
+import org.jhipster.facility.repository.search.FacilitySearchRepository;
+import org.jhipster.facility.repository.search.ResidentSearchRepository;
+import org.jhipster.facility.repository.search.RoomSearchRepository;
+import org.jhipster.facility.repository.search.SearchIndexOperations;
+import org.jhipster.facility.repository.search.UserSearchRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.elasticsearch.BulkFailureException;
+import org.springframework.data.elasticsearch.repository.ElasticsearchRepository;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service draining the search outbox filled by the {@link SearchIndexOutbox}.
+ * <p>
+ * Each batch of due entries is read and locked in its own transaction, skipping the entries locked by other instances,
+ * along with the other entries of their entities: an entity with an entry held by another instance is left to it and
+ * attempted again shortly, so that no two instances write the documents of an entity side by side.
+ * The entities are read with the associations their documents embed, written in one bulk request per type, and the
+ * documents of the entities gone are deleted. The entries indexed are then removed; the others are kept and attempted
+ * again after an exponential backoff, so that no change is lost while Elasticsearch is unavailable.
+ * <p>
+ * The documents are also written to the new index of any unfinished {@link SearchReindexService reindex job} of their
+ * type, so that the new index misses none of the changes made while it is built.
+ * <p>
+ * The documents of the residents hold fields of their room and of its facility: the residents of the rooms and facilities
+ * indexed are enqueued in turn, in the transaction removing their entries, unless they were indexed in the same batch.
+ * <p>
+ * The age of the oldest entry is published as the {@value #LAG_METER_NAME} gauge, and the number of entries as the
+ * {@value #PENDING_METER_NAME} gauge.
+ */
+@Service
+public class SearchIndexer {
+
+    public static final String LAG_METER_NAME = "search.outbox.lag";
+
+    public static final String PENDING_METER_NAME = "search.outbox.pending";
+
+    private final Logger log = LoggerFactory.getLogger(SearchIndexer.class);
+
+    private final SearchOutboxEntryRepository searchOutboxEntryRepository;
+
+    private final FacilityRepository facilityRepository;
+
+    private final RoomRepository roomRepository;
+
+    private final ResidentRepository residentRepository;
+
+    private final UserRepository userRepository;
+
+    private final FacilitySearchRepository facilitySearchRepository;
+
+    private final RoomSearchRepository roomSearchRepository;
+
+    private final ResidentSearchRepository residentSearchRepository;
+
+    private final UserSearchRepository userSearchRepository;
+
+    private final ReindexJobRepository reindexJobRepository;
+
+    private final SearchIndexOperations searchIndexOperations;
+
+    private final SearchIndexOutbox searchIndexOutbox;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ApplicationProperties applicationProperties;
+
+    private volatile Instant oldestCreatedAt;
+
+    private volatile long pending;
+
+    public SearchIndexer(
+        SearchOutboxEntryRepository searchOutboxEntryRepository,
+        FacilityRepository facilityRepository,
+        RoomRepository roomRepository,
+        ResidentRepository residentRepository,
+        UserRepository userRepository,
+        FacilitySearchRepository facilitySearchRepository,
+        RoomSearchRepository roomSearchRepository,
+        ResidentSearchRepository residentSearchRepository,
+        UserSearchRepository userSearchRepository,
+        ReindexJobRepository reindexJobRepository,
+        SearchIndexOperations searchIndexOperations,
+        SearchIndexOutbox searchIndexOutbox,
+        PlatformTransactionManager transactionManager,
+        ApplicationProperties applicationProperties,
+        MeterRegistry meterRegistry
+    ) {
+        this.searchOutboxEntryRepository = searchOutboxEntryRepository;
+        this.facilityRepository = facilityRepository;
+        this.roomRepository = roomRepository;
+        this.residentRepository = residentRepository;
+        this.userRepository = userRepository;
+        this.facilitySearchRepository = facilitySearchRepository;
+        this.roomSearchRepository = roomSearchRepository;
+        this.residentSearchRepository = residentSearchRepository;
+        this.userSearchRepository = userSearchRepository;
+        this.reindexJobRepository = reindexJobRepository;
+        this.searchIndexOperations = searchIndexOperations;
+        this.searchIndexOutbox = searchIndexOutbox;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.applicationProperties = applicationProperties;
+        Gauge
+            .builder(LAG_METER_NAME, this, SearchIndexer::getLagSeconds)
+            .description("Age of the oldest change not yet indexed in Elasticsearch.")
+            .baseUnit("seconds")
+            .register(meterRegistry);
+        Gauge
+            .builder(PENDING_METER_NAME, this, indexer -> indexer.pending)
+            .description("Number of changes not yet indexed in Elasticsearch.")
+            .baseUnit("entries")
+            .register(meterRegistry);
+    }
+
+    @Scheduled(cron = "${application.search-outbox.cron}")
+    public void scheduledDrain() {
+        drain();
+    }
+
+    /**
+     * Index the due entries of the outbox, batch after batch, until none is left or a batch fails.
+     */
+    public void drain() {
+        int batchSize = applicationProperties.getSearchOutbox().getBatchSize();
+        Boolean more = true;
+        while (Boolean.TRUE.equals(more)) {
+            more = transactionTemplate.execute(status -> drainBatch(Instant.now(), batchSize));
+        }
+        Object[] backlog = searchOutboxEntryRepository.measureBacklog().get(0);
+        oldestCreatedAt = (Instant) backlog[0];
+        pending = ((Number) backlog[1]).longValue();
+    }
+
+    /**
+     * @return the number of seconds since the oldest entry of the outbox was written, {@code 0} if it was empty when last
+     * drained.
+     */
+    public double getLagSeconds() {
+        Instant oldest = oldestCreatedAt;
+        return oldest == null ? 0 : Math.max(0, Duration.between(oldest, Instant.now()).toMillis() / 1000.0);
+    }
+
+    /**
+     * @return {@code true} if the batch was full, or enqueued residents, and was indexed whole, so that more entries may
+     * be due.
+     */
+    private boolean drainBatch(Instant now, int batchSize) {
+        List<SearchOutboxEntry> due = searchOutboxEntryRepository.findDueForUpdate(now, PageRequest.of(0, batchSize));
+        if (due.isEmpty()) {
+            return false;
+        }
+        Map<SearchDocumentType, Set<Long>> idsByType = new EnumMap<>(SearchDocumentType.class);
+        for (SearchOutboxEntry entry : due) {
+            idsByType.computeIfAbsent(entry.getEntity_type(), type -> new LinkedHashSet<>()).add(entry.getEntity_id());
+        }
+        Map<Long, SearchOutboxEntry> entries = new LinkedHashMap<>();
+        due.forEach(entry -> entries.put(entry.getId(), entry));
+        Map<SearchDocumentType, Set<Long>> contendedIdsByType = lockEntities(idsByType, entries);
+
+        Map<SearchDocumentType, Set<Long>> failedIdsByType = new EnumMap<>(SearchDocumentType.class);
+        idsByType.forEach((type, ids) -> {
+            Set<Long> failedIds = ids.isEmpty() ? Collections.emptySet() : index(type, ids);
+            if (!failedIds.isEmpty()) {
+                failedIdsByType.put(type, failedIds);
+            }
+        });
+
+        List<Long> indexed = new ArrayList<>();
+        for (SearchOutboxEntry entry : entries.values()) {
+            if (contendedIdsByType.getOrDefault(entry.getEntity_type(), Collections.emptySet()).contains(entry.getEntity_id())) {
+                // Not a failure: attempted again once the other indexer is done with the entity
+                entry.next_attempt_at(now.plus(backoff(1)));
+            } else if (failedIdsByType.getOrDefault(entry.getEntity_type(), Collections.emptySet()).contains(entry.getEntity_id())) {
+                int attempts = entry.getAttempts() + 1;
+                entry.attempts(attempts).next_attempt_at(now.plus(backoff(attempts)));
+            } else {
+                indexed.add(entry.getId());
+            }
+        }
+        searchOutboxEntryRepository.deleteAllByIdInBatch(indexed);
+        boolean residentsEnqueued = enqueueResidents(
+            indexedIds(SearchDocumentType.FACILITY, idsByType, failedIdsByType),
+            indexedIds(SearchDocumentType.ROOM, idsByType, failedIdsByType),
+            indexedIds(SearchDocumentType.RESIDENT, idsByType, failedIdsByType)
+        );
+        return failedIdsByType.isEmpty() && (due.size() == batchSize || residentsEnqueued);
+    }
+
+    /**
+     * Lock the other entries of the entities of the due entries, so that an entity is indexed by one indexer at a time: its
+     * documents are written without a version, and the older of two snapshots written side by side could be written last.
+     * The entities with an entry locked by another indexer are removed from those to index.
+     *
+     * @param idsByType the ids of the entities of the due entries, by type.
+     * @param entries the entries locked, by id, completed with the other entries of the entities.
+     * @return the ids of the entities removed, by type.
+     */
+    private Map<SearchDocumentType, Set<Long>> lockEntities(
+        Map<SearchDocumentType, Set<Long>> idsByType,
+        Map<Long, SearchOutboxEntry> entries
+    ) {
+        Map<SearchDocumentType, Set<Long>> contendedIdsByType = new EnumMap<>(SearchDocumentType.class);
+        idsByType.forEach((type, ids) -> {
+            searchOutboxEntryRepository.findByEntitiesForUpdate(type, ids).forEach(entry -> entries.putIfAbsent(entry.getId(), entry));
+            Set<Long> contendedIds = new LinkedHashSet<>();
+            for (Object[] entry : searchOutboxEntryRepository.findIdsByEntities(type, ids)) {
+                if (!entries.containsKey((Long) entry[0])) {
+                    contendedIds.add((Long) entry[1]);
+                }
+            }
+            if (!contendedIds.isEmpty()) {
+                log.debug("Leaving {} {} entities to the indexers holding their entries", contendedIds.size(), type);
+                ids.removeAll(contendedIds);
+                contendedIdsByType.put(type, contendedIds);
+            }
+        });
+        return contendedIdsByType;
+    }
+
+    /**
+     * Have the documents of the residents of facilities and rooms written again, in bulk by the next batches.
+     *
+     * @param indexedResidentIds the ids of the residents whose documents were written along with the facilities and rooms.
+     * @return {@code true} if residents were enqueued.
+     */
+    private boolean enqueueResidents(Set<Long> facilityIds, Set<Long> roomIds, Set<Long> indexedResidentIds) {
+        Set<Long> residentIds = new LinkedHashSet<>();
+        if (!facilityIds.isEmpty()) {
+            residentIds.addAll(residentRepository.findIdsByFacilityIdIn(facilityIds));
+        }
+        if (!roomIds.isEmpty()) {
+            residentIds.addAll(residentRepository.findIdsByRoomIdIn(roomIds));
+        }
+        residentIds.removeAll(indexedResidentIds);
+        if (residentIds.isEmpty()) {
+            return false;
+        }
+        log.debug("Enqueuing {} residents of {} facilities and {} rooms indexed", residentIds.size(), facilityIds.size(), roomIds.size());
+        searchIndexOutbox.enqueueAll(SearchDocumentType.RESIDENT, residentIds);
+        return true;
+    }
+
+    private static Set<Long> indexedIds(
+        SearchDocumentType type,
+        Map<SearchDocumentType, Set<Long>> idsByType,
+        Map<SearchDocumentType, Set<Long>> failedIdsByType
+    ) {
+        Set<Long> ids = new LinkedHashSet<>(idsByType.getOrDefault(type, Collections.emptySet()));
+        ids.removeAll(failedIdsByType.getOrDefault(type, Collections.emptySet()));
+        return ids;
+    }
+
+    /**
+     * Write the documents of entities, and delete those of the entities which no longer exist.
+     *
+     * @return the ids of the entities which could not be indexed.
+     */
+    private Set<Long> index(SearchDocumentType type, Set<Long> ids) {
+        try {
+            switch (type) {
+                case FACILITY:
+                    write(type, facilitySearchRepository, facilityRepository.findAllById(ids), Facility::getId, ids);
+                    break;
+                case ROOM:
+                    write(type, roomSearchRepository, roomRepository.findAllWithFacilityByIdIn(ids), Room::getId, ids);
+                    break;
+                case RESIDENT:
+                    List<ResidentDocument> residents = residentRepository
+                        .findAllWithRoomAndFacilityByIdIn(ids)
+                        .stream()
+                        .map(ResidentDocument::of)
+                        .collect(Collectors.toList());
+                    write(type, residentSearchRepository, residents, ResidentDocument::getId, ids);
+                    break;
+                case USER:
+                    write(type, userSearchRepository, userRepository.findAllWithAuthoritiesByIdIn(ids), User::getId, ids);
+                    break;
+                default:
+                    throw new IllegalStateException("Unknown search document type: " + type);
+            }
+            return Collections.emptySet();
+        } catch (BulkFailureException e) {
+            log.warn("Could not index {} of {} {} documents: {}", e.getFailedDocuments().size(), ids.size(), type, e.getMessage());
+            return e.getFailedDocuments().keySet().stream().map(Long::valueOf).collect(Collectors.toSet());
+        } catch (RuntimeException e) {
+            log.warn("Could not index {} {} documents: {}", ids.size(), type, e.getMessage());
+            return ids;
+        }
+    }
+
+    private <T> void write(
+        SearchDocumentType type,
+        ElasticsearchRepository<T, Long> searchRepository,
+        List<T> entities,
+        Function<T, Long> getId,
+        Set<Long> ids
+    ) {
+        if (!entities.isEmpty()) {
+            searchRepository.saveAll(entities);
+        }
+        Set<Long> deletedIds = new LinkedHashSet<>(ids);
+        entities.forEach(entity -> deletedIds.remove(getId.apply(entity)));
+        if (!deletedIds.isEmpty()) {
+            searchRepository.deleteAllById(deletedIds);
+        }
+        for (String index : reindexJobRepository.findUnfinishedIndexNames(type)) {
+            if (!entities.isEmpty()) {
+                searchIndexOperations.bulkIndex(index, entities);
+            }
+            if (!deletedIds.isEmpty()) {
+                searchIndexOperations.bulkDelete(index, deletedIds);
+            }
+        }
+    }
+
+    private Duration backoff(int attempts) {
+        ApplicationProperties.SearchOutbox properties = applicationProperties.getSearchOutbox();
+        long seconds = properties.getInitialBackoffSeconds() << Math.min(attempts - 1, 30);
+        return Duration.ofSeconds(Math.min(seconds, properties.getMaxBackoffSeconds()));
+    }
+}
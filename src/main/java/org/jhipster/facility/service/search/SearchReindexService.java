@@ -0,0 +1,539 @@
+package org.jhipster.facility.service.search;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import javax.persistence.EntityManager;
+import org.jhipster.facility.config.ApplicationProperties;
+import org.jhipster.facility.domain.Facility;
+import org.jhipster.facility.domain.ReindexJob;
+import org.jhipster.facility.domain.ReindexPartition;
+import org.jhipster.facility.domain.Room;
+import org.jhipster.facility.domain.User;
+import org.jhipster.facility.domain.enumeration.SearchDocumentType;
+import org.jhipster.facility.domain.search.ResidentDocument;
+import org.jhipster.facility.repository.FacilityRepository;
+import org.jhipster.facility.repository.ReindexJobRepository;
+import org.jhipster.facility.repository.ReindexPartitionRepository;
+import org.jhipster.facility.repository.ResidentRepository;
+import org.jhipster.facility.repository.RoomRepository;
+import org.jhipster.facility.repository.UserRepository;
+import org.jhipster.facility.repository.search.SearchIndexOperations;
+import org.jhipster.facility.service.dto.ReindexJobDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.elasticsearch.core.ResourceUtil;
+import org.springframework.data.elasticsearch.core.convert.ElasticsearchConverter;
+import org.springframework.data.elasticsearch.core.index.MappingBuilder;
+import org.springframework.data.elasticsearch.core.mapping.ElasticsearchPersistentEntity;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.DigestUtils;
+
+/**
+ * Service reindexing all the entities of a type into a new Elasticsearch index, which then replaces the index searched.
+ * <p>
+ * The ids of the table are split into ranges of {@code application.reindex.partition-size} ids, recorded with the job.
+ * {@code application.reindex.threads} workers stream the ranges in parallel, each through a forward-only cursor, and send
+ * the documents in bulk requests of about {@code application.reindex.bulk-bytes}. A range is marked completed once its
+ * documents are written, so that a job interrupted by a crash or a failure resumes from the ranges left when a reindex of
+ * its type is started again.
+ * <p>
+ * While a job is unfinished, the {@link SearchIndexer} also writes the changes it indexes to the new index; documents
+ * are created by the workers only if missing, so that they never overwrite a newer document, and the documents of the
+ * entities deleted while their range was read are deleted again before it is marked completed. Once every range is
+ * written, the alias the entities are searched by is switched to the new index in one atomic request.
+ * <p>
+ * Indices are named after their alias, the {@link #mappingVersion(SearchDocumentType) version} of the mapping and
+ * settings of the document class and the time they were created, like {@code room-0a1b2c3d-20261018120000000}. When the
+ * application starts, {@link #migrateAll()} reindexes the entities whose alias points to an index of another version,
+ * so that changing a mapping or an analyzer needs no downtime.
+ */
+@Service
+public class SearchReindexService {
+
+    private static final DateTimeFormatter INDEX_SUFFIX_FORMATTER = DateTimeFormatter
+        .ofPattern("yyyyMMddHHmmssSSS")
+        .withZone(ZoneOffset.UTC);
+
+    private static final int MAX_ERROR_LENGTH = 1024;
+
+    private static final int MAPPING_VERSION_LENGTH = 8;
+
+    private final Logger log = LoggerFactory.getLogger(SearchReindexService.class);
+
+    private final ReindexJobRepository reindexJobRepository;
+
+    private final ReindexPartitionRepository reindexPartitionRepository;
+
+    private final FacilityRepository facilityRepository;
+
+    private final RoomRepository roomRepository;
+
+    private final ResidentRepository residentRepository;
+
+    private final UserRepository userRepository;
+
+    private final SearchIndexOperations searchIndexOperations;
+
+    private final ElasticsearchConverter elasticsearchConverter;
+
+    private final EntityManager entityManager;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ApplicationProperties applicationProperties;
+
+    private final Executor executor;
+
+    /**
+     * The ids of the jobs run by this instance.
+     */
+    private final Set<Long> runningJobIds = ConcurrentHashMap.newKeySet();
+
+    public SearchReindexService(
+        ReindexJobRepository reindexJobRepository,
+        ReindexPartitionRepository reindexPartitionRepository,
+        FacilityRepository facilityRepository,
+        RoomRepository roomRepository,
+        ResidentRepository residentRepository,
+        UserRepository userRepository,
+        SearchIndexOperations searchIndexOperations,
+        ElasticsearchConverter elasticsearchConverter,
+        EntityManager entityManager,
+        PlatformTransactionManager transactionManager,
+        ApplicationProperties applicationProperties,
+        @Qualifier("taskExecutor") Executor executor
+    ) {
+        this.reindexJobRepository = reindexJobRepository;
+        this.reindexPartitionRepository = reindexPartitionRepository;
+        this.facilityRepository = facilityRepository;
+        this.roomRepository = roomRepository;
+        this.residentRepository = residentRepository;
+        this.userRepository = userRepository;
+        this.searchIndexOperations = searchIndexOperations;
+        this.elasticsearchConverter = elasticsearchConverter;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.applicationProperties = applicationProperties;
+        this.executor = executor;
+    }
+
+    /**
+     * @param alias the name the entities are searched by, like {@code room}.
+     * @return the type of the entities searched by that name, if any.
+     */
+    public Optional<SearchDocumentType> findType(String alias) {
+        for (SearchDocumentType type : SearchDocumentType.values()) {
+            if (alias(type).equals(alias)) {
+                return Optional.of(type);
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Start a reindex of the entities of a type in the background, or resume the unfinished one.
+     *
+     * @return the job started, resumed, or already running.
+     */
+    public ReindexJobDTO start(SearchDocumentType type) {
+        return start(type, () -> createIndex(type));
+    }
+
+    /**
+     * @param newIndex creates the index of a new job, and returns its name.
+     */
+    private ReindexJobDTO start(SearchDocumentType type, Supplier<String> newIndex) {
+        ReindexJob job;
+        synchronized (runningJobIds) {
+            job = transactionTemplate.execute(status -> reindexJobRepository.findUnfinished(type).stream().findFirst().orElse(null));
+            if (job != null && runningJobIds.contains(job.getId())) {
+                return toDto(job, true);
+            }
+            if (job == null) {
+                job = create(type, newIndex.get());
+            } else {
+                log.info("Resuming reindex job {} of {} documents into {}", job.getId(), type, job.getIndex_name());
+            }
+            runningJobIds.add(job.getId());
+        }
+        ReindexJob started = job;
+        try {
+            executor.execute(() -> run(started));
+        } catch (RuntimeException e) {
+            runningJobIds.remove(started.getId());
+            throw e;
+        }
+        return toDto(started, true);
+    }
+
+    /**
+     * {@link #migrate(SearchDocumentType) Migrate} the index of every type, logging the types which could not be.
+     */
+    public void migrateAll() {
+        for (SearchDocumentType type : SearchDocumentType.values()) {
+            try {
+                migrate(type);
+            } catch (RuntimeException e) {
+                log.warn("Could not migrate the search index of {} documents: {}", type, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Make sure the alias of a type points to an index of the current mapping version, reindexing the entities if it
+     * does not. Unfinished jobs of another version are abandoned and their index deleted; an unfinished job of the
+     * current version is resumed. If there is no index at all, an empty index of the current version takes the alias
+     * at once, so that searches and the changes indexed meanwhile find an index with the right mapping.
+     *
+     * @return the job reindexing the entities, if they need one.
+     */
+    public Optional<ReindexJobDTO> migrate(SearchDocumentType type) {
+        String alias = alias(type);
+        String version = mappingVersion(type);
+        String prefix = indexPrefix(alias, version);
+        List<ReindexJob> unfinished = transactionTemplate.execute(status -> reindexJobRepository.findUnfinished(type));
+        boolean resume = false;
+        for (ReindexJob job : unfinished) {
+            if (job.getIndex_name().startsWith(prefix)) {
+                resume = true;
+            } else if (!runningJobIds.contains(job.getId())) {
+                log.info("Abandoning reindex job {} into {}, superseded by mapping version {}", job.getId(), job.getIndex_name(), version);
+                transactionTemplate.executeWithoutResult(status ->
+                    reindexJobRepository.abandon(job.getId(), Instant.now(), "Superseded by mapping version " + version)
+                );
+                searchIndexOperations.deleteIndex(job.getIndex_name());
+            }
+        }
+        if (!resume) {
+            Set<String> indices = searchIndexOperations.getAliasedIndices(alias);
+            if (indices.stream().anyMatch(index -> index.startsWith(prefix))) {
+                log.debug("Search index {} is up to date: {}", alias, indices);
+                return Optional.empty();
+            }
+            if (indices.isEmpty() && !searchIndexOperations.exists(alias)) {
+                // Reindexed in place: the index has nothing to replace
+                return Optional.of(
+                    start(
+                        type,
+                        () -> {
+                            String index = createIndex(type);
+                            log.info("Creating search index {} as {}", index, alias);
+                            searchIndexOperations.switchAlias(alias, index);
+                            return index;
+                        }
+                    )
+                );
+            }
+            log.info("Search index {} is not of mapping version {}: {}", alias, version, indices);
+        }
+        return Optional.of(start(type));
+    }
+
+    /**
+     * @return a digest of the mapping and settings the entities of a type are indexed with, which changes with them.
+     */
+    public String mappingVersion(SearchDocumentType type) {
+        Class<?> documentClass = documentClass(type);
+        ElasticsearchPersistentEntity<?> persistentEntity = elasticsearchConverter
+            .getMappingContext()
+            .getRequiredPersistentEntity(documentClass);
+        StringBuilder definition = new StringBuilder(new MappingBuilder(elasticsearchConverter).buildPropertyMapping(documentClass));
+        definition.append(persistentEntity.getDefaultSettings().toJson());
+        if (persistentEntity.settingPath() != null) {
+            definition.append(ResourceUtil.readFileFromClasspath(persistentEntity.settingPath()));
+        }
+        String digest = DigestUtils.md5DigestAsHex(definition.toString().getBytes(StandardCharsets.UTF_8));
+        return digest.substring(0, MAPPING_VERSION_LENGTH);
+    }
+
+    public Optional<ReindexJobDTO> findOne(Long id) {
+        // Checked before reading the job, so that a job seen stopped is read as its run left it
+        boolean running = runningJobIds.contains(id);
+        return reindexJobRepository.findById(id).map(job -> toDto(job, running));
+    }
+
+    private String createIndex(SearchDocumentType type) {
+        String index = indexPrefix(alias(type), mappingVersion(type)) + INDEX_SUFFIX_FORMATTER.format(Instant.now());
+        searchIndexOperations.createIndex(index, documentClass(type));
+        return index;
+    }
+
+    /**
+     * Record a job writing to an index already created: from its commit on, the changes indexed are also written to the
+     * index, so that the entities changed after the ids are split into ranges are not missed.
+     */
+    private ReindexJob create(SearchDocumentType type, String index) {
+        Instant now = Instant.now();
+        ReindexJob job = transactionTemplate.execute(status ->
+            reindexJobRepository.save(new ReindexJob().entity_type(type).index_name(index).started_at(now).document_count(0L))
+        );
+        log.info("Started reindex job {} of {} documents into {}", job.getId(), type, index);
+        return job;
+    }
+
+    private void run(ReindexJob job) {
+        ExecutorService workers = Executors.newFixedThreadPool(
+            applicationProperties.getReindex().getThreads(),
+            new CustomizableThreadFactory("search-reindex-" + job.getId() + "-")
+        );
+        List<Future<Long>> results = new ArrayList<>();
+        try {
+            List<ReindexPartition> partitions = transactionTemplate.execute(status -> findOrCreatePartitions(job));
+            Instant start = Instant.now();
+            for (ReindexPartition partition : partitions) {
+                results.add(workers.submit(() -> reindex(job, partition)));
+            }
+            long documents = 0;
+            for (Future<Long> result : results) {
+                documents += result.get();
+            }
+            searchIndexOperations.refresh(job.getIndex_name());
+            searchIndexOperations.switchAlias(alias(job.getEntity_type()), job.getIndex_name());
+            transactionTemplate.executeWithoutResult(status -> reindexJobRepository.finish(job.getId(), Instant.now()));
+            long millis = Math.max(1, Duration.between(start, Instant.now()).toMillis());
+            log.info(
+                "Finished reindex job {}: {} {} documents of {} partitions written to {} in {} ms ({} documents/s)",
+                job.getId(),
+                documents,
+                job.getEntity_type(),
+                partitions.size(),
+                job.getIndex_name(),
+                millis,
+                documents * 1000 / millis
+            );
+        } catch (ExecutionException e) {
+            fail(job, e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            fail(job, e);
+        } catch (RuntimeException e) {
+            fail(job, e);
+        } finally {
+            // Let the partitions being written end rather than interrupting their statements, so that the job is not
+            // resumed while they run
+            results.forEach(result -> result.cancel(false));
+            workers.shutdown();
+            awaitTermination(workers);
+            runningJobIds.remove(job.getId());
+        }
+    }
+
+    private static void awaitTermination(ExecutorService workers) {
+        try {
+            workers.awaitTermination(1, TimeUnit.HOURS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * @return the partitions of the job not completed yet, after splitting the ids into partitions if that was not done
+     * before the job was interrupted.
+     */
+    private List<ReindexPartition> findOrCreatePartitions(ReindexJob job) {
+        if (((Number) reindexPartitionRepository.countPartitions(job.getId()).get(0)[0]).longValue() == 0) {
+            Object[] range = findIdRange(job.getEntity_type());
+            if (range[0] != null) {
+                long first = ((Number) range[0]).longValue();
+                long last = ((Number) range[1]).longValue();
+                long size = applicationProperties.getReindex().getPartitionSize();
+                List<ReindexPartition> partitions = new ArrayList<>();
+                for (long from = first; from <= last; from += size) {
+                    partitions.add(new ReindexPartition().job_id(job.getId()).from_id(from).to_id(Math.min(from + size, last + 1)));
+                }
+                reindexPartitionRepository.saveAll(partitions);
+            }
+        }
+        return reindexPartitionRepository.findPending(job.getId());
+    }
+
+    /**
+     * Write the documents of a partition to the new index, then mark it completed once the documents of the entities
+     * deleted meanwhile are deleted again.
+     * <p>
+     * The documents are read from the snapshot of a transaction on the primary database, which may still hold entities
+     * whose deletion the search indexer applied to the new index before their documents were created. The entities left
+     * are read again in a new transaction, once the documents are written: an entity deleted after that read has its
+     * document deleted by the search indexer, which finds it written.
+     *
+     * @return the number of documents written.
+     */
+    private long reindex(ReindexJob job, ReindexPartition partition) {
+        long bulkBytes = applicationProperties.getReindex().getBulkBytes();
+        Set<Long> written = transactionTemplate.execute(status -> {
+            Set<Long> ids = new LinkedHashSet<>();
+            Map<String, byte[]> sources = new LinkedHashMap<>();
+            long bytes = 0;
+            try (Stream<?> entities = streamByIdRange(job.getEntity_type(), partition.getFrom_id(), partition.getTo_id())) {
+                Iterator<?> iterator = entities.iterator();
+                while (iterator.hasNext()) {
+                    Object entity = iterator.next();
+                    byte[] source = elasticsearchConverter.mapObject(entity).toJson().getBytes(StandardCharsets.UTF_8);
+                    sources.put(documentId(entity), source);
+                    bytes += source.length;
+                    if (bytes >= bulkBytes) {
+                        searchIndexOperations.bulkCreate(job.getIndex_name(), sources);
+                        sources.keySet().forEach(id -> ids.add(Long.valueOf(id)));
+                        sources = new LinkedHashMap<>();
+                        bytes = 0;
+                        // The entities written are no longer needed
+                        entityManager.clear();
+                    }
+                }
+            }
+            if (!sources.isEmpty()) {
+                searchIndexOperations.bulkCreate(job.getIndex_name(), sources);
+                sources.keySet().forEach(id -> ids.add(Long.valueOf(id)));
+            }
+            return ids;
+        });
+        return transactionTemplate.execute(status -> {
+            Set<Long> deleted = new LinkedHashSet<>(written);
+            deleted.removeAll(new HashSet<>(findIdsByIdRange(job.getEntity_type(), partition.getFrom_id(), partition.getTo_id())));
+            if (!deleted.isEmpty()) {
+                log.debug("Deleting the documents of {} {} entities deleted while reindexed", deleted.size(), job.getEntity_type());
+                searchIndexOperations.bulkDelete(job.getIndex_name(), deleted);
+            }
+            long documents = written.size() - deleted.size();
+            if (reindexPartitionRepository.complete(partition.getId(), Instant.now(), documents) == 1) {
+                reindexJobRepository.addDocuments(job.getId(), documents);
+            }
+            return documents;
+        });
+    }
+
+    private void fail(ReindexJob job, Throwable e) {
+        log.error("Reindex job {} of {} documents failed, start it again to resume it", job.getId(), job.getEntity_type(), e);
+        String error = String.valueOf(e);
+        transactionTemplate.executeWithoutResult(status ->
+            reindexJobRepository.fail(job.getId(), error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error)
+        );
+    }
+
+    private ReindexJobDTO toDto(ReindexJob job, boolean running) {
+        ReindexJobDTO dto = new ReindexJobDTO();
+        dto.setId(job.getId());
+        dto.setEntityType(job.getEntity_type());
+        dto.setIndex(job.getIndex_name());
+        dto.setStartedAt(job.getStarted_at());
+        dto.setFinishedAt(job.getFinished_at());
+        dto.setRunning(running);
+        Object[] partitions = reindexPartitionRepository.countPartitions(job.getId()).get(0);
+        dto.setPartitions(((Number) partitions[0]).longValue());
+        dto.setCompletedPartitions(((Number) partitions[1]).longValue());
+        dto.setDocuments(job.getDocument_count());
+        Instant end = job.getFinished_at() != null ? job.getFinished_at() : Instant.now();
+        long millis = Duration.between(job.getStarted_at(), end).toMillis();
+        dto.setTimeMillis(millis);
+        dto.setDocumentsPerSecond(millis > 0 ? job.getDocument_count() * 1000.0 / millis : 0);
+        dto.setLastError(job.getLast_error());
+        return dto;
+    }
+
+    /**
+     * @return the name of the index of the document class, which the index holding its documents is aliased as.
+     */
+    private String alias(SearchDocumentType type) {
+        return elasticsearchConverter
+            .getMappingContext()
+            .getRequiredPersistentEntity(documentClass(type))
+            .getIndexCoordinates()
+            .getIndexName();
+    }
+
+    private static String indexPrefix(String alias, String version) {
+        return alias + "-" + version + "-";
+    }
+
+    private String documentId(Object entity) {
+        ElasticsearchPersistentEntity<?> persistentEntity = elasticsearchConverter
+            .getMappingContext()
+            .getRequiredPersistentEntity(entity.getClass());
+        return elasticsearchConverter.convertId(persistentEntity.getIdentifierAccessor(entity).getRequiredIdentifier());
+    }
+
+    private static Class<?> documentClass(SearchDocumentType type) {
+        switch (type) {
+            case FACILITY:
+                return Facility.class;
+            case ROOM:
+                return Room.class;
+            case RESIDENT:
+                return ResidentDocument.class;
+            case USER:
+                return User.class;
+            default:
+                throw new IllegalStateException("Unknown search document type: " + type);
+        }
+    }
+
+    private Object[] findIdRange(SearchDocumentType type) {
+        switch (type) {
+            case FACILITY:
+                return facilityRepository.findIdRange().get(0);
+            case ROOM:
+                return roomRepository.findIdRange().get(0);
+            case RESIDENT:
+                return residentRepository.findIdRange().get(0);
+            case USER:
+                return userRepository.findIdRange().get(0);
+            default:
+                throw new IllegalStateException("Unknown search document type: " + type);
+        }
+    }
+
+    private List<Long> findIdsByIdRange(SearchDocumentType type, Long from, Long to) {
+        switch (type) {
+            case FACILITY:
+                return facilityRepository.findIdsByIdRange(from, to);
+            case ROOM:
+                return roomRepository.findIdsByIdRange(from, to);
+            case RESIDENT:
+                return residentRepository.findIdsByIdRange(from, to);
+            case USER:
+                return userRepository.findIdsByIdRange(from, to);
+            default:
+                throw new IllegalStateException("Unknown search document type: " + type);
+        }
+    }
+
+    private Stream<?> streamByIdRange(SearchDocumentType type, Long from, Long to) {
+        switch (type) {
+            case FACILITY:
+                return facilityRepository.streamByIdRange(from, to);
+            case ROOM:
+                return roomRepository.streamByIdRange(from, to);
+            case RESIDENT:
+                return residentRepository.streamByIdRange(from, to).map(ResidentDocument::of);
+            case USER:
+                return userRepository.streamByIdRange(from, to);
+            default:
+                throw new IllegalStateException("Unknown search document type: " + type);
+        }
+    }
+}
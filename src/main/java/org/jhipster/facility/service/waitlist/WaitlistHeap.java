@@ -0,0 +1,142 @@
+package org.jhipster.facility.service.waitlist;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Binary max-heap of the waitlist entries of one facility: highest priority first, then lowest id, i.e. earliest request.
+ * <p>
+ * Entries live in parallel primitive arrays; a position map makes removing an arbitrary entry O(log n) like polling.
+ * Callers synchronize on the instance.
+ */
+final class WaitlistHeap {
+
+    static final long EMPTY = Long.MIN_VALUE;
+
+    private long[] ids;
+
+    private int[] priorities;
+
+    private final Map<Long, Integer> positions;
+
+    private int size;
+
+    WaitlistHeap(int expectedEntries) {
+        int capacity = Math.max(4, expectedEntries);
+        ids = new long[capacity];
+        priorities = new int[capacity];
+        positions = new HashMap<>(capacity * 2);
+    }
+
+    boolean add(long id, int priority) {
+        if (positions.containsKey(id)) {
+            return false;
+        }
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, size * 2);
+            priorities = Arrays.copyOf(priorities, size * 2);
+        }
+        ids[size] = id;
+        priorities[size] = priority;
+        positions.put(id, size);
+        siftUp(size++);
+        return true;
+    }
+
+    long peek() {
+        return size == 0 ? EMPTY : ids[0];
+    }
+
+    int peekPriority() {
+        return priorities[0];
+    }
+
+    /**
+     * @return the id of the first entry, or {@link #EMPTY} if there is none.
+     */
+    long poll() {
+        if (size == 0) {
+            return EMPTY;
+        }
+        long head = ids[0];
+        removeAt(0);
+        return head;
+    }
+
+    boolean remove(long id) {
+        Integer position = positions.get(id);
+        if (position == null) {
+            return false;
+        }
+        removeAt(position);
+        return true;
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    private void removeAt(int position) {
+        positions.remove(ids[position]);
+        int last = --size;
+        if (position != last) {
+            move(last, position);
+            siftDown(position);
+            siftUp(position);
+        }
+    }
+
+    private void siftUp(int position) {
+        while (position > 0) {
+            int parent = (position - 1) >>> 1;
+            if (!before(position, parent)) {
+                return;
+            }
+            swap(position, parent);
+            position = parent;
+        }
+    }
+
+    private void siftDown(int position) {
+        while (true) {
+            int first = position;
+            int left = 2 * position + 1;
+            int right = left + 1;
+            if (left < size && before(left, first)) {
+                first = left;
+            }
+            if (right < size && before(right, first)) {
+                first = right;
+            }
+            if (first == position) {
+                return;
+            }
+            swap(position, first);
+            position = first;
+        }
+    }
+
+    private boolean before(int a, int b) {
+        return priorities[a] != priorities[b] ? priorities[a] > priorities[b] : ids[a] < ids[b];
+    }
+
+    private void swap(int a, int b) {
+        long id = ids[a];
+        int priority = priorities[a];
+        move(b, a);
+        ids[b] = id;
+        priorities[b] = priority;
+        positions.put(id, b);
+    }
+
+    private void move(int from, int to) {
+        ids[to] = ids[from];
+        priorities[to] = priorities[from];
+        positions.put(ids[to], to);
+    }
+}
@@ -0,0 +1,268 @@
+package org.jhipster.facility.service.waitlist;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import org.jhipster.facility.domain.Resident;
+import org.jhipster.facility.domain.Room;
+import org.jhipster.facility.domain.WaitlistEntry;
+import org.jhipster.facility.domain.enumeration.SearchDocumentType;
+import org.jhipster.facility.repository.ResidentRepository;
+import org.jhipster.facility.repository.RoomRepository;
+import org.jhipster.facility.repository.WaitlistEntryRepository;
+import org.jhipster.facility.service.history.AssignmentHistoryService;
+import org.jhipster.facility.service.occupancy.BedService;
+import org.jhipster.facility.service.occupancy.FacilitySummaryService;
+import org.jhipster.facility.service.occupancy.OccupancyIndex;
+import org.jhipster.facility.service.search.SearchIndexOutbox;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Service managing the waitlists of facilities and placing their residents in the rooms that free up.
+ * <p>
+ * The {@code waitlist_entry} table is the source of truth; every facility also has a {@link WaitlistHeap} of its entries,
+ * loaded when the application starts, so that finding the next resident to serve is O(log n) and never scans the table.
+ * New and removed entries reach the heap once their transaction commits. An entry served by
+ * {@link #roomFreed(Long)} leaves the heap at once and comes back if the transaction rolls back; the row is deleted
+ * with a conditional statement, so two nodes can never serve the same entry.
+ */
+@Service
+public class WaitlistService {
+
+    private final Logger log = LoggerFactory.getLogger(WaitlistService.class);
+
+    private final WaitlistEntryRepository waitlistEntryRepository;
+
+    private final RoomRepository roomRepository;
+
+    private final ResidentRepository residentRepository;
+
+    private final SearchIndexOutbox searchIndexOutbox;
+
+    private final OccupancyIndex occupancyIndex;
+
+    private final AssignmentHistoryService assignmentHistoryService;
+
+    private final BedService bedService;
+
+    private final FacilitySummaryService facilitySummaryService;
+
+    private final Map<Long, WaitlistHeap> heaps = new ConcurrentHashMap<>();
+
+    public WaitlistService(
+        WaitlistEntryRepository waitlistEntryRepository,
+        RoomRepository roomRepository,
+        ResidentRepository residentRepository,
+        SearchIndexOutbox searchIndexOutbox,
+        OccupancyIndex occupancyIndex,
+        AssignmentHistoryService assignmentHistoryService,
+        BedService bedService,
+        FacilitySummaryService facilitySummaryService
+    ) {
+        this.waitlistEntryRepository = waitlistEntryRepository;
+        this.roomRepository = roomRepository;
+        this.residentRepository = residentRepository;
+        this.searchIndexOutbox = searchIndexOutbox;
+        this.occupancyIndex = occupancyIndex;
+        this.assignmentHistoryService = assignmentHistoryService;
+        this.bedService = bedService;
+        this.facilitySummaryService = facilitySummaryService;
+    }
+
+    /**
+     * Load the heaps of all facilities from the database.
+     * <p>
+     * Not read-only, so that the entries are read from the primary, never from a replica lagging behind it.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        List<Object[]> entries = waitlistEntryRepository.findAllQueued();
+        Map<Long, WaitlistHeap> rebuiltHeaps = new ConcurrentHashMap<>();
+        for (Object[] row : entries) {
+            rebuiltHeaps.computeIfAbsent((Long) row[1], id -> new WaitlistHeap(16)).add((Long) row[0], (Integer) row[2]);
+        }
+        synchronized (heaps) {
+            heaps.clear();
+            heaps.putAll(rebuiltHeaps);
+        }
+        log.info("Rebuilt waitlists of {} entries in {} ms", entries.size(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Put a resident on the waitlist of a facility.
+     *
+     * @param entry the entry to save; its facility must exist.
+     * @return the persisted entry.
+     */
+    @Transactional
+    public WaitlistEntry enqueue(WaitlistEntry entry) {
+        log.debug("Request to save WaitlistEntry : {}", entry);
+        WaitlistEntry result = waitlistEntryRepository.save(entry);
+        long id = result.getId();
+        long facilityId = result.getFacility().getId();
+        int priority = result.getPriority();
+        afterCompletion(true, () -> {
+            WaitlistHeap heap = heapOf(facilityId);
+            synchronized (heap) {
+                heap.add(id, priority);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Take a resident off the waitlist.
+     *
+     * @param id the id of the entry.
+     * @return {@code true} if the entry was removed, {@code false} if it was not queued anymore.
+     */
+    @Transactional
+    public boolean remove(Long id) {
+        log.debug("Request to delete WaitlistEntry : {}", id);
+        Optional<Long> facilityId = waitlistEntryRepository.findFacilityIdById(id);
+        if (facilityId.isEmpty() || waitlistEntryRepository.deleteQueuedById(id) == 0) {
+            return false;
+        }
+        afterCompletion(true, () -> {
+            WaitlistHeap heap = heaps.get(facilityId.get());
+            if (heap != null) {
+                synchronized (heap) {
+                    heap.remove(id);
+                }
+            }
+        });
+        return true;
+    }
+
+    /**
+     * Get the number of residents waiting for a room of a facility.
+     *
+     * @param facilityId the id of the facility.
+     * @return the number of committed entries.
+     */
+    public int size(Long facilityId) {
+        WaitlistHeap heap = heaps.get(facilityId);
+        if (heap == null) {
+            return 0;
+        }
+        synchronized (heap) {
+            return heap.size();
+        }
+    }
+
+    /**
+     * Fill the places of a room with the first residents of its facility's waitlist.
+     * <p>
+     * Must run in the transaction that freed the places, while holding the lock of the room.
+     *
+     * @param roomId the id of the room that has free places.
+     * @return the residents created from the waitlist, empty if nobody is waiting or the room is full.
+     */
+    public List<Resident> roomFreed(Long roomId) {
+        List<Resident> residents = new ArrayList<>();
+        Optional<Long> facilityId = roomRepository.findFacilityIdById(roomId);
+        if (facilityId.isEmpty()) {
+            return residents;
+        }
+        WaitlistHeap heap = heaps.get(facilityId.get());
+        while (heap != null && !isEmpty(heap) && roomRepository.incrementOccupantCount(roomId, 1) == 1) {
+            Optional<WaitlistEntry> entry = claimHead(heap);
+            if (entry.isEmpty()) {
+                roomRepository.decrementOccupantCount(roomId, 1);
+                break;
+            }
+            residents.add(admit(entry.get(), roomId));
+        }
+        if (!residents.isEmpty()) {
+            facilitySummaryService.occupantsChanged(roomId, residents.size());
+            log.debug("Placed {} waitlisted residents in Room : {}", residents.size(), roomId);
+        }
+        return residents;
+    }
+
+    /**
+     * Take the first entry of the heap that is still queued in the database.
+     */
+    private Optional<WaitlistEntry> claimHead(WaitlistHeap heap) {
+        while (true) {
+            long id;
+            int priority;
+            synchronized (heap) {
+                if (heap.isEmpty()) {
+                    return Optional.empty();
+                }
+                priority = heap.peekPriority();
+                id = heap.poll();
+            }
+            Optional<WaitlistEntry> entry = waitlistEntryRepository.findById(id);
+            if (entry.isPresent() && waitlistEntryRepository.deleteQueuedById(id) == 1) {
+                afterCompletion(
+                    false,
+                    () -> {
+                        synchronized (heap) {
+                            heap.add(id, priority);
+                        }
+                    }
+                );
+                return entry;
+            }
+            // Served or removed by another node: the heap had only missed it.
+        }
+    }
+
+    private Resident admit(WaitlistEntry entry, Long roomId) {
+        Room room = roomRepository.findOneWithEagerRelationships(roomId).orElseThrow();
+        Resident resident = new Resident()
+            .name(entry.getName())
+            .phone_number(entry.getPhone_number())
+            .email(entry.getEmail())
+            .room(room);
+        Resident savedResident = residentRepository.save(resident);
+        searchIndexOutbox.enqueue(SearchDocumentType.RESIDENT, savedResident.getId());
+        occupancyIndex.residentMoved(null, roomId);
+        bedService.claim(savedResident.getId(), roomId);
+        assignmentHistoryService.record(savedResident.getId(), null, roomId);
+        return savedResident;
+    }
+
+    private WaitlistHeap heapOf(long facilityId) {
+        return heaps.computeIfAbsent(facilityId, id -> new WaitlistHeap(16));
+    }
+
+    private static boolean isEmpty(WaitlistHeap heap) {
+        synchronized (heap) {
+            return heap.isEmpty();
+        }
+    }
+
+    /**
+     * Run a change of the heaps once the surrounding transaction commits, or once it rolls back.
+     */
+    private static void afterCompletion(boolean onCommit, Runnable change) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public void afterCompletion(int status) {
+                        if ((status == STATUS_COMMITTED) == onCommit) {
+                            change.run();
+                        }
+                    }
+                }
+            );
+        } else if (onCommit) {
+            change.run();
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package org.jhipster.facility.web.rest;
+
+import java.time.Instant;
+import org.jhipster.facility.service.dto.RoomOccupantsDTO;
+import org.jhipster.facility.service.history.AssignmentHistoryService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * REST controller for querying the history of room assignments.
+ */
+@RestController
+@RequestMapping("/api")
+public class AssignmentHistoryResource {
+
+    private final Logger log = LoggerFactory.getLogger(AssignmentHistoryResource.class);
+
+    private final AssignmentHistoryService assignmentHistoryService;
+
+    public AssignmentHistoryResource(AssignmentHistoryService assignmentHistoryService) {
+        this.assignmentHistoryService = assignmentHistoryService;
+    }
+
+    /**
+     * {@code GET  /rooms/:id/occupants?asOf=:asOf} : get the residents of a room at a point in time.
+     *
+     * @param id the id of the room.
+     * @param asOf the point in time, as an ISO-8601 instant; now if absent.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the ids of the residents, empty for an unknown room.
+     */
+    @GetMapping("/rooms/{id}/occupants")
+    public ResponseEntity<RoomOccupantsDTO> getRoomOccupants(@PathVariable Long id, @RequestParam(required = false) Instant asOf) {
+        log.debug("REST request to get the occupants of Room : {} as of {}", id, asOf);
+        return ResponseEntity.ok(assignmentHistoryService.occupantsAsOf(id, asOf == null ? Instant.now() : asOf));
+    }
+}
@@ -0,0 +1,179 @@
+package org.jhipster.facility.web.rest;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import javax.validation.Valid;
+import org.jhipster.facility.domain.Booking;
+import org.jhipster.facility.repository.BookingRepository;
+import org.jhipster.facility.repository.ResidentRepository;
+import org.jhipster.facility.repository.RoomRepository;
+import org.jhipster.facility.service.booking.BookingIndex;
+import org.jhipster.facility.service.booking.BookingService;
+import org.jhipster.facility.service.dto.FacilityVacanciesDTO;
+import org.jhipster.facility.service.occupancy.OccupancyIndex;
+import org.jhipster.facility.web.rest.errors.BadRequestAlertException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import tech.jhipster.web.util.HeaderUtil;
+import tech.jhipster.web.util.PaginationUtil;
+import tech.jhipster.web.util.ResponseUtil;
+
+/**
+ * REST controller for managing {@link org.jhipster.facility.domain.Booking}.
+ */
+@RestController
+@RequestMapping("/api")
+@Transactional
+public class BookingResource {
+
+    private final Logger log = LoggerFactory.getLogger(BookingResource.class);
+
+    private static final String ENTITY_NAME = "booking";
+
+    @Value("${jhipster.clientApp.name}")
+    private String applicationName;
+
+    private final BookingRepository bookingRepository;
+
+    private final RoomRepository roomRepository;
+
+    private final ResidentRepository residentRepository;
+
+    private final BookingService bookingService;
+
+    private final BookingIndex bookingIndex;
+
+    private final OccupancyIndex occupancyIndex;
+
+    public BookingResource(
+        BookingRepository bookingRepository,
+        RoomRepository roomRepository,
+        ResidentRepository residentRepository,
+        BookingService bookingService,
+        BookingIndex bookingIndex,
+        OccupancyIndex occupancyIndex
+    ) {
+        this.bookingRepository = bookingRepository;
+        this.roomRepository = roomRepository;
+        this.residentRepository = residentRepository;
+        this.bookingService = bookingService;
+        this.bookingIndex = bookingIndex;
+        this.occupancyIndex = occupancyIndex;
+    }
+
+    /**
+     * {@code POST  /bookings} : Book a room for a resident over a date range.
+     *
+     * @param booking the booking to create.
+     * @return the {@link ResponseEntity} with status {@code 201 (Created)} and with body the new booking, or with status {@code 400 (Bad Request)} if the booking has already an ID, its dates are invalid, or the room is fully booked.
+     * @throws URISyntaxException if the Location URI syntax is incorrect.
+     */
+    @PostMapping("/bookings")
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public ResponseEntity<Booking> createBooking(@Valid @RequestBody Booking booking) throws URISyntaxException {
+        log.debug("REST request to save Booking : {}", booking);
+        if (booking.getId() != null) {
+            throw new BadRequestAlertException("A new booking cannot already have an ID", ENTITY_NAME, "idexists");
+        }
+        checkDates(booking.getStart_date(), booking.getEnd_date());
+        if (!roomRepository.existsById(booking.getRoom().getId())) {
+            throw new BadRequestAlertException("Entity not found", "room", "idnotfound");
+        }
+        if (!residentRepository.existsById(booking.getResident().getId())) {
+            throw new BadRequestAlertException("Entity not found", "resident", "idnotfound");
+        }
+        Booking result = bookingService.create(booking);
+        return ResponseEntity
+            .created(new URI("/api/bookings/" + result.getId()))
+            .headers(HeaderUtil.createEntityCreationAlert(applicationName, false, ENTITY_NAME, result.getId().toString()))
+            .body(result);
+    }
+
+    /**
+     * {@code GET  /room/bookings/:room_id} : get the bookings of a room, by start date.
+     *
+     * @param pageable the pagination information.
+     * @param room_id the id of the room.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of bookings in body.
+     */
+    @GetMapping("/room/bookings/{room_id}")
+    public ResponseEntity<List<Booking>> getAllBookingsWithRoomId(
+        @org.springdoc.api.annotations.ParameterObject Pageable pageable,
+        @PathVariable Long room_id
+    ) {
+        log.debug("REST request to get Bookings with room id: {}", room_id);
+        Page<Booking> page = bookingRepository.findWithRoomId(pageable, room_id);
+        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        return ResponseEntity.ok().headers(headers).body(page.getContent());
+    }
+
+    /**
+     * {@code GET  /bookings/:id} : get the "id" booking.
+     *
+     * @param id the id of the booking to retrieve.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the booking, or with status {@code 404 (Not Found)}.
+     */
+    @GetMapping("/bookings/{id}")
+    public ResponseEntity<Booking> getBooking(@PathVariable Long id) {
+        log.debug("REST request to get Booking : {}", id);
+        Optional<Booking> booking = bookingRepository.findOneWithToOneRelationships(id);
+        return ResponseUtil.wrapOrNotFound(booking);
+    }
+
+    /**
+     * {@code DELETE  /bookings/:id} : delete the "id" booking.
+     *
+     * @param id the id of the booking to delete.
+     * @return the {@link ResponseEntity} with status {@code 204 (NO_CONTENT)}.
+     */
+    @DeleteMapping("/bookings/{id}")
+    public ResponseEntity<Void> deleteBooking(@PathVariable Long id) {
+        log.debug("REST request to delete Booking : {}", id);
+        bookingService.delete(id);
+        return ResponseEntity
+            .noContent()
+            .headers(HeaderUtil.createEntityDeletionAlert(applicationName, false, ENTITY_NAME, id.toString()))
+            .build();
+    }
+
+    /**
+     * {@code GET  /facilities/:id/availability?start=:start&end=:end} : get the rooms of a facility bookable over a date range,
+     * from the in-memory booking index.
+     *
+     * @param id the id of the facility.
+     * @param start the move-in date.
+     * @param end the move-out date, exclusive.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the available rooms,
+     * or with status {@code 400 (Bad Request)} if the dates are invalid.
+     */
+    @GetMapping("/facilities/{id}/availability")
+    public ResponseEntity<FacilityVacanciesDTO> getAvailability(
+        @PathVariable Long id,
+        @RequestParam LocalDate start,
+        @RequestParam LocalDate end
+    ) {
+        log.debug("REST request to get the availability of Facility : {} from {} to {}", id, start, end);
+        checkDates(start, end);
+        return ResponseEntity.ok(
+            new FacilityVacanciesDTO(id, occupancyIndex.countRooms(id), bookingIndex.findAvailableRoomIds(id, start, end))
+        );
+    }
+
+    private static void checkDates(LocalDate start, LocalDate end) {
+        if (!start.isBefore(end)) {
+            throw new BadRequestAlertException("The start date must be before the end date", ENTITY_NAME, "invaliddates");
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package org.jhipster.facility.web.rest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import javax.servlet.http.HttpServletResponse;
+import org.jhipster.facility.service.importer.CsvImportService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+/**
+ * REST controller for importing {@link org.jhipster.facility.domain.Room rooms} and
+ * {@link org.jhipster.facility.domain.Resident residents} from CSV files.
+ */
+@RestController
+@RequestMapping("/api")
+public class CsvImportResource {
+
+    private final Logger log = LoggerFactory.getLogger(CsvImportResource.class);
+
+    private final CsvImportService csvImportService;
+
+    private final ObjectMapper objectMapper;
+
+    public CsvImportResource(CsvImportService csvImportService, ObjectMapper objectMapper) {
+        this.csvImportService = csvImportService;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * {@code POST  /import/:entity} : Import the rooms or residents of a CSV file, semicolon separated and with a header line
+     * naming its columns, like {@code config/liquibase/fake-data/room.csv} and {@code resident.csv}.
+     * <p>
+     * The response streams one JSON line per chunk of rows written, as soon as it is committed, with the rows of the
+     * chunk that were rejected and the totals so far; rejected rows do not stop the import.
+     *
+     * @param entity the entities in the file, {@code rooms} or {@code residents}.
+     * @param file the CSV file.
+     * @param response the response, written chunk by chunk.
+     * @throws IOException if the file cannot be read, or the response written.
+     * @throws org.jhipster.facility.service.InvalidCsvException if the entity cannot be imported or the header of the file lacks a
+     * required column, answered with status {@code 400 (Bad Request)} before any row is imported.
+     */
+    @PostMapping(value = "/import/{entity}", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public void importCsv(@PathVariable String entity, @RequestPart("file") MultipartFile file, HttpServletResponse response)
+        throws IOException {
+        log.debug("REST request to import {} from CSV file : {}", entity, file.getOriginalFilename());
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(file.getInputStream(), StandardCharsets.UTF_8))) {
+            CsvImportService.Header header = csvImportService.readHeader(entity, reader);
+            response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+            response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+            OutputStream out = response.getOutputStream();
+            csvImportService.importRows(
+                header,
+                reader,
+                progress -> {
+                    try {
+                        out.write(objectMapper.writeValueAsBytes(progress));
+                        out.write('\n');
+                        out.flush();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }
+            );
+        }
+    }
+}
@@ -4,7 +4,9 @@ import static org.elasticsearch.index.query.QueryBuilders.*;
 
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -12,14 +14,22 @@ import java.util.stream.StreamSupport;
 import javax.validation.Valid;
 import javax.validation.constraints.NotNull;
 import org.jhipster.facility.domain.Facility;
+import org.jhipster.facility.domain.FacilityOccupancySummary;
+import org.jhipster.facility.domain.enumeration.SearchDocumentType;
+import org.jhipster.facility.repository.FacilityOccupancySummaryRepository;
 import org.jhipster.facility.repository.FacilityRepository;
 import org.jhipster.facility.repository.search.FacilitySearchRepository;
+import org.jhipster.facility.repository.search.SearchAfterPage;
+import org.jhipster.facility.service.occupancy.ApproximateCountService;
+import org.jhipster.facility.service.occupancy.FacilitySummaryService;
+import org.jhipster.facility.service.search.SearchIndexOutbox;
 import org.jhipster.facility.web.rest.errors.BadRequestAlertException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -49,9 +59,28 @@ public class FacilityResource {
 
     private final FacilitySearchRepository facilitySearchRepository;
 
-    public FacilityResource(FacilityRepository facilityRepository, FacilitySearchRepository facilitySearchRepository) {
+    private final SearchIndexOutbox searchIndexOutbox;
+
+    private final FacilityOccupancySummaryRepository facilityOccupancySummaryRepository;
+
+    private final FacilitySummaryService facilitySummaryService;
+
+    private final ApproximateCountService approximateCountService;
+
+    public FacilityResource(
+        FacilityRepository facilityRepository,
+        FacilitySearchRepository facilitySearchRepository,
+        SearchIndexOutbox searchIndexOutbox,
+        FacilityOccupancySummaryRepository facilityOccupancySummaryRepository,
+        FacilitySummaryService facilitySummaryService,
+        ApproximateCountService approximateCountService
+    ) {
         this.facilityRepository = facilityRepository;
         this.facilitySearchRepository = facilitySearchRepository;
+        this.searchIndexOutbox = searchIndexOutbox;
+        this.facilityOccupancySummaryRepository = facilityOccupancySummaryRepository;
+        this.facilitySummaryService = facilitySummaryService;
+        this.approximateCountService = approximateCountService;
     }
 
     /**
@@ -68,7 +97,8 @@ public class FacilityResource {
             throw new BadRequestAlertException("A new facility cannot already have an ID", ENTITY_NAME, "idexists");
         }
         Facility result = facilityRepository.save(facility);
-        facilitySearchRepository.save(result);
+        searchIndexOutbox.enqueue(SearchDocumentType.FACILITY, result.getId());
+        facilitySummaryService.facilityCreated(result.getId());
         return ResponseEntity
             .created(new URI("/api/facilities/" + result.getId()))
             .headers(HeaderUtil.createEntityCreationAlert(applicationName, false, ENTITY_NAME, result.getId().toString()))
@@ -103,7 +133,7 @@ public class FacilityResource {
         }
 
         Facility result = facilityRepository.save(facility);
-        facilitySearchRepository.save(result);
+        searchIndexOutbox.enqueue(SearchDocumentType.FACILITY, result.getId());
         return ResponseEntity
             .ok()
             .headers(HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, facility.getId().toString()))
@@ -111,11 +141,15 @@ public class FacilityResource {
     }
 
     /**
-     * {@code PATCH  /facilities/:id} : Partial updates given fields of an existing facility, field will ignore if it is null
+     * {@code PATCH  /facilities/:id} : Partial updates given fields of an existing facility, field will ignore if it is null.
+     * The facility is read from the second-level cache, updated by a single statement and only read back if the client does
+     * not prefer {@code return=minimal}, see {@link PreferHeaderUtil}.
      *
      * @param id the id of the facility to save.
      * @param facility the facility to update.
+     * @param prefer the {@code Prefer} header of the request.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated facility,
+     * or with status {@code 204 (No Content)} if the client prefers {@code return=minimal},
      * or with status {@code 400 (Bad Request)} if the facility is not valid,
      * or with status {@code 404 (Not Found)} if the facility is not found,
      * or with status {@code 500 (Internal Server Error)} if the facility couldn't be updated.
@@ -124,7 +158,8 @@ public class FacilityResource {
     @PatchMapping(value = "/facilities/{id}", consumes = { "application/json", "application/merge-patch+json" })
     public ResponseEntity<Facility> partialUpdateFacility(
         @PathVariable(value = "id", required = false) final Long id,
-        @NotNull @RequestBody Facility facility
+        @NotNull @RequestBody Facility facility,
+        @RequestHeader(value = PreferHeaderUtil.PREFER_HEADER, required = false) String prefer
     ) throws URISyntaxException {
         log.debug("REST request to partial update Facility partially : {}, {}", id, facility);
         if (facility.getId() == null) {
@@ -134,28 +169,20 @@ public class FacilityResource {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
-        if (!facilityRepository.existsById(id)) {
+        Map<String, Object> attributes = new LinkedHashMap<>();
+        if (facility.getFacility_name() != null) {
+            attributes.put("facility_name", facility.getFacility_name());
+        }
+        if (!facilityRepository.partialUpdate(id, attributes)) {
             throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
         }
+        if (!attributes.isEmpty()) {
+            searchIndexOutbox.enqueue(SearchDocumentType.FACILITY, id);
+        }
 
-        Optional<Facility> result = facilityRepository
-            .findById(facility.getId())
-            .map(existingFacility -> {
-                if (facility.getFacility_name() != null) {
-                    existingFacility.setFacility_name(facility.getFacility_name());
-                }
-
-                return existingFacility;
-            })
-            .map(facilityRepository::save)
-            .map(savedFacility -> {
-                facilitySearchRepository.save(savedFacility);
-
-                return savedFacility;
-            });
-
-        return ResponseUtil.wrapOrNotFound(
-            result,
+        return PreferHeaderUtil.respond(
+            prefer,
+            () -> facilityRepository.findById(id),
             HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, facility.getId().toString())
         );
     }
@@ -164,16 +191,49 @@ public class FacilityResource {
      * {@code GET  /facilities} : get all the facilities.
      *
      * @param pageable the pagination information.
+     * @param count {@code false} to skip counting the facilities, see {@link SlicePaginationUtil}.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of facilities in body.
      */
     @GetMapping("/facilities")
-    public ResponseEntity<List<Facility>> getAllFacilities(@org.springdoc.api.annotations.ParameterObject Pageable pageable) {
+    @Transactional(readOnly = true)
+    public ResponseEntity<List<Facility>> getAllFacilities(
+        @org.springdoc.api.annotations.ParameterObject Pageable pageable,
+        @RequestParam(required = false, defaultValue = "true") boolean count
+    ) {
+        if (!count) {
+            log.debug("REST request to get a slice of Facilities");
+            Slice<Facility> slice = facilityRepository.findSlice(pageable);
+            HttpHeaders headers = SlicePaginationUtil.generateSliceHttpHeaders(
+                ServletUriComponentsBuilder.fromCurrentRequest(),
+                slice,
+                approximateCountService.countFacilities()
+            );
+            return ResponseEntity.ok().headers(headers).body(slice.getContent());
+        }
         log.debug("REST request to get a page of Facilities");
         Page<Facility> page = facilityRepository.findAll(pageable);
         HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
         return ResponseEntity.ok().headers(headers).body(page.getContent());
     }
 
+    /**
+     * {@code GET  /facilities/summary} : get the occupancy summaries of all the facilities, read from the precomputed
+     * summary table.
+     *
+     * @param pageable the pagination information.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of summaries in body.
+     */
+    @GetMapping("/facilities/summary")
+    @Transactional(readOnly = true)
+    public ResponseEntity<List<FacilityOccupancySummary>> getAllFacilitySummaries(
+        @org.springdoc.api.annotations.ParameterObject Pageable pageable
+    ) {
+        log.debug("REST request to get a page of Facility occupancy summaries");
+        Page<FacilityOccupancySummary> page = facilityOccupancySummaryRepository.findAllWithFacility(pageable);
+        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        return ResponseEntity.ok().headers(headers).body(page.getContent());
+    }
+
     /**
      * {@code GET  /facilities/:id} : get the "id" facility.
      *
@@ -181,6 +241,7 @@ public class FacilityResource {
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the facility, or with status {@code 404 (Not Found)}.
      */
     @GetMapping("/facilities/{id}")
+    @Transactional(readOnly = true)
     public ResponseEntity<Facility> getFacility(@PathVariable Long id) {
         log.debug("REST request to get Facility : {}", id);
         Optional<Facility> facility = facilityRepository.findById(id);
@@ -196,8 +257,9 @@ public class FacilityResource {
     @DeleteMapping("/facilities/{id}")
     public ResponseEntity<Void> deleteFacility(@PathVariable Long id) {
         log.debug("REST request to delete Facility : {}", id);
+        facilitySummaryService.facilityDeleted(id);
         facilityRepository.deleteById(id);
-        facilitySearchRepository.deleteById(id);
+        searchIndexOutbox.enqueue(SearchDocumentType.FACILITY, id);
         return ResponseEntity
             .noContent()
             .headers(HeaderUtil.createEntityDeletionAlert(applicationName, false, ENTITY_NAME, id.toString()))
@@ -210,13 +272,28 @@ public class FacilityResource {
      *
      * @param query the query of the facility search.
      * @param pageable the pagination information.
-     * @return the result of the search.
+     * @param after the cursor of the page to get, right after the hits of the previous page, see
+     * {@link SearchAfterPaginationUtil}.
+     * @return the result of the search, or with status {@code 400 (Bad Request)} if the cursor is not valid.
      */
     @GetMapping("/_search/facilities")
+    @Transactional(readOnly = true)
     public ResponseEntity<List<Facility>> searchFacilities(
         @RequestParam String query,
-        @org.springdoc.api.annotations.ParameterObject Pageable pageable
+        @org.springdoc.api.annotations.ParameterObject Pageable pageable,
+        @RequestParam(required = false) String after
     ) {
+        if (after != null) {
+            log.debug("REST request to search for a page of Facilities for query {} after : {}", query, after);
+            List<Object> searchAfter = SearchAfterPaginationUtil.decodeCursor(after, pageable.getSort(), ENTITY_NAME);
+            SearchAfterPage<Facility> page = facilitySearchRepository.searchAfter(query, searchAfter, pageable);
+            HttpHeaders headers = SearchAfterPaginationUtil.generateSearchAfterHttpHeaders(
+                ServletUriComponentsBuilder.fromCurrentRequest(),
+                pageable,
+                page
+            );
+            return ResponseEntity.ok().headers(headers).body(page.getContent());
+        }
         log.debug("REST request to search for a page of Facilities for query {}", query);
         Page<Facility> page = facilitySearchRepository.search(query, pageable);
         HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
@@ -0,0 +1,92 @@
+package org.jhipster.facility.web.rest;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+import org.jhipster.facility.web.rest.errors.BadRequestAlertException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.util.UriComponentsBuilder;
+
+/**
+ * Utility class for keyset pagination, where a page is requested with {@code ?after=<cursor>&size=} instead of a page
+ * number.
+ * <p>
+ * The cursor is an opaque token naming the last entity of the previous page; an empty cursor asks for the first page.
+ * Each page is read in id order starting right after the cursor, so it costs the same at any depth, and no total count
+ * is computed: the response carries the cursor of the next page in the {@value #NEXT_CURSOR_HEADER} header and a
+ * {@code next} link, both absent on the last page.
+ */
+public final class KeysetPaginationUtil {
+
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    private KeysetPaginationUtil() {}
+
+    /**
+     * Read the id a cursor stands for.
+     *
+     * @param cursor the cursor sent by the client, empty for the first page.
+     * @param entityName the name of the entity being listed, for the error.
+     * @return the id after which the page starts.
+     * @throws BadRequestAlertException if the cursor was not issued by {@link #generateKeysetHttpHeaders}.
+     */
+    public static long decodeCursor(String cursor, String entityName) {
+        if (cursor.isEmpty()) {
+            return 0L;
+        }
+        try {
+            return Long.parseLong(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.US_ASCII));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestAlertException("Invalid cursor", entityName, "invalidcursor");
+        }
+    }
+
+    /**
+     * Build the request reading one entity more than a page, which tells whether a next page exists.
+     *
+     * @param pageable the pagination information, of which only the size is used.
+     * @return the request to pass to the seek query.
+     */
+    public static Pageable lookAhead(Pageable pageable) {
+        return PageRequest.of(0, pageable.getPageSize() + 1);
+    }
+
+    /**
+     * Trim the entities read with {@link #lookAhead} to the page, and generate the headers pointing to the next page.
+     *
+     * @param uriBuilder the builder of the current request URI.
+     * @param pageable the pagination information.
+     * @param entities the entities read with {@link #lookAhead}, trimmed in place.
+     * @param idOf the function giving the id of an entity.
+     * @param <T> the type of the entities.
+     * @return the headers.
+     */
+    public static <T> HttpHeaders generateKeysetHttpHeaders(
+        UriComponentsBuilder uriBuilder,
+        Pageable pageable,
+        List<T> entities,
+        Function<T, Long> idOf
+    ) {
+        HttpHeaders headers = new HttpHeaders();
+        if (entities.size() <= pageable.getPageSize()) {
+            return headers;
+        }
+        entities.subList(pageable.getPageSize(), entities.size()).clear();
+        String nextCursor = Base64
+            .getUrlEncoder()
+            .withoutPadding()
+            .encodeToString(String.valueOf(idOf.apply(entities.get(entities.size() - 1))).getBytes(StandardCharsets.US_ASCII));
+        headers.add(NEXT_CURSOR_HEADER, nextCursor);
+        String link = uriBuilder
+            .replaceQueryParam("after", nextCursor)
+            .replaceQueryParam("size", pageable.getPageSize())
+            .toUriString()
+            .replace(",", "%2C")
+            .replace(";", "%3B");
+        headers.add(HttpHeaders.LINK, "<" + link + ">; rel=\"next\"");
+        return headers;
+    }
+}
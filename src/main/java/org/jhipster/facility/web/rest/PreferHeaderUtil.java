@@ -0,0 +1,60 @@
+package org.jhipster.facility.web.rest;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.function.Supplier;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import tech.jhipster.web.util.ResponseUtil;
+
+/**
+ * Utility class for the {@value #PREFER_HEADER} request header of RFC 7240.
+ * <p>
+ * Writes answer with the written entity unless the client sends {@code Prefer: return=minimal}, in which case they
+ * answer {@code 204 (No Content)} with a {@value #PREFERENCE_APPLIED_HEADER} header, sparing reading the entity back.
+ */
+public final class PreferHeaderUtil {
+
+    public static final String PREFER_HEADER = "Prefer";
+
+    public static final String PREFERENCE_APPLIED_HEADER = "Preference-Applied";
+
+    public static final String RETURN_MINIMAL = "return=minimal";
+
+    private PreferHeaderUtil() {}
+
+    /**
+     * @param prefer the value of the {@value #PREFER_HEADER} header, may be {@code null}.
+     * @return whether the client prefers a response without the written entity.
+     */
+    public static boolean isReturnMinimal(String prefer) {
+        return (
+            prefer != null &&
+            Arrays
+                .stream(prefer.split(","))
+                .map(preference -> preference.split(";")[0].replace(" ", "").toLowerCase(Locale.ROOT))
+                .anyMatch(RETURN_MINIMAL::equals)
+        );
+    }
+
+    /**
+     * Answer a write: {@code 204 (No Content)} if the client prefers {@code return=minimal}, otherwise {@code 200 (OK)}
+     * with body the entity read back, or {@code 404 (Not Found)} if it is gone.
+     *
+     * @param prefer the value of the {@value #PREFER_HEADER} header, may be {@code null}.
+     * @param readBack reads the written entity, only called when the client wants it.
+     * @param headers the headers of the response.
+     * @param <X> the type of the entity.
+     * @return the response.
+     */
+    public static <X> ResponseEntity<X> respond(String prefer, Supplier<Optional<X>> readBack, HttpHeaders headers) {
+        if (isReturnMinimal(prefer)) {
+            HttpHeaders minimalHeaders = new HttpHeaders();
+            minimalHeaders.addAll(headers);
+            minimalHeaders.add(PREFERENCE_APPLIED_HEADER, RETURN_MINIMAL);
+            return ResponseEntity.noContent().headers(minimalHeaders).build();
+        }
+        return ResponseUtil.wrapOrNotFound(readBack.get(), headers);
+    }
+}
@@ -0,0 +1,72 @@
+package org.jhipster.facility.web.rest;
+
+import java.util.Locale;
+import java.util.stream.Stream;
+import org.jhipster.facility.repository.FacilityRepository;
+import org.jhipster.facility.service.exporter.ResidentExportService;
+import org.jhipster.facility.web.rest.errors.BadRequestAlertException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+/**
+ * REST controller for exporting the {@link org.jhipster.facility.domain.Resident residents} of a
+ * {@link org.jhipster.facility.domain.Facility}.
+ */
+@RestController
+@RequestMapping("/api")
+public class ResidentExportResource {
+
+    private final Logger log = LoggerFactory.getLogger(ResidentExportResource.class);
+
+    private final FacilityRepository facilityRepository;
+
+    private final ResidentExportService residentExportService;
+
+    public ResidentExportResource(FacilityRepository facilityRepository, ResidentExportService residentExportService) {
+        this.facilityRepository = facilityRepository;
+        this.residentExportService = residentExportService;
+    }
+
+    /**
+     * {@code GET  /facilities/:id/residents/export} : export all the residents of a facility, in id order.
+     * <p>
+     * The residents are written to the response as they are read, once the request thread has returned, so the export
+     * holds neither the residents nor the response in memory.
+     *
+     * @param id the id of the facility.
+     * @param format {@code ndjson} for one JSON resident per line, or {@code csv} for the semicolon separated format of
+     * the CSV import.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the residents streamed in body,
+     * or with status {@code 400 (Bad Request)} if the format is unknown or the facility does not exist.
+     */
+    @GetMapping("/facilities/{id}/residents/export")
+    public ResponseEntity<StreamingResponseBody> exportFacilityResidents(
+        @PathVariable Long id,
+        @RequestParam(required = false, defaultValue = "ndjson") String format
+    ) {
+        log.debug("REST request to export the residents of Facility : {} as {}", id, format);
+        ResidentExportService.Format exportFormat = Stream
+            .of(ResidentExportService.Format.values())
+            .filter(candidate -> candidate.getExtension().equals(format.toLowerCase(Locale.ROOT)))
+            .findFirst()
+            .orElseThrow(() -> new BadRequestAlertException("Unknown export format", "resident", "formatinvalid"));
+        if (!facilityRepository.existsById(id)) {
+            throw new BadRequestAlertException("Entity not found", "facility", "idnotfound");
+        }
+        StreamingResponseBody body = out -> residentExportService.exportFacility(id, exportFormat, out);
+        return ResponseEntity
+            .ok()
+            .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+            .header(
+                HttpHeaders.CONTENT_DISPOSITION,
+                ContentDisposition.attachment().filename("residents-" + id + "." + exportFormat.getExtension()).build().toString()
+            )
+            .body(body);
+    }
+}
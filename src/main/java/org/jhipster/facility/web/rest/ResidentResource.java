@@ -4,7 +4,10 @@ import static org.elasticsearch.index.query.QueryBuilders.*;
 
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -12,17 +15,31 @@ import java.util.stream.StreamSupport;
 import javax.validation.Valid;
 import javax.validation.constraints.NotNull;
 import org.jhipster.facility.domain.Resident;
+import org.jhipster.facility.domain.enumeration.SearchDocumentType;
 import org.jhipster.facility.repository.ResidentRepository;
+import org.jhipster.facility.repository.RoomRepository;
 import org.jhipster.facility.repository.search.ResidentSearchRepository;
+import org.jhipster.facility.repository.search.SearchAfterPage;
+import org.jhipster.facility.service.assignment.AssignmentCoordinator;
+import org.jhipster.facility.service.booking.BookingService;
+import org.jhipster.facility.service.history.AssignmentHistoryService;
+import org.jhipster.facility.service.occupancy.ApproximateCountService;
+import org.jhipster.facility.service.occupancy.BedService;
+import org.jhipster.facility.service.occupancy.FacilitySummaryService;
+import org.jhipster.facility.service.occupancy.OccupancyIndex;
+import org.jhipster.facility.service.search.SearchIndexOutbox;
+import org.jhipster.facility.service.waitlist.WaitlistService;
 import org.jhipster.facility.web.rest.errors.BadRequestAlertException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
@@ -49,26 +66,82 @@ public class ResidentResource {
 
     private final ResidentSearchRepository residentSearchRepository;
 
-    public ResidentResource(ResidentRepository residentRepository, ResidentSearchRepository residentSearchRepository) {
+    private final SearchIndexOutbox searchIndexOutbox;
+
+    private final RoomRepository roomRepository;
+
+    private final OccupancyIndex occupancyIndex;
+
+    private final AssignmentCoordinator assignmentCoordinator;
+
+    private final WaitlistService waitlistService;
+
+    private final AssignmentHistoryService assignmentHistoryService;
+
+    private final BookingService bookingService;
+
+    private final BedService bedService;
+
+    private final FacilitySummaryService facilitySummaryService;
+
+    private final ApproximateCountService approximateCountService;
+
+    public ResidentResource(
+        ResidentRepository residentRepository,
+        ResidentSearchRepository residentSearchRepository,
+        SearchIndexOutbox searchIndexOutbox,
+        RoomRepository roomRepository,
+        OccupancyIndex occupancyIndex,
+        AssignmentCoordinator assignmentCoordinator,
+        WaitlistService waitlistService,
+        AssignmentHistoryService assignmentHistoryService,
+        BookingService bookingService,
+        BedService bedService,
+        FacilitySummaryService facilitySummaryService,
+        ApproximateCountService approximateCountService
+    ) {
         this.residentRepository = residentRepository;
         this.residentSearchRepository = residentSearchRepository;
+        this.searchIndexOutbox = searchIndexOutbox;
+        this.roomRepository = roomRepository;
+        this.occupancyIndex = occupancyIndex;
+        this.assignmentCoordinator = assignmentCoordinator;
+        this.waitlistService = waitlistService;
+        this.assignmentHistoryService = assignmentHistoryService;
+        this.bookingService = bookingService;
+        this.bedService = bedService;
+        this.facilitySummaryService = facilitySummaryService;
+        this.approximateCountService = approximateCountService;
     }
 
     /**
      * {@code POST  /residents} : Create a new resident.
      *
      * @param resident the resident to create.
-     * @return the {@link ResponseEntity} with status {@code 201 (Created)} and with body the new resident, or with status {@code 400 (Bad Request)} if the resident has already an ID.
+     * @return the {@link ResponseEntity} with status {@code 201 (Created)} and with body the new resident, or with status {@code 400 (Bad Request)} if the resident has already an ID or its room is full.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PostMapping("/residents")
+    @Transactional(propagation = Propagation.SUPPORTS)
     public ResponseEntity<Resident> createResident(@Valid @RequestBody Resident resident) throws URISyntaxException {
         log.debug("REST request to save Resident : {}", resident);
         if (resident.getId() != null) {
             throw new BadRequestAlertException("A new resident cannot already have an ID", ENTITY_NAME, "idexists");
         }
-        Resident result = residentRepository.save(resident);
-        residentSearchRepository.save(result);
+        Long roomId = resident.getRoom().getId();
+        Resident result = assignmentCoordinator.assign(
+            Arrays.asList(roomId),
+            () -> {
+                occupyRoom(roomId);
+                facilitySummaryService.occupantsChanged(roomId, 1);
+                Resident savedResident = residentRepository.save(resident);
+                searchIndexOutbox.enqueue(SearchDocumentType.RESIDENT, savedResident.getId());
+                occupancyIndex.residentMoved(null, roomId);
+                bedService.claim(savedResident.getId(), roomId);
+                assignmentHistoryService.record(savedResident.getId(), null, roomId);
+                return savedResident;
+            }
+        );
         return ResponseEntity
             .created(new URI("/api/residents/" + result.getId()))
             .headers(HeaderUtil.createEntityCreationAlert(applicationName, false, ENTITY_NAME, result.getId().toString()))
@@ -81,11 +154,13 @@ public class ResidentResource {
      * @param id the id of the resident to save.
      * @param resident the resident to update.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated resident,
-     * or with status {@code 400 (Bad Request)} if the resident is not valid,
+     * or with status {@code 400 (Bad Request)} if the resident is not valid or its new room is full,
+     * or with status {@code 409 (Conflict)} if the resident was changed concurrently,
      * or with status {@code 500 (Internal Server Error)} if the resident couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PutMapping("/residents/{id}")
+    @Transactional(propagation = Propagation.SUPPORTS)
     public ResponseEntity<Resident> updateResident(
         @PathVariable(value = "id", required = false) final Long id,
         @Valid @RequestBody Resident resident
@@ -98,12 +173,41 @@ public class ResidentResource {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
-        if (!residentRepository.existsById(id)) {
+        Optional<Long> currentRoomId = residentRepository.findRoomIdById(id);
+        if (currentRoomId.isEmpty()) {
             throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
         }
 
-        Resident result = residentRepository.save(resident);
-        residentSearchRepository.save(result);
+        // Without a version from the client, the last write wins; with one, a stale resident is rejected.
+        boolean versioned = resident.getVersion() != null;
+        Long roomId = resident.getRoom().getId();
+        Resident result = assignmentCoordinator.assign(
+            Arrays.asList(currentRoomId.get(), roomId),
+            () -> {
+                Resident existingResident = residentRepository
+                    .findById(id)
+                    .orElseThrow(() -> new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"));
+                Long previousRoomId = existingResident.getRoom().getId();
+                if (!versioned) {
+                    resident.setVersion(existingResident.getVersion());
+                }
+                if (!previousRoomId.equals(roomId)) {
+                    occupyRoom(roomId);
+                    roomRepository.decrementOccupantCount(previousRoomId, 1);
+                    facilitySummaryService.occupantsChanged(roomId, 1);
+                    facilitySummaryService.occupantsChanged(previousRoomId, -1);
+                }
+                Resident savedResident = residentRepository.save(resident);
+                searchIndexOutbox.enqueue(SearchDocumentType.RESIDENT, savedResident.getId());
+                occupancyIndex.residentMoved(previousRoomId, roomId);
+                bedService.residentMoved(id, previousRoomId, roomId);
+                assignmentHistoryService.record(id, previousRoomId, roomId);
+                if (!previousRoomId.equals(roomId)) {
+                    waitlistService.roomFreed(previousRoomId);
+                }
+                return savedResident;
+            }
+        );
         return ResponseEntity
             .ok()
             .headers(HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, resident.getId().toString()))
@@ -111,20 +215,26 @@ public class ResidentResource {
     }
 
     /**
-     * {@code PATCH  /residents/:id} : Partial updates given fields of an existing resident, field will ignore if it is null
+     * {@code PATCH  /residents/:id} : Partial updates given fields of an existing resident, field will ignore if it is null.
+     * A resident sent with a version is only updated at that version. The resident is updated by a single statement and
+     * only read back if the client does not prefer {@code return=minimal}, see {@link PreferHeaderUtil}.
      *
      * @param id the id of the resident to save.
      * @param resident the resident to update.
+     * @param prefer the {@code Prefer} header of the request.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated resident,
+     * or with status {@code 204 (No Content)} if the client prefers {@code return=minimal},
      * or with status {@code 400 (Bad Request)} if the resident is not valid,
      * or with status {@code 404 (Not Found)} if the resident is not found,
+     * or with status {@code 409 (Conflict)} if the resident was changed since the given version,
      * or with status {@code 500 (Internal Server Error)} if the resident couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PatchMapping(value = "/residents/{id}", consumes = { "application/json", "application/merge-patch+json" })
     public ResponseEntity<Resident> partialUpdateResident(
         @PathVariable(value = "id", required = false) final Long id,
-        @NotNull @RequestBody Resident resident
+        @NotNull @RequestBody Resident resident,
+        @RequestHeader(value = PreferHeaderUtil.PREFER_HEADER, required = false) String prefer
     ) throws URISyntaxException {
         log.debug("REST request to partial update Resident partially : {}, {}", id, resident);
         if (resident.getId() == null) {
@@ -134,34 +244,26 @@ public class ResidentResource {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
-        if (!residentRepository.existsById(id)) {
+        Map<String, Object> attributes = new LinkedHashMap<>();
+        if (resident.getName() != null) {
+            attributes.put("name", resident.getName());
+        }
+        if (resident.getPhone_number() != null) {
+            attributes.put("phone_number", resident.getPhone_number());
+        }
+        if (resident.getEmail() != null) {
+            attributes.put("email", resident.getEmail());
+        }
+        if (!residentRepository.partialUpdate(id, resident.getVersion(), attributes)) {
             throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
         }
+        if (!attributes.isEmpty()) {
+            searchIndexOutbox.enqueue(SearchDocumentType.RESIDENT, id);
+        }
 
-        Optional<Resident> result = residentRepository
-            .findById(resident.getId())
-            .map(existingResident -> {
-                if (resident.getName() != null) {
-                    existingResident.setName(resident.getName());
-                }
-                if (resident.getPhone_number() != null) {
-                    existingResident.setPhone_number(resident.getPhone_number());
-                }
-                if (resident.getEmail() != null) {
-                    existingResident.setEmail(resident.getEmail());
-                }
-
-                return existingResident;
-            })
-            .map(residentRepository::save)
-            .map(savedResident -> {
-                residentSearchRepository.save(savedResident);
-
-                return savedResident;
-            });
-
-        return ResponseUtil.wrapOrNotFound(
-            result,
+        return PreferHeaderUtil.respond(
+            prefer,
+            () -> residentRepository.findById(id),
             HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, resident.getId().toString())
         );
     }
@@ -171,13 +273,46 @@ public class ResidentResource {
      *
      * @param pageable the pagination information.
      * @param eagerload flag to eager load entities from relationships (This is applicable for many-to-many).
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of residents in body.
+     * @param after the cursor of the page to get, in id order and without total count, see {@link KeysetPaginationUtil}.
+     * @param count {@code false} to skip counting the residents, see {@link SlicePaginationUtil}.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of residents in body,
+     * or with status {@code 400 (Bad Request)} if the cursor is not valid.
      */
     @GetMapping("/residents")
+    @Transactional(readOnly = true)
     public ResponseEntity<List<Resident>> getAllResidents(
         @org.springdoc.api.annotations.ParameterObject Pageable pageable,
-        @RequestParam(required = false, defaultValue = "true") boolean eagerload
+        @RequestParam(required = false, defaultValue = "true") boolean eagerload,
+        @RequestParam(required = false) String after,
+        @RequestParam(required = false, defaultValue = "true") boolean count
     ) {
+        if (after != null) {
+            log.debug("REST request to get a page of Residents after : {}", after);
+            long afterId = KeysetPaginationUtil.decodeCursor(after, ENTITY_NAME);
+            Pageable lookAhead = KeysetPaginationUtil.lookAhead(pageable);
+            List<Resident> residents = eagerload
+                ? residentRepository.findAllWithToOneRelationshipsAfter(afterId, lookAhead)
+                : residentRepository.findAllAfter(afterId, lookAhead);
+            HttpHeaders headers = KeysetPaginationUtil.generateKeysetHttpHeaders(
+                ServletUriComponentsBuilder.fromCurrentRequest(),
+                pageable,
+                residents,
+                Resident::getId
+            );
+            return ResponseEntity.ok().headers(headers).body(residents);
+        }
+        if (!count) {
+            log.debug("REST request to get a slice of Residents");
+            Slice<Resident> slice = eagerload
+                ? residentRepository.findSliceWithToOneRelationships(pageable)
+                : residentRepository.findSlice(pageable);
+            HttpHeaders headers = SlicePaginationUtil.generateSliceHttpHeaders(
+                ServletUriComponentsBuilder.fromCurrentRequest(),
+                slice,
+                approximateCountService.countResidents()
+            );
+            return ResponseEntity.ok().headers(headers).body(slice.getContent());
+        }
         log.debug("REST request to get a page of Residents");
         Page<Resident> page;
         if (eagerload) {
@@ -193,13 +328,41 @@ public class ResidentResource {
      * {@code GET  /residents} : get all the residents.
      *
      * @param pageable the pagination information.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of residents in body.
+     * @param after the cursor of the page to get, in id order and without total count, see {@link KeysetPaginationUtil}.
+     * @param count {@code false} to skip counting the residents, see {@link SlicePaginationUtil}.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of residents in body,
+     * or with status {@code 400 (Bad Request)} if the cursor is not valid.
      */
     @GetMapping("/room/residents/{room_id}")
+    @Transactional(readOnly = true)
     public ResponseEntity<List<Resident>> getAllResidentsWithRoomId(
         @org.springdoc.api.annotations.ParameterObject Pageable pageable,
-        @PathVariable Long room_id
+        @PathVariable Long room_id,
+        @RequestParam(required = false) String after,
+        @RequestParam(required = false, defaultValue = "true") boolean count
     ) {
+        if (after != null) {
+            log.debug("REST request to get Resident with room id: {} after : {}", room_id, after);
+            long afterId = KeysetPaginationUtil.decodeCursor(after, ENTITY_NAME);
+            List<Resident> residents = residentRepository.findWithRoomIdAfter(room_id, afterId, KeysetPaginationUtil.lookAhead(pageable));
+            HttpHeaders headers = KeysetPaginationUtil.generateKeysetHttpHeaders(
+                ServletUriComponentsBuilder.fromCurrentRequest(),
+                pageable,
+                residents,
+                Resident::getId
+            );
+            return ResponseEntity.ok().headers(headers).body(residents);
+        }
+        if (!count) {
+            log.debug("REST request to get a slice of Resident with room id: {}", room_id);
+            Slice<Resident> slice = residentRepository.findSliceWithRoomId(pageable, room_id);
+            HttpHeaders headers = SlicePaginationUtil.generateSliceHttpHeaders(
+                ServletUriComponentsBuilder.fromCurrentRequest(),
+                slice,
+                approximateCountService.countResidents(room_id)
+            );
+            return ResponseEntity.ok().headers(headers).body(slice.getContent());
+        }
         log.debug("REST request to get Resident with room id: {}", room_id);
         Page<Resident> page;
         page = residentRepository.findWithRoomId(pageable, room_id);
@@ -215,6 +378,7 @@ public class ResidentResource {
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the resident, or with status {@code 404 (Not Found)}.
      */
     @GetMapping("/residents/{id}")
+    @Transactional(readOnly = true)
     public ResponseEntity<Resident> getResident(@PathVariable Long id) {
         log.debug("REST request to get Resident : {}", id);
         Optional<Resident> resident = residentRepository.findOneWithEagerRelationships(id);
@@ -222,37 +386,81 @@ public class ResidentResource {
     }
 
     /**
-     * {@code DELETE  /residents/:id} : delete the "id" resident.
+     * {@code DELETE  /residents/:id} : delete the "id" resident, giving its place to the first resident waiting for the facility.
      *
      * @param id the id of the resident to delete.
      * @return the {@link ResponseEntity} with status {@code 204 (NO_CONTENT)}.
      */
     @DeleteMapping("/residents/{id}")
+    @Transactional(propagation = Propagation.SUPPORTS)
     public ResponseEntity<Void> deleteResident(@PathVariable Long id) {
         log.debug("REST request to delete Resident : {}", id);
-        residentRepository.deleteById(id);
-        residentSearchRepository.deleteById(id);
+        Optional<Long> currentRoomId = residentRepository.findRoomIdById(id);
+        assignmentCoordinator.assign(
+            Arrays.asList(currentRoomId.orElse(null)),
+            () -> {
+                Optional<Long> roomId = residentRepository.findRoomIdById(id);
+                bookingService.deleteByResident(id);
+                bedService.release(id);
+                residentRepository.deleteById(id);
+                searchIndexOutbox.enqueue(SearchDocumentType.RESIDENT, id);
+                roomId.ifPresent(previousRoomId -> {
+                    roomRepository.decrementOccupantCount(previousRoomId, 1);
+                    facilitySummaryService.occupantsChanged(previousRoomId, -1);
+                    occupancyIndex.residentMoved(previousRoomId, null);
+                    assignmentHistoryService.record(id, previousRoomId, null);
+                    waitlistService.roomFreed(previousRoomId);
+                });
+                return null;
+            }
+        );
         return ResponseEntity
             .noContent()
             .headers(HeaderUtil.createEntityDeletionAlert(applicationName, false, ENTITY_NAME, id.toString()))
             .build();
     }
 
+    /**
+     * Take one place in a room, locked while its occupants are counted, so that concurrent requests can never overfill it.
+     */
+    private void occupyRoom(Long roomId) {
+        if (roomRepository.incrementOccupantCount(roomId, 1) == 0) {
+            throw new BadRequestAlertException("Room is full", ENTITY_NAME, "roomfull");
+        }
+    }
+
     /**
      * {@code SEARCH  /_search/residents?query=:query} : search for the resident corresponding
      * to the query.
      *
      * @param query the query of the resident search.
+     * @param facility_id the id of the facility to search the residents of, all the facilities if absent.
      * @param pageable the pagination information.
-     * @return the result of the search.
+     * @param after the cursor of the page to get, right after the hits of the previous page, see
+     * {@link SearchAfterPaginationUtil}.
+     * @return the result of the search, or with status {@code 400 (Bad Request)} if the cursor is not valid.
      */
     @GetMapping("/_search/residents")
+    @Transactional(readOnly = true)
     public ResponseEntity<List<Resident>> searchResidents(
         @RequestParam String query,
-        @org.springdoc.api.annotations.ParameterObject Pageable pageable
+        @RequestParam(required = false) Long facility_id,
+        @org.springdoc.api.annotations.ParameterObject Pageable pageable,
+        @RequestParam(required = false) String after
     ) {
-        log.debug("REST request to search for a page of Residents for query {}", query);
-        Page<Resident> page = residentSearchRepository.search(query, pageable);
+        if (after != null) {
+            log.debug("REST request to search for a page of Residents for query {} in facility {} after : {}", query, facility_id, after);
+            List<Object> searchAfter = SearchAfterPaginationUtil.decodeCursor(after, pageable.getSort(), ENTITY_NAME);
+            SearchAfterPage<Resident> page = residentSearchRepository.searchAfter(query, facility_id, searchAfter, pageable);
+            HttpHeaders headers = SearchAfterPaginationUtil.generateSearchAfterHttpHeaders(
+                ServletUriComponentsBuilder.fromCurrentRequest(),
+                pageable,
+                page
+            );
+            return ResponseEntity.ok().headers(headers).body(page.getContent());
+        }
+        log.debug("REST request to search for a page of Residents for query {} in facility {}", query, facility_id);
+        Page<Resident> page = residentSearchRepository.search(query, facility_id, pageable);
         HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
         return ResponseEntity.ok().headers(headers).body(page.getContent());
     }
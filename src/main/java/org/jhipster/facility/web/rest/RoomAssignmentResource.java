@@ -0,0 +1,120 @@
+package org.jhipster.facility.web.rest;
+
+import javax.validation.Valid;
+import org.jhipster.facility.repository.FacilityRepository;
+import org.jhipster.facility.service.assignment.ResidentTransferService;
+import org.jhipster.facility.service.assignment.RoomAssignmentService;
+import org.jhipster.facility.service.dto.BatchAssignmentRequestDTO;
+import org.jhipster.facility.service.dto.BatchAssignmentResultDTO;
+import org.jhipster.facility.service.dto.FacilityFreeBedsDTO;
+import org.jhipster.facility.service.dto.FacilityVacanciesDTO;
+import org.jhipster.facility.service.dto.ResidentTransferRequestDTO;
+import org.jhipster.facility.service.dto.ResidentTransferResultDTO;
+import org.jhipster.facility.service.occupancy.BedIndex;
+import org.jhipster.facility.service.occupancy.OccupancyIndex;
+import org.jhipster.facility.web.rest.errors.BadRequestAlertException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * REST controller for assigning residents to the rooms of a {@link org.jhipster.facility.domain.Facility}.
+ */
+@RestController
+@RequestMapping("/api")
+public class RoomAssignmentResource {
+
+    private final Logger log = LoggerFactory.getLogger(RoomAssignmentResource.class);
+
+    private static final String ENTITY_NAME = "facility";
+
+    private static final int MAX_FREE_BEDS = 1000;
+
+    private final FacilityRepository facilityRepository;
+
+    private final RoomAssignmentService roomAssignmentService;
+
+    private final OccupancyIndex occupancyIndex;
+
+    private final ResidentTransferService residentTransferService;
+
+    private final BedIndex bedIndex;
+
+    public RoomAssignmentResource(
+        FacilityRepository facilityRepository,
+        RoomAssignmentService roomAssignmentService,
+        OccupancyIndex occupancyIndex,
+        ResidentTransferService residentTransferService,
+        BedIndex bedIndex
+    ) {
+        this.facilityRepository = facilityRepository;
+        this.roomAssignmentService = roomAssignmentService;
+        this.occupancyIndex = occupancyIndex;
+        this.residentTransferService = residentTransferService;
+        this.bedIndex = bedIndex;
+    }
+
+    /**
+     * {@code POST  /facilities/:id/assignments:batch} : Create a batch of residents, each in a vacant room of the facility.
+     *
+     * @param id the id of the facility to fill.
+     * @param request the residents to create, with their room preferences.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the assignments made and the solve and commit timings,
+     * or with status {@code 400 (Bad Request)} if the facility does not exist.
+     */
+    @PostMapping("/facilities/{id}/assignments:batch")
+    public ResponseEntity<BatchAssignmentResultDTO> assignBatch(
+        @PathVariable Long id,
+        @Valid @RequestBody BatchAssignmentRequestDTO request
+    ) {
+        log.debug("REST request to batch assign residents to Facility : {}, {}", id, request);
+        if (!facilityRepository.existsById(id)) {
+            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
+        }
+        return ResponseEntity.ok(roomAssignmentService.assignBatch(id, request.getResidents()));
+    }
+
+    /**
+     * {@code POST  /residents:transfer} : Move residents between rooms, all together or not at all.
+     *
+     * @param request the residents to move with their target rooms; swaps and cycles between full rooms are allowed.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the number of residents moved,
+     * or with status {@code 400 (Bad Request)} if a resident or room does not exist, or a room would be over capacity,
+     * or with status {@code 409 (Conflict)} if the residents kept changing concurrently.
+     */
+    @PostMapping("/residents:transfer")
+    public ResponseEntity<ResidentTransferResultDTO> transferResidents(@Valid @RequestBody ResidentTransferRequestDTO request) {
+        log.debug("REST request to transfer residents : {}", request);
+        return ResponseEntity.ok(residentTransferService.transfer(request.getMoves()));
+    }
+
+    /**
+     * {@code GET  /facilities/:id/vacancies} : get the vacant rooms of the facility, from the in-memory occupancy index.
+     *
+     * @param id the id of the facility.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the ids of the vacant rooms.
+     */
+    @GetMapping("/facilities/{id}/vacancies")
+    public ResponseEntity<FacilityVacanciesDTO> getVacancies(@PathVariable Long id) {
+        log.debug("REST request to get vacancies of Facility : {}", id);
+        return ResponseEntity.ok(new FacilityVacanciesDTO(id, occupancyIndex.countRooms(id), occupancyIndex.findVacantRoomIds(id)));
+    }
+
+    /**
+     * {@code GET  /facilities/:id/beds/free} : get the first free beds of the facility, room by room, from the in-memory bed index.
+     *
+     * @param id the id of the facility.
+     * @param limit the number of beds to list at most.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the number of free beds and the first of them,
+     * or with status {@code 400 (Bad Request)} if the limit is not between 1 and 1000.
+     */
+    @GetMapping("/facilities/{id}/beds/free")
+    public ResponseEntity<FacilityFreeBedsDTO> getFreeBeds(@PathVariable Long id, @RequestParam(defaultValue = "1") int limit) {
+        log.debug("REST request to get free beds of Facility : {}", id);
+        if (limit < 1 || limit > MAX_FREE_BEDS) {
+            throw new BadRequestAlertException("The limit must be between 1 and " + MAX_FREE_BEDS, ENTITY_NAME, "invalidlimit");
+        }
+        return ResponseEntity.ok(bedIndex.findFreeBeds(id, limit));
+    }
+}
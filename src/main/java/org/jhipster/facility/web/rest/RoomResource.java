@@ -4,7 +4,9 @@ import static org.elasticsearch.index.query.QueryBuilders.*;
 
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -12,17 +14,27 @@ import java.util.stream.StreamSupport;
 import javax.validation.Valid;
 import javax.validation.constraints.NotNull;
 import org.jhipster.facility.domain.Room;
+import org.jhipster.facility.domain.enumeration.SearchDocumentType;
 import org.jhipster.facility.repository.RoomRepository;
 import org.jhipster.facility.repository.search.RoomSearchRepository;
+import org.jhipster.facility.repository.search.SearchAfterPage;
+import org.jhipster.facility.service.booking.BookingService;
+import org.jhipster.facility.service.occupancy.ApproximateCountService;
+import org.jhipster.facility.service.occupancy.BedService;
+import org.jhipster.facility.service.occupancy.FacilitySummaryService;
+import org.jhipster.facility.service.occupancy.OccupancyIndex;
+import org.jhipster.facility.service.search.SearchIndexOutbox;
 import org.jhipster.facility.web.rest.errors.BadRequestAlertException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
@@ -49,16 +61,44 @@ public class RoomResource {
 
     private final RoomSearchRepository roomSearchRepository;
 
-    public RoomResource(RoomRepository roomRepository, RoomSearchRepository roomSearchRepository) {
+    private final SearchIndexOutbox searchIndexOutbox;
+
+    private final OccupancyIndex occupancyIndex;
+
+    private final BedService bedService;
+
+    private final FacilitySummaryService facilitySummaryService;
+
+    private final ApproximateCountService approximateCountService;
+
+    private final BookingService bookingService;
+
+    public RoomResource(
+        RoomRepository roomRepository,
+        RoomSearchRepository roomSearchRepository,
+        SearchIndexOutbox searchIndexOutbox,
+        OccupancyIndex occupancyIndex,
+        BedService bedService,
+        FacilitySummaryService facilitySummaryService,
+        ApproximateCountService approximateCountService,
+        BookingService bookingService
+    ) {
         this.roomRepository = roomRepository;
         this.roomSearchRepository = roomSearchRepository;
+        this.searchIndexOutbox = searchIndexOutbox;
+        this.occupancyIndex = occupancyIndex;
+        this.bedService = bedService;
+        this.facilitySummaryService = facilitySummaryService;
+        this.approximateCountService = approximateCountService;
+        this.bookingService = bookingService;
     }
 
     /**
      * {@code POST  /rooms} : Create a new room.
      *
      * @param room the room to create.
-     * @return the {@link ResponseEntity} with status {@code 201 (Created)} and with body the new room, or with status {@code 400 (Bad Request)} if the room has already an ID.
+     * @return the {@link ResponseEntity} with status {@code 201 (Created)} and with body the new room,
+     * or with status {@code 400 (Bad Request)} if the room has already an ID or its number is already used in the facility.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PostMapping("/rooms")
@@ -67,8 +107,12 @@ public class RoomResource {
         if (room.getId() != null) {
             throw new BadRequestAlertException("A new room cannot already have an ID", ENTITY_NAME, "idexists");
         }
+        checkRoomNumber(room.getFacility().getId(), room.getRoom_number(), null);
         Room result = roomRepository.save(room);
-        roomSearchRepository.save(result);
+        searchIndexOutbox.enqueue(SearchDocumentType.ROOM, result.getId());
+        occupancyIndex.roomSaved(result.getId(), result.getFacility().getId(), result.getCapacity());
+        bedService.roomSaved(result);
+        facilitySummaryService.roomSaved(null, null, result);
         return ResponseEntity
             .created(new URI("/api/rooms/" + result.getId()))
             .headers(HeaderUtil.createEntityCreationAlert(applicationName, false, ENTITY_NAME, result.getId().toString()))
@@ -76,12 +120,15 @@ public class RoomResource {
     }
 
     /**
-     * {@code PUT  /rooms/:id} : Updates an existing room.
+     * {@code PUT  /rooms/:id} : Updates an existing room. A room sent without capacity keeps its current capacity, and one sent
+     * without version overwrites concurrent changes.
      *
      * @param id the id of the room to save.
      * @param room the room to update.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated room,
-     * or with status {@code 400 (Bad Request)} if the room is not valid,
+     * or with status {@code 400 (Bad Request)} if the room is not valid, its number is already used in the facility or its capacity
+     * is below its occupant count,
+     * or with status {@code 409 (Conflict)} if the room was changed since the given version,
      * or with status {@code 500 (Internal Server Error)} if the room couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
@@ -96,12 +143,29 @@ public class RoomResource {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
-        if (!roomRepository.existsById(id)) {
+        // Locked until the end of the transaction, so that no occupant is added between the capacity check and the update
+        Optional<Room> existingRoom = roomRepository.findByIdForUpdate(id);
+        if (existingRoom.isEmpty()) {
             throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
         }
+        if (room.getCapacity() == null) {
+            room.setCapacity(existingRoom.get().getCapacity());
+        }
+        room.setOccupant_count(existingRoom.get().getOccupant_count());
+        if (room.getVersion() == null) {
+            room.setVersion(existingRoom.get().getVersion());
+        }
+        checkCapacity(room.getCapacity(), existingRoom.get());
+        checkRoomNumber(room.getFacility().getId(), room.getRoom_number(), existingRoom.get());
+        // Saving merges the room into the existing instance: read what it was before.
+        Long previousFacilityId = existingRoom.get().getFacility().getId();
+        Integer previousCapacity = existingRoom.get().getCapacity();
 
         Room result = roomRepository.save(room);
-        roomSearchRepository.save(result);
+        searchIndexOutbox.enqueue(SearchDocumentType.ROOM, result.getId());
+        occupancyIndex.roomSaved(result.getId(), result.getFacility().getId(), result.getCapacity());
+        bedService.roomSaved(result);
+        facilitySummaryService.roomSaved(previousFacilityId, previousCapacity, result);
         return ResponseEntity
             .ok()
             .headers(HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, room.getId().toString()))
@@ -109,20 +173,28 @@ public class RoomResource {
     }
 
     /**
-     * {@code PATCH  /rooms/:id} : Partial updates given fields of an existing room, field will ignore if it is null
+     * {@code PATCH  /rooms/:id} : Partial updates given fields of an existing room, field will ignore if it is null. A room
+     * sent with a version is only updated at that version. Unless resized, the room is read from the second-level cache,
+     * updated by a single statement and only read back if the client does not prefer {@code return=minimal}, see
+     * {@link PreferHeaderUtil}.
      *
      * @param id the id of the room to save.
      * @param room the room to update.
+     * @param prefer the {@code Prefer} header of the request.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated room,
-     * or with status {@code 400 (Bad Request)} if the room is not valid,
+     * or with status {@code 204 (No Content)} if the client prefers {@code return=minimal},
+     * or with status {@code 400 (Bad Request)} if the room is not valid, its number is already used in the facility or its capacity
+     * is below its occupant count,
      * or with status {@code 404 (Not Found)} if the room is not found,
+     * or with status {@code 409 (Conflict)} if the room was changed since the given version,
      * or with status {@code 500 (Internal Server Error)} if the room couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PatchMapping(value = "/rooms/{id}", consumes = { "application/json", "application/merge-patch+json" })
     public ResponseEntity<Room> partialUpdateRoom(
         @PathVariable(value = "id", required = false) final Long id,
-        @NotNull @RequestBody Room room
+        @NotNull @RequestBody Room room,
+        @RequestHeader(value = PreferHeaderUtil.PREFER_HEADER, required = false) String prefer
     ) throws URISyntaxException {
         log.debug("REST request to partial update Room partially : {}, {}", id, room);
         if (room.getId() == null) {
@@ -131,31 +203,61 @@ public class RoomResource {
         if (!Objects.equals(id, room.getId())) {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
+        HttpHeaders headers = HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, room.getId().toString());
+
+        if (room.getCapacity() == null) {
+            Map<String, Object> attributes = new LinkedHashMap<>();
+            if (room.getRoom_number() != null) {
+                Room existingRoom = roomRepository
+                    .findById(id)
+                    .orElseThrow(() -> new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"));
+                checkRoomNumber(existingRoom.getFacility().getId(), room.getRoom_number(), existingRoom);
+                attributes.put("room_number", room.getRoom_number());
+            }
+            if (!roomRepository.partialUpdate(id, room.getVersion(), attributes)) {
+                throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
+            }
+            if (!attributes.isEmpty()) {
+                searchIndexOutbox.enqueue(SearchDocumentType.ROOM, id);
+            }
+            return PreferHeaderUtil.respond(prefer, () -> roomRepository.findById(id), headers);
+        }
 
+        // Resizing moves the beds and updates the summary of the facility, which need the room as it was
         if (!roomRepository.existsById(id)) {
             throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
         }
 
+        // Locked until the end of the transaction, so that no occupant is added between the capacity check and the update
         Optional<Room> result = roomRepository
-            .findById(room.getId())
+            .findByIdForUpdate(room.getId())
             .map(existingRoom -> {
+                // The room is saved at the version it was read at, which must be the one given
+                if (room.getVersion() != null && !room.getVersion().equals(existingRoom.getVersion())) {
+                    throw new ObjectOptimisticLockingFailureException(Room.class, id);
+                }
                 if (room.getRoom_number() != null) {
+                    checkRoomNumber(existingRoom.getFacility().getId(), room.getRoom_number(), existingRoom);
                     existingRoom.setRoom_number(room.getRoom_number());
                 }
+                if (room.getCapacity() != null) {
+                    checkCapacity(room.getCapacity(), existingRoom);
+                    facilitySummaryService.roomResized(existingRoom.getFacility().getId(), room.getCapacity() - existingRoom.getCapacity());
+                    existingRoom.setCapacity(room.getCapacity());
+                }
 
                 return existingRoom;
             })
             .map(roomRepository::save)
             .map(savedRoom -> {
-                roomSearchRepository.save(savedRoom);
+                searchIndexOutbox.enqueue(SearchDocumentType.ROOM, savedRoom.getId());
+                occupancyIndex.roomSaved(savedRoom.getId(), savedRoom.getFacility().getId(), savedRoom.getCapacity());
+                bedService.roomSaved(savedRoom);
 
                 return savedRoom;
             });
 
-        return ResponseUtil.wrapOrNotFound(
-            result,
-            HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, room.getId().toString())
-        );
+        return PreferHeaderUtil.respond(prefer, () -> result, headers);
     }
 
     /**
@@ -163,13 +265,44 @@ public class RoomResource {
      *
      * @param pageable the pagination information.
      * @param eagerload flag to eager load entities from relationships (This is applicable for many-to-many).
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of rooms in body.
+     * @param after the cursor of the page to get, in id order and without total count, see {@link KeysetPaginationUtil}.
+     * @param count {@code false} to skip counting the rooms, see {@link SlicePaginationUtil}.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of rooms in body,
+     * or with status {@code 400 (Bad Request)} if the cursor is not valid.
      */
     @GetMapping("/rooms")
+    @Transactional(readOnly = true)
     public ResponseEntity<List<Room>> getAllRooms(
         @org.springdoc.api.annotations.ParameterObject Pageable pageable,
-        @RequestParam(required = false, defaultValue = "true") boolean eagerload
+        @RequestParam(required = false, defaultValue = "true") boolean eagerload,
+        @RequestParam(required = false) String after,
+        @RequestParam(required = false, defaultValue = "true") boolean count
     ) {
+        if (after != null) {
+            log.debug("REST request to get a page of Rooms after : {}", after);
+            long afterId = KeysetPaginationUtil.decodeCursor(after, ENTITY_NAME);
+            Pageable lookAhead = KeysetPaginationUtil.lookAhead(pageable);
+            List<Room> rooms = eagerload
+                ? roomRepository.findAllWithToOneRelationshipsAfter(afterId, lookAhead)
+                : roomRepository.findAllAfter(afterId, lookAhead);
+            HttpHeaders headers = KeysetPaginationUtil.generateKeysetHttpHeaders(
+                ServletUriComponentsBuilder.fromCurrentRequest(),
+                pageable,
+                rooms,
+                Room::getId
+            );
+            return ResponseEntity.ok().headers(headers).body(rooms);
+        }
+        if (!count) {
+            log.debug("REST request to get a slice of Rooms");
+            Slice<Room> slice = eagerload ? roomRepository.findSliceWithToOneRelationships(pageable) : roomRepository.findSlice(pageable);
+            HttpHeaders headers = SlicePaginationUtil.generateSliceHttpHeaders(
+                ServletUriComponentsBuilder.fromCurrentRequest(),
+                slice,
+                approximateCountService.countRooms()
+            );
+            return ResponseEntity.ok().headers(headers).body(slice.getContent());
+        }
         log.debug("REST request to get a page of Rooms");
         Page<Room> page;
         if (eagerload) {
@@ -185,13 +318,41 @@ public class RoomResource {
      * {@code GET  /rooms} : get all the rooms.
      *
      * @param pageable the pagination information.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of rooms in body.
+     * @param after the cursor of the page to get, in id order and without total count, see {@link KeysetPaginationUtil}.
+     * @param count {@code false} to skip counting the rooms, see {@link SlicePaginationUtil}.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of rooms in body,
+     * or with status {@code 400 (Bad Request)} if the cursor is not valid.
      */
     @GetMapping("/facility/rooms/{facility_id}")
+    @Transactional(readOnly = true)
     public ResponseEntity<List<Room>> getAllResidentsWithRoomId(
         @org.springdoc.api.annotations.ParameterObject Pageable pageable,
-        @PathVariable Long facility_id
+        @PathVariable Long facility_id,
+        @RequestParam(required = false) String after,
+        @RequestParam(required = false, defaultValue = "true") boolean count
     ) {
+        if (after != null) {
+            log.debug("REST request to get Room with facility id: {} after : {}", facility_id, after);
+            long afterId = KeysetPaginationUtil.decodeCursor(after, ENTITY_NAME);
+            List<Room> rooms = roomRepository.findWithFacilityIdAfter(facility_id, afterId, KeysetPaginationUtil.lookAhead(pageable));
+            HttpHeaders headers = KeysetPaginationUtil.generateKeysetHttpHeaders(
+                ServletUriComponentsBuilder.fromCurrentRequest(),
+                pageable,
+                rooms,
+                Room::getId
+            );
+            return ResponseEntity.ok().headers(headers).body(rooms);
+        }
+        if (!count) {
+            log.debug("REST request to get a slice of Room with facility id: {}", facility_id);
+            Slice<Room> slice = roomRepository.findSliceWithFacilityId(pageable, facility_id);
+            HttpHeaders headers = SlicePaginationUtil.generateSliceHttpHeaders(
+                ServletUriComponentsBuilder.fromCurrentRequest(),
+                slice,
+                approximateCountService.countRooms(facility_id)
+            );
+            return ResponseEntity.ok().headers(headers).body(slice.getContent());
+        }
         log.debug("REST request to get Room with facility id: {}", facility_id);
         Page<Room> page;
         page = roomRepository.findWithFacilityId(pageable, facility_id);
@@ -207,6 +368,7 @@ public class RoomResource {
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the room, or with status {@code 404 (Not Found)}.
      */
     @GetMapping("/rooms/{id}")
+    @Transactional(readOnly = true)
     public ResponseEntity<Room> getRoom(@PathVariable Long id) {
         log.debug("REST request to get Room : {}", id);
         Optional<Room> room = roomRepository.findOneWithEagerRelationships(id);
@@ -214,7 +376,7 @@ public class RoomResource {
     }
 
     /**
-     * {@code DELETE  /rooms/:id} : delete the "id" room.
+     * {@code DELETE  /rooms/:id} : delete the "id" room, with its bookings.
      *
      * @param id the id of the room to delete.
      * @return the {@link ResponseEntity} with status {@code 204 (NO_CONTENT)}.
@@ -222,27 +384,73 @@ public class RoomResource {
     @DeleteMapping("/rooms/{id}")
     public ResponseEntity<Void> deleteRoom(@PathVariable Long id) {
         log.debug("REST request to delete Room : {}", id);
+        // Locked as bookings lock it, so that none is added to the room being deleted
+        Optional<Room> room = roomRepository.findByIdForUpdate(id);
+        bookingService.deleteByRoom(id);
         roomRepository.deleteById(id);
-        roomSearchRepository.deleteById(id);
+        searchIndexOutbox.enqueue(SearchDocumentType.ROOM, id);
+        occupancyIndex.roomDeleted(id);
+        bedService.roomDeleted(id);
+        room.ifPresent(facilitySummaryService::roomDeleted);
         return ResponseEntity
             .noContent()
             .headers(HeaderUtil.createEntityDeletionAlert(applicationName, false, ENTITY_NAME, id.toString()))
             .build();
     }
 
+    private void checkCapacity(Integer capacity, Room existingRoom) {
+        if (capacity < existingRoom.getOccupant_count()) {
+            throw new BadRequestAlertException("Capacity is below the occupant count", ENTITY_NAME, "capacitytoolow");
+        }
+    }
+
+    /**
+     * Reject a number already used by another room of the facility, which would otherwise fail the unique constraint.
+     *
+     * @param existingRoom the room as it was before the update, or {@code null} for a new room.
+     */
+    private void checkRoomNumber(Long facilityId, Integer roomNumber, Room existingRoom) {
+        if (facilityId == null) {
+            // Rejected when saved
+            return;
+        }
+        boolean unchanged =
+            existingRoom != null &&
+            facilityId.equals(existingRoom.getFacility().getId()) &&
+            roomNumber.equals(existingRoom.getRoom_number());
+        if (!unchanged && !roomRepository.findRoomNumbersIn(List.of(facilityId), List.of(roomNumber)).isEmpty()) {
+            throw new BadRequestAlertException("Room number already exists", ENTITY_NAME, "roomnumberexists");
+        }
+    }
+
     /**
      * {@code SEARCH  /_search/rooms?query=:query} : search for the room corresponding
      * to the query.
      *
      * @param query the query of the room search.
      * @param pageable the pagination information.
-     * @return the result of the search.
+     * @param after the cursor of the page to get, right after the hits of the previous page, see
+     * {@link SearchAfterPaginationUtil}.
+     * @return the result of the search, or with status {@code 400 (Bad Request)} if the cursor is not valid.
      */
     @GetMapping("/_search/rooms")
+    @Transactional(readOnly = true)
     public ResponseEntity<List<Room>> searchRooms(
         @RequestParam String query,
-        @org.springdoc.api.annotations.ParameterObject Pageable pageable
+        @org.springdoc.api.annotations.ParameterObject Pageable pageable,
+        @RequestParam(required = false) String after
     ) {
+        if (after != null) {
+            log.debug("REST request to search for a page of Rooms for query {} after : {}", query, after);
+            List<Object> searchAfter = SearchAfterPaginationUtil.decodeCursor(after, pageable.getSort(), ENTITY_NAME);
+            SearchAfterPage<Room> page = roomSearchRepository.searchAfter(query, searchAfter, pageable);
+            HttpHeaders headers = SearchAfterPaginationUtil.generateSearchAfterHttpHeaders(
+                ServletUriComponentsBuilder.fromCurrentRequest(),
+                pageable,
+                page
+            );
+            return ResponseEntity.ok().headers(headers).body(page.getContent());
+        }
         log.debug("REST request to search for a page of Rooms for query {}", query);
         Page<Room> page = roomSearchRepository.search(query, pageable);
         HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
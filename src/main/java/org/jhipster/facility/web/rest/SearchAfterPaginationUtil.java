@@ -0,0 +1,108 @@
+package org.jhipster.facility.web.rest;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.jhipster.facility.repository.search.SearchAfterPage;
+import org.jhipster.facility.web.rest.errors.BadRequestAlertException;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.elasticsearch.core.TotalHitsRelation;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.util.UriComponentsBuilder;
+
+/**
+ * Utility class for the pagination of searches with {@code search_after}, where a page of hits is requested with
+ * {@code ?after=<cursor>&size=} instead of a page number.
+ * <p>
+ * The cursor is an opaque token holding the sort values of the last hit of the previous page, and the sort requested;
+ * an empty cursor asks for the first page. Each page is read right after the cursor, so it costs the same at any depth:
+ * the response carries the cursor of the next page in the {@value KeysetPaginationUtil#NEXT_CURSOR_HEADER} header and a
+ * {@code next} link, both absent on the last page. The number of hits is given in the {@value #TOTAL_COUNT_HEADER}
+ * header, exact if the {@value #TOTAL_COUNT_RELATION_HEADER} header is {@code eq} and a lower bound if it is {@code gte}.
+ */
+public final class SearchAfterPaginationUtil {
+
+    public static final String TOTAL_COUNT_HEADER = "X-Total-Count";
+
+    public static final String TOTAL_COUNT_RELATION_HEADER = "X-Total-Count-Relation";
+
+    private static final ObjectMapper CURSOR_MAPPER = new ObjectMapper();
+
+    private static final String SORT = "sort";
+
+    private static final String AFTER = "after";
+
+    private SearchAfterPaginationUtil() {}
+
+    /**
+     * Read the sort values a cursor stands for.
+     *
+     * @param cursor the cursor sent by the client, empty for the first page.
+     * @param sort the sort requested, which must be the one the cursor was issued for.
+     * @param entityName the name of the entity being searched, for the error.
+     * @return the sort values after which the page starts, {@code null} for the first page.
+     * @throws BadRequestAlertException if the cursor was not issued by {@link #generateSearchAfterHttpHeaders} for that
+     * sort, or does not hold one value per field sorted by.
+     */
+    public static List<Object> decodeCursor(String cursor, Sort sort, String entityName) {
+        if (cursor.isEmpty()) {
+            return null;
+        }
+        try {
+            Map<String, Object> decoded = CURSOR_MAPPER.readValue(
+                Base64.getUrlDecoder().decode(cursor),
+                new TypeReference<Map<String, Object>>() {}
+            );
+            if (sort.toString().equals(decoded.get(SORT)) && decoded.get(AFTER) instanceof List) {
+                @SuppressWarnings("unchecked")
+                List<Object> searchAfter = (List<Object>) decoded.get(AFTER);
+                if (searchAfter.size() == SearchAfterPage.sortValueCount(sort)) {
+                    return searchAfter;
+                }
+            }
+        } catch (IllegalArgumentException | IOException e) {
+            // Reported below
+        }
+        throw new BadRequestAlertException("Invalid cursor", entityName, "invalidcursor");
+    }
+
+    /**
+     * Generate the headers of a page of hits, pointing to the next page.
+     *
+     * @param uriBuilder the builder of the current request URI.
+     * @param pageable the pagination information.
+     * @param page the page of hits.
+     * @return the headers.
+     */
+    public static HttpHeaders generateSearchAfterHttpHeaders(UriComponentsBuilder uriBuilder, Pageable pageable, SearchAfterPage<?> page) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.add(TOTAL_COUNT_HEADER, Long.toString(page.getTotalHits()));
+        headers.add(TOTAL_COUNT_RELATION_HEADER, page.getTotalHitsRelation() == TotalHitsRelation.EQUAL_TO ? "eq" : "gte");
+        if (!page.hasNext()) {
+            return headers;
+        }
+        Map<String, Object> cursor = new LinkedHashMap<>();
+        cursor.put(SORT, pageable.getSort().toString());
+        cursor.put(AFTER, page.getNextSearchAfter());
+        String nextCursor;
+        try {
+            nextCursor = Base64.getUrlEncoder().withoutPadding().encodeToString(CURSOR_MAPPER.writeValueAsBytes(cursor));
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not encode the cursor of the sort values " + page.getNextSearchAfter(), e);
+        }
+        headers.add(KeysetPaginationUtil.NEXT_CURSOR_HEADER, nextCursor);
+        String link = uriBuilder
+            .replaceQueryParam("after", nextCursor)
+            .replaceQueryParam("size", pageable.getPageSize())
+            .toUriString()
+            .replace(",", "%2C")
+            .replace(";", "%3B");
+        headers.add(HttpHeaders.LINK, "<" + link + ">; rel=\"next\"");
+        return headers;
+    }
+}
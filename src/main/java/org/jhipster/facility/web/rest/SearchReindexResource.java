@@ -0,0 +1,66 @@
+package org.jhipster.facility.web.rest;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import org.jhipster.facility.domain.enumeration.SearchDocumentType;
+import org.jhipster.facility.security.AuthoritiesConstants;
+import org.jhipster.facility.service.dto.ReindexJobDTO;
+import org.jhipster.facility.service.search.SearchReindexService;
+import org.jhipster.facility.web.rest.errors.BadRequestAlertException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import tech.jhipster.web.util.ResponseUtil;
+
+/**
+ * REST controller for rebuilding the Elasticsearch index of an entity from the database.
+ */
+@RestController
+@RequestMapping("/api/admin/search")
+public class SearchReindexResource {
+
+    private static final String ENTITY_NAME = "searchReindex";
+
+    private final Logger log = LoggerFactory.getLogger(SearchReindexResource.class);
+
+    private final SearchReindexService searchReindexService;
+
+    public SearchReindexResource(SearchReindexService searchReindexService) {
+        this.searchReindexService = searchReindexService;
+    }
+
+    /**
+     * {@code POST  /admin/search/reindex/:index} : Reindex all the entities of an index into a new index, which replaces
+     * it once written, or resume the unfinished reindex of that index.
+     *
+     * @param index the name the entities are searched by: {@code facility}, {@code room}, {@code resident} or {@code user}.
+     * @return the {@link ResponseEntity} with status {@code 202 (Accepted)}, the location of the job and with body the job.
+     * @throws URISyntaxException if the Location URI syntax is incorrect.
+     * @throws BadRequestAlertException {@code 400 (Bad Request)} if no entity is searched by that name.
+     */
+    @PostMapping("/reindex/{index}")
+    @PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")")
+    public ResponseEntity<ReindexJobDTO> reindex(@PathVariable String index) throws URISyntaxException {
+        log.debug("REST request to reindex : {}", index);
+        SearchDocumentType type = searchReindexService
+            .findType(index)
+            .orElseThrow(() -> new BadRequestAlertException("Unknown search index", ENTITY_NAME, "unknownindex"));
+        ReindexJobDTO job = searchReindexService.start(type);
+        return ResponseEntity.accepted().location(new URI("/api/admin/search/reindex-jobs/" + job.getId())).body(job);
+    }
+
+    /**
+     * {@code GET  /admin/search/reindex-jobs/:id} : get the progress of a reindex job.
+     *
+     * @param id the id of the job.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the job, or with status {@code 404 (Not Found)}.
+     */
+    @GetMapping("/reindex-jobs/{id}")
+    @PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")")
+    public ResponseEntity<ReindexJobDTO> getReindexJob(@PathVariable Long id) {
+        log.debug("REST request to get reindex job : {}", id);
+        return ResponseUtil.wrapOrNotFound(searchReindexService.findOne(id));
+    }
+}
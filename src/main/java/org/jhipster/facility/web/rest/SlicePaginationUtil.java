@@ -0,0 +1,63 @@
+package org.jhipster.facility.web.rest;
+
+import java.text.MessageFormat;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.util.UriComponentsBuilder;
+
+/**
+ * Utility class for pages read as a {@link Slice}, requested with {@code ?count=false}.
+ * <p>
+ * A slice knows whether a next page exists without counting the entities, so the response has {@code next},
+ * {@code prev} and {@code first} links but no {@code last} link nor {@code X-Total-Count} header. An approximate total,
+ * which may lag recent changes, is given in the {@value #APPROXIMATE_TOTAL_COUNT_HEADER} header when known.
+ */
+public final class SlicePaginationUtil {
+
+    public static final String APPROXIMATE_TOTAL_COUNT_HEADER = "X-Approximate-Total-Count";
+
+    private static final String HEADER_LINK_FORMAT = "<{0}>; rel=\"{1}\"";
+
+    private SlicePaginationUtil() {}
+
+    /**
+     * Generate the headers of a slice.
+     *
+     * @param uriBuilder the builder of the current request URI.
+     * @param slice the slice.
+     * @param approximateTotal the approximate number of entities of all the slices, negative if unknown.
+     * @param <T> the type of the entities.
+     * @return the headers.
+     */
+    public static <T> HttpHeaders generateSliceHttpHeaders(UriComponentsBuilder uriBuilder, Slice<T> slice, long approximateTotal) {
+        HttpHeaders headers = new HttpHeaders();
+        if (approximateTotal >= 0) {
+            headers.add(APPROXIMATE_TOTAL_COUNT_HEADER, Long.toString(approximateTotal));
+        }
+        int pageNumber = slice.getNumber();
+        int pageSize = slice.getSize();
+        StringBuilder link = new StringBuilder();
+        if (slice.hasNext()) {
+            link.append(prepareLink(uriBuilder, pageNumber + 1, pageSize, "next")).append(",");
+        }
+        if (slice.hasPrevious()) {
+            link.append(prepareLink(uriBuilder, pageNumber - 1, pageSize, "prev")).append(",");
+        }
+        link.append(prepareLink(uriBuilder, 0, pageSize, "first"));
+        headers.add(HttpHeaders.LINK, link.toString());
+        return headers;
+    }
+
+    private static String prepareLink(UriComponentsBuilder uriBuilder, int pageNumber, int pageSize, String relType) {
+        return MessageFormat.format(HEADER_LINK_FORMAT, preparePageUri(uriBuilder, pageNumber, pageSize), relType);
+    }
+
+    private static String preparePageUri(UriComponentsBuilder uriBuilder, int pageNumber, int pageSize) {
+        return uriBuilder
+            .replaceQueryParam("page", Integer.toString(pageNumber))
+            .replaceQueryParam("size", Integer.toString(pageSize))
+            .toUriString()
+            .replace(",", "%2C")
+            .replace(";", "%3B");
+    }
+}
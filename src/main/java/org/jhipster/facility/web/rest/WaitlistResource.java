@@ -0,0 +1,115 @@
+package org.jhipster.facility.web.rest;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.List;
+import javax.validation.Valid;
+import org.jhipster.facility.domain.Facility;
+import org.jhipster.facility.domain.WaitlistEntry;
+import org.jhipster.facility.repository.FacilityRepository;
+import org.jhipster.facility.repository.WaitlistEntryRepository;
+import org.jhipster.facility.service.waitlist.WaitlistService;
+import org.jhipster.facility.web.rest.errors.BadRequestAlertException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import tech.jhipster.web.util.HeaderUtil;
+import tech.jhipster.web.util.PaginationUtil;
+
+/**
+ * REST controller for managing the waitlists of {@link org.jhipster.facility.domain.Facility}.
+ */
+@RestController
+@RequestMapping("/api")
+@Transactional
+public class WaitlistResource {
+
+    private final Logger log = LoggerFactory.getLogger(WaitlistResource.class);
+
+    private static final String ENTITY_NAME = "waitlistEntry";
+
+    @Value("${jhipster.clientApp.name}")
+    private String applicationName;
+
+    private final FacilityRepository facilityRepository;
+
+    private final WaitlistEntryRepository waitlistEntryRepository;
+
+    private final WaitlistService waitlistService;
+
+    public WaitlistResource(
+        FacilityRepository facilityRepository,
+        WaitlistEntryRepository waitlistEntryRepository,
+        WaitlistService waitlistService
+    ) {
+        this.facilityRepository = facilityRepository;
+        this.waitlistEntryRepository = waitlistEntryRepository;
+        this.waitlistService = waitlistService;
+    }
+
+    /**
+     * {@code POST  /facilities/:id/waitlist} : Put a resident on the waitlist of a facility.
+     *
+     * @param id the id of the facility.
+     * @param waitlistEntry the resident to queue, with its priority.
+     * @return the {@link ResponseEntity} with status {@code 201 (Created)} and with body the new entry, or with status {@code 400 (Bad Request)} if the entry has already an ID or the facility does not exist.
+     * @throws URISyntaxException if the Location URI syntax is incorrect.
+     */
+    @PostMapping("/facilities/{id}/waitlist")
+    public ResponseEntity<WaitlistEntry> createWaitlistEntry(@PathVariable Long id, @Valid @RequestBody WaitlistEntry waitlistEntry)
+        throws URISyntaxException {
+        log.debug("REST request to save WaitlistEntry : {}, {}", id, waitlistEntry);
+        if (waitlistEntry.getId() != null) {
+            throw new BadRequestAlertException("A new waitlistEntry cannot already have an ID", ENTITY_NAME, "idexists");
+        }
+        Facility facility = facilityRepository
+            .findById(id)
+            .orElseThrow(() -> new BadRequestAlertException("Entity not found", "facility", "idnotfound"));
+        WaitlistEntry result = waitlistService.enqueue(waitlistEntry.facility(facility));
+        return ResponseEntity
+            .created(new URI("/api/waitlist/" + result.getId()))
+            .headers(HeaderUtil.createEntityCreationAlert(applicationName, false, ENTITY_NAME, result.getId().toString()))
+            .body(result);
+    }
+
+    /**
+     * {@code GET  /facilities/:id/waitlist} : get the waitlist of a facility, in serving order.
+     *
+     * @param id the id of the facility.
+     * @param pageable the pagination information.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of entries in body.
+     */
+    @GetMapping("/facilities/{id}/waitlist")
+    public ResponseEntity<List<WaitlistEntry>> getWaitlist(
+        @PathVariable Long id,
+        @org.springdoc.api.annotations.ParameterObject Pageable pageable
+    ) {
+        log.debug("REST request to get the waitlist of Facility : {}", id);
+        Page<WaitlistEntry> page = waitlistEntryRepository.findWithFacilityId(pageable, id);
+        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        return ResponseEntity.ok().headers(headers).body(page.getContent());
+    }
+
+    /**
+     * {@code DELETE  /waitlist/:id} : take the "id" entry off its waitlist.
+     *
+     * @param id the id of the entry to delete.
+     * @return the {@link ResponseEntity} with status {@code 204 (NO_CONTENT)}.
+     */
+    @DeleteMapping("/waitlist/{id}")
+    public ResponseEntity<Void> deleteWaitlistEntry(@PathVariable Long id) {
+        log.debug("REST request to delete WaitlistEntry : {}", id);
+        waitlistService.remove(id);
+        return ResponseEntity
+            .noContent()
+            .headers(HeaderUtil.createEntityDeletionAlert(applicationName, false, ENTITY_NAME, id.toString()))
+            .build();
+    }
+}
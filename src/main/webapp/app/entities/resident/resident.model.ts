@@ -6,6 +6,7 @@ export interface IResident {
   phone_number?: number;
   email?: string | null;
   room?: IRoom;
+  version?: number;
 }
 
 export class Resident implements IResident {
@@ -3,11 +3,20 @@ import { IFacility } from 'app/entities/facility/facility.model';
 export interface IRoom {
   id?: number;
   room_number?: number;
+  capacity?: number;
+  occupant_count?: number;
   facility?: IFacility;
+  version?: number;
 }
 
 export class Room implements IRoom {
-  constructor(public id?: number, public room_number?: number, public facility?: IFacility) {}
+  constructor(
+    public id?: number,
+    public room_number?: number,
+    public capacity?: number,
+    public occupant_count?: number,
+    public facility?: IFacility
+  ) {}
 }
 
 export function getRoomIdentifier(room: IRoom): number | undefined {
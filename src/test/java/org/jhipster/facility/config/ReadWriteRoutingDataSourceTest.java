@@ -0,0 +1,85 @@
+package org.jhipster.facility.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import javax.sql.DataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Unit tests for the {@link ReadWriteRoutingDataSource}, routing between two H2 databases telling their name.
+ */
+class ReadWriteRoutingDataSourceTest {
+
+    private static final String WHICH = "select name from which";
+
+    private JdbcTemplate jdbcTemplate;
+
+    private TransactionTemplate readWrite;
+
+    private TransactionTemplate readOnly;
+
+    @BeforeEach
+    void setUp() {
+        DataSource dataSource = new LazyConnectionDataSourceProxy(
+            new ReadWriteRoutingDataSource(database("primary"), database("replica"))
+        );
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    @Test
+    void readOnlyTransactionUsesReplica() {
+        String name = readOnly.execute(status -> which());
+        assertThat(name).isEqualTo("replica");
+    }
+
+    @Test
+    void readWriteTransactionUsesPrimary() {
+        String name = readWrite.execute(status -> which());
+        assertThat(name).isEqualTo("primary");
+    }
+
+    @Test
+    void workOutsideTransactionUsesPrimary() {
+        assertThat(which()).isEqualTo("primary");
+    }
+
+    @Test
+    void readOnlyTransactionJoiningReadWriteTransactionUsesPrimary() {
+        String name = readWrite.execute(status -> readOnly.execute(inner -> which()));
+        assertThat(name).isEqualTo("primary");
+    }
+
+    @Test
+    void newReadOnlyTransactionWithinReadWriteTransactionUsesReplica() {
+        readOnly.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        String name = readWrite.execute(status -> {
+            which();
+            return readOnly.execute(inner -> which());
+        });
+        assertThat(name).isEqualTo("replica");
+    }
+
+    private String which() {
+        return jdbcTemplate.queryForObject(WHICH, String.class);
+    }
+
+    private static DataSource database(String name) {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:routing-" + name + ";DB_CLOSE_DELAY=-1");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("create table if not exists which (name varchar(10))");
+        jdbcTemplate.execute("delete from which");
+        jdbcTemplate.update("insert into which (name) values (?)", name);
+        return dataSource;
+    }
+}
@@ -0,0 +1,129 @@
+package org.jhipster.facility.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.zaxxer.hikari.HikariDataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.jhipster.facility.IntegrationTest;
+import org.jhipster.facility.repository.FacilityRepository;
+import org.jhipster.facility.repository.StatementRecorder;
+import org.jhipster.facility.service.booking.BookingIndex;
+import org.jhipster.facility.service.occupancy.BedIndex;
+import org.jhipster.facility.service.occupancy.OccupancyIndex;
+import org.jhipster.facility.service.waitlist.WaitlistService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Integration tests for the routing of read-only JPA transactions to the replica pool, configured in the tests as a
+ * second pool on the same database. The pool holding the connection of the transaction shows it as active.
+ */
+@IntegrationTest
+class ReadWriteRoutingIT {
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private HikariDataSource primaryDataSource;
+
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private HikariDataSource replicaDataSource;
+
+    @Autowired
+    private FacilityRepository facilityRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private OccupancyIndex occupancyIndex;
+
+    @Autowired
+    private BedIndex bedIndex;
+
+    @Autowired
+    private BookingIndex bookingIndex;
+
+    @Autowired
+    private WaitlistService waitlistService;
+
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void initTest() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Test
+    void readOnlyTransactionUsesReplica() {
+        transactionTemplate.setReadOnly(true);
+        transactionTemplate.executeWithoutResult(status -> {
+            facilityRepository.count();
+            assertThat(activeConnections(replicaDataSource)).isEqualTo(1);
+        });
+        assertThat(activeConnections(replicaDataSource)).isZero();
+    }
+
+    @Test
+    void readWriteTransactionUsesPrimary() {
+        transactionTemplate.executeWithoutResult(status -> {
+            facilityRepository.count();
+            assertThat(activeConnections(primaryDataSource)).isPositive();
+            assertThat(activeConnections(replicaDataSource)).isZero();
+        });
+    }
+
+    @Test
+    void inMemoryIndexesAreRebuiltFromPrimary() {
+        // A lagging replica would leave the indexes, only updated by deltas after their rebuild, wrong for good
+        Map<String, Runnable> rebuilds = Map.of(
+            "occupancy index",
+            occupancyIndex::rebuild,
+            "bed index",
+            bedIndex::rebuild,
+            "booking index",
+            bookingIndex::rebuild,
+            "waitlist",
+            waitlistService::rebuild
+        );
+        rebuilds.forEach((name, rebuild) -> {
+            List<int[]> connectionsAtCommit = new ArrayList<>();
+            StatementRecorder.listen(
+                rebuild,
+                sql -> {
+                    if (connectionsAtCommit.isEmpty()) {
+                        connectionsAtCommit.add(null);
+                        TransactionSynchronizationManager.registerSynchronization(
+                            new TransactionSynchronization() {
+                                @Override
+                                public void beforeCommit(boolean readOnly) {
+                                    connectionsAtCommit.set(
+                                        0,
+                                        new int[] { activeConnections(primaryDataSource), activeConnections(replicaDataSource) }
+                                    );
+                                }
+                            }
+                        );
+                    }
+                }
+            );
+
+            assertThat(connectionsAtCommit).as(name).hasSize(1);
+            assertThat(connectionsAtCommit.get(0)[0]).as("primary connections of the %s rebuild", name).isPositive();
+            assertThat(connectionsAtCommit.get(0)[1]).as("replica connections of the %s rebuild", name).isZero();
+        });
+    }
+
+    private static int activeConnections(HikariDataSource dataSource) {
+        // The pool starts with its first connection
+        return dataSource.getHikariPoolMXBean() == null ? 0 : dataSource.getHikariPoolMXBean().getActiveConnections();
+    }
+}
@@ -0,0 +1,42 @@
+package org.jhipster.facility.domain.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.jhipster.facility.domain.Facility;
+import org.jhipster.facility.domain.Resident;
+import org.jhipster.facility.domain.Room;
+import org.jhipster.facility.web.rest.TestUtil;
+import org.junit.jupiter.api.Test;
+
+class ResidentDocumentTest {
+
+    @Test
+    void equalsVerifier() throws Exception {
+        TestUtil.equalsVerifier(ResidentDocument.class);
+        ResidentDocument document1 = new ResidentDocument();
+        document1.setId(1L);
+        ResidentDocument document2 = new ResidentDocument();
+        document2.setId(document1.getId());
+        assertThat(document1).isEqualTo(document2);
+        document2.setId(2L);
+        assertThat(document1).isNotEqualTo(document2);
+        document1.setId(null);
+        assertThat(document1).isNotEqualTo(document2);
+    }
+
+    @Test
+    void documentHoldsTheFieldsOfTheRoomAndFacility() {
+        Facility facility = new Facility().id(3L).facility_name("AAAAAAAAAA");
+        Room room = new Room().id(2L).room_number(101).capacity(2).facility(facility);
+        Resident resident = new Resident().id(1L).name("BBBBBBBBBB").phone_number(515151).email("b@example.com").room(room);
+
+        ResidentDocument document = ResidentDocument.of(resident);
+
+        assertThat(document.getRoom_id()).isEqualTo(2L);
+        assertThat(document.getRoom_number()).isEqualTo(101);
+        assertThat(document.getFacility_id()).isEqualTo(3L);
+        assertThat(document.getFacility_name()).isEqualTo("AAAAAAAAAA");
+        Resident read = document.toResident();
+        assertThat(read).usingRecursiveComparison().ignoringFields("room.capacity").isEqualTo(resident);
+    }
+}
@@ -0,0 +1,160 @@
+package org.jhipster.facility.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import javax.persistence.EntityManager;
+import org.jhipster.facility.IntegrationTest;
+import org.jhipster.facility.domain.Facility;
+import org.jhipster.facility.domain.Resident;
+import org.jhipster.facility.domain.Room;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Integration tests checking that the room and resident lookups of {@link RoomRepository} and {@link ResidentRepository}
+ * are served by their index, never by a full scan.
+ * <p>
+ * The statements checked are those Hibernate prepares for the repository methods, recorded by the
+ * {@link StatementRecorder}. Run with the {@code testcontainers} profile, the plans are those of MySQL: every table access
+ * must have an index access type, and the room or resident table must be read through the index expected. On the
+ * default H2 database, the plans must name the index expected, or the index H2 adds to enforce the foreign key on its
+ * first column: H2 keeps that single-column index next to the lookup index, and prefers it when the pages are sorted by
+ * id only.
+ */
+@IntegrationTest
+@Transactional
+class LookupIndexIT {
+
+    private static final String ROOM_FACILITY_INDEX = "idx_room__facility_id_id";
+
+    private static final String ROOM_FACILITY_FOREIGN_KEY = "fk_room__facility_id";
+
+    private static final String RESIDENT_ROOM_INDEX = "idx_resident__room_id_id";
+
+    private static final String RESIDENT_ROOM_FOREIGN_KEY = "fk_resident__room_id";
+
+    private static final String ROOM_NUMBER_INDEX = "ux_room__facility_id_room_number";
+
+    private static final int PAGE_SIZE = 10;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private RoomRepository roomRepository;
+
+    @Autowired
+    private ResidentRepository residentRepository;
+
+    private Facility facility;
+
+    private Room room;
+
+    @BeforeEach
+    void initTest() {
+        facility = new Facility().facility_name("AAAAAAAAAA");
+        em.persist(facility);
+        for (int i = 1; i <= 20; i++) {
+            Room other = new Room().room_number(i).capacity(PAGE_SIZE * 2).facility(facility);
+            em.persist(other);
+            room = other;
+        }
+        // More residents in the room than a page, so that the page is counted
+        for (int i = 1; i <= PAGE_SIZE * 2; i++) {
+            em.persist(new Resident().name("AAAAAAAAAA").phone_number(100 + i).email("a" + i + "@a.a").room(room));
+        }
+        em.flush();
+        em.clear();
+    }
+
+    @Test
+    void roomsOfFacilityUseIndex() {
+        PageRequest pageable = PageRequest.of(0, PAGE_SIZE, Sort.by("id"));
+        List<String> statements = StatementRecorder.record(() -> roomRepository.findWithFacilityId(pageable, facility.getId()));
+
+        // The page, then its count
+        assertThat(statements).hasSize(2);
+        for (String sql : statements) {
+            assertIndexAccess(sql, ROOM_FACILITY_INDEX, ROOM_FACILITY_FOREIGN_KEY, facility.getId(), PAGE_SIZE);
+        }
+    }
+
+    @Test
+    void roomsOfFacilityAfterUseIndex() {
+        List<String> statements = StatementRecorder.record(() ->
+            roomRepository.findWithFacilityIdAfter(facility.getId(), 0L, PageRequest.of(0, PAGE_SIZE))
+        );
+
+        assertThat(statements).hasSize(1);
+        assertIndexAccess(statements.get(0), ROOM_FACILITY_INDEX, null, facility.getId(), 0L, PAGE_SIZE);
+    }
+
+    @Test
+    void residentsOfRoomUseIndex() {
+        PageRequest pageable = PageRequest.of(0, PAGE_SIZE, Sort.by("id"));
+        List<String> statements = StatementRecorder.record(() -> residentRepository.findWithRoomId(pageable, room.getId()));
+
+        // The page, then its count
+        assertThat(statements).hasSize(2);
+        for (String sql : statements) {
+            assertIndexAccess(sql, RESIDENT_ROOM_INDEX, RESIDENT_ROOM_FOREIGN_KEY, room.getId(), PAGE_SIZE);
+        }
+    }
+
+    @Test
+    void roomNumberLookupUsesUniqueIndex() {
+        List<String> statements = StatementRecorder.record(() -> roomRepository.findRoomNumbersIn(List.of(facility.getId()), List.of(7)));
+
+        assertThat(statements).hasSize(1);
+        assertIndexAccess(statements.get(0), ROOM_NUMBER_INDEX, null, facility.getId(), 7);
+    }
+
+    /**
+     * Explain a statement and check that it reads its table through the index expected.
+     *
+     * @param sql the statement, with its parameters as placeholders.
+     * @param index the index expected.
+     * @param foreignKey the foreign key on the first column of the index, whose own index H2 may use instead, or
+     * {@code null} if only the index expected will do.
+     * @param parameters the values of the placeholders, in order, of which those past the last placeholder are ignored.
+     */
+    private void assertIndexAccess(String sql, String index, String foreignKey, Object... parameters) {
+        Object[] bound = Arrays.copyOf(parameters, (int) sql.chars().filter(c -> c == '?').count());
+        if (isMySql()) {
+            List<Map<String, Object>> plan = jdbcTemplate.queryForList("explain " + sql, bound);
+            assertThat(plan)
+                .as(sql)
+                .isNotEmpty()
+                .allSatisfy(row -> {
+                    assertThat(row.get("type")).as("access type of %s", sql).isNotEqualTo("ALL").isNotEqualTo("index");
+                    assertThat(row.get("key")).as("index of %s", sql).isNotNull();
+                })
+                .anySatisfy(row -> assertThat((String) row.get("key")).as("index of %s", sql).isEqualToIgnoringCase(index));
+        } else {
+            String plan = String.join("\n", jdbcTemplate.queryForList("explain " + sql, String.class, bound));
+            // H2 names the index of a constraint after it, with a generated suffix
+            String indexes = foreignKey == null ? index : index + "|" + foreignKey;
+            assertThat(plan)
+                .as(sql)
+                .doesNotContainIgnoringCase("tableScan")
+                .containsPattern("(?i)/\\* PUBLIC\\.(" + indexes + ")(_INDEX_\\w+)?:");
+        }
+    }
+
+    private boolean isMySql() {
+        String product = jdbcTemplate.execute((ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+        return "MySQL".equalsIgnoreCase(product);
+    }
+}
@@ -0,0 +1,89 @@
+package org.jhipster.facility.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import javax.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.jhipster.facility.IntegrationTest;
+import org.jhipster.facility.domain.Facility;
+import org.jhipster.facility.domain.Resident;
+import org.jhipster.facility.domain.Room;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Integration tests checking that new residents are written in JDBC batches.
+ * <p>
+ * The benchmark inserting {@value #BENCHMARK_RESIDENTS} residents only runs with {@code ./gradlew integrationTest -Pbenchmark}.
+ */
+@IntegrationTest
+@Transactional
+class ResidentBatchInsertIT {
+
+    private static final int BENCHMARK_RESIDENTS = 100_000;
+
+    private static final int FLUSH_INTERVAL = 1_000;
+
+    private final Logger log = LoggerFactory.getLogger(ResidentBatchInsertIT.class);
+
+    @Autowired
+    private EntityManager em;
+
+    private Room room;
+
+    private int inserted;
+
+    @BeforeEach
+    void initTest() {
+        Facility facility = new Facility().facility_name("Batch insert facility");
+        em.persist(facility);
+        room = new Room().room_number(1).capacity(1).facility(facility);
+        em.persist(room);
+        em.flush();
+    }
+
+    @Test
+    void residentInsertsAreBatched() {
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        boolean statisticsEnabled = statistics.isStatisticsEnabled();
+        statistics.setStatisticsEnabled(true);
+        try {
+            statistics.clear();
+            insertResidents(100);
+            em.flush();
+
+            assertThat(statistics.getEntityInsertCount()).isEqualTo(100);
+            // 4 batches of 25 inserts, and the few allocations of the pooled identifiers
+            assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(10);
+        } finally {
+            statistics.setStatisticsEnabled(statisticsEnabled);
+        }
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void insertResidentsBenchmark() {
+        long start = System.nanoTime();
+        for (int i = 0; i < BENCHMARK_RESIDENTS; i += FLUSH_INTERVAL) {
+            insertResidents(FLUSH_INTERVAL);
+            em.flush();
+            em.clear();
+            room = em.getReference(Room.class, room.getId());
+        }
+        long elapsed = (System.nanoTime() - start) / 1_000_000;
+        log.info("Inserted {} residents in {} ms ({} residents/s)", BENCHMARK_RESIDENTS, elapsed, BENCHMARK_RESIDENTS * 1000L / elapsed);
+    }
+
+    private void insertResidents(int count) {
+        for (int i = inserted; i < inserted + count; i++) {
+            em.persist(new Resident().name("Batch resident " + i).phone_number(1_000_000 + i).email("batch" + i + "@localhost").room(room));
+        }
+        inserted += count;
+    }
+}
@@ -0,0 +1,51 @@
+package org.jhipster.facility.repository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Records the SQL Hibernate prepares on the current thread, so that the tests can check the statements actually sent to
+ * the database. Registered in the tests with {@code hibernate.session_factory.statement_inspector}.
+ */
+public class StatementRecorder implements StatementInspector {
+
+    private static final ThreadLocal<Consumer<String>> LISTENER = new ThreadLocal<>();
+
+    /**
+     * Run an action, recording the statements it prepares.
+     *
+     * @param action the action to run.
+     * @return the statements prepared, in order.
+     */
+    public static List<String> record(Runnable action) {
+        List<String> statements = new ArrayList<>();
+        listen(action, statements::add);
+        return statements;
+    }
+
+    /**
+     * Run an action, passing each statement it prepares to a listener, within the transaction of the statement.
+     *
+     * @param action the action to run.
+     * @param listener the listener of the statements.
+     */
+    public static void listen(Runnable action, Consumer<String> listener) {
+        LISTENER.set(listener);
+        try {
+            action.run();
+        } finally {
+            LISTENER.remove();
+        }
+    }
+
+    @Override
+    public String inspect(String sql) {
+        Consumer<String> listener = LISTENER.get();
+        if (listener != null) {
+            listener.accept(sql);
+        }
+        return sql;
+    }
+}
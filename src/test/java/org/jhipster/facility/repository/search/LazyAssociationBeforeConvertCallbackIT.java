@@ -0,0 +1,51 @@
+package org.jhipster.facility.repository.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import javax.persistence.EntityManager;
+import org.hibernate.proxy.HibernateProxy;
+import org.jhipster.facility.IntegrationTest;
+import org.jhipster.facility.domain.Facility;
+import org.jhipster.facility.domain.Room;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Integration tests for the {@link LazyAssociationBeforeConvertCallback}, given entities read with their associations
+ * left as lazy proxies.
+ */
+@IntegrationTest
+@Transactional
+class LazyAssociationBeforeConvertCallbackIT {
+
+    @Autowired
+    private LazyAssociationBeforeConvertCallback callback;
+
+    @Autowired
+    private EntityManager em;
+
+    private Room room;
+
+    @BeforeEach
+    void initTest() {
+        Facility facility = new Facility().facility_name("Lazy association facility");
+        em.persist(facility);
+        room = new Room().room_number(1).capacity(1).facility(facility);
+        em.persist(room);
+        em.flush();
+        em.clear();
+    }
+
+    @Test
+    void roomIsConvertedWithItsFacility() {
+        Room read = em.find(Room.class, room.getId());
+        assertThat(read.getFacility()).isInstanceOf(HibernateProxy.class);
+
+        callback.onBeforeConvert(read, null);
+
+        assertThat(read.getFacility()).isNotInstanceOf(HibernateProxy.class);
+        assertThat(read.getFacility().getFacility_name()).isEqualTo("Lazy association facility");
+    }
+}
@@ -0,0 +1,15 @@
+package org.jhipster.facility.repository.search;
+
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configure a Mock version of {@link SearchIndexOperations} to test the
+ * application without starting Elasticsearch.
+ */
+@Configuration
+public class SearchIndexOperationsMockConfiguration {
+
+    @MockBean
+    private SearchIndexOperations mockSearchIndexOperations;
+}
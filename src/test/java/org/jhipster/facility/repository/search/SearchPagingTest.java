@@ -0,0 +1,28 @@
+package org.jhipster.facility.repository.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+
+class SearchPagingTest {
+
+    @Test
+    void unsortedSearchIsSortedByRelevanceThenId() {
+        assertThat(SearchPaging.stableSort(Sort.unsorted())).isEqualTo(Sort.by(Sort.Direction.DESC, "_score").and(Sort.by("id")));
+    }
+
+    @Test
+    void sortedSearchIsThenSortedById() {
+        Sort sort = Sort.by(Sort.Direction.DESC, "room_number");
+
+        assertThat(SearchPaging.stableSort(sort)).isEqualTo(sort.and(Sort.by("id")));
+    }
+
+    @Test
+    void searchSortedByIdIsLeftAsIs() {
+        Sort sort = Sort.by(Sort.Direction.DESC, "id");
+
+        assertThat(SearchPaging.stableSort(sort)).isEqualTo(sort);
+    }
+}
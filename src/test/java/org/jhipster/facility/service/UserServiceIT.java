@@ -1,9 +1,6 @@
 package org.jhipster.facility.service;
 
 import static org.assertj.core.api.Assertions.assertThat;
-import static org.mockito.Mockito.never;
-import static org.mockito.Mockito.times;
-import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.time.Instant;
@@ -15,8 +12,9 @@ import org.apache.commons.lang3.RandomStringUtils;
 import org.jhipster.facility.IntegrationTest;
 import org.jhipster.facility.config.Constants;
 import org.jhipster.facility.domain.User;
+import org.jhipster.facility.domain.enumeration.SearchDocumentType;
 import org.jhipster.facility.repository.UserRepository;
-import org.jhipster.facility.repository.search.UserSearchRepository;
+import org.jhipster.facility.repository.SearchOutboxEntryRepository;
 import org.jhipster.facility.service.dto.AdminUserDTO;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -54,13 +52,8 @@ class UserServiceIT {
     @Autowired
     private UserService userService;
 
-    /**
-     * This repository is mocked in the org.jhipster.facility.repository.search test package.
-     *
-     * @see org.jhipster.facility.repository.search.UserSearchRepositoryMockConfiguration
-     */
     @Autowired
-    private UserSearchRepository mockUserSearchRepository;
+    private SearchOutboxEntryRepository searchOutboxEntryRepository;
 
     @Autowired
     private AuditingHandler auditingHandler;
@@ -177,8 +170,8 @@ class UserServiceIT {
         users = userRepository.findAllByActivatedIsFalseAndActivationKeyIsNotNullAndCreatedDateBefore(threeDaysAgo);
         assertThat(users).isEmpty();
 
-        // Verify Elasticsearch mock
-        verify(mockUserSearchRepository, times(1)).delete(user);
+        // Verify the search outbox
+        assertThat(searchOutboxEntryRepository.countByEntity(SearchDocumentType.USER, user.getId())).isEqualTo(1);
     }
 
     @Test
@@ -197,7 +190,7 @@ class UserServiceIT {
         Optional<User> maybeDbUser = userRepository.findById(dbUser.getId());
         assertThat(maybeDbUser).contains(dbUser);
 
-        // Verify Elasticsearch mock
-        verify(mockUserSearchRepository, never()).delete(user);
+        // Verify the search outbox
+        assertThat(searchOutboxEntryRepository.countByEntity(SearchDocumentType.USER, user.getId())).isZero();
     }
 }
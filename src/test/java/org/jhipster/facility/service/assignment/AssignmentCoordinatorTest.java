@@ -0,0 +1,234 @@
+package org.jhipster.facility.service.assignment;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.jhipster.facility.config.ApplicationProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+
+/**
+ * Unit and concurrency tests for {@link AssignmentCoordinator}.
+ */
+class AssignmentCoordinatorTest {
+
+    private static final int OPERATIONS_PER_THREAD = 40;
+
+    private final int threads = Math.max(4, Math.min(16, Runtime.getRuntime().availableProcessors()));
+
+    private AssignmentCoordinator coordinator;
+
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getAssignment().setLockStripes(64);
+        applicationProperties.getAssignment().setMaxAttempts(3);
+        coordinator = new AssignmentCoordinator(new NoOpTransactionManager(), applicationProperties);
+        executor = Executors.newFixedThreadPool(threads);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void roundsStripesUpToPowerOfTwo() {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getAssignment().setLockStripes(100);
+
+        assertThat(new AssignmentCoordinator(new NoOpTransactionManager(), applicationProperties).stripeCount()).isEqualTo(128);
+        assertThat(coordinator.stripesOf(Arrays.asList(3L, null, 3L))).containsExactly(coordinator.stripeOf(3L));
+    }
+
+    @Test
+    void serializesAssignmentsToTheSameRoom() throws Exception {
+        AtomicInteger active = new AtomicInteger();
+        AtomicInteger maxActive = new AtomicInteger();
+
+        runConcurrently(thread -> 42L, () -> {
+            maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+            Thread.sleep(1);
+            active.decrementAndGet();
+        });
+
+        assertThat(maxActive.get()).isEqualTo(1);
+    }
+
+    @Test
+    void runsAssignmentsToDifferentRoomsConcurrently() throws Exception {
+        List<Long> rooms = roomsOnDistinctStripes(threads);
+        // Every assignment waits inside its lock for all the others: it only returns if they all hold their lock at once.
+        CyclicBarrier allInside = new CyclicBarrier(threads);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            List<Long> room = List.of(rooms.get(t));
+            futures.add(executor.submit(() -> coordinator.assign(room, () -> awaitAll(allInside))));
+        }
+
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        assertThat(allInside.isBroken()).isFalse();
+    }
+
+    @Test
+    void neverDeadlocksOnRoomsTakenInOppositeOrder() throws Exception {
+        List<Long> rooms = roomsOnDistinctStripes(2);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            List<Long> order = t % 2 == 0 ? rooms : List.of(rooms.get(1), rooms.get(0));
+            futures.add(
+                executor.submit(() -> {
+                    for (int i = 0; i < OPERATIONS_PER_THREAD; i++) {
+                        coordinator.assign(order, () -> null);
+                    }
+                })
+            );
+        }
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    void retriesOptimisticLockFailures() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        String result = coordinator.assign(
+            List.of(1L),
+            () -> {
+                if (attempts.incrementAndGet() < 3) {
+                    throw new ObjectOptimisticLockingFailureException("Room", 1L);
+                }
+                return "assigned";
+            }
+        );
+
+        assertThat(result).isEqualTo("assigned");
+        assertThat(attempts.get()).isEqualTo(3);
+    }
+
+    @Test
+    void givesUpAfterMaxAttempts() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThatThrownBy(() ->
+                coordinator.assign(
+                    List.of(1L),
+                    () -> {
+                        attempts.incrementAndGet();
+                        throw new ObjectOptimisticLockingFailureException("Room", 1L);
+                    }
+                )
+            )
+            .isInstanceOf(ObjectOptimisticLockingFailureException.class);
+        assertThat(attempts.get()).isEqualTo(3);
+    }
+
+    @Test
+    void doesNotRetryOtherFailures() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThatThrownBy(() ->
+                coordinator.assign(
+                    List.of(1L),
+                    () -> {
+                        attempts.incrementAndGet();
+                        throw new IllegalStateException("Room is full");
+                    }
+                )
+            )
+            .isInstanceOf(IllegalStateException.class);
+        assertThat(attempts.get()).isEqualTo(1);
+    }
+
+    private interface RoomOfThread {
+        Long roomOf(int thread);
+    }
+
+    private interface Work {
+        void run() throws InterruptedException;
+    }
+
+    private void runConcurrently(RoomOfThread roomOfThread, Work work) throws Exception {
+        List<Callable<Void>> tasks = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            List<Long> rooms = List.of(roomOfThread.roomOf(t));
+            tasks.add(() -> {
+                for (int i = 0; i < OPERATIONS_PER_THREAD; i++) {
+                    coordinator.assign(
+                        rooms,
+                        () -> {
+                            try {
+                                work.run();
+                            } catch (InterruptedException e) {
+                                Thread.currentThread().interrupt();
+                            }
+                            return null;
+                        }
+                    );
+                }
+                return null;
+            });
+        }
+        for (Future<Void> future : executor.invokeAll(tasks)) {
+            future.get();
+        }
+    }
+
+    private static Integer awaitAll(CyclicBarrier barrier) {
+        try {
+            return barrier.await(30, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            throw new IllegalStateException("Assignments to different rooms did not run concurrently", e);
+        }
+    }
+
+    private List<Long> roomsOnDistinctStripes(int count) {
+        List<Long> rooms = new ArrayList<>();
+        boolean[] taken = new boolean[coordinator.stripeCount()];
+        for (long roomId = 1; rooms.size() < count; roomId++) {
+            int stripe = coordinator.stripeOf(roomId);
+            if (!taken[stripe]) {
+                taken[stripe] = true;
+                rooms.add(roomId);
+            }
+        }
+        return rooms;
+    }
+
+    private static class NoOpTransactionManager extends AbstractPlatformTransactionManager {
+
+        @Override
+        protected Object doGetTransaction() {
+            return new Object();
+        }
+
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {}
+
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {}
+
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {}
+    }
+}
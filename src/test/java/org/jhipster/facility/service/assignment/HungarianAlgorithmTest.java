@@ -0,0 +1,85 @@
+package org.jhipster.facility.service.assignment;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for {@link HungarianAlgorithm}.
+ */
+class HungarianAlgorithmTest {
+
+    @Test
+    void solvesSquareMatrix() {
+        long[][] cost = { { 4, 1, 3 }, { 2, 0, 5 }, { 3, 2, 2 } };
+
+        int[] assignment = HungarianAlgorithm.solve(cost);
+
+        assertThat(assignment).containsExactly(1, 0, 2);
+        assertThat(totalCost(cost, assignment)).isEqualTo(5);
+    }
+
+    @Test
+    void solvesRectangularMatrixWithDistinctColumns() {
+        long[][] cost = { { 10, 1, 10, 10 }, { 10, 1, 2, 10 } };
+
+        int[] assignment = HungarianAlgorithm.solve(cost);
+
+        assertThat(assignment).containsExactly(1, 2);
+    }
+
+    @Test
+    void matchesBruteForceOnRandomMatrices() {
+        Random random = new Random(42);
+        for (int round = 0; round < 200; round++) {
+            int rows = 1 + random.nextInt(5);
+            int columns = rows + random.nextInt(3);
+            long[][] cost = new long[rows][columns];
+            for (long[] row : cost) {
+                for (int j = 0; j < columns; j++) {
+                    row[j] = random.nextInt(50);
+                }
+            }
+
+            int[] assignment = HungarianAlgorithm.solve(cost);
+
+            assertThat(assignment).doesNotHaveDuplicates();
+            assertThat(totalCost(cost, assignment)).isEqualTo(bruteForce(cost, 0, new boolean[columns]));
+        }
+    }
+
+    @Test
+    void rejectsMoreRowsThanColumns() {
+        assertThatThrownBy(() -> HungarianAlgorithm.solve(new long[][] { { 1 }, { 2 } })).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void solvesEmptyMatrix() {
+        assertThat(HungarianAlgorithm.solve(new long[0][0])).isEmpty();
+    }
+
+    private static long totalCost(long[][] cost, int[] assignment) {
+        long total = 0;
+        for (int i = 0; i < assignment.length; i++) {
+            total += cost[i][assignment[i]];
+        }
+        return total;
+    }
+
+    private static long bruteForce(long[][] cost, int row, boolean[] used) {
+        if (row == cost.length) {
+            return 0;
+        }
+        long best = Long.MAX_VALUE;
+        for (int j = 0; j < used.length; j++) {
+            if (!used[j]) {
+                used[j] = true;
+                best = Math.min(best, cost[row][j] + bruteForce(cost, row + 1, used));
+                used[j] = false;
+            }
+        }
+        return best;
+    }
+}
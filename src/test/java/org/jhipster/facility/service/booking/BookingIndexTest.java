@@ -0,0 +1,83 @@
+package org.jhipster.facility.service.booking;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.jhipster.facility.service.occupancy.OccupancyIndex;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit and performance tests for {@link BookingIndex}.
+ */
+class BookingIndexTest {
+
+    private static final long FACILITY_ID = 1L;
+
+    private static final LocalDate FIRST_DAY = LocalDate.of(2023, 1, 1);
+
+    @Test
+    void findsRoomsFreeOverTheWholeRange() {
+        OccupancyIndex occupancyIndex = new OccupancyIndex(null);
+        occupancyIndex.roomSaved(10L, FACILITY_ID, 1);
+        occupancyIndex.roomSaved(11L, FACILITY_ID, 2);
+        occupancyIndex.roomSaved(12L, FACILITY_ID, 1);
+        BookingIndex index = new BookingIndex(null, occupancyIndex);
+        index.bookingSaved(1L, 10L, FIRST_DAY, FIRST_DAY.plusDays(10));
+        index.bookingSaved(2L, 11L, FIRST_DAY, FIRST_DAY.plusDays(10));
+        index.bookingSaved(3L, 12L, FIRST_DAY.plusDays(20), FIRST_DAY.plusDays(30));
+
+        assertThat(index.findAvailableRoomIds(FACILITY_ID, FIRST_DAY.plusDays(5), FIRST_DAY.plusDays(25))).containsExactly(11L);
+        assertThat(index.findAvailableRoomIds(FACILITY_ID, FIRST_DAY.plusDays(10), FIRST_DAY.plusDays(20)))
+            .containsExactlyInAnyOrder(10L, 11L, 12L);
+
+        index.bookingSaved(4L, 11L, FIRST_DAY.plusDays(5), FIRST_DAY.plusDays(6));
+        index.bookingDeleted(3L, 12L, FIRST_DAY.plusDays(20));
+
+        assertThat(index.findAvailableRoomIds(FACILITY_ID, FIRST_DAY.plusDays(5), FIRST_DAY.plusDays(25))).containsExactly(12L);
+    }
+
+    @Test
+    void deletedRoomLeavesNoBookings() {
+        OccupancyIndex occupancyIndex = new OccupancyIndex(null);
+        occupancyIndex.roomSaved(10L, FACILITY_ID, 1);
+        BookingIndex index = new BookingIndex(null, occupancyIndex);
+        index.bookingSaved(1L, 10L, FIRST_DAY, FIRST_DAY.plusDays(10));
+
+        index.roomDeleted(10L);
+
+        assertThat(index.isAvailable(10L, 1, FIRST_DAY, FIRST_DAY.plusDays(10))).isTrue();
+    }
+
+    @Test
+    void searchesLargeFacilityWithLongHistoryQuickly() {
+        OccupancyIndex occupancyIndex = new OccupancyIndex(null);
+        BookingIndex index = new BookingIndex(null, occupancyIndex);
+        Random random = new Random(42);
+        long bookingId = 0;
+        for (long roomId = 1; roomId <= 5_000; roomId++) {
+            occupancyIndex.roomSaved(roomId, FACILITY_ID, 1 + random.nextInt(2));
+            // Three years of consecutive stays of one to eight weeks, with gaps.
+            LocalDate day = FIRST_DAY;
+            while (day.isBefore(FIRST_DAY.plusYears(3))) {
+                LocalDate end = day.plusDays(7 + random.nextInt(50));
+                index.bookingSaved(++bookingId, roomId, day, end);
+                day = end.plusDays(random.nextInt(10));
+            }
+        }
+        LocalDate start = FIRST_DAY.plusYears(2);
+        LocalDate end = start.plusDays(14);
+
+        long best = Long.MAX_VALUE;
+        int available = 0;
+        for (int i = 0; i < 50; i++) {
+            long begin = System.nanoTime();
+            available = index.findAvailableRoomIds(FACILITY_ID, start, end).length;
+            best = Math.min(best, System.nanoTime() - begin);
+        }
+
+        assertThat(available).isBetween(1, 5_000);
+        assertThat(TimeUnit.NANOSECONDS.toMillis(best)).isLessThan(10);
+    }
+}
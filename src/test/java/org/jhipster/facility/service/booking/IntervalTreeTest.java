@@ -0,0 +1,80 @@
+package org.jhipster.facility.service.booking;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for {@link IntervalTree}.
+ */
+class IntervalTreeTest {
+
+    @Test
+    void treatsEndDayAsFree() {
+        IntervalTree tree = new IntervalTree();
+        tree.add(1L, 10, 20);
+        tree.add(2L, 20, 30);
+
+        assertThat(tree.overlapsAny(0, 10)).isFalse();
+        assertThat(tree.overlapsAny(30, 40)).isFalse();
+        assertThat(tree.overlapsAny(19, 21)).isTrue();
+        assertThat(tree.maxOverlap(0, 40)).isEqualTo(1);
+        assertThat(tree.maxOverlap(25, 26)).isEqualTo(1);
+    }
+
+    @Test
+    void countsConcurrentBookings() {
+        IntervalTree tree = new IntervalTree();
+        tree.add(1L, 0, 10);
+        tree.add(2L, 5, 15);
+        tree.add(3L, 8, 9);
+
+        assertThat(tree.maxOverlap(0, 20)).isEqualTo(3);
+        assertThat(tree.maxOverlap(9, 20)).isEqualTo(2);
+        assertThat(tree.remove(3L, 8)).isTrue();
+        assertThat(tree.remove(3L, 8)).isFalse();
+        assertThat(tree.maxOverlap(0, 20)).isEqualTo(2);
+        assertThat(tree.size()).isEqualTo(2);
+    }
+
+    @Test
+    void matchesBruteForceOnRandomOperations() {
+        Random random = new Random(42);
+        IntervalTree tree = new IntervalTree();
+        List<int[]> bookings = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            if (bookings.isEmpty() || random.nextInt(4) > 0) {
+                int start = random.nextInt(1_000);
+                int[] booking = { i, start, start + 1 + random.nextInt(30) };
+                bookings.add(booking);
+                tree.add(booking[0], booking[1], booking[2]);
+            } else {
+                int[] booking = bookings.remove(random.nextInt(bookings.size()));
+                assertThat(tree.remove(booking[0], booking[1])).isTrue();
+            }
+            int from = random.nextInt(1_000);
+            int to = from + 1 + random.nextInt(60);
+            int expected = bruteForceMaxOverlap(bookings, from, to);
+            assertThat(tree.maxOverlap(from, to)).isEqualTo(expected);
+            assertThat(tree.overlapsAny(from, to)).isEqualTo(expected > 0);
+        }
+        assertThat(tree.size()).isEqualTo(bookings.size());
+    }
+
+    private static int bruteForceMaxOverlap(List<int[]> bookings, int from, int to) {
+        int max = 0;
+        for (int day = from; day < to; day++) {
+            int count = 0;
+            for (int[] booking : bookings) {
+                if (booking[1] <= day && day < booking[2]) {
+                    count++;
+                }
+            }
+            max = Math.max(max, count);
+        }
+        return max;
+    }
+}
@@ -0,0 +1,122 @@
+package org.jhipster.facility.service.occupancy;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for {@link FacilityBeds}.
+ */
+class FacilityBedsTest {
+
+    @Test
+    void listsFreeBedsRoomByRoom() {
+        FacilityBeds beds = new FacilityBeds(2);
+        beds.addRoom(10L, 2);
+        beds.addRoom(11L, 3);
+        beds.setTaken(10L, 1, true);
+        beds.setTaken(10L, 2, true);
+        beds.setTaken(11L, 1, true);
+
+        assertThat(freeBeds(beds, 10)).containsExactly("11/2", "11/3");
+        assertThat(beds.freeBedCount()).isEqualTo(2);
+
+        beds.setTaken(10L, 2, false);
+        assertThat(freeBeds(beds, 1)).containsExactly("10/2");
+        assertThat(beds.setTaken(10L, 3, true)).isFalse();
+        assertThat(beds.setTaken(12L, 1, true)).isFalse();
+    }
+
+    @Test
+    void resizedAndRemovedRoomsKeepTheirBeds() {
+        FacilityBeds beds = new FacilityBeds(4);
+        beds.addRoom(1L, 2);
+        beds.addRoom(2L, 2);
+        beds.addRoom(3L, 0);
+        beds.setTaken(1L, 2, true);
+
+        beds.addRoom(1L, 4);
+        assertThat(beds.takenBeds(1L).stream()).containsExactly(2);
+        assertThat(freeBeds(beds, 10)).containsExactly("2/1", "2/2", "1/1", "1/3", "1/4");
+
+        beds.addRoom(2L, 1);
+        assertThat(beds.removeRoom(1L)).isTrue();
+        assertThat(beds.removeRoom(1L)).isFalse();
+        assertThat(freeBeds(beds, 10)).containsExactly("2/1");
+        assertThat(beds.freeBedCount()).isEqualTo(1);
+    }
+
+    @Test
+    void deadBitsAreReclaimed() {
+        FacilityBeds beds = new FacilityBeds(4);
+        for (long roomId = 1; roomId <= 200; roomId++) {
+            beds.addRoom(roomId, 4);
+        }
+        for (long roomId = 1; roomId <= 150; roomId++) {
+            beds.removeRoom(roomId);
+        }
+
+        assertThat(beds.bitCount()).isLessThanOrEqualTo(400);
+        assertThat(beds.freeBedCount()).isEqualTo(200);
+        assertThat(freeBeds(beds, 1)).containsExactly("151/1");
+    }
+
+    @Test
+    void matchesReferenceModel() {
+        Random random = new Random(11);
+        FacilityBeds beds = new FacilityBeds(4);
+        Map<Long, boolean[]> reference = new LinkedHashMap<>();
+        for (int i = 0; i < 20_000; i++) {
+            long roomId = 1 + random.nextInt(60);
+            int action = random.nextInt(10);
+            boolean[] roomBeds = reference.get(roomId);
+            if (action == 0) {
+                beds.removeRoom(roomId);
+                reference.remove(roomId);
+            } else if (action == 1 || roomBeds == null) {
+                int capacity = random.nextInt(6);
+                beds.addRoom(roomId, capacity);
+                boolean[] resized = new boolean[capacity];
+                if (roomBeds != null) {
+                    System.arraycopy(roomBeds, 0, resized, 0, Math.min(capacity, roomBeds.length));
+                }
+                reference.put(roomId, resized);
+            } else if (roomBeds.length > 0) {
+                int bed = random.nextInt(roomBeds.length);
+                boolean taken = random.nextBoolean();
+                assertThat(beds.setTaken(roomId, bed + 1, taken)).isTrue();
+                roomBeds[bed] = taken;
+            }
+            if (i % 100 == 0) {
+                int free = 0;
+                for (boolean[] expected : reference.values()) {
+                    for (boolean taken : expected) {
+                        free += taken ? 0 : 1;
+                    }
+                }
+                assertThat(beds.freeBedCount()).isEqualTo(free);
+                assertThat(freeBeds(beds, Integer.MAX_VALUE)).hasSize(free).allSatisfy(bed -> {
+                    String[] parts = bed.split("/");
+                    assertThat(reference.get(Long.parseLong(parts[0]))[Integer.parseInt(parts[1]) - 1]).isFalse();
+                });
+            }
+        }
+    }
+
+    private static List<String> freeBeds(FacilityBeds beds, int limit) {
+        int size = Math.min(limit, beds.freeBedCount());
+        long[] roomIds = new long[size];
+        int[] bedNumbers = new int[size];
+        int n = beds.freeBeds(size, roomIds, bedNumbers);
+        List<String> result = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            result.add(roomIds[i] + "/" + bedNumbers[i]);
+        }
+        return result;
+    }
+}
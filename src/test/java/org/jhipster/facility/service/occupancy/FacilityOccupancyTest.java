@@ -0,0 +1,93 @@
+package org.jhipster.facility.service.occupancy;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for {@link FacilityOccupancy} and {@link LongLongHashMap}.
+ */
+class FacilityOccupancyTest {
+
+    @Test
+    void tracksVacanciesAsOccupantsComeAndGo() {
+        FacilityOccupancy occupancy = new FacilityOccupancy(2);
+        occupancy.addRoom(10L, 1, 0);
+        occupancy.addRoom(11L, 2, 2);
+        occupancy.addRoom(12L, 1, 0);
+
+        assertThat(occupancy.vacantRoomIds()).containsExactly(10L, 12L);
+
+        occupancy.addOccupants(10L, 1);
+        occupancy.addOccupants(11L, -2);
+
+        assertThat(occupancy.vacantRoomIds()).containsExactly(11L, 12L);
+        assertThat(occupancy.roomCount()).isEqualTo(3);
+    }
+
+    @Test
+    void removingRoomKeepsOtherSlotsConsistent() {
+        FacilityOccupancy occupancy = new FacilityOccupancy(4);
+        occupancy.addRoom(1L, 1, 0);
+        occupancy.addRoom(2L, 1, 1);
+        occupancy.addRoom(3L, 1, 0);
+
+        assertThat(occupancy.removeRoom(1L)).isZero();
+        assertThat(occupancy.removeRoom(1L)).isEqualTo(-1);
+
+        assertThat(occupancy.vacantRoomIds()).containsExactly(3L);
+        occupancy.addOccupants(2L, -1);
+        assertThat(occupancy.vacantRoomIds()).containsExactlyInAnyOrder(2L, 3L);
+        assertThat(occupancy.roomCount()).isEqualTo(2);
+    }
+
+    @Test
+    void addingKnownRoomIsIgnored() {
+        FacilityOccupancy occupancy = new FacilityOccupancy(4);
+
+        assertThat(occupancy.addRoom(5L, 1, 0)).isTrue();
+        assertThat(occupancy.addRoom(5L, 3, 3)).isFalse();
+        assertThat(occupancy.vacantRoomIds()).containsExactly(5L);
+    }
+
+    @Test
+    void sharedRoomStaysVacantUntilFull() {
+        FacilityOccupancy occupancy = new FacilityOccupancy(4);
+        occupancy.addRoom(7L, 2, 0);
+
+        occupancy.addOccupants(7L, 1);
+        assertThat(occupancy.vacantRoomIds()).containsExactly(7L);
+
+        occupancy.addOccupants(7L, 1);
+        assertThat(occupancy.vacantRoomIds()).isEmpty();
+
+        occupancy.setCapacity(7L, 3);
+        assertThat(occupancy.vacantRoomIds()).containsExactly(7L);
+    }
+
+    @Test
+    void hashMapMatchesReferenceMap() {
+        Random random = new Random(7);
+        LongLongHashMap map = new LongLongHashMap(4);
+        Map<Long, Long> reference = new HashMap<>();
+        for (int i = 0; i < 20_000; i++) {
+            long key = random.nextInt(2_000) - 100;
+            if (random.nextInt(3) == 0) {
+                Long expected = reference.remove(key);
+                assertThat(map.remove(key)).isEqualTo(expected == null ? LongLongHashMap.MISSING : expected);
+            } else {
+                long value = random.nextLong();
+                reference.put(key, value);
+                map.put(key, value);
+            }
+        }
+        assertThat(map.size()).isEqualTo(reference.size());
+        for (long key = -100; key < 1_900; key++) {
+            Long expected = reference.get(key);
+            assertThat(map.get(key)).isEqualTo(expected == null ? LongLongHashMap.MISSING : expected);
+        }
+    }
+}
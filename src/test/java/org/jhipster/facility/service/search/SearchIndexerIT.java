@@ -0,0 +1,333 @@
+package org.jhipster.facility.service.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import javax.persistence.EntityManager;
+import org.jhipster.facility.IntegrationTest;
+import org.jhipster.facility.domain.Facility;
+import org.jhipster.facility.domain.ReindexJob;
+import org.jhipster.facility.domain.Resident;
+import org.jhipster.facility.domain.Room;
+import org.jhipster.facility.domain.SearchOutboxEntry;
+import org.jhipster.facility.domain.enumeration.SearchDocumentType;
+import org.jhipster.facility.domain.search.ResidentDocument;
+import org.jhipster.facility.repository.ReindexJobRepository;
+import org.jhipster.facility.repository.SearchOutboxEntryRepository;
+import org.jhipster.facility.repository.StatementRecorder;
+import org.jhipster.facility.repository.search.FacilitySearchRepository;
+import org.jhipster.facility.repository.search.ResidentSearchRepository;
+import org.jhipster.facility.repository.search.RoomSearchRepository;
+import org.jhipster.facility.repository.search.SearchIndexOperations;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.elasticsearch.BulkFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Integration tests for the {@link SearchIndexOutbox} and the {@link SearchIndexer}.
+ * <p>
+ * The search repositories are mocked in the org.jhipster.facility.repository.search test package, and the indexer is
+ * not scheduled in tests: each test drains the outbox itself, within its own transaction.
+ */
+@IntegrationTest
+@Transactional
+class SearchIndexerIT {
+
+    @Autowired
+    private SearchIndexOutbox searchIndexOutbox;
+
+    @Autowired
+    private SearchIndexer searchIndexer;
+
+    @Autowired
+    private SearchOutboxEntryRepository searchOutboxEntryRepository;
+
+    @Autowired
+    private FacilitySearchRepository mockFacilitySearchRepository;
+
+    @Autowired
+    private RoomSearchRepository mockRoomSearchRepository;
+
+    @Autowired
+    private ResidentSearchRepository mockResidentSearchRepository;
+
+    @Autowired
+    private SearchIndexOperations mockSearchIndexOperations;
+
+    @Autowired
+    private ReindexJobRepository reindexJobRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManager em;
+
+    private Facility facility;
+
+    private Room room;
+
+    private Room otherRoom;
+
+    private Resident resident;
+
+    @BeforeEach
+    void initTest() {
+        // Entries committed by other tests would be drained with those of this test
+        searchOutboxEntryRepository.deleteAllInBatch();
+        facility = new Facility().facility_name("Search indexer facility");
+        em.persist(facility);
+        room = new Room().room_number(1).capacity(1).facility(facility);
+        em.persist(room);
+        otherRoom = new Room().room_number(2).capacity(1).facility(facility);
+        em.persist(otherRoom);
+        resident = new Resident().name("AAAAAAAAAA").phone_number(717171).room(room);
+        em.persist(resident);
+        em.flush();
+        em.clear();
+    }
+
+    @Test
+    void drainIndexesEachEntityOnceAndRemovesItsEntries() {
+        searchIndexOutbox.enqueue(SearchDocumentType.ROOM, room.getId());
+        searchIndexOutbox.enqueue(SearchDocumentType.ROOM, room.getId());
+        searchIndexOutbox.enqueue(SearchDocumentType.RESIDENT, resident.getId());
+        searchIndexOutbox.enqueue(SearchDocumentType.FACILITY, facility.getId());
+
+        searchIndexer.drain();
+
+        verify(mockRoomSearchRepository).saveAll(List.of(room));
+        // Indexed once, along with its room and facility
+        verify(mockResidentSearchRepository).saveAll(List.of(new ResidentDocument().id(resident.getId())));
+        verify(mockFacilitySearchRepository).saveAll(List.of(facility));
+        verify(mockRoomSearchRepository, never()).deleteAllById(any());
+        assertThat(searchOutboxEntryRepository.count()).isZero();
+        assertThat(meterRegistry.get(SearchIndexer.PENDING_METER_NAME).gauge().value()).isZero();
+        assertThat(meterRegistry.get(SearchIndexer.LAG_METER_NAME).gauge().value()).isZero();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void drainWritesTheResidentsOfTheFacilitiesAndRoomsIndexed() {
+        Resident otherResident = new Resident().name("BBBBBBBBBB").phone_number(727272).room(em.find(Room.class, otherRoom.getId()));
+        em.persist(otherResident);
+        em.find(Facility.class, facility.getId()).facility_name("Renamed facility");
+        em.flush();
+        em.clear();
+        searchIndexOutbox.enqueue(SearchDocumentType.FACILITY, facility.getId());
+        searchIndexOutbox.enqueue(SearchDocumentType.ROOM, room.getId());
+
+        searchIndexer.drain();
+
+        ArgumentCaptor<List<ResidentDocument>> documents = ArgumentCaptor.forClass(List.class);
+        verify(mockResidentSearchRepository).saveAll(documents.capture());
+        assertThat(documents.getValue())
+            .extracting(ResidentDocument::getId, ResidentDocument::getRoom_number, ResidentDocument::getFacility_name)
+            .containsExactlyInAnyOrder(
+                tuple(resident.getId(), 1, "Renamed facility"),
+                tuple(otherResident.getId(), 2, "Renamed facility")
+            );
+        assertThat(searchOutboxEntryRepository.count()).isZero();
+    }
+
+    @Test
+    void drainDeletesTheDocumentsOfEntitiesGone() {
+        searchIndexOutbox.enqueueAll(SearchDocumentType.ROOM, List.of(room.getId(), Long.MAX_VALUE));
+
+        searchIndexer.drain();
+
+        verify(mockRoomSearchRepository).saveAll(List.of(room));
+        verify(mockRoomSearchRepository).deleteAllById(Set.of(Long.MAX_VALUE));
+        assertThat(searchOutboxEntryRepository.count()).isZero();
+    }
+
+    @Test
+    void drainAlsoWritesToTheIndexOfAnUnfinishedReindex() {
+        reindexJobRepository.save(
+            new ReindexJob().entity_type(SearchDocumentType.ROOM).index_name("room-reindex").started_at(Instant.now()).document_count(0L)
+        );
+        reindexJobRepository.save(
+            new ReindexJob()
+                .entity_type(SearchDocumentType.ROOM)
+                .index_name("room-reindexed")
+                .started_at(Instant.now())
+                .finished_at(Instant.now())
+                .document_count(0L)
+        );
+        searchIndexOutbox.enqueueAll(SearchDocumentType.ROOM, List.of(room.getId(), Long.MAX_VALUE));
+        searchIndexOutbox.enqueue(SearchDocumentType.FACILITY, facility.getId());
+
+        searchIndexer.drain();
+
+        verify(mockRoomSearchRepository).saveAll(List.of(room));
+        verify(mockSearchIndexOperations).bulkIndex("room-reindex", List.of(room));
+        verify(mockSearchIndexOperations).bulkDelete("room-reindex", Set.of(Long.MAX_VALUE));
+        verifyNoMoreInteractions(mockSearchIndexOperations);
+        assertThat(searchOutboxEntryRepository.count()).isZero();
+    }
+
+    @Test
+    void drainIndexesTheEntriesOfAnEntityNotYetDueAlongWithItsDueEntries() {
+        Instant now = Instant.now();
+        searchOutboxEntryRepository.save(
+            new SearchOutboxEntry()
+                .entity_type(SearchDocumentType.ROOM)
+                .entity_id(room.getId())
+                .created_at(now)
+                .attempts(2)
+                .next_attempt_at(now.plusSeconds(60))
+        );
+        searchIndexOutbox.enqueue(SearchDocumentType.ROOM, room.getId());
+
+        searchIndexer.drain();
+
+        verify(mockRoomSearchRepository).saveAll(List.of(room));
+        assertThat(searchOutboxEntryRepository.count()).isZero();
+    }
+
+    @Test
+    void entitiesWithAnEntryNotLockedByTheBatchAreLeftToTheIndexerHoldingIt() {
+        searchIndexOutbox.enqueue(SearchDocumentType.ROOM, room.getId());
+        searchIndexOutbox.enqueue(SearchDocumentType.ROOM, otherRoom.getId());
+        TransactionTemplate otherIndexer = new TransactionTemplate(transactionManager);
+        otherIndexer.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        List<Long> otherEntryIds = new ArrayList<>();
+
+        Instant start = Instant.now();
+        // H2 waits for the locks instead of skipping them: an entry committed once the entries of the entities are
+        // locked stands for one locked by another indexer, skipped by the lock but read along with the others
+        StatementRecorder.listen(
+            () -> searchIndexer.drain(),
+            sql -> {
+                if (otherEntryIds.isEmpty() && sql.contains("from search_outbox") && !sql.contains(" for update")) {
+                    otherEntryIds.add(
+                        otherIndexer.execute(status ->
+                            searchOutboxEntryRepository
+                                .save(
+                                    new SearchOutboxEntry()
+                                        .entity_type(SearchDocumentType.ROOM)
+                                        .entity_id(room.getId())
+                                        .created_at(start)
+                                        .attempts(0)
+                                        .next_attempt_at(start)
+                                )
+                                .getId()
+                        )
+                    );
+                }
+            }
+        );
+
+        try {
+            verify(mockRoomSearchRepository).saveAll(List.of(otherRoom));
+            verifyNoMoreInteractions(mockRoomSearchRepository);
+            assertThat(searchOutboxEntryRepository.countByEntity(SearchDocumentType.ROOM, otherRoom.getId())).isZero();
+            // Attempted again shortly, not counted as a failure
+            assertThat(searchOutboxEntryRepository.findAll())
+                .filteredOn(entry -> !otherEntryIds.contains(entry.getId()))
+                .singleElement()
+                .satisfies(entry -> {
+                    assertThat(entry.getEntity_id()).isEqualTo(room.getId());
+                    assertThat(entry.getAttempts()).isZero();
+                    assertThat(entry.getNext_attempt_at()).isAfter(start);
+                });
+        } finally {
+            otherIndexer.executeWithoutResult(status -> searchOutboxEntryRepository.deleteAllById(otherEntryIds));
+        }
+    }
+
+    @Test
+    void failedEntriesAreKeptAndAttemptedAgainAfterBackoff() {
+        doThrow(new DataAccessResourceFailureException("Elasticsearch is down")).when(mockFacilitySearchRepository).saveAll(any());
+        searchIndexOutbox.enqueue(SearchDocumentType.FACILITY, facility.getId());
+        searchIndexOutbox.enqueue(SearchDocumentType.ROOM, room.getId());
+
+        Instant start = Instant.now();
+        searchIndexer.drain();
+        // Not due again yet
+        searchIndexer.drain();
+
+        verify(mockFacilitySearchRepository, times(1)).saveAll(any());
+        verify(mockRoomSearchRepository).saveAll(List.of(room));
+        assertThat(searchOutboxEntryRepository.findAll())
+            .singleElement()
+            .satisfies(entry -> {
+                assertThat(entry.getEntity_type()).isEqualTo(SearchDocumentType.FACILITY);
+                assertThat(entry.getAttempts()).isEqualTo(1);
+                assertThat(entry.getNext_attempt_at()).isAfter(start);
+            });
+        assertThat(meterRegistry.get(SearchIndexer.PENDING_METER_NAME).gauge().value()).isEqualTo(1);
+    }
+
+    @Test
+    void bulkFailureKeepsOnlyTheEntriesOfTheFailedDocuments() {
+        doThrow(new BulkFailureException("Bulk indexing has failures", Map.of(otherRoom.getId().toString(), "mapping error")))
+            .when(mockRoomSearchRepository)
+            .saveAll(any());
+        searchIndexOutbox.enqueueAll(SearchDocumentType.ROOM, List.of(room.getId(), otherRoom.getId()));
+
+        searchIndexer.drain();
+
+        assertThat(searchOutboxEntryRepository.countByEntity(SearchDocumentType.ROOM, room.getId())).isZero();
+        assertThat(searchOutboxEntryRepository.countByEntity(SearchDocumentType.ROOM, otherRoom.getId())).isEqualTo(1);
+    }
+
+    @Test
+    void backoffIsCappedAtTheMaximum() {
+        doThrow(new DataAccessResourceFailureException("Elasticsearch is down")).when(mockFacilitySearchRepository).saveAll(any());
+        Instant now = Instant.now();
+        searchOutboxEntryRepository.save(
+            new SearchOutboxEntry()
+                .entity_type(SearchDocumentType.FACILITY)
+                .entity_id(facility.getId())
+                .created_at(now)
+                .attempts(40)
+                .next_attempt_at(now)
+        );
+
+        searchIndexer.drain();
+
+        SearchOutboxEntry entry = searchOutboxEntryRepository.findAll().get(0);
+        assertThat(entry.getAttempts()).isEqualTo(41);
+        assertThat(entry.getNext_attempt_at()).isCloseTo(now.plusSeconds(300), within(5, ChronoUnit.SECONDS));
+    }
+
+    @Test
+    void lagIsTheAgeOfTheOldestEntry() {
+        Instant now = Instant.now();
+        searchOutboxEntryRepository.save(
+            new SearchOutboxEntry()
+                .entity_type(SearchDocumentType.ROOM)
+                .entity_id(room.getId())
+                .created_at(now.minusSeconds(60))
+                .attempts(3)
+                .next_attempt_at(now.plusSeconds(60))
+        );
+
+        searchIndexer.drain();
+
+        verifyNoInteractions(mockRoomSearchRepository);
+        assertThat(meterRegistry.get(SearchIndexer.LAG_METER_NAME).gauge().value()).isGreaterThanOrEqualTo(60);
+        assertThat(meterRegistry.get(SearchIndexer.PENDING_METER_NAME).gauge().value()).isEqualTo(1);
+    }
+}
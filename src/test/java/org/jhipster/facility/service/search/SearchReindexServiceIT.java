@@ -0,0 +1,166 @@
+package org.jhipster.facility.service.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.Set;
+import org.jhipster.facility.IntegrationTest;
+import org.jhipster.facility.domain.Facility;
+import org.jhipster.facility.domain.ReindexJob;
+import org.jhipster.facility.domain.enumeration.SearchDocumentType;
+import org.jhipster.facility.repository.ReindexJobRepository;
+import org.jhipster.facility.repository.ReindexPartitionRepository;
+import org.jhipster.facility.repository.search.SearchIndexOperations;
+import org.jhipster.facility.service.dto.ReindexJobDTO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * Integration tests for the migration of the search indices to the current mapping version by the
+ * {@link SearchReindexService}.
+ * <p>
+ * The index operations are mocked in the org.jhipster.facility.repository.search test package, and the jobs started run
+ * on other threads, so their rows are deleted after each test.
+ */
+@IntegrationTest
+class SearchReindexServiceIT {
+
+    private static final String ALIAS = "facility";
+
+    private static final long TIMEOUT_MILLIS = 10000;
+
+    @Autowired
+    private SearchReindexService searchReindexService;
+
+    @Autowired
+    private ReindexJobRepository reindexJobRepository;
+
+    @Autowired
+    private ReindexPartitionRepository reindexPartitionRepository;
+
+    @Autowired
+    private SearchIndexOperations mockSearchIndexOperations;
+
+    private String version;
+
+    @BeforeEach
+    void initTest() {
+        version = searchReindexService.mappingVersion(SearchDocumentType.FACILITY);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        reindexPartitionRepository.deleteAllInBatch();
+        reindexJobRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void mappingVersionIsAStableDigest() {
+        assertThat(version).matches("[0-9a-f]{8}").isEqualTo(searchReindexService.mappingVersion(SearchDocumentType.FACILITY));
+    }
+
+    @Test
+    void migrateLeavesAnAliasOfTheCurrentVersion() {
+        when(mockSearchIndexOperations.getAliasedIndices(ALIAS)).thenReturn(Set.of(ALIAS + "-" + version + "-20261018000000000"));
+
+        assertThat(searchReindexService.migrate(SearchDocumentType.FACILITY)).isEmpty();
+
+        verify(mockSearchIndexOperations, never()).createIndex(anyString(), any());
+        verify(mockSearchIndexOperations, never()).switchAlias(anyString(), anyString());
+        assertThat(reindexJobRepository.count()).isZero();
+    }
+
+    @Test
+    void migrateReindexesAnAliasOfAnotherVersionThenSwitchesIt() throws Exception {
+        when(mockSearchIndexOperations.getAliasedIndices(ALIAS)).thenReturn(Set.of(ALIAS + "-00000000-20261018000000000"));
+
+        Optional<ReindexJobDTO> started = searchReindexService.migrate(SearchDocumentType.FACILITY);
+
+        assertThat(started).isPresent();
+        String index = started.get().getIndex();
+        assertThat(index).startsWith(ALIAS + "-" + version + "-");
+        ReindexJobDTO job = awaitStopped(started.get().getId());
+        assertThat(job.getFinishedAt()).isNotNull();
+        InOrder inOrder = inOrder(mockSearchIndexOperations);
+        inOrder.verify(mockSearchIndexOperations).createIndex(index, Facility.class);
+        inOrder.verify(mockSearchIndexOperations).switchAlias(ALIAS, index);
+    }
+
+    @Test
+    void migrateCreatesAndAliasesTheMissingIndexBeforeFillingIt() throws Exception {
+        when(mockSearchIndexOperations.getAliasedIndices(ALIAS)).thenReturn(Set.of());
+        when(mockSearchIndexOperations.exists(ALIAS)).thenReturn(false);
+
+        Optional<ReindexJobDTO> started = searchReindexService.migrate(SearchDocumentType.FACILITY);
+
+        assertThat(started).isPresent();
+        String index = started.get().getIndex();
+        assertThat(index).startsWith(ALIAS + "-" + version + "-");
+        awaitStopped(started.get().getId());
+        InOrder inOrder = inOrder(mockSearchIndexOperations);
+        inOrder.verify(mockSearchIndexOperations).createIndex(index, Facility.class);
+        inOrder.verify(mockSearchIndexOperations).switchAlias(ALIAS, index);
+        inOrder.verify(mockSearchIndexOperations).refresh(index);
+        verify(mockSearchIndexOperations, times(1)).createIndex(anyString(), any());
+    }
+
+    @Test
+    void migrateAbandonsTheUnfinishedJobOfAnotherVersion() throws Exception {
+        when(mockSearchIndexOperations.getAliasedIndices(ALIAS)).thenReturn(Set.of(ALIAS + "-00000000-20261018000000000"));
+        ReindexJob outdated = reindexJobRepository.save(
+            new ReindexJob()
+                .entity_type(SearchDocumentType.FACILITY)
+                .index_name(ALIAS + "-ffffffff-20261018000000000")
+                .started_at(Instant.now())
+                .document_count(0L)
+        );
+
+        Optional<ReindexJobDTO> started = searchReindexService.migrate(SearchDocumentType.FACILITY);
+
+        assertThat(started).isPresent();
+        assertThat(started.get().getId()).isNotEqualTo(outdated.getId());
+        awaitStopped(started.get().getId());
+        verify(mockSearchIndexOperations).deleteIndex(outdated.getIndex_name());
+        assertThat(reindexJobRepository.findById(outdated.getId()))
+            .get()
+            .satisfies(job -> {
+                assertThat(job.getFinished_at()).isNotNull();
+                assertThat(job.getLast_error()).contains(version);
+            });
+    }
+
+    @Test
+    void migrateResumesTheUnfinishedJobOfTheCurrentVersion() throws Exception {
+        // The alias was given to the index before it was filled, then the application stopped
+        String index = ALIAS + "-" + version + "-20261018000000000";
+        when(mockSearchIndexOperations.getAliasedIndices(ALIAS)).thenReturn(Set.of(index));
+        ReindexJob unfinished = reindexJobRepository.save(
+            new ReindexJob().entity_type(SearchDocumentType.FACILITY).index_name(index).started_at(Instant.now()).document_count(0L)
+        );
+
+        Optional<ReindexJobDTO> started = searchReindexService.migrate(SearchDocumentType.FACILITY);
+
+        assertThat(started).map(ReindexJobDTO::getId).contains(unfinished.getId());
+        assertThat(awaitStopped(unfinished.getId()).getFinishedAt()).isNotNull();
+        verify(mockSearchIndexOperations, never()).createIndex(anyString(), any());
+    }
+
+    private ReindexJobDTO awaitStopped(Long id) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (true) {
+            ReindexJobDTO job = searchReindexService.findOne(id).orElseThrow();
+            if (!job.isRunning()) {
+                return job;
+            }
+            assertThat(System.currentTimeMillis()).as("reindex job %s still running", id).isLessThan(deadline);
+            Thread.sleep(20);
+        }
+    }
+}
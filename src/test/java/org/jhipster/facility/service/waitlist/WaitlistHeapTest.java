@@ -0,0 +1,72 @@
+package org.jhipster.facility.service.waitlist;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Comparator;
+import java.util.PriorityQueue;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for {@link WaitlistHeap}.
+ */
+class WaitlistHeapTest {
+
+    @Test
+    void servesHighestPriorityThenEarliestEntry() {
+        WaitlistHeap heap = new WaitlistHeap(2);
+        heap.add(1L, 0);
+        heap.add(2L, 5);
+        heap.add(3L, 5);
+        heap.add(4L, 1);
+
+        assertThat(heap.add(2L, 9)).isFalse();
+        assertThat(heap.poll()).isEqualTo(2L);
+        assertThat(heap.poll()).isEqualTo(3L);
+        assertThat(heap.poll()).isEqualTo(4L);
+        assertThat(heap.poll()).isEqualTo(1L);
+        assertThat(heap.poll()).isEqualTo(WaitlistHeap.EMPTY);
+        assertThat(heap.isEmpty()).isTrue();
+    }
+
+    @Test
+    void removesEntriesAnywhereInTheHeap() {
+        WaitlistHeap heap = new WaitlistHeap(4);
+        for (long id = 1; id <= 7; id++) {
+            heap.add(id, (int) (id % 3));
+        }
+
+        assertThat(heap.remove(5L)).isTrue();
+        assertThat(heap.remove(5L)).isFalse();
+        assertThat(heap.remove(3L)).isTrue();
+
+        assertThat(heap.size()).isEqualTo(5);
+        assertThat(heap.peek()).isEqualTo(2L);
+        assertThat(new long[] { heap.poll(), heap.poll(), heap.poll(), heap.poll(), heap.poll() }).containsExactly(2L, 1L, 4L, 7L, 6L);
+    }
+
+    @Test
+    void matchesPriorityQueueOnRandomOperations() {
+        Random random = new Random(42);
+        WaitlistHeap heap = new WaitlistHeap(1);
+        Comparator<long[]> order = Comparator.<long[]>comparingLong(entry -> -entry[1]).thenComparingLong(entry -> entry[0]);
+        PriorityQueue<long[]> expected = new PriorityQueue<>(order);
+        long nextId = 1;
+        for (int i = 0; i < 20_000; i++) {
+            int operation = random.nextInt(10);
+            if (operation < 5) {
+                int priority = random.nextInt(8);
+                heap.add(nextId, priority);
+                expected.add(new long[] { nextId++, priority });
+            } else if (operation < 8) {
+                long[] head = expected.poll();
+                assertThat(heap.poll()).isEqualTo(head == null ? WaitlistHeap.EMPTY : head[0]);
+            } else if (nextId > 1) {
+                long id = 1 + random.nextInt((int) nextId - 1);
+                boolean queued = expected.removeIf(entry -> entry[0] == id);
+                assertThat(heap.remove(id)).isEqualTo(queued);
+            }
+            assertThat(heap.size()).isEqualTo(expected.size());
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package org.jhipster.facility.web.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.stream.Collectors;
+import javax.persistence.EntityManager;
+import org.jhipster.facility.IntegrationTest;
+import org.jhipster.facility.config.ApplicationProperties;
+import org.jhipster.facility.domain.AssignmentEvent;
+import org.jhipster.facility.domain.Facility;
+import org.jhipster.facility.domain.Resident;
+import org.jhipster.facility.domain.Room;
+import org.jhipster.facility.domain.enumeration.AssignmentEventType;
+import org.jhipster.facility.repository.AssignmentEventRepository;
+import org.jhipster.facility.service.history.AssignmentHistoryService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Integration tests for the {@link AssignmentHistoryResource} REST controller and the assignment log.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc
+@WithMockUser
+class AssignmentHistoryResourceIT {
+
+    private static final String ENTITY_API_URL = "/api/rooms/{id}/occupants";
+
+    private static final Instant START = Instant.parse("2026-01-01T00:00:00Z");
+
+    @Autowired
+    private AssignmentEventRepository assignmentEventRepository;
+
+    @Autowired
+    private AssignmentHistoryService assignmentHistoryService;
+
+    @Autowired
+    private ApplicationProperties applicationProperties;
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private MockMvc restAssignmentHistoryMockMvc;
+
+    private Room room;
+
+    private Room otherRoom;
+
+    private int snapshotInterval;
+
+    @BeforeEach
+    public void initTest() {
+        Facility facility = new Facility().facility_name("History facility");
+        em.persist(facility);
+        room = new Room().room_number(1).capacity(3).facility(facility);
+        otherRoom = new Room().room_number(2).capacity(3).facility(facility);
+        em.persist(room);
+        em.persist(otherRoom);
+        em.flush();
+        snapshotInterval = applicationProperties.getAssignment().getSnapshotInterval();
+        applicationProperties.getAssignment().setSnapshotInterval(2);
+    }
+
+    @AfterEach
+    public void restoreSnapshotInterval() {
+        applicationProperties.getAssignment().setSnapshotInterval(snapshotInterval);
+    }
+
+    @Test
+    @Transactional
+    void residentWritesAppendEvents() throws Exception {
+        Resident resident = new Resident().name("Logged").phone_number(300).room(room);
+        String location = restAssignmentHistoryMockMvc
+            .perform(post("/api/residents").contentType(MediaType.APPLICATION_JSON).content(TestUtil.convertObjectToJsonBytes(resident)))
+            .andExpect(status().isCreated())
+            .andReturn()
+            .getResponse()
+            .getHeader("Location");
+        Long id = Long.valueOf(location.substring(location.lastIndexOf('/') + 1));
+        resident.id(id).room(otherRoom);
+        restAssignmentHistoryMockMvc
+            .perform(
+                put("/api/residents/{id}", id).contentType(MediaType.APPLICATION_JSON).content(TestUtil.convertObjectToJsonBytes(resident))
+            )
+            .andExpect(status().isOk());
+        restAssignmentHistoryMockMvc.perform(delete("/api/residents/{id}", id)).andExpect(status().isNoContent());
+
+        List<AssignmentEvent> events = assignmentEventRepository
+            .findAll()
+            .stream()
+            .filter(event -> id.equals(event.getResident_id()))
+            .collect(Collectors.toList());
+        assertThat(events)
+            .extracting(AssignmentEvent::getType)
+            .containsExactly(AssignmentEventType.ASSIGNED, AssignmentEventType.TRANSFERRED, AssignmentEventType.VACATED);
+        assertThat(events.get(1).getFrom_room_id()).isEqualTo(room.getId());
+        assertThat(events.get(1).getTo_room_id()).isEqualTo(otherRoom.getId());
+
+        restAssignmentHistoryMockMvc
+            .perform(get(ENTITY_API_URL, otherRoom.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.residentIds", hasSize(0)))
+            .andExpect(jsonPath("$.replayedEvents").value(2));
+    }
+
+    @Test
+    @Transactional
+    void occupantsAsOfReplayFromNearestSnapshot() throws Exception {
+        persistEvent(101L, null, room.getId(), 1);
+        persistEvent(102L, null, room.getId(), 2);
+        persistEvent(101L, room.getId(), null, 3);
+        persistEvent(103L, null, room.getId(), 4);
+        persistEvent(102L, room.getId(), otherRoom.getId(), 5);
+
+        assertThat(assignmentHistoryService.compact(START.plus(1, ChronoUnit.HOURS))).isEqualTo(2);
+        assertThat(assignmentHistoryService.compact(START.plus(1, ChronoUnit.HOURS))).isZero();
+
+        restAssignmentHistoryMockMvc
+            .perform(get(ENTITY_API_URL, room.getId()).param("asOf", minute(3).plusSeconds(30).toString()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.residentIds", contains(102)))
+            .andExpect(jsonPath("$.replayedEvents").value(1));
+        restAssignmentHistoryMockMvc
+            .perform(get(ENTITY_API_URL, room.getId()).param("asOf", minute(5).toString()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.residentIds", contains(103)))
+            .andExpect(jsonPath("$.replayedEvents").value(1));
+        restAssignmentHistoryMockMvc
+            .perform(get(ENTITY_API_URL, room.getId()).param("asOf", START.toString()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.residentIds", hasSize(0)))
+            .andExpect(jsonPath("$.replayedEvents").value(0));
+    }
+
+    private void persistEvent(Long residentId, Long fromRoomId, Long toRoomId, int minute) {
+        AssignmentEventType type = fromRoomId == null
+            ? AssignmentEventType.ASSIGNED
+            : toRoomId == null ? AssignmentEventType.VACATED : AssignmentEventType.TRANSFERRED;
+        em.persist(
+            new AssignmentEvent()
+                .type(type)
+                .resident_id(residentId)
+                .from_room_id(fromRoomId)
+                .to_room_id(toRoomId)
+                .occurred_at(minute(minute))
+        );
+    }
+
+    private static Instant minute(int minute) {
+        return START.plus(minute, ChronoUnit.MINUTES);
+    }
+}
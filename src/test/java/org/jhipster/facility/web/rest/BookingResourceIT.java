@@ -0,0 +1,175 @@
+package org.jhipster.facility.web.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import java.time.LocalDate;
+import javax.persistence.EntityManager;
+import org.jhipster.facility.IntegrationTest;
+import org.jhipster.facility.domain.Booking;
+import org.jhipster.facility.domain.Facility;
+import org.jhipster.facility.domain.Resident;
+import org.jhipster.facility.domain.Room;
+import org.jhipster.facility.repository.BookingRepository;
+import org.jhipster.facility.service.booking.BookingIndex;
+import org.jhipster.facility.service.occupancy.OccupancyIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Integration tests for the {@link BookingResource} REST controller.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc
+@WithMockUser
+class BookingResourceIT {
+
+    private static final LocalDate MOVE_IN = LocalDate.of(2027, 3, 1);
+    private static final LocalDate MOVE_OUT = LocalDate.of(2027, 6, 1);
+
+    private static final String ENTITY_API_URL = "/api/bookings";
+    private static final String ENTITY_API_URL_ID = ENTITY_API_URL + "/{id}";
+    private static final String AVAILABILITY_API_URL = "/api/facilities/{id}/availability";
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private OccupancyIndex occupancyIndex;
+
+    @Autowired
+    private BookingIndex bookingIndex;
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private MockMvc restBookingMockMvc;
+
+    private Facility facility;
+
+    private Room singleRoom;
+
+    private Room sharedRoom;
+
+    private Resident resident;
+
+    private Resident neighbour;
+
+    private Resident thirdResident;
+
+    @BeforeEach
+    public void initTest() {
+        facility = new Facility().facility_name("Booking facility");
+        em.persist(facility);
+        singleRoom = new Room().room_number(1).capacity(1).facility(facility);
+        sharedRoom = new Room().room_number(2).capacity(2).facility(facility);
+        em.persist(singleRoom);
+        em.persist(sharedRoom);
+        resident = new Resident().name("Booker").phone_number(401).room(singleRoom);
+        neighbour = new Resident().name("Neighbour").phone_number(402).room(sharedRoom);
+        thirdResident = new Resident().name("Third").phone_number(403).room(sharedRoom);
+        em.persist(resident);
+        em.persist(neighbour);
+        em.persist(thirdResident);
+        em.flush();
+    }
+
+    @Test
+    @Transactional
+    void createBooking() throws Exception {
+        int databaseSizeBeforeCreate = bookingRepository.findAll().size();
+
+        book(singleRoom, resident, MOVE_IN, MOVE_OUT)
+            .andExpect(status().isCreated())
+            .andExpect(jsonPath("$.start_date").value(MOVE_IN.toString()));
+
+        assertThat(bookingRepository.findAll()).hasSize(databaseSizeBeforeCreate + 1);
+    }
+
+    @Test
+    @Transactional
+    void createOverlappingBookingIsRejected() throws Exception {
+        book(singleRoom, resident, MOVE_IN, MOVE_OUT).andExpect(status().isCreated());
+
+        book(singleRoom, neighbour, MOVE_OUT.minusDays(1), MOVE_OUT.plusDays(30))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.message").value("error.bookingoverlap"));
+        book(singleRoom, neighbour, MOVE_OUT, MOVE_OUT.plusDays(30)).andExpect(status().isCreated());
+    }
+
+    @Test
+    @Transactional
+    void sharedRoomTakesBookingsUpToCapacity() throws Exception {
+        book(sharedRoom, resident, MOVE_IN, MOVE_OUT).andExpect(status().isCreated());
+        book(sharedRoom, neighbour, MOVE_IN.plusDays(10), MOVE_OUT).andExpect(status().isCreated());
+
+        book(sharedRoom, thirdResident, MOVE_IN.plusDays(20), MOVE_IN.plusDays(21))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.message").value("error.bookingoverlap"));
+        book(sharedRoom, thirdResident, MOVE_IN, MOVE_IN.plusDays(10)).andExpect(status().isCreated());
+    }
+
+    @Test
+    @Transactional
+    void createBookingWithInvalidDates() throws Exception {
+        book(singleRoom, resident, MOVE_OUT, MOVE_IN).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @Transactional
+    void getAvailabilityFromBookingIndex() throws Exception {
+        em.persist(new Booking().room(singleRoom).resident(resident).start_date(MOVE_IN).end_date(MOVE_OUT));
+        em.flush();
+        occupancyIndex.rebuild();
+        bookingIndex.rebuild();
+
+        restBookingMockMvc
+            .perform(get(AVAILABILITY_API_URL, facility.getId()).param("start", "2027-05-01").param("end", "2027-07-01"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.roomCount").value(2))
+            .andExpect(jsonPath("$.vacantRoomIds", contains(sharedRoom.getId().intValue())));
+        // The index rejects the conflict before the database is read.
+        book(singleRoom, neighbour, MOVE_IN, MOVE_IN.plusDays(1)).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @Transactional
+    void deleteBooking() throws Exception {
+        Booking booking = new Booking().room(singleRoom).resident(resident).start_date(MOVE_IN).end_date(MOVE_OUT);
+        em.persist(booking);
+        em.flush();
+
+        restBookingMockMvc.perform(delete(ENTITY_API_URL_ID, booking.getId())).andExpect(status().isNoContent());
+
+        assertThat(bookingRepository.findById(booking.getId())).isEmpty();
+    }
+
+    @Test
+    @Transactional
+    void deleteResidentDeletesItsBookings() throws Exception {
+        Booking booking = new Booking().room(sharedRoom).resident(neighbour).start_date(MOVE_IN).end_date(MOVE_OUT);
+        em.persist(booking);
+        em.flush();
+
+        restBookingMockMvc.perform(delete("/api/residents/{id}", neighbour.getId())).andExpect(status().isNoContent());
+
+        assertThat(bookingRepository.findIntervalsByResidentId(neighbour.getId())).isEmpty();
+    }
+
+    private ResultActions book(Room room, Resident bookedResident, LocalDate start, LocalDate end) throws Exception {
+        Booking booking = new Booking().room(room).resident(bookedResident).start_date(start).end_date(end);
+        return restBookingMockMvc.perform(
+            post(ENTITY_API_URL).contentType(MediaType.APPLICATION_JSON).content(TestUtil.convertObjectToJsonBytes(booking))
+        );
+    }
+}
@@ -0,0 +1,213 @@
+package org.jhipster.facility.web.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import com.jayway.jsonpath.Configuration;
+import com.jayway.jsonpath.DocumentContext;
+import com.jayway.jsonpath.JsonPath;
+import com.jayway.jsonpath.TypeRef;
+import com.jayway.jsonpath.spi.json.JacksonJsonProvider;
+import com.jayway.jsonpath.spi.mapper.JacksonMappingProvider;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import javax.persistence.EntityManager;
+import org.jhipster.facility.IntegrationTest;
+import org.jhipster.facility.config.ApplicationProperties;
+import org.jhipster.facility.domain.Facility;
+import org.jhipster.facility.domain.Resident;
+import org.jhipster.facility.domain.Room;
+import org.jhipster.facility.domain.enumeration.SearchDocumentType;
+import org.jhipster.facility.repository.SearchOutboxEntryRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Integration tests for the {@link CsvImportResource} REST controller.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc
+@WithMockUser
+class CsvImportResourceIT {
+
+    private static final String ENTITY_API_URL = "/api/import/{entity}";
+
+    /**
+     * Reads the lines of the responses with Jackson, which maps them to the generic types of a {@link TypeRef}.
+     */
+    private static final Configuration JSON_PATH = Configuration
+        .builder()
+        .jsonProvider(new JacksonJsonProvider())
+        .mappingProvider(new JacksonMappingProvider())
+        .build();
+
+    private static final TypeRef<List<Integer>> INTEGERS = new TypeRef<>() {};
+
+    private static final TypeRef<List<String>> STRINGS = new TypeRef<>() {};
+
+    @Autowired
+    private ApplicationProperties applicationProperties;
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private MockMvc restCsvImportMockMvc;
+
+    @Autowired
+    private SearchOutboxEntryRepository searchOutboxEntryRepository;
+
+    private Facility facility;
+
+    private Room room;
+
+    private int chunkSize;
+
+    @BeforeEach
+    public void initTest() {
+        facility = new Facility().facility_name("Import facility");
+        em.persist(facility);
+        room = new Room().room_number(1).capacity(2).facility(facility);
+        em.persist(room);
+        em.flush();
+        chunkSize = applicationProperties.getCsvImport().getChunkSize();
+        applicationProperties.getCsvImport().setChunkSize(2);
+    }
+
+    @AfterEach
+    public void restoreChunkSize() {
+        applicationProperties.getCsvImport().setChunkSize(chunkSize);
+    }
+
+    @Test
+    @Transactional
+    void importRooms() throws Exception {
+        Long facilityId = facility.getId();
+        List<DocumentContext> chunks = importCsv(
+            "rooms",
+            "id;room_number;facility_id;capacity",
+            "1;101;" + facilityId + ";2",
+            "2;102;" + facilityId + ";",
+            "3;abc;" + facilityId + ";1",
+            "",
+            "4;101;" + facilityId + ";1",
+            "5;103;" + Long.MAX_VALUE + ";1",
+            "6;20000;" + facilityId + ";1"
+        );
+
+        assertThat(chunks).hasSize(3);
+        assertThat(chunks.get(0).read("$.firstLine", Integer.class)).isEqualTo(2);
+        assertThat(chunks.get(0).read("$.lastLine", Integer.class)).isEqualTo(3);
+        assertThat(chunks.get(0).read("$.imported", Integer.class)).isEqualTo(2);
+        assertThat(chunks.get(1).read("$.rejected[*].line", INTEGERS)).containsExactly(4, 6);
+        assertThat(chunks.get(1).read("$.rejected[1].errors[0]", String.class)).startsWith("room_number: already used");
+        assertThat(chunks.get(2).read("$.rejected[*].line", INTEGERS)).containsExactly(7, 8);
+        assertThat(chunks.get(2).read("$.rejected[0].errors[0]", String.class)).startsWith("facility_id: no facility");
+        assertThat(chunks.get(2).read("$.rejected[1].errors[0]", String.class)).startsWith("room_number:");
+        assertThat(chunks.get(2).read("$.totalImported", Integer.class)).isEqualTo(2);
+        assertThat(chunks.get(2).read("$.totalRejected", Integer.class)).isEqualTo(4);
+
+        List<Room> rooms = em
+            .createQuery(
+                "select r from Room r where r.facility.id = :facility_id and r.room_number > 100 order by r.room_number",
+                Room.class
+            )
+            .setParameter("facility_id", facilityId)
+            .getResultList();
+        assertThat(rooms).extracting(Room::getRoom_number).containsExactly(101, 102);
+        assertThat(rooms).extracting(Room::getCapacity).containsExactly(2, 1);
+        assertThat(rooms)
+            .allSatisfy(imported ->
+                assertThat(searchOutboxEntryRepository.countByEntity(SearchDocumentType.ROOM, imported.getId())).isEqualTo(1)
+            );
+    }
+
+    @Test
+    @Transactional
+    void importResidents() throws Exception {
+        Long roomId = room.getId();
+        List<DocumentContext> chunks = importCsv(
+            "residents",
+            "id;name;phone_number;email;room_id",
+            "1;Alice;5551001;alice@localhost;" + roomId,
+            "2;;5551002;nobody@localhost;" + roomId,
+            "3;Bob;5551001;bob@localhost;" + roomId,
+            "4;\"Carol; Jr\";5551003;carol@localhost;" + roomId,
+            "5;Dave;5551004;dave@localhost;" + roomId,
+            "6;Eve;2694876904133;eve@localhost;" + roomId
+        );
+
+        DocumentContext last = chunks.get(chunks.size() - 1);
+        assertThat(last.read("$.totalImported", Integer.class)).isEqualTo(2);
+        assertThat(last.read("$.totalRejected", Integer.class)).isEqualTo(4);
+        assertThat(chunks.stream().flatMap(chunk -> chunk.read("$.rejected[*].errors[0]", STRINGS).stream()))
+            .containsExactly(
+                "name: must not be null",
+                "phone_number: already used",
+                "room_id: room " + roomId + " is full",
+                "phone_number: not an integer: 2694876904133"
+            );
+
+        em.clear();
+        assertThat(em.find(Room.class, roomId).getOccupant_count()).isEqualTo(2);
+        List<Resident> residents = em
+            .createQuery("select r from Resident r where r.room.id = :room_id order by r.phone_number", Resident.class)
+            .setParameter("room_id", roomId)
+            .getResultList();
+        assertThat(residents).extracting(Resident::getName).containsExactly("Alice", "Carol; Jr");
+        assertThat(residents)
+            .allSatisfy(imported ->
+                assertThat(searchOutboxEntryRepository.countByEntity(SearchDocumentType.RESIDENT, imported.getId())).isEqualTo(1)
+            );
+        Long beds = em
+            .createQuery("select count(b) from BedAssignment b where b.room.id = :room_id", Long.class)
+            .setParameter("room_id", roomId)
+            .getSingleResult();
+        assertThat(beds).isEqualTo(2);
+    }
+
+    @Test
+    @Transactional
+    void importWithMissingColumn() throws Exception {
+        restCsvImportMockMvc
+            .perform(multipart(ENTITY_API_URL, "residents").file(csv("name;email", "Alice;alice@localhost")))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.message").value("error.invalidcsv"))
+            .andExpect(jsonPath("$.title").value("Missing columns phone_number, room_id"));
+    }
+
+    @Test
+    @Transactional
+    void importUnknownEntity() throws Exception {
+        restCsvImportMockMvc
+            .perform(multipart(ENTITY_API_URL, "facilities").file(csv("id;facility_name", "1;Cambridgeshire")))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.message").value("error.invalidcsv"));
+    }
+
+    private List<DocumentContext> importCsv(String entity, String... lines) throws Exception {
+        String body = restCsvImportMockMvc
+            .perform(multipart(ENTITY_API_URL, entity).file(csv(lines)))
+            .andExpect(status().isOk())
+            .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+            .andReturn()
+            .getResponse()
+            .getContentAsString(StandardCharsets.UTF_8);
+        return Stream.of(body.split("\n")).map(line -> JsonPath.using(JSON_PATH).parse(line)).collect(Collectors.toList());
+    }
+
+    private static MockMultipartFile csv(String... lines) {
+        return new MockMultipartFile("file", "import.csv", "text/csv", String.join("\n", lines).getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -7,14 +7,22 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Random;
 import java.util.concurrent.atomic.AtomicLong;
 import javax.persistence.EntityManager;
 import org.jhipster.facility.IntegrationTest;
 import org.jhipster.facility.domain.Facility;
+import org.jhipster.facility.domain.Resident;
+import org.jhipster.facility.domain.Room;
+import org.jhipster.facility.domain.enumeration.SearchDocumentType;
+import org.jhipster.facility.repository.FacilityOccupancySummaryRepository;
 import org.jhipster.facility.repository.FacilityRepository;
+import org.jhipster.facility.repository.SearchOutboxEntryRepository;
 import org.jhipster.facility.repository.search.FacilitySearchRepository;
+import org.jhipster.facility.service.occupancy.ApproximateCountService;
+import org.jhipster.facility.service.occupancy.FacilitySummaryService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -28,6 +36,7 @@ import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
 
 /**
  * Integration tests for the {@link FacilityResource} REST controller.
@@ -44,6 +53,7 @@ class FacilityResourceIT {
     private static final String ENTITY_API_URL = "/api/facilities";
     private static final String ENTITY_API_URL_ID = ENTITY_API_URL + "/{id}";
     private static final String ENTITY_SEARCH_API_URL = "/api/_search/facilities";
+    private static final String SUMMARY_API_URL = ENTITY_API_URL + "/summary";
 
     private static Random random = new Random();
     private static AtomicLong count = new AtomicLong(random.nextInt() + (2 * Integer.MAX_VALUE));
@@ -59,6 +69,18 @@ class FacilityResourceIT {
     @Autowired
     private FacilitySearchRepository mockFacilitySearchRepository;
 
+    @Autowired
+    private SearchOutboxEntryRepository searchOutboxEntryRepository;
+
+    @Autowired
+    private FacilityOccupancySummaryRepository facilityOccupancySummaryRepository;
+
+    @Autowired
+    private FacilitySummaryService facilitySummaryService;
+
+    @Autowired
+    private ApproximateCountService approximateCountService;
+
     @Autowired
     private EntityManager em;
 
@@ -109,8 +131,8 @@ class FacilityResourceIT {
         Facility testFacility = facilityList.get(facilityList.size() - 1);
         assertThat(testFacility.getFacility_name()).isEqualTo(DEFAULT_FACILITY_NAME);
 
-        // Validate the Facility in Elasticsearch
-        verify(mockFacilitySearchRepository, times(1)).save(testFacility);
+        // Validate the Facility in the search outbox
+        assertThat(searchOutboxEntryRepository.countByEntity(SearchDocumentType.FACILITY, testFacility.getId())).isEqualTo(1);
     }
 
     @Test
@@ -130,8 +152,8 @@ class FacilityResourceIT {
         List<Facility> facilityList = facilityRepository.findAll();
         assertThat(facilityList).hasSize(databaseSizeBeforeCreate);
 
-        // Validate the Facility in Elasticsearch
-        verify(mockFacilitySearchRepository, times(0)).save(facility);
+        // Validate the Facility in the search outbox
+        assertThat(searchOutboxEntryRepository.countByEntity(SearchDocumentType.FACILITY, facility.getId())).isZero();
     }
 
     @Test
@@ -166,6 +188,23 @@ class FacilityResourceIT {
             .andExpect(jsonPath("$.[*].facility_name").value(hasItem(DEFAULT_FACILITY_NAME)));
     }
 
+    @Test
+    @Transactional
+    void getAllFacilitiesWithoutCount() throws Exception {
+        // Initialize the database
+        facilityRepository.saveAndFlush(facility);
+        facilitySummaryService.reconcile();
+        approximateCountService.refresh();
+
+        restFacilityMockMvc
+            .perform(get(ENTITY_API_URL + "?count=false&sort=id,desc"))
+            .andExpect(status().isOk())
+            .andExpect(header().doesNotExist("X-Total-Count"))
+            .andExpect(header().string(SlicePaginationUtil.APPROXIMATE_TOTAL_COUNT_HEADER, String.valueOf(facilityRepository.count())))
+            .andExpect(jsonPath("$.[*].id").value(hasItem(facility.getId().intValue())))
+            .andExpect(jsonPath("$.[*].facility_name").value(hasItem(DEFAULT_FACILITY_NAME)));
+    }
+
     @Test
     @Transactional
     void getFacility() throws Exception {
@@ -216,8 +255,8 @@ class FacilityResourceIT {
         Facility testFacility = facilityList.get(facilityList.size() - 1);
         assertThat(testFacility.getFacility_name()).isEqualTo(UPDATED_FACILITY_NAME);
 
-        // Validate the Facility in Elasticsearch
-        verify(mockFacilitySearchRepository).save(testFacility);
+        // Validate the Facility in the search outbox
+        assertThat(searchOutboxEntryRepository.countByEntity(SearchDocumentType.FACILITY, testFacility.getId())).isEqualTo(1);
     }
 
     @Test
@@ -239,8 +278,8 @@ class FacilityResourceIT {
         List<Facility> facilityList = facilityRepository.findAll();
         assertThat(facilityList).hasSize(databaseSizeBeforeUpdate);
 
-        // Validate the Facility in Elasticsearch
-        verify(mockFacilitySearchRepository, times(0)).save(facility);
+        // Validate the Facility in the search outbox
+        assertThat(searchOutboxEntryRepository.countByEntity(SearchDocumentType.FACILITY, facility.getId())).isZero();
     }
 
     @Test
@@ -262,8 +301,8 @@ class FacilityResourceIT {
         List<Facility> facilityList = facilityRepository.findAll();
         assertThat(facilityList).hasSize(databaseSizeBeforeUpdate);
 
-        // Validate the Facility in Elasticsearch
-        verify(mockFacilitySearchRepository, times(0)).save(facility);
+        // Validate the Facility in the search outbox
+        assertThat(searchOutboxEntryRepository.countByEntity(SearchDocumentType.FACILITY, facility.getId())).isZero();
     }
 
     @Test
@@ -281,8 +320,8 @@ class FacilityResourceIT {
         List<Facility> facilityList = facilityRepository.findAll();
         assertThat(facilityList).hasSize(databaseSizeBeforeUpdate);
 
-        // Validate the Facility in Elasticsearch
-        verify(mockFacilitySearchRepository, times(0)).save(facility);
+        // Validate the Facility in the search outbox
+        assertThat(searchOutboxEntryRepository.countByEntity(SearchDocumentType.FACILITY, facility.getId())).isZero();
     }
 
     @Test
@@ -341,6 +380,33 @@ class FacilityResourceIT {
         assertThat(testFacility.getFacility_name()).isEqualTo(UPDATED_FACILITY_NAME);
     }
 
+    @Test
+    @Transactional
+    void patchFacilityWithReturnMinimal() throws Exception {
+        // Initialize the database
+        facilityRepository.saveAndFlush(facility);
+
+        Facility partialUpdatedFacility = new Facility();
+        partialUpdatedFacility.setId(facility.getId());
+        partialUpdatedFacility.facility_name(UPDATED_FACILITY_NAME);
+
+        restFacilityMockMvc
+            .perform(
+                patch(ENTITY_API_URL_ID, partialUpdatedFacility.getId())
+                    .header(PreferHeaderUtil.PREFER_HEADER, "handling=strict, return=minimal")
+                    .contentType("application/merge-patch+json")
+                    .content(TestUtil.convertObjectToJsonBytes(partialUpdatedFacility))
+            )
+            .andExpect(status().isNoContent())
+            .andExpect(header().string(PreferHeaderUtil.PREFERENCE_APPLIED_HEADER, PreferHeaderUtil.RETURN_MINIMAL));
+
+        // Validate the Facility in the database
+        assertThat(facilityRepository.findById(facility.getId()).get().getFacility_name()).isEqualTo(UPDATED_FACILITY_NAME);
+
+        // Validate the Facility in the search outbox
+        assertThat(searchOutboxEntryRepository.countByEntity(SearchDocumentType.FACILITY, facility.getId())).isEqualTo(1);
+    }
+
     @Test
     @Transactional
     void patchNonExistingFacility() throws Exception {
@@ -360,8 +426,8 @@ class FacilityResourceIT {
         List<Facility> facilityList = facilityRepository.findAll();
         assertThat(facilityList).hasSize(databaseSizeBeforeUpdate);
 
-        // Validate the Facility in Elasticsearch
-        verify(mockFacilitySearchRepository, times(0)).save(facility);
+        // Validate the Facility in the search outbox
+        assertThat(searchOutboxEntryRepository.countByEntity(SearchDocumentType.FACILITY, facility.getId())).isZero();
     }
 
     @Test
@@ -383,8 +449,8 @@ class FacilityResourceIT {
         List<Facility> facilityList = facilityRepository.findAll();
         assertThat(facilityList).hasSize(databaseSizeBeforeUpdate);
 
-        // Validate the Facility in Elasticsearch
-        verify(mockFacilitySearchRepository, times(0)).save(facility);
+        // Validate the Facility in the search outbox
+        assertThat(searchOutboxEntryRepository.countByEntity(SearchDocumentType.FACILITY, facility.getId())).isZero();
     }
 
     @Test
@@ -402,8 +468,8 @@ class FacilityResourceIT {
         List<Facility> facilityList = facilityRepository.findAll();
         assertThat(facilityList).hasSize(databaseSizeBeforeUpdate);
 
-        // Validate the Facility in Elasticsearch
-        verify(mockFacilitySearchRepository, times(0)).save(facility);
+        // Validate the Facility in the search outbox
+        assertThat(searchOutboxEntryRepository.countByEntity(SearchDocumentType.FACILITY, facility.getId())).isZero();
     }
 
     @Test
@@ -423,8 +489,8 @@ class FacilityResourceIT {
         List<Facility> facilityList = facilityRepository.findAll();
         assertThat(facilityList).hasSize(databaseSizeBeforeDelete - 1);
 
-        // Validate the Facility in Elasticsearch
-        verify(mockFacilitySearchRepository, times(1)).deleteById(facility.getId());
+        // Validate the Facility in the search outbox
+        assertThat(searchOutboxEntryRepository.countByEntity(SearchDocumentType.FACILITY, facility.getId())).isEqualTo(1);
     }
 
     @Test
@@ -444,4 +510,73 @@ class FacilityResourceIT {
             .andExpect(jsonPath("$.[*].id").value(hasItem(facility.getId().intValue())))
             .andExpect(jsonPath("$.[*].facility_name").value(hasItem(DEFAULT_FACILITY_NAME)));
     }
+
+    @Test
+    @Transactional
+    void getFacilitySummariesAfterReconcile() throws Exception {
+        // Initialize the database, behind the back of the summaries
+        em.persist(facility);
+        Room room = new Room().room_number(101).capacity(3).facility(facility);
+        Room emptyRoom = new Room().room_number(102).capacity(2).facility(facility);
+        em.persist(room);
+        em.persist(emptyRoom);
+        em.persist(new Resident().name("AAAAAAAAAA").phone_number(1).email("a1@a.a").room(room));
+        em.persist(new Resident().name("AAAAAAAAAA").phone_number(2).email("a2@a.a").room(room));
+        em.flush();
+
+        assertThat(facilitySummaryService.reconcile()).isPositive();
+        assertThat(facilitySummaryService.reconcile()).isZero();
+
+        restFacilityMockMvc
+            .perform(get(SUMMARY_API_URL + "?sort=id,desc"))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$.[?(@.id == " + facility.getId() + ")].room_count").value(hasItem(2)))
+            .andExpect(jsonPath("$.[?(@.id == " + facility.getId() + ")].occupied_room_count").value(hasItem(1)))
+            .andExpect(jsonPath("$.[?(@.id == " + facility.getId() + ")].free_bed_count").value(hasItem(3)))
+            .andExpect(jsonPath("$.[?(@.id == " + facility.getId() + ")].resident_count").value(hasItem(2)))
+            .andExpect(jsonPath("$.[?(@.id == " + facility.getId() + ")].facility.facility_name").value(hasItem(DEFAULT_FACILITY_NAME)));
+    }
+
+    @Test
+    @Transactional
+    void facilitySummaryFollowsRoomsAndResidents() throws Exception {
+        restFacilityMockMvc
+            .perform(post(ENTITY_API_URL).contentType(MediaType.APPLICATION_JSON).content(TestUtil.convertObjectToJsonBytes(facility)))
+            .andExpect(status().isCreated());
+        facility = facilityRepository.findAll().get(facilityRepository.findAll().size() - 1);
+        Room newRoom = new Room().room_number(101).capacity(3).facility(facility);
+        restFacilityMockMvc
+            .perform(post("/api/rooms").contentType(MediaType.APPLICATION_JSON).content(TestUtil.convertObjectToJsonBytes(newRoom)))
+            .andExpect(status().isCreated());
+        Room room = TestUtil.findAll(em, Room.class).stream().max(Comparator.comparing(Room::getId)).get();
+        for (int i = 1; i <= 2; i++) {
+            Resident resident = new Resident().name("AAAAAAAAAA").phone_number(i).email("a" + i + "@a.a").room(room);
+            restFacilityMockMvc
+                .perform(
+                    post("/api/residents").contentType(MediaType.APPLICATION_JSON).content(TestUtil.convertObjectToJsonBytes(resident))
+                )
+                .andExpect(status().isCreated());
+        }
+        restFacilityMockMvc
+            .perform(
+                patch("/api/rooms/{id}", room.getId())
+                    .contentType("application/merge-patch+json")
+                    .content(TestUtil.convertObjectToJsonBytes(new Room().id(room.getId()).capacity(4)))
+            )
+            .andExpect(status().isOk());
+
+        // The test transaction never commits: write the deltas it gathered as a commit would.
+        TransactionSynchronizationUtils.triggerBeforeCommit(false);
+        em.clear();
+
+        restFacilityMockMvc
+            .perform(get(SUMMARY_API_URL + "?sort=id,desc"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[?(@.id == " + facility.getId() + ")].room_count").value(hasItem(1)))
+            .andExpect(jsonPath("$.[?(@.id == " + facility.getId() + ")].occupied_room_count").value(hasItem(1)))
+            .andExpect(jsonPath("$.[?(@.id == " + facility.getId() + ")].free_bed_count").value(hasItem(2)))
+            .andExpect(jsonPath("$.[?(@.id == " + facility.getId() + ")].resident_count").value(hasItem(2)));
+        assertThat(facilityOccupancySummaryRepository.findById(facility.getId())).isPresent();
+    }
 }
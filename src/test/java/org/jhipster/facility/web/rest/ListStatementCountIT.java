@@ -0,0 +1,177 @@
+package org.jhipster.facility.web.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.everyItem;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import org.jhipster.facility.IntegrationTest;
+import org.jhipster.facility.domain.Facility;
+import org.jhipster.facility.domain.Resident;
+import org.jhipster.facility.domain.Room;
+import org.jhipster.facility.repository.FacilityOccupancySummaryRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Integration tests counting the SQL statements run by the list endpoints, which must not grow with the number of
+ * entities listed: the associations are either fetched by the query of the page or written as their id only.
+ * <p>
+ * The entities are committed before the test and deleted after it, and the second-level cache emptied before each
+ * request, so that every association missing from the fetch plan would cost a statement.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc
+@WithMockUser
+class ListStatementCountIT {
+
+    /**
+     * Statements a list request may run whatever the number of entities listed: the page, its count and one spare.
+     */
+    private static final long MAX_LIST_STATEMENTS = 3;
+
+    private static final int FACILITIES = 3;
+
+    private static final int ROOMS_PER_FACILITY = 3;
+
+    private static final int FIRST_PHONE_NUMBER = 808080;
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private FacilityOccupancySummaryRepository facilityOccupancySummaryRepository;
+
+    @Autowired
+    private MockMvc restMockMvc;
+
+    private TransactionTemplate transactionTemplate;
+
+    private final List<Facility> facilities = new ArrayList<>();
+
+    private final List<Room> rooms = new ArrayList<>();
+
+    private final List<Resident> residents = new ArrayList<>();
+
+    @BeforeEach
+    void initTest() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.executeWithoutResult(status -> {
+            for (int i = 0; i < FACILITIES; i++) {
+                Facility facility = new Facility().facility_name("Statement count facility " + i);
+                em.persist(facility);
+                facilities.add(facility);
+                for (int j = 0; j < ROOMS_PER_FACILITY; j++) {
+                    Room room = new Room().room_number(j + 1).capacity(2).facility(facility);
+                    em.persist(room);
+                    rooms.add(room);
+                    Resident resident = new Resident()
+                        .name("Resident " + residents.size())
+                        .phone_number(FIRST_PHONE_NUMBER + residents.size())
+                        .room(room);
+                    em.persist(resident);
+                    residents.add(resident);
+                }
+            }
+        });
+    }
+
+    @AfterEach
+    void cleanUp() {
+        transactionTemplate.executeWithoutResult(status -> {
+            residents.forEach(resident -> em.remove(em.find(Resident.class, resident.getId())));
+            rooms.forEach(room -> em.remove(em.find(Room.class, room.getId())));
+            for (Facility facility : facilities) {
+                // The scheduled reconciliation may have summarized the facility meanwhile
+                facilityOccupancySummaryRepository.deleteByFacilityId(facility.getId());
+                em.remove(em.find(Facility.class, facility.getId()));
+            }
+        });
+    }
+
+    @ParameterizedTest
+    @ValueSource(
+        strings = {
+            "/api/facilities",
+            "/api/facilities?count=false",
+            "/api/rooms",
+            "/api/rooms?eagerload=false",
+            "/api/rooms?count=false",
+            "/api/rooms?eagerload=false&count=false",
+            "/api/rooms?after=",
+            "/api/rooms?eagerload=false&after=",
+            "/api/facility/rooms/{facility}",
+            "/api/facility/rooms/{facility}?count=false",
+            "/api/facility/rooms/{facility}?after=",
+            "/api/residents",
+            "/api/residents?eagerload=false",
+            "/api/residents?count=false",
+            "/api/residents?eagerload=false&count=false",
+            "/api/residents?after=",
+            "/api/residents?eagerload=false&after=",
+            "/api/room/residents/{room}",
+            "/api/room/residents/{room}?count=false",
+            "/api/room/residents/{room}?after=",
+        }
+    )
+    void listRequestRunsAConstantNumberOfStatements(String url) throws Exception {
+        String request = url
+            .replace("{facility}", facilities.get(0).getId().toString())
+            .replace("{room}", rooms.get(0).getId().toString());
+        entityManagerFactory.getCache().evictAll();
+        try (StatementCounter statements = StatementCounter.start(entityManagerFactory)) {
+            restMockMvc.perform(get(request + (request.contains("?") ? "&" : "?") + "size=100")).andExpect(status().isOk());
+            assertThat(statements.count()).as(request).isLessThanOrEqualTo(MAX_LIST_STATEMENTS);
+        }
+    }
+
+    @Test
+    void listWithoutEagerLoadWritesTheIdOfTheAssociations() throws Exception {
+        restMockMvc
+            .perform(get("/api/rooms?eagerload=false&size=100&sort=id,desc"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].facility.id").value(hasItem(facilities.get(0).getId().intValue())))
+            .andExpect(jsonPath("$.[*].facility.facility_name").isEmpty());
+        restMockMvc
+            .perform(get("/api/residents?eagerload=false&size=100&sort=id,desc"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].room.id").value(hasItem(rooms.get(0).getId().intValue())))
+            .andExpect(jsonPath("$.[*].room.room_number").isEmpty());
+    }
+
+    @Test
+    void listOfAFacilityFetchesTheFacilityOfTheRooms() throws Exception {
+        Facility facility = facilities.get(0);
+        entityManagerFactory.getCache().evictAll();
+        // The second request reads the rooms from the query cache
+        for (int i = 0; i < 2; i++) {
+            restMockMvc
+                .perform(get("/api/facility/rooms/{facility_id}", facility.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(ROOMS_PER_FACILITY)))
+                .andExpect(jsonPath("$.[*].facility.facility_name").value(everyItem(is(facility.getFacility_name()))));
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package org.jhipster.facility.web.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import com.jayway.jsonpath.DocumentContext;
+import com.jayway.jsonpath.JsonPath;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import javax.persistence.EntityManager;
+import org.jhipster.facility.IntegrationTest;
+import org.jhipster.facility.domain.Facility;
+import org.jhipster.facility.domain.Resident;
+import org.jhipster.facility.domain.Room;
+import org.jhipster.facility.repository.FacilityOccupancySummaryRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Integration tests for the {@link ResidentExportResource} REST controller.
+ * <p>
+ * The export reads the residents in its own transaction, on another thread than the test, so the entities are
+ * committed before the test and deleted after it.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc
+@WithMockUser
+class ResidentExportResourceIT {
+
+    private static final String ENTITY_API_URL = "/api/facilities/{id}/residents/export";
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private FacilityOccupancySummaryRepository facilityOccupancySummaryRepository;
+
+    @Autowired
+    private MockMvc restResidentExportMockMvc;
+
+    private TransactionTemplate transactionTemplate;
+
+    private Facility facility;
+
+    private Facility otherFacility;
+
+    private Room room;
+
+    private List<Resident> residents;
+
+    @BeforeEach
+    void initTest() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.executeWithoutResult(status -> {
+            facility = new Facility().facility_name("Export facility");
+            em.persist(facility);
+            room = new Room().room_number(1).capacity(3).facility(facility);
+            em.persist(room);
+            otherFacility = new Facility().facility_name("Other export facility");
+            em.persist(otherFacility);
+            Room otherRoom = new Room().room_number(1).capacity(1).facility(otherFacility);
+            em.persist(otherRoom);
+            residents =
+                List.of(
+                    new Resident().name("Alice").phone_number(7771001).email("alice@localhost").room(room),
+                    new Resident().name("Carol; \"CJ\" Jr").phone_number(7771002).room(room),
+                    new Resident().name("Bob").phone_number(7771003).email("bob@localhost").room(room),
+                    new Resident().name("Olivia").phone_number(7771004).email("olivia@localhost").room(otherRoom)
+                );
+            residents.forEach(em::persist);
+        });
+    }
+
+    @AfterEach
+    void cleanUp() {
+        transactionTemplate.executeWithoutResult(status -> {
+            residents.forEach(resident -> em.remove(em.find(Resident.class, resident.getId())));
+            em.flush();
+            for (Facility exported : List.of(facility, otherFacility)) {
+                em
+                    .createQuery("delete from Room r where r.facility.id = :facility_id")
+                    .setParameter("facility_id", exported.getId())
+                    .executeUpdate();
+                // The scheduled reconciliation may have summarized the facility meanwhile
+                facilityOccupancySummaryRepository.deleteByFacilityId(exported.getId());
+                em.remove(em.find(Facility.class, exported.getId()));
+            }
+        });
+    }
+
+    @Test
+    void exportResidentsAsNdjson() throws Exception {
+        MvcResult result = export(facility.getId(), "ndjson");
+        restResidentExportMockMvc
+            .perform(asyncDispatch(result))
+            .andExpect(status().isOk())
+            .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+            .andExpect(
+                header().string(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"residents-" + facility.getId() + ".ndjson\"")
+            );
+
+        List<DocumentContext> lines = Stream
+            .of(result.getResponse().getContentAsString(StandardCharsets.UTF_8).split("\n"))
+            .map(JsonPath::parse)
+            .collect(Collectors.toList());
+        assertThat(lines).extracting(line -> line.read("$.name", String.class)).containsExactly("Alice", "Carol; \"CJ\" Jr", "Bob");
+        assertThat(lines).extracting(line -> line.read("$.id", Long.class)).isSorted();
+        assertThat(lines.get(0).read("$.phone_number", Integer.class)).isEqualTo(7771001);
+        assertThat(lines.get(0).read("$.room.id", Long.class)).isEqualTo(room.getId());
+    }
+
+    @Test
+    void exportResidentsAsCsv() throws Exception {
+        MvcResult result = export(facility.getId(), "csv");
+        restResidentExportMockMvc
+            .perform(asyncDispatch(result))
+            .andExpect(status().isOk())
+            .andExpect(content().contentTypeCompatibleWith("text/csv"));
+
+        assertThat(result.getResponse().getContentAsString(StandardCharsets.UTF_8))
+            .isEqualTo(
+                String.join(
+                    "\n",
+                    "id;name;phone_number;email;room_id",
+                    residents.get(0).getId() + ";Alice;7771001;alice@localhost;" + room.getId(),
+                    residents.get(1).getId() + ";\"Carol; \"\"CJ\"\" Jr\";7771002;;" + room.getId(),
+                    residents.get(2).getId() + ";Bob;7771003;bob@localhost;" + room.getId(),
+                    ""
+                )
+            );
+    }
+
+    @Test
+    void exportResidentsOfFacilityWithoutResidents() throws Exception {
+        Facility empty = transactionTemplate.execute(status -> {
+            Facility result = new Facility().facility_name("Empty export facility");
+            em.persist(result);
+            return result;
+        });
+        try {
+            MvcResult result = export(empty.getId(), "csv");
+            restResidentExportMockMvc.perform(asyncDispatch(result)).andExpect(status().isOk());
+            assertThat(result.getResponse().getContentAsString()).isEqualTo("id;name;phone_number;email;room_id\n");
+        } finally {
+            transactionTemplate.executeWithoutResult(status -> {
+                facilityOccupancySummaryRepository.deleteByFacilityId(empty.getId());
+                em.remove(em.find(Facility.class, empty.getId()));
+            });
+        }
+    }
+
+    @Test
+    void exportResidentsOfUnknownFacility() throws Exception {
+        restResidentExportMockMvc
+            .perform(get(ENTITY_API_URL, Long.MAX_VALUE))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.message").value("error.idnotfound"));
+    }
+
+    @Test
+    void exportResidentsInUnknownFormat() throws Exception {
+        restResidentExportMockMvc
+            .perform(get(ENTITY_API_URL, facility.getId()).param("format", "xml"))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.message").value("error.formatinvalid"));
+    }
+
+    private MvcResult export(Long facilityId, String format) throws Exception {
+        return restResidentExportMockMvc
+            .perform(get(ENTITY_API_URL, facilityId).param("format", format))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+    }
+}
@@ -1,21 +1,27 @@
 package org.jhipster.facility.web.rest;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.hasItem;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
+import com.jayway.jsonpath.JsonPath;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Random;
 import java.util.concurrent.atomic.AtomicLong;
 import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
 import org.jhipster.facility.IntegrationTest;
 import org.jhipster.facility.domain.Resident;
 import org.jhipster.facility.domain.Room;
+import org.jhipster.facility.domain.enumeration.SearchDocumentType;
 import org.jhipster.facility.repository.ResidentRepository;
+import org.jhipster.facility.repository.RoomRepository;
+import org.jhipster.facility.repository.SearchOutboxEntryRepository;
 import org.jhipster.facility.repository.search.ResidentSearchRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -29,6 +35,7 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.transaction.annotation.Transactional;
 
 /**
@@ -43,8 +50,8 @@ class ResidentResourceIT {
     private static final String DEFAULT_NAME = "AAAAAAAAAA";
     private static final String UPDATED_NAME = "BBBBBBBBBB";
 
-    private static final Integer DEFAULT_PHONE_NUMBER = 9999999999999;
-    private static final Integer UPDATED_PHONE_NUMBER = 9999999999998;
+    private static final Integer DEFAULT_PHONE_NUMBER = 999999999;
+    private static final Integer UPDATED_PHONE_NUMBER = 999999998;
 
     private static final String DEFAULT_EMAIL = "AAAAAAAAAA";
     private static final String UPDATED_EMAIL = "BBBBBBBBBB";
@@ -62,6 +69,9 @@ class ResidentResourceIT {
     @Mock
     private ResidentRepository residentRepositoryMock;
 
+    @Autowired
+    private RoomRepository roomRepository;
+
     /**
      * This repository is mocked in the org.jhipster.facility.repository.search test package.
      *
@@ -70,9 +80,15 @@ class ResidentResourceIT {
     @Autowired
     private ResidentSearchRepository mockResidentSearchRepository;
 
+    @Autowired
+    private SearchOutboxEntryRepository searchOutboxEntryRepository;
+
     @Autowired
     private EntityManager em;
 
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
     @Autowired
     private MockMvc restResidentMockMvc;
 
@@ -142,8 +158,8 @@ class ResidentResourceIT {
         assertThat(testResident.getPhone_number()).isEqualTo(DEFAULT_PHONE_NUMBER);
         assertThat(testResident.getEmail()).isEqualTo(DEFAULT_EMAIL);
 
-        // Validate the Resident in Elasticsearch
-        verify(mockResidentSearchRepository, times(1)).save(testResident);
+        // Validate the Resident in the search outbox
+        assertThat(searchOutboxEntryRepository.countByEntity(SearchDocumentType.RESIDENT, testResident.getId())).isEqualTo(1);
     }
 
     @Test
@@ -163,8 +179,31 @@ class ResidentResourceIT {
         List<Resident> residentList = residentRepository.findAll();
         assertThat(residentList).hasSize(databaseSizeBeforeCreate);
 
-        // Validate the Resident in Elasticsearch
-        verify(mockResidentSearchRepository, times(0)).save(resident);
+        // Validate the Resident in the search outbox
+        assertThat(searchOutboxEntryRepository.countByEntity(SearchDocumentType.RESIDENT, resident.getId())).isZero();
+    }
+
+    @Test
+    @Transactional
+    void createResidentInFullRoom() throws Exception {
+        // Fill the room of the resident
+        Room room = resident.getRoom();
+        roomRepository.incrementOccupantCount(room.getId(), room.getCapacity());
+
+        int databaseSizeBeforeCreate = residentRepository.findAll().size();
+
+        // A full room cannot take one more resident, so this API call must fail
+        restResidentMockMvc
+            .perform(post(ENTITY_API_URL).contentType(MediaType.APPLICATION_JSON).content(TestUtil.convertObjectToJsonBytes(resident)))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.message").value("error.roomfull"));
+
+        // Validate the Resident in the database
+        List<Resident> residentList = residentRepository.findAll();
+        assertThat(residentList).hasSize(databaseSizeBeforeCreate);
+
+        // Validate the Resident in the search outbox
+        assertThat(searchOutboxEntryRepository.countByEntity(SearchDocumentType.RESIDENT, resident.getId())).isZero();
     }
 
     @Test
@@ -218,6 +257,56 @@ class ResidentResourceIT {
             .andExpect(jsonPath("$.[*].email").value(hasItem(DEFAULT_EMAIL)));
     }
 
+    @Test
+    @Transactional
+    void getAllResidentsWithKeysetPagination() throws Exception {
+        // Initialize the database
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Resident other = createEntity(em).phone_number(1000 + i).email(i + DEFAULT_EMAIL);
+            ids.add(residentRepository.saveAndFlush(other).getId());
+        }
+        Long roomId = residentRepository.findRoomIdById(ids.get(0)).get();
+
+        // Walk the residents two by two, then those of the room
+        for (String url : new String[] { ENTITY_API_URL, "/api/room/residents/" + roomId }) {
+            List<Long> listedIds = new ArrayList<>();
+            String cursor = "";
+            while (cursor != null) {
+                MvcResult result = restResidentMockMvc
+                    .perform(get(url + "?size=2&after=" + cursor))
+                    .andExpect(status().isOk())
+                    .andExpect(header().doesNotExist("X-Total-Count"))
+                    .andReturn();
+                List<Number> pageIds = JsonPath.read(result.getResponse().getContentAsString(), "$[*].id");
+                assertThat(pageIds).hasSizeLessThanOrEqualTo(2);
+                pageIds.forEach(id -> listedIds.add(id.longValue()));
+                cursor = result.getResponse().getHeader(KeysetPaginationUtil.NEXT_CURSOR_HEADER);
+            }
+            assertThat(listedIds).isSorted().doesNotHaveDuplicates().containsAll(ids);
+        }
+    }
+
+    @Test
+    @Transactional
+    void getAllResidentsWithoutCount() throws Exception {
+        // Initialize the database
+        residentRepository.saveAndFlush(resident);
+
+        restResidentMockMvc
+            .perform(get(ENTITY_API_URL + "?count=false&sort=id,desc"))
+            .andExpect(status().isOk())
+            .andExpect(header().doesNotExist("X-Total-Count"))
+            .andExpect(header().string("Link", containsString("rel=\"first\"")))
+            .andExpect(jsonPath("$.[*].id").value(hasItem(resident.getId().intValue())));
+
+        restResidentMockMvc
+            .perform(get("/api/room/residents/{room_id}?count=false&eagerload=false", resident.getRoom().getId()))
+            .andExpect(status().isOk())
+            .andExpect(header().doesNotExist("X-Total-Count"))
+            .andExpect(jsonPath("$.[*].id").value(hasItem(resident.getId().intValue())));
+    }
+
     @SuppressWarnings({ "unchecked" })
     void getAllResidentsWithEagerRelationshipsIsEnabled() throws Exception {
         when(residentRepositoryMock.findAllWithEagerRelationships(any())).thenReturn(new PageImpl(new ArrayList<>()));
@@ -290,8 +379,33 @@ class ResidentResourceIT {
         assertThat(testResident.getPhone_number()).isEqualTo(UPDATED_PHONE_NUMBER);
         assertThat(testResident.getEmail()).isEqualTo(UPDATED_EMAIL);
 
-        // Validate the Resident in Elasticsearch
-        verify(mockResidentSearchRepository).save(testResident);
+        // Validate the Resident in the search outbox
+        assertThat(searchOutboxEntryRepository.countByEntity(SearchDocumentType.RESIDENT, testResident.getId())).isEqualTo(1);
+    }
+
+    @Test
+    @Transactional
+    void putStaleResident() throws Exception {
+        // Initialize the database
+        residentRepository.saveAndFlush(resident);
+
+        Resident staleResident = residentRepository.findById(resident.getId()).get();
+        em.detach(staleResident);
+
+        // Another clerk updates the resident first
+        residentRepository.saveAndFlush(residentRepository.findById(resident.getId()).get().email(UPDATED_EMAIL));
+
+        staleResident.name(UPDATED_NAME);
+        restResidentMockMvc
+            .perform(
+                put(ENTITY_API_URL_ID, staleResident.getId())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(staleResident))
+            )
+            .andExpect(status().isConflict());
+
+        // Validate the Resident in the search outbox
+        assertThat(searchOutboxEntryRepository.countByEntity(SearchDocumentType.RESIDENT, staleResident.getId())).isZero();
     }
 
     @Test
@@ -313,8 +427,8 @@ class ResidentResourceIT {
         List<Resident> residentList = residentRepository.findAll();
         assertThat(residentList).hasSize(databaseSizeBeforeUpdate);
 
-        // Validate the Resident in Elasticsearch
-        verify(mockResidentSearchRepository, times(0)).save(resident);
+        // Validate the Resident in the search outbox
+        assertThat(searchOutboxEntryRepository.countByEntity(SearchDocumentType.RESIDENT, resident.getId())).isZero();
     }
 
     @Test
@@ -336,8 +450,8 @@ class ResidentResourceIT {
         List<Resident> residentList = residentRepository.findAll();
         assertThat(residentList).hasSize(databaseSizeBeforeUpdate);
 
-        // Validate the Resident in Elasticsearch
-        verify(mockResidentSearchRepository, times(0)).save(resident);
+        // Validate the Resident in the search outbox
+        assertThat(searchOutboxEntryRepository.countByEntity(SearchDocumentType.RESIDENT, resident.getId())).isZero();
     }
 
     @Test
@@ -355,8 +469,8 @@ class ResidentResourceIT {
         List<Resident> residentList = residentRepository.findAll();
         assertThat(residentList).hasSize(databaseSizeBeforeUpdate);
 
-        // Validate the Resident in Elasticsearch
-        verify(mockResidentSearchRepository, times(0)).save(resident);
+        // Validate the Resident in the search outbox
+        assertThat(searchOutboxEntryRepository.countByEntity(SearchDocumentType.RESIDENT, resident.getId())).isZero();
     }
 
     @Test
@@ -419,6 +533,70 @@ class ResidentResourceIT {
         assertThat(testResident.getEmail()).isEqualTo(UPDATED_EMAIL);
     }
 
+    @Test
+    @Transactional
+    void patchResidentWithReturnMinimalRunsSingleStatement() throws Exception {
+        // Initialize the database
+        residentRepository.saveAndFlush(resident);
+        em.clear();
+
+        Resident partialUpdatedResident = new Resident();
+        partialUpdatedResident.setId(resident.getId());
+        partialUpdatedResident.name(UPDATED_NAME).version(resident.getVersion());
+
+        try (StatementCounter statements = StatementCounter.start(entityManagerFactory)) {
+            restResidentMockMvc
+                .perform(
+                    patch(ENTITY_API_URL_ID, partialUpdatedResident.getId())
+                        .header(PreferHeaderUtil.PREFER_HEADER, PreferHeaderUtil.RETURN_MINIMAL)
+                        .contentType("application/merge-patch+json")
+                        .content(TestUtil.convertObjectToJsonBytes(partialUpdatedResident))
+                )
+                .andExpect(status().isNoContent())
+                .andExpect(header().string(PreferHeaderUtil.PREFERENCE_APPLIED_HEADER, PreferHeaderUtil.RETURN_MINIMAL));
+            assertThat(statements.count()).isEqualTo(1);
+        }
+
+        // Validate the Resident in the database
+        Resident testResident = residentRepository.findById(resident.getId()).get();
+        assertThat(testResident.getName()).isEqualTo(UPDATED_NAME);
+        assertThat(testResident.getEmail()).isEqualTo(DEFAULT_EMAIL);
+        assertThat(testResident.getVersion()).isEqualTo(resident.getVersion() + 1);
+
+        // Validate the Resident in the search outbox
+        assertThat(searchOutboxEntryRepository.countByEntity(SearchDocumentType.RESIDENT, resident.getId())).isEqualTo(1);
+    }
+
+    @Test
+    @Transactional
+    void patchStaleResident() throws Exception {
+        // Initialize the database
+        residentRepository.saveAndFlush(resident);
+        Long staleVersion = resident.getVersion();
+
+        // Another clerk updates the resident first
+        residentRepository.saveAndFlush(residentRepository.findById(resident.getId()).get().email(UPDATED_EMAIL));
+
+        Resident partialUpdatedResident = new Resident();
+        partialUpdatedResident.setId(resident.getId());
+        partialUpdatedResident.name(UPDATED_NAME).version(staleVersion);
+
+        restResidentMockMvc
+            .perform(
+                patch(ENTITY_API_URL_ID, partialUpdatedResident.getId())
+                    .contentType("application/merge-patch+json")
+                    .content(TestUtil.convertObjectToJsonBytes(partialUpdatedResident))
+            )
+            .andExpect(status().isConflict());
+
+        // Validate the Resident in the database
+        em.clear();
+        assertThat(residentRepository.findById(resident.getId()).get().getName()).isEqualTo(DEFAULT_NAME);
+
+        // Validate the Resident in the search outbox
+        assertThat(searchOutboxEntryRepository.countByEntity(SearchDocumentType.RESIDENT, resident.getId())).isZero();
+    }
+
     @Test
     @Transactional
     void patchNonExistingResident() throws Exception {
@@ -438,8 +616,8 @@ class ResidentResourceIT {
         List<Resident> residentList = residentRepository.findAll();
         assertThat(residentList).hasSize(databaseSizeBeforeUpdate);
 
-        // Validate the Resident in Elasticsearch
-        verify(mockResidentSearchRepository, times(0)).save(resident);
+        // Validate the Resident in the search outbox
+        assertThat(searchOutboxEntryRepository.countByEntity(SearchDocumentType.RESIDENT, resident.getId())).isZero();
     }
 
     @Test
@@ -461,8 +639,8 @@ class ResidentResourceIT {
         List<Resident> residentList = residentRepository.findAll();
         assertThat(residentList).hasSize(databaseSizeBeforeUpdate);
 
-        // Validate the Resident in Elasticsearch
-        verify(mockResidentSearchRepository, times(0)).save(resident);
+        // Validate the Resident in the search outbox
+        assertThat(searchOutboxEntryRepository.countByEntity(SearchDocumentType.RESIDENT, resident.getId())).isZero();
     }
 
     @Test
@@ -480,8 +658,8 @@ class ResidentResourceIT {
         List<Resident> residentList = residentRepository.findAll();
         assertThat(residentList).hasSize(databaseSizeBeforeUpdate);
 
-        // Validate the Resident in Elasticsearch
-        verify(mockResidentSearchRepository, times(0)).save(resident);
+        // Validate the Resident in the search outbox
+        assertThat(searchOutboxEntryRepository.countByEntity(SearchDocumentType.RESIDENT, resident.getId())).isZero();
     }
 
     @Test
@@ -501,8 +679,8 @@ class ResidentResourceIT {
         List<Resident> residentList = residentRepository.findAll();
         assertThat(residentList).hasSize(databaseSizeBeforeDelete - 1);
 
-        // Validate the Resident in Elasticsearch
-        verify(mockResidentSearchRepository, times(1)).deleteById(resident.getId());
+        // Validate the Resident in the search outbox
+        assertThat(searchOutboxEntryRepository.countByEntity(SearchDocumentType.RESIDENT, resident.getId())).isEqualTo(1);
     }
 
     @Test
@@ -511,7 +689,7 @@ class ResidentResourceIT {
         // Configure the mock search repository
         // Initialize the database
         residentRepository.saveAndFlush(resident);
-        when(mockResidentSearchRepository.search("id:" + resident.getId(), PageRequest.of(0, 20)))
+        when(mockResidentSearchRepository.search("id:" + resident.getId(), null, PageRequest.of(0, 20)))
             .thenReturn(new PageImpl<>(Collections.singletonList(resident), PageRequest.of(0, 1), 1));
 
         // Search the resident
@@ -524,4 +702,23 @@ class ResidentResourceIT {
             .andExpect(jsonPath("$.[*].phone_number").value(hasItem(DEFAULT_PHONE_NUMBER)))
             .andExpect(jsonPath("$.[*].email").value(hasItem(DEFAULT_EMAIL)));
     }
+
+    @Test
+    @Transactional
+    void searchResidentInFacility() throws Exception {
+        // Configure the mock search repository
+        // Initialize the database
+        residentRepository.saveAndFlush(resident);
+        Long facilityId = resident.getRoom().getFacility().getId();
+        when(mockResidentSearchRepository.search("name:" + DEFAULT_NAME, facilityId, PageRequest.of(0, 20)))
+            .thenReturn(new PageImpl<>(Collections.singletonList(resident), PageRequest.of(0, 1), 1));
+
+        // Search the residents of the facility
+        restResidentMockMvc
+            .perform(get(ENTITY_SEARCH_API_URL + "?query=name:" + DEFAULT_NAME + "&facility_id=" + facilityId))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$.[*].id").value(hasItem(resident.getId().intValue())))
+            .andExpect(jsonPath("$.[*].name").value(hasItem(DEFAULT_NAME)));
+    }
 }
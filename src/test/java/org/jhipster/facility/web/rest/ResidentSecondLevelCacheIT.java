@@ -0,0 +1,223 @@
+package org.jhipster.facility.web.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import com.jayway.jsonpath.JsonPath;
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.jhipster.facility.IntegrationTest;
+import org.jhipster.facility.domain.Facility;
+import org.jhipster.facility.domain.Resident;
+import org.jhipster.facility.domain.Room;
+import org.jhipster.facility.repository.FacilityOccupancySummaryRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Integration tests for the Hibernate second-level cache of the {@link Facility} and {@link Room} entities, and for the
+ * fetch plan of the {@link ResidentResource} REST controller, which leaves the facility of the room of a resident unread.
+ * <p>
+ * Hibernate does not cache entities read back in the transaction that inserted them, so the entities are committed
+ * before the test and deleted after it.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc
+@WithMockUser
+class ResidentSecondLevelCacheIT {
+
+    private static final String ENTITY_API_URL = "/api/residents";
+    private static final String ENTITY_API_URL_ID = ENTITY_API_URL + "/{id}";
+
+    private static final String FACILITY_API_URL_ID = "/api/facilities/{id}";
+
+    private static final String ROOM_API_URL_ID = "/api/rooms/{id}";
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private FacilityOccupancySummaryRepository facilityOccupancySummaryRepository;
+
+    @Autowired
+    private MockMvc restResidentMockMvc;
+
+    private TransactionTemplate transactionTemplate;
+
+    private Resident resident;
+
+    private Room otherRoom;
+
+    private Long createdResidentId;
+
+    @BeforeEach
+    void initTest() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        resident =
+            transactionTemplate.execute(status -> {
+                Facility facility = new Facility().facility_name("Second-level cache facility");
+                em.persist(facility);
+                Room room = new Room().room_number(1).capacity(2).facility(facility);
+                em.persist(room);
+                otherRoom = new Room().room_number(2).capacity(2).facility(facility);
+                em.persist(otherRoom);
+                Resident result = new Resident().name("AAAAAAAAAA").phone_number(424242).email("cache@localhost").room(room);
+                em.persist(result);
+                return result;
+            });
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    @AfterEach
+    void cleanUp() throws Exception {
+        if (createdResidentId != null) {
+            restResidentMockMvc.perform(delete(ENTITY_API_URL_ID, createdResidentId)).andExpect(status().isNoContent());
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            em.remove(em.find(Resident.class, resident.getId()));
+            em.remove(em.find(Room.class, resident.getRoom().getId()));
+            em.remove(em.find(Room.class, otherRoom.getId()));
+            // The scheduled reconciliation may have summarized the facility meanwhile
+            facilityOccupancySummaryRepository.deleteByFacilityId(resident.getRoom().getFacility().getId());
+            em.remove(em.find(Facility.class, resident.getRoom().getFacility().getId()));
+        });
+    }
+
+    @Test
+    void getResidentLeavesFacilityUnread() throws Exception {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        boolean statisticsEnabled = statistics.isStatisticsEnabled();
+        statistics.setStatisticsEnabled(true);
+        try {
+            // The resident is selected with its room, whose lazy facility is neither read nor written
+            statistics.clear();
+            restResidentMockMvc
+                .perform(get(ENTITY_API_URL_ID, resident.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.room.id").value(resident.getRoom().getId().intValue()))
+                .andExpect(jsonPath("$.room.facility").doesNotExist());
+            assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+            assertThat(statistics.getEntityStatistics(Facility.class.getName()).getLoadCount()).isZero();
+        } finally {
+            statistics.setStatisticsEnabled(statisticsEnabled);
+        }
+    }
+
+    @Test
+    void getFacilityReadsFacilityFromSecondLevelCache() throws Exception {
+        Long facilityId = resident.getRoom().getFacility().getId();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        boolean statisticsEnabled = statistics.isStatisticsEnabled();
+        statistics.setStatisticsEnabled(true);
+        try {
+            // The first read selects the facility and caches it
+            statistics.clear();
+            restResidentMockMvc.perform(get(FACILITY_API_URL_ID, facilityId)).andExpect(status().isOk());
+            assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+            assertThat(statistics.getDomainDataRegionStatistics(Facility.class.getName()).getPutCount()).isEqualTo(1);
+
+            // The next read selects nothing
+            statistics.clear();
+            restResidentMockMvc
+                .perform(get(FACILITY_API_URL_ID, facilityId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.facility_name").value("Second-level cache facility"));
+            assertThat(statistics.getPrepareStatementCount()).isZero();
+            assertThat(statistics.getDomainDataRegionStatistics(Facility.class.getName()).getHitCount()).isEqualTo(1);
+            assertThat(statistics.getSecondLevelCacheMissCount()).isZero();
+        } finally {
+            statistics.setStatisticsEnabled(statisticsEnabled);
+        }
+    }
+
+    @Test
+    void createResidentKeepsOtherRoomsInSecondLevelCache() throws Exception {
+        Long roomId = resident.getRoom().getId();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        boolean statisticsEnabled = statistics.isStatisticsEnabled();
+        statistics.setStatisticsEnabled(true);
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                em.find(Room.class, roomId);
+                em.find(Room.class, otherRoom.getId());
+            });
+
+            // Taking a place in the room locks and writes the room alone
+            Resident newResident = new Resident().name("BBBBBBBBBB").phone_number(434343).email("new@localhost").room(resident.getRoom());
+            String created = restResidentMockMvc
+                .perform(
+                    post(ENTITY_API_URL).contentType(MediaType.APPLICATION_JSON).content(TestUtil.convertObjectToJsonBytes(newResident))
+                )
+                .andExpect(status().isCreated())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+            createdResidentId = JsonPath.<Number>read(created, "$.id").longValue();
+
+            // The other room is still cached, the room is read again with its new count
+            statistics.clear();
+            transactionTemplate.executeWithoutResult(status -> {
+                assertThat(em.find(Room.class, otherRoom.getId()).getOccupant_count()).isZero();
+                assertThat(em.find(Room.class, roomId).getOccupant_count()).isEqualTo(1);
+            });
+            assertThat(statistics.getDomainDataRegionStatistics(Room.class.getName()).getHitCount()).isEqualTo(1);
+            assertThat(statistics.getDomainDataRegionStatistics(Room.class.getName()).getMissCount()).isEqualTo(1);
+        } finally {
+            statistics.setStatisticsEnabled(statisticsEnabled);
+        }
+    }
+
+    @Test
+    void patchRoomWritesRoomThroughSecondLevelCache() throws Exception {
+        Long roomId = resident.getRoom().getId();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        boolean statisticsEnabled = statistics.isStatisticsEnabled();
+        statistics.setStatisticsEnabled(true);
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                em.find(Room.class, roomId);
+                em.find(Room.class, otherRoom.getId());
+            });
+
+            restResidentMockMvc
+                .perform(
+                    patch(ROOM_API_URL_ID, roomId)
+                        .contentType("application/merge-patch+json")
+                        .content("{\"id\":" + roomId + ",\"room_number\":3}")
+                )
+                .andExpect(status().isOk());
+
+            // Both rooms are still cached, the patched one with its new number
+            statistics.clear();
+            transactionTemplate.executeWithoutResult(status -> {
+                assertThat(em.find(Room.class, otherRoom.getId()).getRoom_number()).isEqualTo(2);
+                assertThat(em.find(Room.class, roomId).getRoom_number()).isEqualTo(3);
+            });
+            assertThat(statistics.getPrepareStatementCount()).isZero();
+            assertThat(statistics.getDomainDataRegionStatistics(Room.class.getName()).getHitCount()).isEqualTo(2);
+            assertThat(statistics.getSecondLevelCacheMissCount()).isZero();
+        } finally {
+            statistics.setStatisticsEnabled(statisticsEnabled);
+        }
+    }
+}
@@ -0,0 +1,382 @@
+package org.jhipster.facility.web.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import java.util.List;
+import javax.persistence.EntityManager;
+import org.jhipster.facility.IntegrationTest;
+import org.jhipster.facility.domain.BedAssignment;
+import org.jhipster.facility.domain.Facility;
+import org.jhipster.facility.domain.Resident;
+import org.jhipster.facility.domain.Room;
+import org.jhipster.facility.domain.enumeration.SearchDocumentType;
+import org.jhipster.facility.repository.BedAssignmentRepository;
+import org.jhipster.facility.repository.ResidentRepository;
+import org.jhipster.facility.repository.RoomRepository;
+import org.jhipster.facility.repository.SearchOutboxEntryRepository;
+import org.jhipster.facility.service.dto.AssignmentCandidateDTO;
+import org.jhipster.facility.service.dto.BatchAssignmentRequestDTO;
+import org.jhipster.facility.service.dto.ResidentMoveDTO;
+import org.jhipster.facility.service.dto.ResidentTransferRequestDTO;
+import org.jhipster.facility.service.occupancy.BedIndex;
+import org.jhipster.facility.service.occupancy.OccupancyIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Integration tests for the {@link RoomAssignmentResource} REST controller.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc
+@WithMockUser
+class RoomAssignmentResourceIT {
+
+    private static final String BATCH_API_URL = "/api/facilities/{id}/assignments:batch";
+    private static final String VACANCIES_API_URL = "/api/facilities/{id}/vacancies";
+    private static final String TRANSFER_API_URL = "/api/residents:transfer";
+    private static final String FREE_BEDS_API_URL = "/api/facilities/{id}/beds/free";
+
+    @Autowired
+    private ResidentRepository residentRepository;
+
+    @Autowired
+    private RoomRepository roomRepository;
+
+    @Autowired
+    private SearchOutboxEntryRepository searchOutboxEntryRepository;
+
+    @Autowired
+    private OccupancyIndex occupancyIndex;
+
+    @Autowired
+    private BedAssignmentRepository bedAssignmentRepository;
+
+    @Autowired
+    private BedIndex bedIndex;
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private MockMvc restRoomAssignmentMockMvc;
+
+    private Facility facility;
+
+    private Room occupiedRoom;
+
+    private Room firstVacantRoom;
+
+    private Room secondVacantRoom;
+
+    private Resident resident;
+
+    @BeforeEach
+    public void initTest() {
+        facility = new Facility().facility_name("Batch facility");
+        em.persist(facility);
+        occupiedRoom = new Room().room_number(1).facility(facility);
+        firstVacantRoom = new Room().room_number(2).facility(facility);
+        secondVacantRoom = new Room().room_number(3).facility(facility);
+        em.persist(occupiedRoom);
+        em.persist(firstVacantRoom);
+        em.persist(secondVacantRoom);
+        resident = new Resident().name("Already here").phone_number(100).room(occupiedRoom);
+        em.persist(resident);
+        em.flush();
+        roomRepository.incrementOccupantCount(occupiedRoom.getId(), 1);
+        em.clear();
+    }
+
+    @Test
+    @Transactional
+    void assignBatchHonoursPreferences() throws Exception {
+        BatchAssignmentRequestDTO request = new BatchAssignmentRequestDTO();
+        request.setResidents(
+            List.of(
+                candidate("Flexible", 201, List.of()),
+                candidate("Picky", 202, List.of(occupiedRoom.getId(), secondVacantRoom.getId())),
+                candidate("Late", 203, List.of(firstVacantRoom.getId()))
+            )
+        );
+
+        restRoomAssignmentMockMvc
+            .perform(
+                post(BATCH_API_URL, facility.getId())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(request))
+            )
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.facilityId").value(facility.getId().intValue()))
+            .andExpect(jsonPath("$.assignments", hasSize(2)))
+            .andExpect(jsonPath("$.unassigned", hasSize(1)))
+            .andExpect(jsonPath("$.unassigned[0]").value(0))
+            .andExpect(jsonPath("$.rowsPerSecond").isNumber());
+
+        assertThat(residentRepository.findWithRoomId(Pageable.unpaged(), secondVacantRoom.getId()).getContent())
+            .extracting(Resident::getName)
+            .containsExactly("Picky");
+        assertThat(residentRepository.findWithRoomId(Pageable.unpaged(), firstVacantRoom.getId()).getContent())
+            .extracting(Resident::getName)
+            .containsExactly("Late");
+
+        for (Room room : List.of(firstVacantRoom, secondVacantRoom)) {
+            assertThat(residentRepository.findWithRoomId(Pageable.unpaged(), room.getId()).getContent())
+                .allSatisfy(assigned ->
+                    assertThat(searchOutboxEntryRepository.countByEntity(SearchDocumentType.RESIDENT, assigned.getId())).isEqualTo(1)
+                );
+        }
+        assertThat(roomRepository.findById(firstVacantRoom.getId()).get().getOccupant_count()).isEqualTo(1);
+        assertThat(roomRepository.findById(secondVacantRoom.getId()).get().getOccupant_count()).isEqualTo(1);
+    }
+
+    @Test
+    @Transactional
+    void assignBatchFillsSharedRoomUpToCapacity() throws Exception {
+        roomRepository.findById(firstVacantRoom.getId()).get().setCapacity(2);
+        roomRepository.deleteById(secondVacantRoom.getId());
+        em.flush();
+        em.clear();
+        BatchAssignmentRequestDTO request = new BatchAssignmentRequestDTO();
+        request.setResidents(
+            List.of(candidate("First", 401, List.of()), candidate("Second", 402, List.of()), candidate("Third", 403, List.of()))
+        );
+
+        restRoomAssignmentMockMvc
+            .perform(
+                post(BATCH_API_URL, facility.getId())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(request))
+            )
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.assignments", hasSize(2)))
+            .andExpect(jsonPath("$.unassigned", hasSize(1)))
+            .andExpect(jsonPath("$.unassigned[0]").value(2));
+
+        assertThat(roomRepository.findById(firstVacantRoom.getId()).get().getOccupant_count()).isEqualTo(2);
+    }
+
+    @Test
+    @Transactional
+    void assignBatchToUnknownFacility() throws Exception {
+        BatchAssignmentRequestDTO request = new BatchAssignmentRequestDTO();
+        request.setResidents(List.of(candidate("Nobody", 301, List.of())));
+        long outboxSizeBefore = searchOutboxEntryRepository.count();
+
+        restRoomAssignmentMockMvc
+            .perform(
+                post(BATCH_API_URL, Long.MAX_VALUE)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(request))
+            )
+            .andExpect(status().isBadRequest());
+
+        assertThat(searchOutboxEntryRepository.count()).isEqualTo(outboxSizeBefore);
+    }
+
+    @Test
+    @Transactional
+    void assignEmptyBatchIsRejected() throws Exception {
+        restRoomAssignmentMockMvc
+            .perform(
+                post(BATCH_API_URL, facility.getId())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(new BatchAssignmentRequestDTO()))
+            )
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @Transactional
+    void getVacanciesFromOccupancyIndex() throws Exception {
+        occupancyIndex.rebuild();
+
+        restRoomAssignmentMockMvc
+            .perform(get(VACANCIES_API_URL, facility.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.roomCount").value(3))
+            .andExpect(jsonPath("$.vacantRoomIds", hasSize(2)))
+            .andExpect(
+                jsonPath("$.vacantRoomIds", containsInAnyOrder(firstVacantRoom.getId().intValue(), secondVacantRoom.getId().intValue()))
+            );
+    }
+
+    @Test
+    @Transactional
+    void getVacanciesOfUnknownFacility() throws Exception {
+        restRoomAssignmentMockMvc
+            .perform(get(VACANCIES_API_URL, Long.MAX_VALUE))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.roomCount").value(0))
+            .andExpect(jsonPath("$.vacantRoomIds", hasSize(0)));
+    }
+
+    @Test
+    @Transactional
+    void transferSwapsResidentsOfFullRooms() throws Exception {
+        Resident neighbour = new Resident().name("Neighbour").phone_number(101).room(em.find(Room.class, firstVacantRoom.getId()));
+        em.persist(neighbour);
+        em.flush();
+        roomRepository.incrementOccupantCount(firstVacantRoom.getId(), 1);
+        em.clear();
+        ResidentTransferRequestDTO request = new ResidentTransferRequestDTO();
+        request.setMoves(
+            List.of(
+                new ResidentMoveDTO(resident.getId(), firstVacantRoom.getId()),
+                new ResidentMoveDTO(neighbour.getId(), occupiedRoom.getId())
+            )
+        );
+
+        restRoomAssignmentMockMvc
+            .perform(post(TRANSFER_API_URL).contentType(MediaType.APPLICATION_JSON).content(TestUtil.convertObjectToJsonBytes(request)))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.moved").value(2))
+            .andExpect(jsonPath("$.unchanged").value(0));
+
+        em.clear();
+        assertThat(residentRepository.findRoomIdById(resident.getId())).contains(firstVacantRoom.getId());
+        assertThat(residentRepository.findRoomIdById(neighbour.getId())).contains(occupiedRoom.getId());
+        assertThat(roomRepository.findById(occupiedRoom.getId()).get().getOccupant_count()).isEqualTo(1);
+        assertThat(roomRepository.findById(firstVacantRoom.getId()).get().getOccupant_count()).isEqualTo(1);
+        assertThat(residentRepository.findById(resident.getId()).get().getVersion()).isEqualTo(1L);
+        assertThat(searchOutboxEntryRepository.countByEntity(SearchDocumentType.RESIDENT, resident.getId())).isEqualTo(1);
+        assertThat(searchOutboxEntryRepository.countByEntity(SearchDocumentType.RESIDENT, neighbour.getId())).isEqualTo(1);
+    }
+
+    @Test
+    @Transactional
+    void transferIntoFullRoomIsRejected() throws Exception {
+        Resident newcomer = new Resident().name("Newcomer").phone_number(102).room(em.find(Room.class, secondVacantRoom.getId()));
+        em.persist(newcomer);
+        em.flush();
+        roomRepository.incrementOccupantCount(secondVacantRoom.getId(), 1);
+        em.clear();
+        ResidentTransferRequestDTO request = new ResidentTransferRequestDTO();
+        request.setMoves(List.of(new ResidentMoveDTO(newcomer.getId(), occupiedRoom.getId())));
+
+        restRoomAssignmentMockMvc
+            .perform(post(TRANSFER_API_URL).contentType(MediaType.APPLICATION_JSON).content(TestUtil.convertObjectToJsonBytes(request)))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.message").value("error.roomfull"));
+
+        assertThat(residentRepository.findRoomIdById(newcomer.getId())).contains(secondVacantRoom.getId());
+        assertThat(searchOutboxEntryRepository.countByEntity(SearchDocumentType.RESIDENT, newcomer.getId())).isZero();
+    }
+
+    @Test
+    @Transactional
+    void transferOfUnknownResidentIsRejected() throws Exception {
+        ResidentTransferRequestDTO request = new ResidentTransferRequestDTO();
+        request.setMoves(
+            List.of(
+                new ResidentMoveDTO(resident.getId(), firstVacantRoom.getId()),
+                new ResidentMoveDTO(Long.MAX_VALUE, firstVacantRoom.getId())
+            )
+        );
+
+        restRoomAssignmentMockMvc
+            .perform(post(TRANSFER_API_URL).contentType(MediaType.APPLICATION_JSON).content(TestUtil.convertObjectToJsonBytes(request)))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.message").value("error.invalidtransfer"));
+
+        assertThat(residentRepository.findRoomIdById(resident.getId())).contains(occupiedRoom.getId());
+    }
+
+    @Test
+    @Transactional
+    void transferMovingResidentTwiceIsRejected() throws Exception {
+        ResidentTransferRequestDTO request = new ResidentTransferRequestDTO();
+        request.setMoves(
+            List.of(
+                new ResidentMoveDTO(resident.getId(), firstVacantRoom.getId()),
+                new ResidentMoveDTO(resident.getId(), secondVacantRoom.getId())
+            )
+        );
+
+        restRoomAssignmentMockMvc
+            .perform(post(TRANSFER_API_URL).contentType(MediaType.APPLICATION_JSON).content(TestUtil.convertObjectToJsonBytes(request)))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.message").value("error.invalidtransfer"));
+    }
+
+    @Test
+    @Transactional
+    void transferMovesBedsOfSwappedResidents() throws Exception {
+        Resident neighbour = new Resident().name("Neighbour").phone_number(101).room(em.find(Room.class, firstVacantRoom.getId()));
+        em.persist(neighbour);
+        em.persist(new BedAssignment().bed_number(1).room(em.find(Room.class, occupiedRoom.getId())).resident(em.merge(resident)));
+        em.persist(new BedAssignment().bed_number(1).room(em.find(Room.class, firstVacantRoom.getId())).resident(neighbour));
+        em.flush();
+        roomRepository.incrementOccupantCount(firstVacantRoom.getId(), 1);
+        em.clear();
+        ResidentTransferRequestDTO request = new ResidentTransferRequestDTO();
+        request.setMoves(
+            List.of(
+                new ResidentMoveDTO(resident.getId(), firstVacantRoom.getId()),
+                new ResidentMoveDTO(neighbour.getId(), occupiedRoom.getId())
+            )
+        );
+
+        restRoomAssignmentMockMvc
+            .perform(post(TRANSFER_API_URL).contentType(MediaType.APPLICATION_JSON).content(TestUtil.convertObjectToJsonBytes(request)))
+            .andExpect(status().isOk());
+
+        assertThat(bedAssignmentRepository.findBedByResidentId(resident.getId()))
+            .singleElement()
+            .satisfies(bed -> assertThat(bed).containsExactly(firstVacantRoom.getId(), 1));
+        assertThat(bedAssignmentRepository.findBedByResidentId(neighbour.getId()))
+            .singleElement()
+            .satisfies(bed -> assertThat(bed).containsExactly(occupiedRoom.getId(), 1));
+    }
+
+    @Test
+    @Transactional
+    void getFreeBedsFromBedIndex() throws Exception {
+        roomRepository.findById(firstVacantRoom.getId()).get().setCapacity(2);
+        em.persist(new BedAssignment().bed_number(1).room(em.find(Room.class, occupiedRoom.getId())).resident(em.merge(resident)));
+        em.flush();
+        ResidentTransferRequestDTO request = new ResidentTransferRequestDTO();
+        request.setMoves(List.of(new ResidentMoveDTO(resident.getId(), firstVacantRoom.getId())));
+        restRoomAssignmentMockMvc
+            .perform(post(TRANSFER_API_URL).contentType(MediaType.APPLICATION_JSON).content(TestUtil.convertObjectToJsonBytes(request)))
+            .andExpect(status().isOk());
+        bedIndex.rebuild();
+
+        restRoomAssignmentMockMvc
+            .perform(get(FREE_BEDS_API_URL, facility.getId()).param("limit", "2"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.freeBedCount").value(3))
+            .andExpect(jsonPath("$.beds", hasSize(2)))
+            .andExpect(jsonPath("$.beds[0].roomId").value(occupiedRoom.getId().intValue()))
+            .andExpect(jsonPath("$.beds[0].bedNumber").value(1))
+            .andExpect(jsonPath("$.beds[1].roomId").value(firstVacantRoom.getId().intValue()))
+            .andExpect(jsonPath("$.beds[1].bedNumber").value(2));
+    }
+
+    @Test
+    @Transactional
+    void getFreeBedsWithInvalidLimit() throws Exception {
+        restRoomAssignmentMockMvc
+            .perform(get(FREE_BEDS_API_URL, facility.getId()).param("limit", "0"))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.message").value("error.invalidlimit"));
+    }
+
+    private static AssignmentCandidateDTO candidate(String name, int phoneNumber, List<Long> preferredRoomIds) {
+        AssignmentCandidateDTO candidate = new AssignmentCandidateDTO();
+        candidate.setName(name);
+        candidate.setPhone_number(phoneNumber);
+        candidate.setPreferredRoomIds(preferredRoomIds);
+        return candidate;
+    }
+}
@@ -0,0 +1,149 @@
+package org.jhipster.facility.web.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+import javax.persistence.EntityManager;
+import org.jhipster.facility.IntegrationTest;
+import org.jhipster.facility.domain.Facility;
+import org.jhipster.facility.domain.Room;
+import org.jhipster.facility.repository.FacilityOccupancySummaryRepository;
+import org.jhipster.facility.repository.RoomRepository;
+import org.jhipster.facility.repository.StatementRecorder;
+import org.jhipster.facility.service.assignment.AssignmentCoordinator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Integration tests for the resizing of a room by the {@link RoomResource} REST controller while residents are assigned
+ * to it.
+ * <p>
+ * The assignment runs on another thread, in its own transaction, so the room is committed before each test and deleted
+ * after it.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc
+@WithMockUser
+class RoomCapacityConcurrencyIT {
+
+    private static final String ENTITY_API_URL_ID = "/api/rooms/{id}";
+
+    /**
+     * Time given to the assignment to complete while the resize is about to write the room.
+     */
+    private static final long ASSIGNMENT_MILLIS = 300;
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private RoomRepository roomRepository;
+
+    @Autowired
+    private FacilityOccupancySummaryRepository facilityOccupancySummaryRepository;
+
+    @Autowired
+    private AssignmentCoordinator assignmentCoordinator;
+
+    @Autowired
+    private MockMvc restRoomMockMvc;
+
+    private TransactionTemplate transactionTemplate;
+
+    private Room room;
+
+    @BeforeEach
+    void initTest() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        room =
+            transactionTemplate.execute(status -> {
+                Facility facility = new Facility().facility_name("Room capacity concurrency facility");
+                em.persist(facility);
+                Room result = new Room().room_number(1).capacity(4).facility(facility);
+                em.persist(result);
+                em.flush();
+                roomRepository.incrementOccupantCount(result.getId(), 2);
+                return result;
+            });
+    }
+
+    @AfterEach
+    void cleanUp() {
+        transactionTemplate.executeWithoutResult(status -> {
+            em.remove(em.find(Room.class, room.getId()));
+            // The resize summarized the facility
+            facilityOccupancySummaryRepository.deleteByFacilityId(room.getFacility().getId());
+            em.remove(em.find(Facility.class, room.getFacility().getId()));
+        });
+    }
+
+    @Test
+    void resizeBelowTheOccupantsOfAConcurrentAssignmentNeverOverbooksTheRoom() throws Exception {
+        Long roomId = room.getId();
+        ExecutorService assigner = Executors.newSingleThreadExecutor();
+        try {
+            AtomicReference<Future<Integer>> assignment = new AtomicReference<>();
+            // The resize read 2 occupants and is about to write a capacity of 2 when a third resident is assigned
+            StatementRecorder.listen(
+                () -> {
+                    try {
+                        restRoomMockMvc
+                            .perform(
+                                patch(ENTITY_API_URL_ID, roomId)
+                                    .contentType("application/merge-patch+json")
+                                    .accept(MediaType.APPLICATION_JSON)
+                                    .content("{\"id\":" + roomId + ",\"capacity\":2}")
+                            )
+                            .andExpect(status().isOk());
+                    } catch (Exception e) {
+                        throw new IllegalStateException(e);
+                    }
+                },
+                sql -> {
+                    if (assignment.get() == null && sql.startsWith("update room set")) {
+                        assignment.set(
+                            assigner.submit(() ->
+                                assignmentCoordinator.assign(List.of(roomId), () -> roomRepository.incrementOccupantCount(roomId, 1))
+                            )
+                        );
+                        try {
+                            assignment.get().get(ASSIGNMENT_MILLIS, TimeUnit.MILLISECONDS);
+                        } catch (TimeoutException e) {
+                            // Waiting for the room the resize locked
+                        } catch (Exception e) {
+                            throw new IllegalStateException(e);
+                        }
+                    }
+                }
+            );
+
+            assertThat(assignment.get()).isNotNull();
+            // Assigned once the resize committed, to a room then full
+            assertThat(assignment.get().get(10, TimeUnit.SECONDS)).isZero();
+            Room resized = transactionTemplate.execute(status -> roomRepository.findById(roomId).orElseThrow());
+            assertThat(resized.getCapacity()).isEqualTo(2);
+            assertThat(resized.getOccupant_count()).isEqualTo(2);
+        } finally {
+            assigner.shutdownNow();
+        }
+    }
+}
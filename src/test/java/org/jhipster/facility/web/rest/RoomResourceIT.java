@@ -1,22 +1,38 @@
 package org.jhipster.facility.web.rest;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.not;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
+import com.jayway.jsonpath.JsonPath;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Base64;
 import java.util.Collections;
 import java.util.List;
 import java.util.Random;
 import java.util.concurrent.atomic.AtomicLong;
 import javax.persistence.EntityManager;
 import org.jhipster.facility.IntegrationTest;
+import org.jhipster.facility.domain.BedAssignment;
+import org.jhipster.facility.domain.Booking;
 import org.jhipster.facility.domain.Facility;
+import org.jhipster.facility.domain.Resident;
 import org.jhipster.facility.domain.Room;
+import org.jhipster.facility.domain.enumeration.SearchDocumentType;
+import org.jhipster.facility.repository.BedAssignmentRepository;
+import org.jhipster.facility.repository.BookingRepository;
 import org.jhipster.facility.repository.RoomRepository;
+import org.jhipster.facility.repository.SearchOutboxEntryRepository;
 import org.jhipster.facility.repository.search.RoomSearchRepository;
+import org.jhipster.facility.repository.search.SearchAfterPage;
+import org.jhipster.facility.service.occupancy.ApproximateCountService;
+import org.jhipster.facility.service.occupancy.OccupancyIndex;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -26,9 +42,12 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.elasticsearch.core.TotalHitsRelation;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.transaction.annotation.Transactional;
 
 /**
@@ -43,6 +62,9 @@ class RoomResourceIT {
     private static final Integer DEFAULT_ROOM_NUMBER = 10000;
     private static final Integer UPDATED_ROOM_NUMBER = 9999;
 
+    private static final Integer DEFAULT_CAPACITY = 1;
+    private static final Integer UPDATED_CAPACITY = 2;
+
     private static final String ENTITY_API_URL = "/api/rooms";
     private static final String ENTITY_API_URL_ID = ENTITY_API_URL + "/{id}";
     private static final String ENTITY_SEARCH_API_URL = "/api/_search/rooms";
@@ -56,6 +78,18 @@ class RoomResourceIT {
     @Mock
     private RoomRepository roomRepositoryMock;
 
+    @Autowired
+    private BedAssignmentRepository bedAssignmentRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private OccupancyIndex occupancyIndex;
+
+    @Autowired
+    private ApproximateCountService approximateCountService;
+
     /**
      * This repository is mocked in the org.jhipster.facility.repository.search test package.
      *
@@ -64,6 +98,9 @@ class RoomResourceIT {
     @Autowired
     private RoomSearchRepository mockRoomSearchRepository;
 
+    @Autowired
+    private SearchOutboxEntryRepository searchOutboxEntryRepository;
+
     @Autowired
     private EntityManager em;
 
@@ -79,7 +116,7 @@ class RoomResourceIT {
      * if they test an entity which requires the current entity.
      */
     public static Room createEntity(EntityManager em) {
-        Room room = new Room().room_number(DEFAULT_ROOM_NUMBER);
+        Room room = new Room().room_number(DEFAULT_ROOM_NUMBER).capacity(DEFAULT_CAPACITY);
         // Add required entity
         Facility facility;
         if (TestUtil.findAll(em, Facility.class).isEmpty()) {
@@ -100,7 +137,7 @@ class RoomResourceIT {
      * if they test an entity which requires the current entity.
      */
     public static Room createUpdatedEntity(EntityManager em) {
-        Room room = new Room().room_number(UPDATED_ROOM_NUMBER);
+        Room room = new Room().room_number(UPDATED_ROOM_NUMBER).capacity(UPDATED_CAPACITY);
         // Add required entity
         Facility facility;
         if (TestUtil.findAll(em, Facility.class).isEmpty()) {
@@ -133,9 +170,11 @@ class RoomResourceIT {
         assertThat(roomList).hasSize(databaseSizeBeforeCreate + 1);
         Room testRoom = roomList.get(roomList.size() - 1);
         assertThat(testRoom.getRoom_number()).isEqualTo(DEFAULT_ROOM_NUMBER);
+        assertThat(testRoom.getCapacity()).isEqualTo(DEFAULT_CAPACITY);
+        assertThat(testRoom.getOccupant_count()).isZero();
 
-        // Validate the Room in Elasticsearch
-        verify(mockRoomSearchRepository, times(1)).save(testRoom);
+        // Validate the Room in the search outbox
+        assertThat(searchOutboxEntryRepository.countByEntity(SearchDocumentType.ROOM, testRoom.getId())).isEqualTo(1);
     }
 
     @Test
@@ -155,8 +194,77 @@ class RoomResourceIT {
         List<Room> roomList = roomRepository.findAll();
         assertThat(roomList).hasSize(databaseSizeBeforeCreate);
 
-        // Validate the Room in Elasticsearch
-        verify(mockRoomSearchRepository, times(0)).save(room);
+        // Validate the Room in the search outbox
+        assertThat(searchOutboxEntryRepository.countByEntity(SearchDocumentType.ROOM, room.getId())).isZero();
+    }
+
+    @Test
+    @Transactional
+    void createRoomWithExistingRoomNumber() throws Exception {
+        // Initialize the database
+        roomRepository.saveAndFlush(createEntity(em));
+
+        int databaseSizeBeforeCreate = roomRepository.findAll().size();
+
+        // The facility already has a room with this number
+        restRoomMockMvc
+            .perform(post(ENTITY_API_URL).contentType(MediaType.APPLICATION_JSON).content(TestUtil.convertObjectToJsonBytes(room)))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.message").value("error.roomnumberexists"));
+
+        // Validate the Room in the database
+        List<Room> roomList = roomRepository.findAll();
+        assertThat(roomList).hasSize(databaseSizeBeforeCreate);
+    }
+
+    @Test
+    @Transactional
+    void updateRoomWithExistingRoomNumber() throws Exception {
+        // Initialize the database
+        roomRepository.saveAndFlush(room);
+        roomRepository.saveAndFlush(createEntity(em).room_number(UPDATED_ROOM_NUMBER));
+
+        Room updatedRoom = roomRepository.findById(room.getId()).get();
+        em.detach(updatedRoom);
+        updatedRoom.room_number(UPDATED_ROOM_NUMBER);
+
+        restRoomMockMvc
+            .perform(
+                put(ENTITY_API_URL_ID, updatedRoom.getId())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(updatedRoom))
+            )
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.message").value("error.roomnumberexists"));
+
+        // Patched with and without resizing
+        Room partialUpdatedRoom = new Room();
+        partialUpdatedRoom.setId(room.getId());
+        partialUpdatedRoom.room_number(UPDATED_ROOM_NUMBER);
+        restRoomMockMvc
+            .perform(
+                patch(ENTITY_API_URL_ID, partialUpdatedRoom.getId())
+                    .contentType("application/merge-patch+json")
+                    .content(TestUtil.convertObjectToJsonBytes(partialUpdatedRoom))
+            )
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.message").value("error.roomnumberexists"));
+
+        partialUpdatedRoom.capacity(UPDATED_CAPACITY);
+        restRoomMockMvc
+            .perform(
+                patch(ENTITY_API_URL_ID, partialUpdatedRoom.getId())
+                    .contentType("application/merge-patch+json")
+                    .content(TestUtil.convertObjectToJsonBytes(partialUpdatedRoom))
+            )
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.message").value("error.roomnumberexists"));
+
+        // Validate the Room in the database
+        em.clear();
+        Room testRoom = roomRepository.findById(room.getId()).get();
+        assertThat(testRoom.getRoom_number()).isEqualTo(DEFAULT_ROOM_NUMBER);
+        assertThat(testRoom.getCapacity()).isEqualTo(DEFAULT_CAPACITY);
     }
 
     @Test
@@ -188,7 +296,88 @@ class RoomResourceIT {
             .andExpect(status().isOk())
             .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
             .andExpect(jsonPath("$.[*].id").value(hasItem(room.getId().intValue())))
-            .andExpect(jsonPath("$.[*].room_number").value(hasItem(DEFAULT_ROOM_NUMBER)));
+            .andExpect(jsonPath("$.[*].room_number").value(hasItem(DEFAULT_ROOM_NUMBER)))
+            .andExpect(jsonPath("$.[*].capacity").value(hasItem(DEFAULT_CAPACITY)))
+            .andExpect(jsonPath("$.[*].occupant_count").value(hasItem(0)));
+    }
+
+    @Test
+    @Transactional
+    void getAllRoomsWithKeysetPagination() throws Exception {
+        // Initialize the database
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            ids.add(roomRepository.saveAndFlush(createEntity(em).room_number(i + 1)).getId());
+        }
+        Long facilityId = roomRepository.findById(ids.get(0)).get().getFacility().getId();
+
+        // Walk the rooms of the facility two by two
+        List<Long> listedIds = new ArrayList<>();
+        String cursor = "";
+        int pages = 0;
+        while (cursor != null) {
+            MvcResult result = restRoomMockMvc
+                .perform(get("/api/facility/rooms/{facility_id}?size=2&after=" + cursor, facilityId))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("X-Total-Count"))
+                .andReturn();
+            List<Number> pageIds = JsonPath.read(result.getResponse().getContentAsString(), "$[*].id");
+            assertThat(pageIds).hasSizeLessThanOrEqualTo(2);
+            pageIds.forEach(id -> listedIds.add(id.longValue()));
+            cursor = result.getResponse().getHeader(KeysetPaginationUtil.NEXT_CURSOR_HEADER);
+            pages++;
+        }
+        assertThat(listedIds).isSorted().doesNotHaveDuplicates().containsAll(ids);
+        assertThat(pages).isEqualTo((listedIds.size() + 1) / 2);
+
+        // Follow the next link of the first page of all the rooms
+        MvcResult first = restRoomMockMvc
+            .perform(get(ENTITY_API_URL + "?size=1&after="))
+            .andExpect(status().isOk())
+            .andExpect(header().string("Link", containsString("rel=\"next\"")))
+            .andReturn();
+        List<Number> firstIds = JsonPath.read(first.getResponse().getContentAsString(), "$[*].id");
+        restRoomMockMvc
+            .perform(get(ENTITY_API_URL + "?size=20&eagerload=false&after=" + first.getResponse().getHeader("X-Next-Cursor")))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(not(hasItem(firstIds.get(0).intValue()))))
+            .andExpect(jsonPath("$.[*].id").value(hasItem(ids.get(4).intValue())));
+    }
+
+    @Test
+    @Transactional
+    void getAllRoomsWithoutCount() throws Exception {
+        // Initialize the database
+        roomRepository.saveAndFlush(room);
+        Room other = roomRepository.saveAndFlush(createEntity(em).room_number(UPDATED_ROOM_NUMBER));
+        occupancyIndex.rebuild();
+        approximateCountService.refresh();
+
+        restRoomMockMvc
+            .perform(get(ENTITY_API_URL + "?count=false&sort=id,desc&size=1"))
+            .andExpect(status().isOk())
+            .andExpect(header().doesNotExist("X-Total-Count"))
+            .andExpect(header().exists(SlicePaginationUtil.APPROXIMATE_TOTAL_COUNT_HEADER))
+            .andExpect(header().string("Link", containsString("rel=\"next\"")))
+            .andExpect(header().string("Link", not(containsString("rel=\"last\""))))
+            .andExpect(jsonPath("$.[*].id").value(hasItem(other.getId().intValue())));
+
+        restRoomMockMvc
+            .perform(get("/api/facility/rooms/{facility_id}?count=false&size=5", room.getFacility().getId()))
+            .andExpect(status().isOk())
+            .andExpect(header().doesNotExist("X-Total-Count"))
+            .andExpect(header().string(SlicePaginationUtil.APPROXIMATE_TOTAL_COUNT_HEADER, "2"))
+            .andExpect(header().string("Link", not(containsString("rel=\"next\""))))
+            .andExpect(jsonPath("$.[*].id").value(hasItem(room.getId().intValue())));
+    }
+
+    @Test
+    @Transactional
+    void getAllRoomsWithInvalidCursor() throws Exception {
+        restRoomMockMvc
+            .perform(get(ENTITY_API_URL + "?after=not-a-cursor"))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.message").value("error.invalidcursor"));
     }
 
     @SuppressWarnings({ "unchecked" })
@@ -221,7 +410,9 @@ class RoomResourceIT {
             .andExpect(status().isOk())
             .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
             .andExpect(jsonPath("$.id").value(room.getId().intValue()))
-            .andExpect(jsonPath("$.room_number").value(DEFAULT_ROOM_NUMBER));
+            .andExpect(jsonPath("$.room_number").value(DEFAULT_ROOM_NUMBER))
+            .andExpect(jsonPath("$.capacity").value(DEFAULT_CAPACITY))
+            .andExpect(jsonPath("$.occupant_count").value(0));
     }
 
     @Test
@@ -243,7 +434,7 @@ class RoomResourceIT {
         Room updatedRoom = roomRepository.findById(room.getId()).get();
         // Disconnect from session so that the updates on updatedRoom are not directly saved in db
         em.detach(updatedRoom);
-        updatedRoom.room_number(UPDATED_ROOM_NUMBER);
+        updatedRoom.room_number(UPDATED_ROOM_NUMBER).capacity(UPDATED_CAPACITY);
 
         restRoomMockMvc
             .perform(
@@ -258,9 +449,103 @@ class RoomResourceIT {
         assertThat(roomList).hasSize(databaseSizeBeforeUpdate);
         Room testRoom = roomList.get(roomList.size() - 1);
         assertThat(testRoom.getRoom_number()).isEqualTo(UPDATED_ROOM_NUMBER);
+        assertThat(testRoom.getCapacity()).isEqualTo(UPDATED_CAPACITY);
+
+        // Validate the Room in the search outbox
+        assertThat(searchOutboxEntryRepository.countByEntity(SearchDocumentType.ROOM, testRoom.getId())).isEqualTo(1);
+    }
+
+    @Test
+    @Transactional
+    void putRoomWithoutCapacityKeepsCapacity() throws Exception {
+        // Initialize the database
+        roomRepository.saveAndFlush(room.capacity(UPDATED_CAPACITY));
+
+        Room updatedRoom = roomRepository.findById(room.getId()).get();
+        em.detach(updatedRoom);
+        updatedRoom.room_number(UPDATED_ROOM_NUMBER).capacity(null);
+
+        restRoomMockMvc
+            .perform(
+                put(ENTITY_API_URL_ID, updatedRoom.getId())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(updatedRoom))
+            )
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.capacity").value(UPDATED_CAPACITY));
+
+        assertThat(roomRepository.findById(room.getId()).get().getCapacity()).isEqualTo(UPDATED_CAPACITY);
+    }
+
+    @Test
+    @Transactional
+    void putRoomWithCapacityBelowOccupantCount() throws Exception {
+        // Initialize the database
+        roomRepository.saveAndFlush(room.capacity(UPDATED_CAPACITY));
+        assertThat(roomRepository.incrementOccupantCount(room.getId(), UPDATED_CAPACITY)).isEqualTo(1);
+        em.clear();
+
+        Room updatedRoom = roomRepository.findById(room.getId()).get();
+        em.detach(updatedRoom);
+        updatedRoom.capacity(DEFAULT_CAPACITY);
+
+        restRoomMockMvc
+            .perform(
+                put(ENTITY_API_URL_ID, updatedRoom.getId())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(updatedRoom))
+            )
+            .andExpect(status().isBadRequest());
+
+        Room testRoom = roomRepository.findById(room.getId()).get();
+        assertThat(testRoom.getCapacity()).isEqualTo(UPDATED_CAPACITY);
+        assertThat(testRoom.getOccupant_count()).isEqualTo(UPDATED_CAPACITY);
+    }
+
+    @Test
+    @Transactional
+    void incrementOccupantCountIsGuardedByCapacity() throws Exception {
+        // Initialize the database
+        roomRepository.saveAndFlush(room.capacity(UPDATED_CAPACITY));
 
-        // Validate the Room in Elasticsearch
-        verify(mockRoomSearchRepository).save(testRoom);
+        assertThat(roomRepository.incrementOccupantCount(room.getId(), 1)).isEqualTo(1);
+        assertThat(roomRepository.incrementOccupantCount(room.getId(), 2)).isZero();
+        assertThat(roomRepository.incrementOccupantCount(room.getId(), 1)).isEqualTo(1);
+        assertThat(roomRepository.incrementOccupantCount(room.getId(), 1)).isZero();
+        assertThat(roomRepository.decrementOccupantCount(room.getId(), 3)).isZero();
+        assertThat(roomRepository.decrementOccupantCount(room.getId(), 2)).isEqualTo(1);
+        em.clear();
+
+        assertThat(roomRepository.findById(room.getId()).get().getOccupant_count()).isZero();
+    }
+
+    @Test
+    @Transactional
+    void putRoomWithLowerCapacityMovesResidentsToFreeBeds() throws Exception {
+        // Initialize the database
+        roomRepository.saveAndFlush(room.capacity(UPDATED_CAPACITY));
+        Resident resident = new Resident().name("Sleeper").phone_number(1).room(room);
+        em.persist(resident);
+        em.persist(new BedAssignment().bed_number(UPDATED_CAPACITY).room(room).resident(resident));
+        em.flush();
+        roomRepository.incrementOccupantCount(room.getId(), 1);
+        em.clear();
+
+        Room updatedRoom = roomRepository.findById(room.getId()).get();
+        em.detach(updatedRoom);
+        updatedRoom.capacity(DEFAULT_CAPACITY);
+
+        restRoomMockMvc
+            .perform(
+                put(ENTITY_API_URL_ID, updatedRoom.getId())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(updatedRoom))
+            )
+            .andExpect(status().isOk());
+
+        assertThat(bedAssignmentRepository.findBedByResidentId(resident.getId()))
+            .singleElement()
+            .satisfies(bed -> assertThat(bed).containsExactly(room.getId(), DEFAULT_CAPACITY));
     }
 
     @Test
@@ -282,8 +567,8 @@ class RoomResourceIT {
         List<Room> roomList = roomRepository.findAll();
         assertThat(roomList).hasSize(databaseSizeBeforeUpdate);
 
-        // Validate the Room in Elasticsearch
-        verify(mockRoomSearchRepository, times(0)).save(room);
+        // Validate the Room in the search outbox
+        assertThat(searchOutboxEntryRepository.countByEntity(SearchDocumentType.ROOM, room.getId())).isZero();
     }
 
     @Test
@@ -305,8 +590,8 @@ class RoomResourceIT {
         List<Room> roomList = roomRepository.findAll();
         assertThat(roomList).hasSize(databaseSizeBeforeUpdate);
 
-        // Validate the Room in Elasticsearch
-        verify(mockRoomSearchRepository, times(0)).save(room);
+        // Validate the Room in the search outbox
+        assertThat(searchOutboxEntryRepository.countByEntity(SearchDocumentType.ROOM, room.getId())).isZero();
     }
 
     @Test
@@ -324,8 +609,8 @@ class RoomResourceIT {
         List<Room> roomList = roomRepository.findAll();
         assertThat(roomList).hasSize(databaseSizeBeforeUpdate);
 
-        // Validate the Room in Elasticsearch
-        verify(mockRoomSearchRepository, times(0)).save(room);
+        // Validate the Room in the search outbox
+        assertThat(searchOutboxEntryRepository.countByEntity(SearchDocumentType.ROOM, room.getId())).isZero();
     }
 
     @Test
@@ -353,6 +638,7 @@ class RoomResourceIT {
         assertThat(roomList).hasSize(databaseSizeBeforeUpdate);
         Room testRoom = roomList.get(roomList.size() - 1);
         assertThat(testRoom.getRoom_number()).isEqualTo(DEFAULT_ROOM_NUMBER);
+        assertThat(testRoom.getCapacity()).isEqualTo(DEFAULT_CAPACITY);
     }
 
     @Test
@@ -367,7 +653,7 @@ class RoomResourceIT {
         Room partialUpdatedRoom = new Room();
         partialUpdatedRoom.setId(room.getId());
 
-        partialUpdatedRoom.room_number(UPDATED_ROOM_NUMBER);
+        partialUpdatedRoom.room_number(UPDATED_ROOM_NUMBER).capacity(UPDATED_CAPACITY);
 
         restRoomMockMvc
             .perform(
@@ -382,6 +668,116 @@ class RoomResourceIT {
         assertThat(roomList).hasSize(databaseSizeBeforeUpdate);
         Room testRoom = roomList.get(roomList.size() - 1);
         assertThat(testRoom.getRoom_number()).isEqualTo(UPDATED_ROOM_NUMBER);
+        assertThat(testRoom.getCapacity()).isEqualTo(UPDATED_CAPACITY);
+    }
+
+    @Test
+    @Transactional
+    void patchRoomWithReturnMinimal() throws Exception {
+        // Initialize the database
+        roomRepository.saveAndFlush(room);
+        Long version = room.getVersion();
+
+        Room partialUpdatedRoom = new Room();
+        partialUpdatedRoom.setId(room.getId());
+        partialUpdatedRoom.room_number(UPDATED_ROOM_NUMBER);
+
+        restRoomMockMvc
+            .perform(
+                patch(ENTITY_API_URL_ID, partialUpdatedRoom.getId())
+                    .header(PreferHeaderUtil.PREFER_HEADER, PreferHeaderUtil.RETURN_MINIMAL)
+                    .contentType("application/merge-patch+json")
+                    .content(TestUtil.convertObjectToJsonBytes(partialUpdatedRoom))
+            )
+            .andExpect(status().isNoContent())
+            .andExpect(header().string(PreferHeaderUtil.PREFERENCE_APPLIED_HEADER, PreferHeaderUtil.RETURN_MINIMAL));
+
+        // Validate the Room in the database
+        Room testRoom = roomRepository.findById(room.getId()).get();
+        assertThat(testRoom.getRoom_number()).isEqualTo(UPDATED_ROOM_NUMBER);
+        assertThat(testRoom.getCapacity()).isEqualTo(DEFAULT_CAPACITY);
+        assertThat(testRoom.getVersion()).isEqualTo(version + 1);
+
+        // Validate the Room in the search outbox
+        assertThat(searchOutboxEntryRepository.countByEntity(SearchDocumentType.ROOM, room.getId())).isEqualTo(1);
+    }
+
+    @Test
+    @Transactional
+    void patchRoomWithInvalidRoomNumber() throws Exception {
+        // Initialize the database
+        roomRepository.saveAndFlush(room);
+
+        Room partialUpdatedRoom = new Room();
+        partialUpdatedRoom.setId(room.getId());
+        partialUpdatedRoom.room_number(20000);
+
+        restRoomMockMvc
+            .perform(
+                patch(ENTITY_API_URL_ID, partialUpdatedRoom.getId())
+                    .contentType("application/merge-patch+json")
+                    .content(TestUtil.convertObjectToJsonBytes(partialUpdatedRoom))
+            )
+            .andExpect(status().isBadRequest());
+
+        // Validate the Room in the database
+        assertThat(roomRepository.findById(room.getId()).get().getRoom_number()).isEqualTo(DEFAULT_ROOM_NUMBER);
+    }
+
+    @Test
+    @Transactional
+    void patchStaleRoom() throws Exception {
+        // Initialize the database
+        roomRepository.saveAndFlush(room);
+        Long staleVersion = room.getVersion();
+
+        // Another clerk updates the room first
+        roomRepository.saveAndFlush(roomRepository.findById(room.getId()).get().room_number(UPDATED_ROOM_NUMBER));
+
+        Room partialUpdatedRoom = new Room();
+        partialUpdatedRoom.setId(room.getId());
+        partialUpdatedRoom.room_number(DEFAULT_ROOM_NUMBER).version(staleVersion);
+
+        restRoomMockMvc
+            .perform(
+                patch(ENTITY_API_URL_ID, partialUpdatedRoom.getId())
+                    .contentType("application/merge-patch+json")
+                    .content(TestUtil.convertObjectToJsonBytes(partialUpdatedRoom))
+            )
+            .andExpect(status().isConflict());
+
+        // Validate the Room in the database
+        em.clear();
+        assertThat(roomRepository.findById(room.getId()).get().getRoom_number()).isEqualTo(UPDATED_ROOM_NUMBER);
+    }
+
+    @Test
+    @Transactional
+    void patchStaleRoomCapacity() throws Exception {
+        // Initialize the database
+        roomRepository.saveAndFlush(room);
+        Long staleVersion = room.getVersion();
+
+        // Another clerk updates the room first
+        roomRepository.saveAndFlush(roomRepository.findById(room.getId()).get().room_number(UPDATED_ROOM_NUMBER));
+
+        Room partialUpdatedRoom = new Room();
+        partialUpdatedRoom.setId(room.getId());
+        partialUpdatedRoom.capacity(UPDATED_CAPACITY).version(staleVersion);
+
+        restRoomMockMvc
+            .perform(
+                patch(ENTITY_API_URL_ID, partialUpdatedRoom.getId())
+                    .contentType("application/merge-patch+json")
+                    .content(TestUtil.convertObjectToJsonBytes(partialUpdatedRoom))
+            )
+            .andExpect(status().isConflict());
+
+        // Validate the Room in the database
+        em.clear();
+        Room testRoom = roomRepository.findById(room.getId()).get();
+        assertThat(testRoom.getRoom_number()).isEqualTo(UPDATED_ROOM_NUMBER);
+        assertThat(testRoom.getCapacity()).isEqualTo(DEFAULT_CAPACITY);
     }
 
     @Test
@@ -403,8 +799,8 @@ class RoomResourceIT {
         List<Room> roomList = roomRepository.findAll();
         assertThat(roomList).hasSize(databaseSizeBeforeUpdate);
 
-        // Validate the Room in Elasticsearch
-        verify(mockRoomSearchRepository, times(0)).save(room);
+        // Validate the Room in the search outbox
+        assertThat(searchOutboxEntryRepository.countByEntity(SearchDocumentType.ROOM, room.getId())).isZero();
     }
 
     @Test
@@ -426,8 +822,8 @@ class RoomResourceIT {
         List<Room> roomList = roomRepository.findAll();
         assertThat(roomList).hasSize(databaseSizeBeforeUpdate);
 
-        // Validate the Room in Elasticsearch
-        verify(mockRoomSearchRepository, times(0)).save(room);
+        // Validate the Room in the search outbox
+        assertThat(searchOutboxEntryRepository.countByEntity(SearchDocumentType.ROOM, room.getId())).isZero();
     }
 
     @Test
@@ -445,8 +841,8 @@ class RoomResourceIT {
         List<Room> roomList = roomRepository.findAll();
         assertThat(roomList).hasSize(databaseSizeBeforeUpdate);
 
-        // Validate the Room in Elasticsearch
-        verify(mockRoomSearchRepository, times(0)).save(room);
+        // Validate the Room in the search outbox
+        assertThat(searchOutboxEntryRepository.countByEntity(SearchDocumentType.ROOM, room.getId())).isZero();
     }
 
     @Test
@@ -466,8 +862,31 @@ class RoomResourceIT {
         List<Room> roomList = roomRepository.findAll();
         assertThat(roomList).hasSize(databaseSizeBeforeDelete - 1);
 
-        // Validate the Room in Elasticsearch
-        verify(mockRoomSearchRepository, times(1)).deleteById(room.getId());
+        // Validate the Room in the search outbox
+        assertThat(searchOutboxEntryRepository.countByEntity(SearchDocumentType.ROOM, room.getId())).isEqualTo(1);
+    }
+
+    @Test
+    @Transactional
+    void deleteRoomWithBookings() throws Exception {
+        // Initialize the database
+        roomRepository.saveAndFlush(room);
+        Room otherRoom = roomRepository.saveAndFlush(createEntity(em).room_number(UPDATED_ROOM_NUMBER));
+        Resident resident = new Resident().name("Booker").phone_number(404).room(otherRoom);
+        em.persist(resident);
+        em.persist(
+            new Booking().room(room).resident(resident).start_date(LocalDate.of(2027, 3, 1)).end_date(LocalDate.of(2027, 6, 1))
+        );
+        em.flush();
+
+        // Delete the room
+        restRoomMockMvc
+            .perform(delete(ENTITY_API_URL_ID, room.getId()).accept(MediaType.APPLICATION_JSON))
+            .andExpect(status().isNoContent());
+
+        // Validate the room is deleted with its bookings
+        assertThat(roomRepository.existsById(room.getId())).isFalse();
+        assertThat(bookingRepository.findWithRoomId(PageRequest.of(0, 1), room.getId())).isEmpty();
     }
 
     @Test
@@ -485,6 +904,66 @@ class RoomResourceIT {
             .andExpect(status().isOk())
             .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
             .andExpect(jsonPath("$.[*].id").value(hasItem(room.getId().intValue())))
-            .andExpect(jsonPath("$.[*].room_number").value(hasItem(DEFAULT_ROOM_NUMBER)));
+            .andExpect(jsonPath("$.[*].room_number").value(hasItem(DEFAULT_ROOM_NUMBER)))
+            .andExpect(jsonPath("$.[*].capacity").value(hasItem(DEFAULT_CAPACITY)))
+            .andExpect(jsonPath("$.[*].occupant_count").value(hasItem(0)));
+    }
+
+    @Test
+    @Transactional
+    void searchRoomAfterCursor() throws Exception {
+        // Configure the mock search repository
+        // Initialize the database
+        roomRepository.saveAndFlush(room);
+        Room other = roomRepository.saveAndFlush(createEntity(em).room_number(UPDATED_ROOM_NUMBER));
+        PageRequest pageable = PageRequest.of(0, 1, Sort.by("room_number"));
+        List<Object> searchAfter = List.of(DEFAULT_ROOM_NUMBER, room.getId().intValue());
+        when(mockRoomSearchRepository.searchAfter("capacity:" + DEFAULT_CAPACITY, null, pageable))
+            .thenReturn(new SearchAfterPage<>(List.of(room), searchAfter, 10000, TotalHitsRelation.GREATER_THAN_OR_EQUAL_TO));
+        when(mockRoomSearchRepository.searchAfter("capacity:" + DEFAULT_CAPACITY, searchAfter, pageable))
+            .thenReturn(new SearchAfterPage<>(List.of(other), null, 2, TotalHitsRelation.EQUAL_TO));
+
+        // Search the first page
+        MvcResult first = restRoomMockMvc
+            .perform(get(ENTITY_SEARCH_API_URL + "?query=capacity:" + DEFAULT_CAPACITY + "&sort=room_number,asc&size=1&after="))
+            .andExpect(status().isOk())
+            .andExpect(header().string(SearchAfterPaginationUtil.TOTAL_COUNT_HEADER, "10000"))
+            .andExpect(header().string(SearchAfterPaginationUtil.TOTAL_COUNT_RELATION_HEADER, "gte"))
+            .andExpect(header().string("Link", containsString("rel=\"next\"")))
+            .andExpect(jsonPath("$.[*].id").value(hasItem(room.getId().intValue())))
+            .andReturn();
+        String cursor = first.getResponse().getHeader(KeysetPaginationUtil.NEXT_CURSOR_HEADER);
+
+        // Search the page after it
+        restRoomMockMvc
+            .perform(get(ENTITY_SEARCH_API_URL + "?query=capacity:" + DEFAULT_CAPACITY + "&sort=room_number,asc&size=1&after=" + cursor))
+            .andExpect(status().isOk())
+            .andExpect(header().string(SearchAfterPaginationUtil.TOTAL_COUNT_RELATION_HEADER, "eq"))
+            .andExpect(header().doesNotExist(KeysetPaginationUtil.NEXT_CURSOR_HEADER))
+            .andExpect(header().doesNotExist("Link"))
+            .andExpect(jsonPath("$.[*].id").value(hasItem(other.getId().intValue())));
+
+        // The cursor only applies to the sort it was issued for
+        restRoomMockMvc
+            .perform(get(ENTITY_SEARCH_API_URL + "?query=capacity:" + DEFAULT_CAPACITY + "&sort=capacity,asc&size=1&after=" + cursor))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.message").value("error.invalidcursor"));
+    }
+
+    @Test
+    @Transactional
+    void searchRoomAfterCursorOfTheWrongNumberOfSortValues() throws Exception {
+        // A cursor of the sort requested, holding a sort value more than the room number and the id
+        String cursor = Base64
+            .getUrlEncoder()
+            .withoutPadding()
+            .encodeToString(("{\"sort\":\"" + Sort.by("room_number") + "\",\"after\":[1,2,3]}").getBytes(StandardCharsets.UTF_8));
+
+        restRoomMockMvc
+            .perform(get(ENTITY_SEARCH_API_URL + "?query=capacity:" + DEFAULT_CAPACITY + "&sort=room_number,asc&size=1&after=" + cursor))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.message").value("error.invalidcursor"));
+
+        verifyNoInteractions(mockRoomSearchRepository);
     }
 }
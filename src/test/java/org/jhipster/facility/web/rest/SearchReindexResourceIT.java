@@ -0,0 +1,297 @@
+package org.jhipster.facility.web.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.startsWith;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import javax.persistence.EntityManager;
+import org.jhipster.facility.IntegrationTest;
+import org.jhipster.facility.config.ApplicationProperties;
+import org.jhipster.facility.domain.Facility;
+import org.jhipster.facility.domain.ReindexJob;
+import org.jhipster.facility.domain.ReindexPartition;
+import org.jhipster.facility.domain.enumeration.SearchDocumentType;
+import org.jhipster.facility.repository.FacilityRepository;
+import org.jhipster.facility.repository.ReindexJobRepository;
+import org.jhipster.facility.repository.ReindexPartitionRepository;
+import org.jhipster.facility.repository.search.SearchIndexOperations;
+import org.jhipster.facility.security.AuthoritiesConstants;
+import org.jhipster.facility.service.dto.ReindexJobDTO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.stubbing.Answer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Integration tests for the {@link SearchReindexResource} REST controller.
+ * <p>
+ * The jobs run on other threads, so the facilities are committed before each test and deleted after it. The index
+ * operations are mocked in the org.jhipster.facility.repository.search test package.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc
+@WithMockUser(authorities = AuthoritiesConstants.ADMIN)
+class SearchReindexResourceIT {
+
+    private static final int FACILITIES = 5;
+
+    private static final long PARTITION_SIZE = 2;
+
+    private static final long TIMEOUT_MILLIS = 10000;
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private FacilityRepository facilityRepository;
+
+    @Autowired
+    private ReindexJobRepository reindexJobRepository;
+
+    @Autowired
+    private ReindexPartitionRepository reindexPartitionRepository;
+
+    @Autowired
+    private SearchIndexOperations mockSearchIndexOperations;
+
+    @Autowired
+    private ApplicationProperties applicationProperties;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MockMvc restMockMvc;
+
+    private TransactionTemplate transactionTemplate;
+
+    private final List<Facility> facilities = new ArrayList<>();
+
+    @BeforeEach
+    void initTest() {
+        applicationProperties.getReindex().setPartitionSize(PARTITION_SIZE);
+        // One document per bulk request
+        applicationProperties.getReindex().setBulkBytes(1);
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.executeWithoutResult(status -> {
+            for (int i = 0; i < FACILITIES; i++) {
+                Facility facility = new Facility().facility_name("Reindex facility " + i);
+                em.persist(facility);
+                facilities.add(facility);
+            }
+        });
+    }
+
+    @AfterEach
+    void cleanUp() {
+        ApplicationProperties.Reindex defaults = new ApplicationProperties().getReindex();
+        applicationProperties.getReindex().setPartitionSize(defaults.getPartitionSize());
+        applicationProperties.getReindex().setBulkBytes(defaults.getBulkBytes());
+        transactionTemplate.executeWithoutResult(status -> {
+            reindexPartitionRepository.deleteAllInBatch();
+            reindexJobRepository.deleteAllInBatch();
+            facilities.forEach(facility -> em.remove(em.find(Facility.class, facility.getId())));
+        });
+    }
+
+    @Test
+    void reindexWritesEveryFacilityToANewIndexThenSwitchesTheAlias() throws Exception {
+        long facilityCount = facilityRepository.count();
+
+        ReindexJobDTO started = start("facility");
+        ReindexJobDTO job = awaitStopped(started.getId());
+
+        assertThat(started.getEntityType()).isEqualTo(SearchDocumentType.FACILITY);
+        assertThat(started.getIndex()).startsWith("facility-");
+        verify(mockSearchIndexOperations).createIndex(started.getIndex(), Facility.class);
+        List<Map<String, byte[]>> bulks = captureBulks(started.getIndex());
+        assertThat(bulks).allSatisfy(sources -> assertThat(sources).hasSize(1));
+        Map<String, String> documents = merge(bulks);
+        for (Facility facility : facilities) {
+            assertThat(documents.get(facility.getId().toString())).contains("\"facility_name\":\"" + facility.getFacility_name() + "\"");
+        }
+        verify(mockSearchIndexOperations).refresh(started.getIndex());
+        verify(mockSearchIndexOperations).switchAlias("facility", started.getIndex());
+
+        assertThat(job.getFinishedAt()).isNotNull();
+        assertThat(job.getDocuments()).isEqualTo(facilityCount);
+        assertThat(job.getPartitions()).isPositive().isEqualTo(job.getCompletedPartitions());
+        assertThat(job.getLastError()).isNull();
+    }
+
+    @Test
+    void reindexDeletesTheDocumentsOfTheFacilitiesDeletedOnceRead() throws Exception {
+        Facility deleted = transactionTemplate.execute(status -> facilityRepository.save(new Facility().facility_name("Deleted facility")));
+        TransactionTemplate deleter = new TransactionTemplate(transactionManager);
+        deleter.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        // Deleted once read by the worker, and its deletion indexed before its document is created
+        Answer<Void> deleteOnceRead = invocation -> {
+            Map<String, byte[]> sources = invocation.getArgument(1);
+            if (sources.containsKey(deleted.getId().toString())) {
+                deleter.executeWithoutResult(status -> facilityRepository.deleteById(deleted.getId()));
+            }
+            return null;
+        };
+        doAnswer(deleteOnceRead).when(mockSearchIndexOperations).bulkCreate(anyString(), any());
+        long facilityCount = facilityRepository.count() - 1;
+
+        ReindexJobDTO started = start("facility");
+        ReindexJobDTO job = awaitStopped(started.getId());
+
+        assertThat(facilityRepository.existsById(deleted.getId())).isFalse();
+        InOrder inOrder = inOrder(mockSearchIndexOperations);
+        inOrder.verify(mockSearchIndexOperations).bulkDelete(started.getIndex(), Set.of(deleted.getId()));
+        inOrder.verify(mockSearchIndexOperations).switchAlias("facility", started.getIndex());
+        assertThat(job.getFinishedAt()).isNotNull();
+        assertThat(job.getDocuments()).isEqualTo(facilityCount);
+    }
+
+    @Test
+    void reindexResumesTheUnfinishedJobFromItsPendingPartitions() throws Exception {
+        Long first = facilities.get(0).getId();
+        Long second = facilities.get(1).getId();
+        Long last = facilities.get(FACILITIES - 1).getId();
+        ReindexJob unfinished = transactionTemplate.execute(status -> {
+            ReindexJob job = reindexJobRepository.save(
+                new ReindexJob()
+                    .entity_type(SearchDocumentType.FACILITY)
+                    .index_name("facility-unfinished")
+                    .started_at(Instant.now())
+                    .document_count(1L)
+            );
+            reindexPartitionRepository.save(
+                new ReindexPartition().job_id(job.getId()).from_id(first).to_id(second).completed_at(Instant.now()).document_count(1L)
+            );
+            reindexPartitionRepository.save(new ReindexPartition().job_id(job.getId()).from_id(second).to_id(last + 1));
+            return job;
+        });
+
+        ReindexJobDTO started = start("facility");
+        ReindexJobDTO job = awaitStopped(started.getId());
+
+        assertThat(started.getId()).isEqualTo(unfinished.getId());
+        verify(mockSearchIndexOperations, never()).createIndex(anyString(), any());
+        Set<Long> written = merge(captureBulks("facility-unfinished")).keySet().stream().map(Long::valueOf).collect(Collectors.toSet());
+        assertThat(written)
+            .doesNotContain(first)
+            .containsAll(facilities.subList(1, FACILITIES).stream().map(Facility::getId).collect(Collectors.toList()));
+        verify(mockSearchIndexOperations).switchAlias("facility", "facility-unfinished");
+        assertThat(job.getFinishedAt()).isNotNull();
+        assertThat(job.getDocuments()).isEqualTo(1L + written.size());
+        assertThat(job.getCompletedPartitions()).isEqualTo(2);
+    }
+
+    @Test
+    void failedJobIsLeftUnfinishedWithItsErrorAndResumedLater() throws Exception {
+        doThrow(new DataAccessResourceFailureException("Elasticsearch is down"))
+            .when(mockSearchIndexOperations)
+            .bulkCreate(anyString(), any());
+
+        ReindexJobDTO failed = awaitStopped(start("facility").getId());
+
+        assertThat(failed.getFinishedAt()).isNull();
+        assertThat(failed.getLastError()).contains("Elasticsearch is down");
+        assertThat(failed.getCompletedPartitions()).isLessThan(failed.getPartitions());
+        verify(mockSearchIndexOperations, never()).switchAlias(anyString(), anyString());
+
+        doNothing().when(mockSearchIndexOperations).bulkCreate(anyString(), any());
+        ReindexJobDTO resumed = awaitStopped(start("facility").getId());
+
+        assertThat(resumed.getId()).isEqualTo(failed.getId());
+        assertThat(resumed.getFinishedAt()).isNotNull();
+        assertThat(resumed.getLastError()).isNull();
+        assertThat(resumed.getCompletedPartitions()).isEqualTo(resumed.getPartitions());
+        verify(mockSearchIndexOperations).switchAlias("facility", failed.getIndex());
+    }
+
+    @Test
+    void reindexOfAnUnknownIndexIsABadRequest() throws Exception {
+        restMockMvc.perform(post("/api/admin/search/reindex/{index}", "unknown")).andExpect(status().isBadRequest());
+
+        verifyNoInteractions(mockSearchIndexOperations);
+        assertThat(reindexJobRepository.count()).isZero();
+    }
+
+    @Test
+    @WithMockUser
+    void reindexIsForbiddenToUsers() throws Exception {
+        restMockMvc.perform(post("/api/admin/search/reindex/{index}", "facility")).andExpect(status().isForbidden());
+
+        verifyNoInteractions(mockSearchIndexOperations);
+    }
+
+    @Test
+    void getUnknownReindexJob() throws Exception {
+        restMockMvc.perform(get("/api/admin/search/reindex-jobs/{id}", Long.MAX_VALUE)).andExpect(status().isNotFound());
+    }
+
+    private ReindexJobDTO start(String index) throws Exception {
+        String body = restMockMvc
+            .perform(post("/api/admin/search/reindex/{index}", index))
+            .andExpect(status().isAccepted())
+            .andExpect(header().string("Location", startsWith("/api/admin/search/reindex-jobs/")))
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+        return objectMapper.readValue(body, ReindexJobDTO.class);
+    }
+
+    private ReindexJobDTO awaitStopped(Long id) throws Exception {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (true) {
+            String body = restMockMvc
+                .perform(get("/api/admin/search/reindex-jobs/{id}", id))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+            ReindexJobDTO job = objectMapper.readValue(body, ReindexJobDTO.class);
+            if (!job.isRunning()) {
+                return job;
+            }
+            assertThat(System.currentTimeMillis()).as("reindex job %s still running", id).isLessThan(deadline);
+            Thread.sleep(20);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Map<String, byte[]>> captureBulks(String index) {
+        ArgumentCaptor<Map<String, byte[]>> sources = ArgumentCaptor.forClass(Map.class);
+        verify(mockSearchIndexOperations, atLeastOnce()).bulkCreate(eq(index), sources.capture());
+        return sources.getAllValues();
+    }
+
+    private static Map<String, String> merge(List<Map<String, byte[]>> bulks) {
+        return bulks
+            .stream()
+            .flatMap(sources -> sources.entrySet().stream())
+            .collect(Collectors.toMap(Map.Entry::getKey, entry -> new String(entry.getValue(), StandardCharsets.UTF_8)));
+    }
+}
@@ -0,0 +1,52 @@
+package org.jhipster.facility.web.rest;
+
+import javax.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+
+/**
+ * Counts the SQL statements prepared by Hibernate while it is open, through the statistics of the session factory,
+ * which it enables meanwhile.
+ * <pre>
+ * try (StatementCounter statements = StatementCounter.start(entityManagerFactory)) {
+ *     restMockMvc.perform(get("/api/rooms"));
+ *     assertThat(statements.count()).isLessThanOrEqualTo(2);
+ * }
+ * </pre>
+ */
+public final class StatementCounter implements AutoCloseable {
+
+    private final Statistics statistics;
+
+    private final boolean statisticsEnabled;
+
+    private StatementCounter(Statistics statistics) {
+        this.statistics = statistics;
+        this.statisticsEnabled = statistics.isStatisticsEnabled();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+    }
+
+    public static StatementCounter start(EntityManagerFactory entityManagerFactory) {
+        return new StatementCounter(entityManagerFactory.unwrap(SessionFactory.class).getStatistics());
+    }
+
+    /**
+     * @return the number of statements prepared since the counter started or was last reset.
+     */
+    public long count() {
+        return statistics.getPrepareStatementCount();
+    }
+
+    /**
+     * Count from zero again.
+     */
+    public void reset() {
+        statistics.clear();
+    }
+
+    @Override
+    public void close() {
+        statistics.setStatisticsEnabled(statisticsEnabled);
+    }
+}
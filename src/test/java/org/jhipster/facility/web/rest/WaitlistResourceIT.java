@@ -0,0 +1,190 @@
+package org.jhipster.facility.web.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import java.util.List;
+import javax.persistence.EntityManager;
+import org.jhipster.facility.IntegrationTest;
+import org.jhipster.facility.domain.Facility;
+import org.jhipster.facility.domain.Resident;
+import org.jhipster.facility.domain.Room;
+import org.jhipster.facility.domain.WaitlistEntry;
+import org.jhipster.facility.repository.ResidentRepository;
+import org.jhipster.facility.repository.RoomRepository;
+import org.jhipster.facility.repository.WaitlistEntryRepository;
+import org.jhipster.facility.service.dto.ResidentMoveDTO;
+import org.jhipster.facility.service.dto.ResidentTransferRequestDTO;
+import org.jhipster.facility.service.waitlist.WaitlistService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Integration tests for the {@link WaitlistResource} REST controller and the placement of waitlisted residents.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc
+@WithMockUser
+class WaitlistResourceIT {
+
+    private static final String ENTITY_API_URL = "/api/facilities/{id}/waitlist";
+    private static final String ENTITY_API_URL_ID = "/api/waitlist/{id}";
+
+    @Autowired
+    private WaitlistEntryRepository waitlistEntryRepository;
+
+    @Autowired
+    private ResidentRepository residentRepository;
+
+    @Autowired
+    private RoomRepository roomRepository;
+
+    @Autowired
+    private WaitlistService waitlistService;
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private MockMvc restWaitlistMockMvc;
+
+    private Facility facility;
+
+    private Room fullRoom;
+
+    private Room emptyRoom;
+
+    private Resident resident;
+
+    private WaitlistEntry early;
+
+    private WaitlistEntry urgent;
+
+    private WaitlistEntry lateUrgent;
+
+    @BeforeEach
+    public void initTest() {
+        facility = new Facility().facility_name("Waitlist facility");
+        em.persist(facility);
+        fullRoom = new Room().room_number(1).facility(facility);
+        emptyRoom = new Room().room_number(2).facility(facility);
+        em.persist(fullRoom);
+        em.persist(emptyRoom);
+        resident = new Resident().name("Leaving").phone_number(100).room(fullRoom);
+        em.persist(resident);
+        early = new WaitlistEntry().name("Early").phone_number(201).priority(0).facility(facility);
+        urgent = new WaitlistEntry().name("Urgent").phone_number(202).priority(5).facility(facility);
+        lateUrgent = new WaitlistEntry().name("Late urgent").phone_number(203).priority(5).facility(facility);
+        em.persist(early);
+        em.persist(urgent);
+        em.persist(lateUrgent);
+        em.flush();
+        roomRepository.incrementOccupantCount(fullRoom.getId(), 1);
+        em.clear();
+        // Entries persisted here are never committed, so the heaps must be loaded from the test transaction.
+        waitlistService.rebuild();
+    }
+
+    @Test
+    @Transactional
+    void createWaitlistEntry() throws Exception {
+        int databaseSizeBeforeCreate = waitlistEntryRepository.findAll().size();
+        WaitlistEntry entry = new WaitlistEntry().name("Newcomer").phone_number(204).priority(1);
+
+        restWaitlistMockMvc
+            .perform(
+                post(ENTITY_API_URL, facility.getId())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(entry))
+            )
+            .andExpect(status().isCreated())
+            .andExpect(jsonPath("$.priority").value(1))
+            .andExpect(jsonPath("$.requested_at").isNotEmpty());
+
+        assertThat(waitlistEntryRepository.findAll()).hasSize(databaseSizeBeforeCreate + 1);
+    }
+
+    @Test
+    @Transactional
+    void createWaitlistEntryForUnknownFacility() throws Exception {
+        WaitlistEntry entry = new WaitlistEntry().name("Lost").phone_number(205);
+
+        restWaitlistMockMvc
+            .perform(
+                post(ENTITY_API_URL, Long.MAX_VALUE)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(entry))
+            )
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @Transactional
+    void getWaitlistInServingOrder() throws Exception {
+        restWaitlistMockMvc
+            .perform(get(ENTITY_API_URL, facility.getId()))
+            .andExpect(status().isOk())
+            .andExpect(header().string("X-Total-Count", "3"))
+            .andExpect(jsonPath("$.[*].name", contains("Urgent", "Late urgent", "Early")));
+    }
+
+    @Test
+    @Transactional
+    void deleteWaitlistEntry() throws Exception {
+        restWaitlistMockMvc.perform(delete(ENTITY_API_URL_ID, urgent.getId())).andExpect(status().isNoContent());
+
+        assertThat(waitlistEntryRepository.findById(urgent.getId())).isEmpty();
+    }
+
+    @Test
+    @Transactional
+    void deleteResidentAdmitsHeadOfWaitlist() throws Exception {
+        restWaitlistMockMvc.perform(delete("/api/residents/{id}", resident.getId())).andExpect(status().isNoContent());
+
+        assertThat(residentRepository.findWithRoomId(Pageable.unpaged(), fullRoom.getId()).getContent())
+            .extracting(Resident::getName)
+            .containsExactly("Urgent");
+        assertThat(waitlistEntryRepository.findAll()).extracting(WaitlistEntry::getName).containsExactlyInAnyOrder("Early", "Late urgent");
+        assertThat(roomRepository.findById(fullRoom.getId()).get().getOccupant_count()).isEqualTo(1);
+        assertThat(waitlistService.size(facility.getId())).isEqualTo(2);
+    }
+
+    @Test
+    @Transactional
+    void transferAdmitsHeadOfWaitlistIntoVacatedRoom() throws Exception {
+        ResidentTransferRequestDTO request = new ResidentTransferRequestDTO();
+        request.setMoves(List.of(new ResidentMoveDTO(resident.getId(), emptyRoom.getId())));
+
+        restWaitlistMockMvc
+            .perform(
+                post("/api/residents:transfer").contentType(MediaType.APPLICATION_JSON).content(TestUtil.convertObjectToJsonBytes(request))
+            )
+            .andExpect(status().isOk());
+
+        assertThat(residentRepository.findWithRoomId(Pageable.unpaged(), fullRoom.getId()).getContent())
+            .extracting(Resident::getName)
+            .containsExactly("Urgent");
+        assertThat(residentRepository.findWithRoomId(Pageable.unpaged(), emptyRoom.getId()).getContent())
+            .extracting(Resident::getName)
+            .containsExactly("Leaving");
+    }
+
+    @Test
+    @Transactional
+    void roomFreedSkipsEntriesAlreadyServedElsewhere() {
+        waitlistEntryRepository.deleteQueuedById(urgent.getId());
+        roomRepository.decrementOccupantCount(fullRoom.getId(), 1);
+
+        assertThat(waitlistService.roomFreed(fullRoom.getId())).extracting(Resident::getName).containsExactly("Late urgent");
+        assertThat(waitlistService.roomFreed(fullRoom.getId())).isEmpty();
+    }
+}